@@ -77,6 +77,12 @@ class DocumentArchiveEntry implements IDocumentAttachmentEntry
 		return archiveBL.getBinaryData(archive);
 	}
 
+	@Override
+	public String getDataVersion()
+	{
+		return String.valueOf(archive.getUpdated().getTime());
+	}
+
 	@Override
 	public String getContentType()
 	{
@@ -2,7 +2,9 @@ package de.metas.ui.web.attachments;
 
 import java.net.URI;
 
+import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.util.Services;
+import org.compiere.model.I_AD_AttachmentEntry;
 
 import de.metas.attachments.AttachmentEntry;
 import de.metas.attachments.AttachmentEntryType;
@@ -79,6 +81,13 @@ class DocumentAttachmentEntry implements IDocumentAttachmentEntry
 		return Services.get(IAttachmentDAO.class).retrieveData(entry);
 	}
 
+	@Override
+	public String getDataVersion()
+	{
+		final I_AD_AttachmentEntry record = InterfaceWrapperHelper.loadOutOfTrx(entry.getId(), I_AD_AttachmentEntry.class);
+		return String.valueOf(record.getUpdated().getTime());
+	}
+
 	@Override
 	public String getContentType()
 	{
@@ -1,5 +1,6 @@
 package de.metas.ui.web.attachments;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.util.List;
@@ -80,18 +81,21 @@ final class DocumentAttachments
 	private final ITableRecordReference recordRef;
 	private final DocumentEntityDescriptor entityDescriptor;
 	private final DocumentWebsocketPublisher websocketPublisher;
+	private final DocumentAttachmentsSpool spool;
 
 	@Builder
 	private DocumentAttachments(
 			@NonNull final DocumentPath documentPath,
 			@NonNull final ITableRecordReference recordRef,
 			@NonNull final DocumentEntityDescriptor entityDescriptor,
-			@NonNull final DocumentWebsocketPublisher websocketPublisher)
+			@NonNull final DocumentWebsocketPublisher websocketPublisher,
+			@NonNull final DocumentAttachmentsSpool spool)
 	{
 		this.documentPath = documentPath;
 		this.recordRef = recordRef;
 		this.entityDescriptor = entityDescriptor;
 		this.websocketPublisher = websocketPublisher;
+		this.spool = spool;
 	}
 
 	@Override
@@ -121,6 +125,9 @@ final class DocumentAttachments
 	{
 		Check.assumeNotNull(file, "Parameter file is not null");
 		final String name = file.getOriginalFilename();
+
+		// NOTE: the multipart file was already streamed to disk by the servlet container (see spring.http.multipart.file-size-threshold).
+		// The attachments backend accepts only byte arrays, so this is the one and only in-memory copy of the uploaded data.
 		final byte[] data = file.getBytes();
 
 		attachmentsBL.addEntry(recordRef, name, data);
@@ -165,8 +172,18 @@ final class DocumentAttachments
 		}
 	}
 
+	/**
+	 * @return file from which the entry's data can be streamed or <code>null</code> if the entry has no data
+	 */
+	public File getEntryDataFile(@NonNull final IDocumentAttachmentEntry entry)
+	{
+		return spool.getSpoolFile(recordRef, entry.getId(), entry.getDataVersion(), entry::getData);
+	}
+
 	public void deleteEntry(final DocumentId id)
 	{
+		spool.removeSpoolFile(recordRef, id);
+
 		final IPair<String, Integer> prefixAndId = toPrefixAndEntryId(id);
 		final String idPrefix = prefixAndId.getLeft();
 		final int entryId = prefixAndId.getRight();
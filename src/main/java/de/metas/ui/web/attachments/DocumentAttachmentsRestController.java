@@ -1,11 +1,14 @@
 package de.metas.ui.web.attachments;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -67,6 +70,8 @@ public class DocumentAttachmentsRestController
 	private DocumentDescriptorFactory documentDescriptorFactory;
 	@Autowired
 	private DocumentWebsocketPublisher websocketPublisher;
+	@Autowired
+	private DocumentAttachmentsSpool spool;
 
 	private DocumentAttachments getDocumentAttachments(final String windowIdStr, final String documentId)
 	{
@@ -78,6 +83,7 @@ public class DocumentAttachmentsRestController
 				.recordRef(recordRef)
 				.entityDescriptor(documentDescriptorFactory.getDocumentEntityDescriptor(documentPath))
 				.websocketPublisher(websocketPublisher)
+				.spool(spool)
 				.build();
 	}
 
@@ -121,8 +127,13 @@ public class DocumentAttachmentsRestController
 				.toJson();
 	}
 
+	/**
+	 * Streams the attachment entry's data.
+	 * <p>
+	 * NOTE: because the response body is a file based {@link Resource}, Spring also supports HTTP range requests (i.e. <code>Range</code> header).
+	 */
 	@GetMapping("/{id}")
-	public ResponseEntity<byte[]> getAttachmentById(
+	public ResponseEntity<Resource> getAttachmentById(
 			@PathVariable("windowId") final String windowIdStr //
 			, @PathVariable("documentId") final String documentId //
 			, @PathVariable("id") final String entryIdStr)
@@ -130,13 +141,13 @@ public class DocumentAttachmentsRestController
 		userSession.assertLoggedIn();
 
 		final DocumentId entryId = DocumentId.of(entryIdStr);
-		final IDocumentAttachmentEntry entry = getDocumentAttachments(windowIdStr, documentId)
-				.getEntry(entryId);
+		final DocumentAttachments documentAttachments = getDocumentAttachments(windowIdStr, documentId);
+		final IDocumentAttachmentEntry entry = documentAttachments.getEntry(entryId);
 
 		final AttachmentEntryType type = entry.getType();
 		if (type == AttachmentEntryType.Data)
 		{
-			return extractResponseEntryFromData(entry);
+			return extractResponseEntryFromData(entry, documentAttachments.getEntryDataFile(entry));
 		}
 		else if (type == AttachmentEntryType.URL)
 		{
@@ -151,11 +162,10 @@ public class DocumentAttachmentsRestController
 		}
 	}
 
-	private static ResponseEntity<byte[]> extractResponseEntryFromData(@NonNull final IDocumentAttachmentEntry entry)
+	private static ResponseEntity<Resource> extractResponseEntryFromData(@NonNull final IDocumentAttachmentEntry entry, final File entryDataFile)
 	{
 		final String entryFilename = entry.getFilename();
-		final byte[] entryData = entry.getData();
-		if (entryData == null || entryData.length == 0)
+		if (entryDataFile == null)
 		{
 			throw new EntityNotFoundException("No attachment found")
 					.setParameter("entry", entry)
@@ -168,15 +178,15 @@ public class DocumentAttachmentsRestController
 		headers.setContentType(MediaType.parseMediaType(entryContentType));
 		headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + entryFilename + "\"");
 		headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-		final ResponseEntity<byte[]> response = new ResponseEntity<>(entryData, headers, HttpStatus.OK);
+		final ResponseEntity<Resource> response = new ResponseEntity<>(new FileSystemResource(entryDataFile), headers, HttpStatus.OK);
 		return response;
 	}
 
-	private static ResponseEntity<byte[]> extractResponseEntryFromURL(@NonNull final IDocumentAttachmentEntry entry)
+	private static ResponseEntity<Resource> extractResponseEntryFromURL(@NonNull final IDocumentAttachmentEntry entry)
 	{
 		final HttpHeaders headers = new HttpHeaders();
 		headers.setLocation(entry.getUrl()); // forward to attachment entry's URL
-		final ResponseEntity<byte[]> response = new ResponseEntity<>(new byte[] {}, headers, HttpStatus.FOUND);
+		final ResponseEntity<Resource> response = new ResponseEntity<>(headers, HttpStatus.FOUND);
 		return response;
 	}
 
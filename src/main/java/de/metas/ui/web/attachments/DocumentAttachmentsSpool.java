@@ -0,0 +1,290 @@
+package de.metas.ui.web.attachments;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.util.lang.ITableRecordReference;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.FileSystemUtils;
+
+import com.google.common.util.concurrent.Striped;
+
+import de.metas.logging.LogManager;
+import de.metas.printing.esb.base.util.Check;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Local disk spool for attachment entries' data.
+ * <p>
+ * The attachments backend provides the data as byte arrays. We fetch an entry's data only once, write it to the spool and then serve it from there,
+ * so the downloads (including the HTTP range requests) are streamed from disk and we don't keep a full copy in memory for each concurrent download.
+ * <p>
+ * The spool directory is readable by the server's OS user only. If it's not configured, a fresh temporary directory is used and deleted on shutdown.
+ */
+@Component
+public class DocumentAttachmentsSpool implements InitializingBean
+{
+	private static final transient Logger logger = LogManager.getLogger(DocumentAttachmentsSpool.class);
+
+	private static final String PROPERTY_SpoolDir = "metasfresh.webui.attachments.spoolDir";
+	@Value("${metasfresh.webui.attachments.spoolDir:}")
+	private String spoolFilePath;
+
+	@Value("${metasfresh.webui.attachments.spoolMaxAgeHours:24}")
+	private int spoolMaxAgeHours;
+
+	private File spoolDir; // lazy
+	private boolean deleteSpoolDirOnShutdown;
+
+	/** Makes sure the data of a given entry is fetched only once, even if it's requested concurrently */
+	private final Striped<Lock> locks = Striped.lazyWeakLock(64);
+
+	private static final long PURGE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+	private volatile long lastPurgeTimeMillis = 0;
+
+	@Override
+	public void afterPropertiesSet() throws Exception
+	{
+		deleteSpoolDirOnShutdown = Check.isEmpty(spoolFilePath, true);
+		spoolDir = checkCreateSpoolDir(spoolFilePath);
+		logger.info("Attachments spool directory: {}", spoolDir);
+	}
+
+	@PreDestroy
+	private void preDestroy()
+	{
+		if (deleteSpoolDirOnShutdown && spoolDir != null)
+		{
+			FileSystemUtils.deleteRecursively(spoolDir);
+		}
+	}
+
+	private static File checkCreateSpoolDir(final String spoolFilePath)
+	{
+		try
+		{
+			final Path spoolDir;
+			if (Check.isEmpty(spoolFilePath, true))
+			{
+				logger.info("Using a temporary attachments spool directory. To configure it, please set '{}' property.", PROPERTY_SpoolDir);
+
+				// NOTE: a new directory (instead of a well known one), so nobody else could have created it before us
+				spoolDir = Files.createTempDirectory("metasfresh-webui-attachments_spool");
+			}
+			else
+			{
+				spoolDir = Files.createDirectories(Paths.get(spoolFilePath));
+			}
+
+			restrictToOwner(spoolDir);
+			return spoolDir.toFile();
+		}
+		catch (final IOException ex)
+		{
+			throw new AdempiereException("Cannot create attachments spool directory", ex)
+					.setParameter("spoolFilePath", spoolFilePath);
+		}
+	}
+
+	private static void restrictToOwner(final Path dir) throws IOException
+	{
+		if (!Files.getFileStore(dir).supportsFileAttributeView(PosixFileAttributeView.class))
+		{
+			logger.warn("Cannot restrict the permissions of {} to its owner because the file system does not support POSIX permissions", dir);
+			return;
+		}
+
+		Files.setPosixFilePermissions(dir, PosixFilePermissions.fromString("rwx------"));
+	}
+
+	private static String getSpoolFileNamePrefix(@NonNull final ITableRecordReference recordRef, @NonNull final DocumentId entryId)
+	{
+		final String entryIdStr = entryId.toJson();
+		if (entryIdStr.contains("/") || entryIdStr.contains("\\"))
+		{
+			throw new IllegalArgumentException("Invalid entryId: " + entryIdStr);
+		}
+
+		return recordRef.getTableName() + "_" + recordRef.getRecord_ID() + "_" + entryIdStr + "_";
+	}
+
+	private File getSpoolFile(@NonNull final ITableRecordReference recordRef, @NonNull final DocumentId entryId, @NonNull final String dataVersion)
+	{
+		if (dataVersion.contains("/") || dataVersion.contains("\\"))
+		{
+			throw new IllegalArgumentException("Invalid dataVersion: " + dataVersion);
+		}
+
+		return new File(spoolDir, getSpoolFileNamePrefix(recordRef, entryId) + dataVersion);
+	}
+
+	/**
+	 * @param dataVersion version of entry's data (e.g. its last update timestamp), so a changed entry is not served from an old spool file
+	 * @return spool file containing the entry's data; if the entry is not already spooled, the data is fetched using given supplier.
+	 *         The returned file shall be considered read-only.
+	 */
+	public File getSpoolFile(
+			@NonNull final ITableRecordReference recordRef,
+			@NonNull final DocumentId entryId,
+			@NonNull final String dataVersion,
+			@NonNull final Supplier<byte[]> dataSupplier)
+	{
+		purgeExpiredFilesIfNeeded();
+
+		final File spoolFile = getSpoolFile(recordRef, entryId, dataVersion);
+
+		final Lock lock = locks.get(spoolFile.getName());
+		lock.lock();
+		try
+		{
+			if (spoolFile.exists())
+			{
+				// Mark it as recently used, so it's not purged while it's streamed
+				spoolFile.setLastModified(System.currentTimeMillis());
+				return spoolFile;
+			}
+
+			final byte[] data = dataSupplier.get();
+			if (data == null || data.length == 0)
+			{
+				return null;
+			}
+
+			final File tmpFile = new File(spoolDir, spoolFile.getName() + ".tmp");
+			try
+			{
+				FileCopyUtils.copy(data, tmpFile);
+				Files.move(tmpFile.toPath(), spoolFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			finally
+			{
+				deleteFile(tmpFile);
+			}
+			logger.debug("Spooled {} bytes to {}", data.length, spoolFile);
+
+			return spoolFile;
+		}
+		catch (final IOException ex)
+		{
+			throw new AdempiereException("Failed spooling attachment entry", ex)
+					.setParameter("recordRef", recordRef)
+					.setParameter("entryId", entryId)
+					.setParameter("spoolFile", spoolFile);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the spool files of all versions of given entry.
+	 */
+	public void removeSpoolFile(@NonNull final ITableRecordReference recordRef, @NonNull final DocumentId entryId)
+	{
+		final String spoolFileNamePrefix = getSpoolFileNamePrefix(recordRef, entryId);
+		final File[] spoolFiles = spoolDir.listFiles(file -> file.isFile() && file.getName().startsWith(spoolFileNamePrefix));
+		if (spoolFiles == null)
+		{
+			return;
+		}
+
+		for (final File spoolFile : spoolFiles)
+		{
+			deleteFile(spoolFile);
+		}
+	}
+
+	private void purgeExpiredFilesIfNeeded()
+	{
+		final long now = System.currentTimeMillis();
+		if (now - lastPurgeTimeMillis < PURGE_INTERVAL_MILLIS)
+		{
+			return;
+		}
+		lastPurgeTimeMillis = now;
+
+		final long expireBeforeMillis = now - TimeUnit.HOURS.toMillis(spoolMaxAgeHours);
+		final File[] expiredFiles = spoolDir.listFiles(file -> file.isFile() && file.lastModified() < expireBeforeMillis);
+		if (expiredFiles == null)
+		{
+			return;
+		}
+
+		for (final File expiredFile : expiredFiles)
+		{
+			// NOTE: a file which is served is marked as recently used while holding the lock,
+			// so we check its age again while holding the lock, to not delete it while it's streamed.
+			final Lock lock = locks.get(expiredFile.getName());
+			lock.lock();
+			try
+			{
+				if (expiredFile.lastModified() < expireBeforeMillis)
+				{
+					deleteFile(expiredFile);
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+	}
+
+	private static void deleteFile(final File file)
+	{
+		if (!file.exists())
+		{
+			return;
+		}
+
+		if (!file.delete())
+		{
+			file.deleteOnExit();
+			logger.warn("Cannot delete spool file {}. Scheduled to be deleted on exit", file);
+		}
+		else
+		{
+			logger.debug("Deleted spool file {}", file);
+		}
+	}
+}
@@ -37,6 +37,9 @@ public interface IDocumentAttachmentEntry
 
 	byte[] getData();
 
+	/** @return version of entry's data, which changes each time the data is changed (e.g. last update timestamp) */
+	String getDataVersion();
+
 	String getContentType();
 	
 	URI getUrl();
@@ -0,0 +1,106 @@
+package de.metas.ui.web.board;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Cards of one board, indexed by cardId.
+ * <p>
+ * The cards are loaded on demand and are invalidated one by one (card moved, document changed),
+ * so a board reload does not have to fetch all cards from database again.
+ */
+final class BoardCardsCache
+{
+	private final int boardId;
+	private final Cache<Integer, BoardCard> cardsById;
+
+	public BoardCardsCache(final int boardId, final int maxSize)
+	{
+		this.boardId = boardId;
+		cardsById = CacheBuilder.newBuilder()
+				.maximumSize(maxSize)
+				.build();
+	}
+
+	@Override
+	public String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.add("boardId", boardId)
+				.add("size", cardsById.size())
+				.toString();
+	}
+
+	/**
+	 * @param loader loads the cards which are not cached yet
+	 * @return cards, in the same order as given <code>cardIds</code>; cards which could not be loaded are skipped
+	 */
+	public List<BoardCard> getCards(@NonNull final List<Integer> cardIds, @NonNull final Function<Set<Integer>, Collection<BoardCard>> loader)
+	{
+		final Set<Integer> cardIdsToLoad = cardIds.stream()
+				.filter(cardId -> cardsById.getIfPresent(cardId) == null)
+				.collect(ImmutableSet.toImmutableSet());
+		if (!cardIdsToLoad.isEmpty())
+		{
+			loader.apply(cardIdsToLoad).forEach(this::put);
+		}
+
+		return cardIds.stream()
+				.map(cardsById::getIfPresent)
+				.filter(Objects::nonNull)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	public void put(@NonNull final BoardCard card)
+	{
+		cardsById.put(card.getCardId(), card);
+	}
+
+	public boolean isCached(final int cardId)
+	{
+		return cardsById.getIfPresent(cardId) != null;
+	}
+
+	public void invalidate(final int cardId)
+	{
+		cardsById.invalidate(cardId);
+	}
+
+	public void invalidateAll()
+	{
+		cardsById.invalidateAll();
+	}
+}
@@ -11,9 +11,14 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
+import javax.annotation.PostConstruct;
+
 import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.dao.cache.CacheInvalidateMultiRequest;
+import org.adempiere.ad.dao.cache.CacheInvalidateRequest;
 import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
 import org.adempiere.ad.expression.api.IStringExpression;
 import org.adempiere.ad.expression.api.impl.CompositeStringExpression;
@@ -32,18 +37,23 @@ import org.adempiere.util.Services;
 import org.adempiere.util.collections.ListUtils;
 import org.compiere.model.I_AD_User;
 import org.compiere.util.CCache;
+import org.compiere.util.CacheMgt;
 import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
 import org.compiere.util.Env;
 import org.compiere.util.Evaluatees;
+import org.compiere.util.ICacheResetListener;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 
 import de.metas.currency.Amount;
 import de.metas.currency.ICurrencyDAO;
@@ -60,6 +70,7 @@ import de.metas.ui.web.base.model.I_WEBUI_Board_Lane;
 import de.metas.ui.web.base.model.I_WEBUI_Board_RecordAssignment;
 import de.metas.ui.web.board.BoardCardFieldDescriptor.BoardFieldLoader;
 import de.metas.ui.web.board.BoardDescriptor.BoardDescriptorBuilder;
+import de.metas.ui.web.board.json.events.JSONBoardCardChangedEvent;
 import de.metas.ui.web.board.json.events.JSONBoardChangedEventsList;
 import de.metas.ui.web.board.json.events.JSONBoardChangedEventsList.JSONBoardChangedEventsListBuilder;
 import de.metas.ui.web.board.json.events.JSONBoardLaneChangedEvent;
@@ -126,6 +137,85 @@ public class BoardDescriptorRepository
 			.addResetForTableName(I_WEBUI_Board_Lane.Table_Name)
 			.addResetForTableName(I_WEBUI_Board_CardField.Table_Name);
 
+	/** Max number of cached cards, per board */
+	@Value("${metasfresh.webui.board.cardsCacheMaxSize:10000}")
+	private int cardsCacheMaxSize;
+
+	private final ConcurrentHashMap<Integer, BoardCardsCache> cardsCacheByBoardId = new ConcurrentHashMap<>();
+
+	/** NOTE: we keep a reference to our listener, to make sure it's not garbage collected */
+	private final ICacheResetListener cardsCacheResetListener = this::onCacheReset;
+
+	@PostConstruct
+	private void postConstruct()
+	{
+		CacheMgt.get().addCacheResetListener(cardsCacheResetListener);
+	}
+
+	private BoardCardsCache getCardsCache(final int boardId)
+	{
+		return cardsCacheByBoardId.computeIfAbsent(boardId, id -> new BoardCardsCache(id, cardsCacheMaxSize));
+	}
+
+	/**
+	 * Invalidates the cached cards whose documents were changed and notifies the frontend about each changed card,
+	 * so it does not have to reload the whole board.
+	 */
+	private int onCacheReset(final CacheInvalidateMultiRequest multiRequest)
+	{
+		if (cardsCacheByBoardId.isEmpty())
+		{
+			return 0;
+		}
+
+		int countInvalidated = 0;
+		for (final CacheInvalidateRequest request : multiRequest.getRequests())
+		{
+			if (request.isAll())
+			{
+				final String tableName = request.getTableNameEffective();
+				final boolean invalidateAllBoards = tableName == null
+						|| I_WEBUI_Board.Table_Name.equals(tableName)
+						|| I_WEBUI_Board_CardField.Table_Name.equals(tableName)
+						|| I_AD_User.Table_Name.equals(tableName);
+				for (final Map.Entry<Integer, BoardCardsCache> boardIdAndCardsCache : cardsCacheByBoardId.entrySet())
+				{
+					if (invalidateAllBoards || tableName.equals(getBoardDescriptor(boardIdAndCardsCache.getKey()).getTableName()))
+					{
+						boardIdAndCardsCache.getValue().invalidateAll();
+						countInvalidated++;
+					}
+				}
+			}
+			else
+			{
+				final String rootTableName = request.getRootTableName();
+				final int cardId = request.getRootRecordId();
+				if (rootTableName == null || cardId < 0)
+				{
+					continue;
+				}
+
+				for (final Map.Entry<Integer, BoardCardsCache> boardIdAndCardsCache : cardsCacheByBoardId.entrySet())
+				{
+					final int boardId = boardIdAndCardsCache.getKey();
+					final BoardDescriptor board = getBoardDescriptor(boardId);
+					final BoardCardsCache cardsCache = boardIdAndCardsCache.getValue();
+					if (rootTableName.equals(board.getTableName()) && cardsCache.isCached(cardId))
+					{
+						cardsCache.invalidate(cardId);
+						sendEvents(board, JSONBoardChangedEventsList.builder()
+								.event(JSONBoardCardChangedEvent.of(boardId, cardId))
+								.build());
+						countInvalidated++;
+					}
+				}
+			}
+		}
+
+		return countInvalidated;
+	}
+
 	private void sendEvents(final BoardDescriptor board, final JSONBoardChangedEventsList events)
 	{
 		if (events.isEmpty())
@@ -327,26 +417,73 @@ public class BoardDescriptorRepository
 	public List<BoardCard> getCards(final int boardId)
 	{
 		final Set<Integer> onlyCardIds = ImmutableSet.of();
-		return retrieveCards(boardId, onlyCardIds);
+		final List<BoardCard> cards = retrieveCards(boardId, onlyCardIds);
+
+		final BoardCardsCache cardsCache = getCardsCache(boardId);
+		cards.forEach(cardsCache::put);
+
+		return cards;
 	}
 
 	public BoardCard getCard(final int boardId, final int cardId)
 	{
 		Preconditions.checkArgument(cardId >= 0, "cardId >= 0"); // zero is OK because we might have recordId=0
-		final Set<Integer> onlyCardIds = ImmutableSet.of(cardId);
-
-		return ListUtils.singleElement(retrieveCards(boardId, onlyCardIds));
+		return ListUtils.singleElement(getCards(boardId, ImmutableList.of(cardId)));
 	}
 
+	/**
+	 * @return cards (from cache if possible), in the same order as given <code>cardIds</code>
+	 */
 	public List<BoardCard> getCards(final int boardId, final Collection<Integer> cardIds)
 	{
 		Preconditions.checkArgument(!cardIds.isEmpty(), "cardIds shall not be empty");
-		return retrieveCards(boardId, cardIds);
+		return getCardsCache(boardId).getCards(ImmutableList.copyOf(cardIds), cardIdsToLoad -> retrieveCards(boardId, cardIdsToLoad));
+	}
+
+	/**
+	 * @return cardIds of given lane, in the order they are displayed
+	 */
+	public List<Integer> getLaneCardIds(final int boardId, final int laneId)
+	{
+		getBoardDescriptor(boardId).assertLaneIdExists(laneId);
+		return ImmutableList.copyOf(retrieveCardIdsOrdered(boardId, laneId).getCardIds());
+	}
+
+	/**
+	 * @return cardIds of all lanes, in the order they are displayed, indexed by laneId
+	 */
+	public ListMultimap<Integer, Integer> getCardIdsByLaneId(final int boardId)
+	{
+		final ImmutableListMultimap.Builder<Integer, Integer> cardIdsByLaneId = ImmutableListMultimap.builder();
+		Services.get(IQueryBL.class)
+				.createQueryBuilder(I_WEBUI_Board_RecordAssignment.class)
+				.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_ID, boardId)
+				.orderBy()
+				.addColumn(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_Lane_ID)
+				.addColumn(I_WEBUI_Board_RecordAssignment.COLUMN_SeqNo)
+				.addColumn(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_RecordAssignment_ID)
+				.endOrderBy()
+				.create()
+				.stream(I_WEBUI_Board_RecordAssignment.class)
+				.forEach(assignment -> cardIdsByLaneId.put(assignment.getWEBUI_Board_Lane_ID(), assignment.getRecord_ID()));
+		return cardIdsByLaneId.build();
 	}
 
 	private int getLaneIdForCardId(final int boardId, final int cardId)
 	{
-		return getCard(boardId, cardId).getLaneId();
+		final I_WEBUI_Board_RecordAssignment assignment = Services.get(IQueryBL.class)
+				.createQueryBuilder(I_WEBUI_Board_RecordAssignment.class)
+				.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_ID, boardId)
+				.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_Record_ID, cardId)
+				.create()
+				.firstOnly(I_WEBUI_Board_RecordAssignment.class);
+		if (assignment == null)
+		{
+			throw new AdempiereException("Card it's not part this Board")
+					.setParameter("boardId", boardId)
+					.setParameter("cardId", cardId);
+		}
+		return assignment.getWEBUI_Board_Lane_ID();
 	}
 
 	private List<BoardCard> retrieveCards(final int boardId, final Collection<Integer> onlyCardIds)
@@ -765,6 +902,7 @@ public class BoardDescriptorRepository
 			eventsCollector.event(JSONBoardLaneChangedEvent.of(boardId, laneId, orderedCardIds.getCardIds()));
 		});
 
+		getCardsCache(boardId).invalidate(cardId);
 		final BoardCard card = getCard(boardId, cardId);
 
 		sendEvents(board, eventsCollector.build());
@@ -794,6 +932,7 @@ public class BoardDescriptorRepository
 			}
 		});
 
+		getCardsCache(boardId).invalidate(cardId);
 		sendEvents(board, eventsCollector.build());
 	}
 
@@ -835,6 +974,7 @@ public class BoardDescriptorRepository
 					}
 				});
 
+		getCardsCache(boardId).invalidate(cardId); // the laneId might have changed
 		final BoardCard card = getCard(boardId, cardId);
 
 		sendEvents(board, eventsCollector.build());
@@ -23,7 +23,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ListMultimap;
 
 import de.metas.ui.web.board.BoardCardChangeRequest.BoardCardChangeRequestBuilder;
 import de.metas.ui.web.board.json.JSONBoard;
@@ -129,17 +129,16 @@ public class BoardRestController
 	}
 
 	@GetMapping("/{boardId}")
-	public JSONBoard getBoard(@PathVariable("boardId") final int boardId)
+	public JSONBoard getBoard(
+			@PathVariable("boardId") final int boardId,
+			@RequestParam(name = "pageLength", required = false, defaultValue = "-1") @ApiParam("max cards to load for each lane; all cards are loaded if not set") final int pageLength)
 	{
 		userSession.assertLoggedIn();
 
 		final String adLanguage = userSession.getAD_Language();
 		final BoardDescriptor boardDescriptor = boardsRepo.getBoardDescriptor(boardId);
 
-		final Multimap<Integer, JSONBoardCard> cardsByLaneId = boardsRepo.getCards(boardId)
-				.stream()
-				.map(card -> JSONBoardCard.of(card, adLanguage))
-				.collect(GuavaCollectors.toImmutableListMultimap(JSONBoardCard::getLaneId));
+		final ListMultimap<Integer, Integer> cardIdsByLaneId = boardsRepo.getCardIdsByLaneId(boardId);
 
 		final JSONBoardBuilder jsonBoard = JSONBoard.builder()
 				.boardId(boardId)
@@ -148,16 +147,55 @@ public class BoardRestController
 
 		boardDescriptor.getLanes()
 				.values().stream()
-				.map(lane -> JSONBoardLane.builder()
-						.laneId(lane.getLaneId())
-						.caption(lane.getCaption().translate(adLanguage))
-						.cards(cardsByLaneId.get(lane.getLaneId()))
-						.build())
+				.map(lane -> toJSONBoardLane(boardId, lane, cardIdsByLaneId.get(lane.getLaneId()), 0, pageLength, adLanguage))
 				.forEach(jsonBoard::lane);
 
 		return jsonBoard.build();
 	}
 
+	@GetMapping("/{boardId}/lane/{laneId}")
+	@ApiOperation("gets a page of lane's cards")
+	public JSONBoardLane getLane(
+			@PathVariable("boardId") final int boardId,
+			@PathVariable("laneId") final int laneId,
+			@RequestParam(name = "firstRow", required = false, defaultValue = "0") final int firstRow,
+			@RequestParam(name = "pageLength", required = false, defaultValue = "-1") @ApiParam("max cards to load; all cards are loaded if not set") final int pageLength)
+	{
+		userSession.assertLoggedIn();
+
+		final BoardLaneDescriptor lane = boardsRepo.getBoardDescriptor(boardId).getLane(laneId);
+		final List<Integer> laneCardIds = boardsRepo.getLaneCardIds(boardId, laneId);
+		return toJSONBoardLane(boardId, lane, laneCardIds, firstRow, pageLength, userSession.getAD_Language());
+	}
+
+	private JSONBoardLane toJSONBoardLane(
+			final int boardId,
+			final BoardLaneDescriptor lane,
+			final List<Integer> laneCardIds,
+			final int firstRow,
+			final int pageLength,
+			final String adLanguage)
+	{
+		final List<Integer> pageCardIds = laneCardIds.stream()
+				.skip(Math.max(firstRow, 0))
+				.limit(pageLength > 0 ? pageLength : Long.MAX_VALUE)
+				.collect(ImmutableList.toImmutableList());
+
+		final List<JSONBoardCard> jsonCards = pageCardIds.isEmpty()
+				? ImmutableList.of()
+				: boardsRepo.getCards(boardId, pageCardIds)
+						.stream()
+						.map(card -> JSONBoardCard.of(card, adLanguage))
+						.collect(ImmutableList.toImmutableList());
+
+		return JSONBoardLane.builder()
+				.laneId(lane.getLaneId())
+				.caption(lane.getCaption().translate(adLanguage))
+				.cards(jsonCards)
+				.cardsCount(laneCardIds.size())
+				.build();
+	}
+
 	@PostMapping("/{boardId}/card")
 	public JSONBoardCard addCard(@PathVariable("boardId") final int boardId, @RequestBody final JSONBoardCardAddRequest request)
 	{
@@ -39,4 +39,6 @@ public class JSONBoardLane
 	private final String caption;
 	@Singular
 	private final ImmutableList<JSONBoardCard> cards;
+	/** total number of cards in this lane (also the ones which were not loaded) */
+	private final int cardsCount;
 }
@@ -6,8 +6,10 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
 
 import lombok.EqualsAndHashCode;
+import lombok.NonNull;
 
 /*
  * #%L
@@ -36,20 +38,34 @@ public final class ETag
 {
 	public static final ETag of(final int version)
 	{
-		return new ETag(version, ImmutableMap.of());
+		return new ETag(String.valueOf(version), ImmutableMap.of());
 	}
 
 	public static final ETag of(final long version, final Map<String, String> attributes)
+	{
+		return new ETag(String.valueOf(version), ImmutableMap.copyOf(attributes));
+	}
+
+	public static final ETag of(@NonNull final String version, final Map<String, String> attributes)
 	{
 		return new ETag(version, ImmutableMap.copyOf(attributes));
 	}
 
-	private final long version;
+	/**
+	 * Creates an ETag which is derived from the content itself (and not from an in-process sequence),
+	 * so the same content will produce the same ETag on any node and after any restart.
+	 */
+	public static final ETag ofContentHash(@NonNull final HashCode contentHash)
+	{
+		return new ETag("h" + contentHash.toString(), ImmutableMap.of());
+	}
+
+	private final String version;
 	private final ImmutableMap<String, String> attributes;
 
 	private transient volatile String _etagString = null; // lazy
 
-	private ETag(final long version, final ImmutableMap<String, String> attributes)
+	private ETag(final String version, final ImmutableMap<String, String> attributes)
 	{
 		this.version = version;
 		this.attributes = attributes;
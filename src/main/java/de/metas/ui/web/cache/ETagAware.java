@@ -27,8 +27,14 @@ import java.util.function.Supplier;
 
 public interface ETagAware
 {
+	/**
+	 * @return in-process ETag; for JSON responses, the ETag which is sent to clients is computed from content (see {@link ETagResponseEntityBuilder})
+	 */
 	ETag getETag();
 
+	/**
+	 * @return generator of in-process ETags. Those ETags are NOT stable across nodes or restarts, so they shall not be sent to clients as they are.
+	 */
 	static Supplier<ETag> newETagGenerator()
 	{
 		final AtomicInteger nextVersionSupplier = new AtomicInteger(1);
@@ -0,0 +1,68 @@
+package de.metas.ui.web.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.adempiere.exceptions.AdempiereException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Computes {@link ETag}s from the JSON representation of a payload.
+ * <p>
+ * The JSON is streamed directly into the hash function, so no intermediate byte array or string is allocated.
+ */
+public final class ETagContentHasher
+{
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private static final ObjectMapper jsonObjectMapper = new ObjectMapper()
+			.findAndRegisterModules()
+			.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+	private ETagContentHasher()
+	{
+	}
+
+	public static ETag computeETag(final Object json)
+	{
+		final Hasher hasher = HASH_FUNCTION.newHasher();
+		try (final OutputStream out = Funnels.asOutputStream(hasher))
+		{
+			jsonObjectMapper.writeValue(out, json);
+		}
+		catch (final IOException ex)
+		{
+			throw new AdempiereException("Failed computing the ETag for " + json, ex);
+		}
+
+		return ETag.ofContentHash(hasher.hash());
+	}
+}
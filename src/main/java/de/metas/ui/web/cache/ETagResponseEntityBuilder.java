@@ -1,11 +1,20 @@
 package de.metas.ui.web.cache;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.security.UserRolePermissionsKey;
 import org.adempiere.util.lang.ExtendedMemorizingSupplier;
+import org.compiere.util.CCache;
+import org.compiere.util.Env;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -13,6 +22,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.WebRequest;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
 
 import de.metas.i18n.ADLanguageList;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
@@ -40,21 +50,54 @@ import lombok.NonNull;
  * #L%
  */
 
+/**
+ * Builds {@link ResponseEntity}s which support conditional GETs (i.e. <code>If-None-Match</code> / 304 Not Modified).
+ * <p>
+ * The ETags sent to clients are either built from versions which are never reused, or computed from the JSON content itself (see {@link ETagContentHasher}).
+ * <ul>
+ * <li>{@link #ofETagAware(WebRequest, ETagAware)}: the in-process ETag of the given object is used to remember the last content ETag,
+ * so as long as the object does not change, the JSON is not even built when the client's ETag is matching.
+ * <li>{@link #ofETag(WebRequest, ETag, Supplier)}: the given ETag is sent to clients as it is, so the JSON is not built when the client's ETag is matching.
+ * To be used for data (documents, view pages etc), where the ETag is built from versions (e.g. database version of the document).
+ * <li>{@link #ofContent(WebRequest, Supplier)}: the content ETag is computed on each call. To be used only for small payloads which have no version (e.g. menu).
+ * </ul>
+ */
 public class ETagResponseEntityBuilder<T extends ETagAware, R>
 {
-	public static final <T extends ETagAware> ETagResponseEntityBuilder<T, T> ofETagAware(final WebRequest request, final T etagAware)
+	public static final <T extends ETagAware> ETagResponseEntityBuilder<T, T> ofETagAware(@NonNull final WebRequest request, @NonNull final T etagAware)
 	{
 		return new ETagResponseEntityBuilder<>(request, etagAware, () -> etagAware);
 	}
 
+	/**
+	 * @param etag the ETag to be sent to clients. It shall never be reused for different content (i.e. it shall be built from versions which are unique per node).
+	 *            If null, the response will have no ETag.
+	 */
+	public static final <R> ETagResponseEntityBuilder<ETagAware, R> ofETag(@NonNull final WebRequest request, @Nullable final ETag etag, @NonNull final Supplier<R> result)
+	{
+		final ETagAware etagAware = etag != null ? () -> etag : null;
+		return new ETagResponseEntityBuilder<ETagAware, R>(request, etagAware, result)
+				.sendETagAsIs(true);
+	}
+
+	public static final <R> ETagResponseEntityBuilder<ETagAware, R> ofContent(@NonNull final WebRequest request, @NonNull final Supplier<R> result)
+	{
+		final ETagAware etagAware = null; // none, the ETag will be computed from content
+		return new ETagResponseEntityBuilder<>(request, etagAware, result);
+	}
+
+	private static final CCache<String, ETag> contentETagsByKey = CCache.newLRUCache(ETagResponseEntityBuilder.class.getSimpleName() + "#contentETags", 2000, 60);
+
 	private final WebRequest request;
 	private final T etagAware;
 	private final Supplier<R> result;
 	private Supplier<JSONOptions> jsonOptions = () -> null;
 	private int cacheMaxAgeSec = 10;
 	private boolean includeLanguageInETag = false;
+	private boolean includePermissionsInETag = false;
+	private boolean sendETagAsIs = false;
 
-	private ETagResponseEntityBuilder(@NonNull final WebRequest request, @NonNull final T etagAware, @NonNull final Supplier<R> result)
+	private ETagResponseEntityBuilder(@NonNull final WebRequest request, @Nullable final T etagAware, @NonNull final Supplier<R> result)
 	{
 		this.request = request;
 		this.etagAware = etagAware;
@@ -79,12 +122,35 @@ public class ETagResponseEntityBuilder<T extends ETagAware, R>
 		return this;
 	}
 
+	/**
+	 * Advises the builder to include the user's role permissions in the ETag, because the content depends on them (e.g. read-only flags).
+	 */
+	public ETagResponseEntityBuilder<T, R> includePermissionsInETag()
+	{
+		includePermissionsInETag(true);
+		return this;
+	}
+
+	private ETagResponseEntityBuilder<T, R> includePermissionsInETag(final boolean includePermissionsInETag)
+	{
+		this.includePermissionsInETag = includePermissionsInETag;
+		return this;
+	}
+
+	private ETagResponseEntityBuilder<T, R> sendETagAsIs(final boolean sendETagAsIs)
+	{
+		this.sendETagAsIs = sendETagAsIs;
+		return this;
+	}
+
 	public <R2> ETagResponseEntityBuilder<T, R2> map(@NonNull final Function<R, R2> resultMapper)
 	{
 		final Supplier<R> result = this.result;
 		final Supplier<R2> newResult = () -> resultMapper.apply(result.get());
 		return new ETagResponseEntityBuilder<>(request, etagAware, newResult)
 				.includeLanguageInETag(includeLanguageInETag)
+				.includePermissionsInETag(includePermissionsInETag)
+				.sendETagAsIs(sendETagAsIs)
 				.cacheMaxAge(this.cacheMaxAgeSec);
 	}
 
@@ -106,19 +172,104 @@ public class ETagResponseEntityBuilder<T extends ETagAware, R>
 
 	private ETag getETag()
 	{
-		ETag etag = etagAware.getETag();
+		if (etagAware == null)
+		{
+			throw new IllegalStateException("No ETag available because no " + ETagAware.class.getSimpleName() + " was provided");
+		}
+
+		return withSessionAttributesIfNeeded(etagAware.getETag());
+	}
+
+	private ETag withSessionAttributesIfNeeded(final ETag etag)
+	{
+		final ImmutableMap.Builder<String, String> attributes = ImmutableMap.builder();
 		if (includeLanguageInETag)
 		{
-			final String adLanguage = getJSONOptions().getAD_Language();
-			etag = etag.overridingAttributes(ImmutableMap.of("lang", adLanguage));
+			attributes.put("lang", getJSONOptions().getAD_Language());
+		}
+		if (includePermissionsInETag)
+		{
+			attributes.put("perm", getPermissionsKeyHash());
 		}
 
-		return etag;
+		return etag.overridingAttributes(attributes.build());
+	}
+
+	private static String getPermissionsKeyHash()
+	{
+		final String permissionsKey = UserRolePermissionsKey.toPermissionsKeyString(Env.getCtx());
+		return Hashing.murmur3_32().hashString(permissionsKey, StandardCharsets.UTF_8).toString();
 	}
 
 	public <JSONType> ResponseEntity<JSONType> toJson(final BiFunction<R, JSONOptions, JSONType> toJsonMapper)
 	{
-		return toResponseEntity((responseBuilder, result) -> responseBuilder.body(toJsonMapper.apply(result, getJSONOptions())));
+		if (sendETagAsIs)
+		{
+			if (etagAware == null)
+			{
+				final JSONType json = toJsonMapper.apply(result.get(), getJSONOptions());
+				return newResponse(HttpStatus.OK, null).body(json);
+			}
+
+			return toResponseEntity((responseBuilder, result) -> responseBuilder.body(toJsonMapper.apply(result, getJSONOptions())));
+		}
+
+		//
+		// Check the last known content ETag, if any
+		final String contentETagKey = getContentETagKey();
+		final ETag lastContentETag = contentETagKey != null ? contentETagsByKey.get(contentETagKey) : null;
+		if (lastContentETag != null)
+		{
+			final String etag = lastContentETag.toETagString();
+			if (request.checkNotModified(etag))
+			{
+				// Response: 304 Not Modified
+				return newResponse(HttpStatus.NOT_MODIFIED, etag).build();
+			}
+		}
+
+		//
+		// Get the result, convert it to JSON and compute the ETag from it
+		final JSONType json = toJsonMapper.apply(result.get(), getJSONOptions());
+		final ETag contentETag = withSessionAttributesIfNeeded(ETagContentHasher.computeETag(json));
+		if (contentETagKey != null)
+		{
+			contentETagsByKey.put(contentETagKey, contentETag);
+		}
+
+		final String etag = contentETag.toETagString();
+		if (request.checkNotModified(etag))
+		{
+			// Response: 304 Not Modified
+			return newResponse(HttpStatus.NOT_MODIFIED, etag).build();
+		}
+
+		return newResponse(HttpStatus.OK, etag).body(json);
+	}
+
+	/**
+	 * @return the key under which the content ETag can be remembered, or <code>null</code> if the content ETag shall not be remembered
+	 */
+	private String getContentETagKey()
+	{
+		if (etagAware == null)
+		{
+			return null;
+		}
+
+		final StringBuilder key = new StringBuilder();
+		key.append(getETag().toETagString());
+		key.append("|").append(getJSONOptions());
+		key.append("|lang=").append(getJSONOptions().getAD_Language());
+		key.append("|perm=").append(UserRolePermissionsKey.toPermissionsKeyString(Env.getCtx()));
+		key.append("|").append(request.getDescription(false));
+		request.getParameterMap()
+				.entrySet()
+				.stream()
+				.sorted(Comparator.comparing(Map.Entry::getKey))
+				.forEach(param -> key.append("|").append(param.getKey()).append("=").append(Arrays.toString(param.getValue())));
+
+		return key.toString();
 	}
 
 	public <BodyType> ResponseEntity<BodyType> toResponseEntity(final BiFunction<ResponseEntity.BodyBuilder, R, ResponseEntity<BodyType>> toJsonMapper)
@@ -138,12 +289,18 @@ public class ETagResponseEntityBuilder<T extends ETagAware, R>
 		return toJsonMapper.apply(newResponse, result);
 	}
 
-	private final ResponseEntity.BodyBuilder newResponse(final HttpStatus status, final String etag)
+	private final ResponseEntity.BodyBuilder newResponse(final HttpStatus status, @Nullable final String etag)
 	{
 
 		ResponseEntity.BodyBuilder response = ResponseEntity.status(status)
-				.eTag(etag)
 				.cacheControl(CacheControl.maxAge(cacheMaxAgeSec, TimeUnit.SECONDS));
+		if (etag != null)
+		{
+			response.eTag(etag);
+		}
+
+		// The same URL can be answered as JSON, Smile or CBOR (see WebConfig), so the browser shall include ACCEPT in their caching key
+		response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
 
 		final String adLanguage = getJSONOptions().getAD_Language();
 		if (adLanguage != null && !adLanguage.isEmpty())
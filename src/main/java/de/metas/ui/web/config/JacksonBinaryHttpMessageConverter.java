@@ -0,0 +1,68 @@
+package de.metas.ui.web.config;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Reads/writes the REST payloads in a compact binary encoding (Jackson Smile or CBOR).
+ * <p>
+ * The client is asking for it by setting the Accept header, else the payloads are sent as JSON.
+ * The same JSON annotations and custom serializers are used, so the payload structure is the same as for JSON.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+public final class JacksonBinaryHttpMessageConverter extends AbstractJackson2HttpMessageConverter
+{
+	public static final MediaType MEDIATYPE_Smile = MediaType.parseMediaType("application/x-jackson-smile");
+	public static final MediaType MEDIATYPE_CBOR = MediaType.parseMediaType("application/cbor");
+
+	public static JacksonBinaryHttpMessageConverter smile()
+	{
+		return new JacksonBinaryHttpMessageConverter(configure(Jackson2ObjectMapperBuilder.smile()), MEDIATYPE_Smile);
+	}
+
+	public static JacksonBinaryHttpMessageConverter cbor()
+	{
+		return new JacksonBinaryHttpMessageConverter(configure(Jackson2ObjectMapperBuilder.cbor()), MEDIATYPE_CBOR);
+	}
+
+	/** Same settings as spring-boot is applying to the JSON object mapper */
+	private static ObjectMapper configure(final Jackson2ObjectMapperBuilder builder)
+	{
+		return builder
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+	}
+
+	private JacksonBinaryHttpMessageConverter(final ObjectMapper objectMapper, final MediaType mediaType)
+	{
+		super(objectMapper, mediaType);
+	}
+}
@@ -1,6 +1,7 @@
 package de.metas.ui.web.config;
 
 import java.io.IOException;
+import java.util.List;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -12,6 +13,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
@@ -63,6 +65,16 @@ public class WebConfig extends WebMvcConfigurerAdapter
 		registry.addMapping("/**");
 	}
 
+	/**
+	 * Adds the Smile and CBOR converters after the default ones, so JSON stays the default and the binary encodings are used only if the client explicitly accepts them.
+	 */
+	@Override
+	public void extendMessageConverters(final List<HttpMessageConverter<?>> converters)
+	{
+		converters.add(JacksonBinaryHttpMessageConverter.smile());
+		converters.add(JacksonBinaryHttpMessageConverter.cbor());
+	}
+
 	@Bean
 	public Filter addMissingHeadersFilter()
 	{
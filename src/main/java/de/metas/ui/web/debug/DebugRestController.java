@@ -47,6 +47,7 @@ import de.metas.notification.UserNotificationTargetType;
 import de.metas.ui.web.config.WebConfig;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.menu.MenuTreeRepository;
+import de.metas.ui.web.process.ProcessPreconditionsEvaluator;
 import de.metas.ui.web.process.ProcessRestController;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.view.IViewsRepository;
@@ -113,6 +114,10 @@ public class DebugRestController
 	@Lazy
 	private ProcessRestController processesController;
 
+	@Autowired
+	@Lazy
+	private ProcessPreconditionsEvaluator processPreconditionsEvaluator;
+
 	@Autowired
 	@Lazy
 	private IQueryStatisticsLogger statisticsLogger;
@@ -121,6 +126,9 @@ public class DebugRestController
 	@Lazy
 	private WebsocketSender websocketSender;
 
+	@Autowired
+	private SqlQueriesStatsRepository sqlQueriesStatsRepo;
+
 	@RequestMapping(value = "/cacheReset", method = RequestMethod.GET)
 	public void cacheReset()
 	{
@@ -128,6 +136,7 @@ public class DebugRestController
 		documentCollection.cacheReset();
 		menuTreeRepo.cacheReset();
 		processesController.cacheReset();
+		processPreconditionsEvaluator.invalidateAll();
 		ViewColumnHelper.cacheReset();
 		Services.get(IUserRolePermissionsDAO.class).resetLocalCache();
 
@@ -167,6 +176,36 @@ public class DebugRestController
 		}
 	}
 
+	@GetMapping("/sqlQueries/endpoints")
+	public List<SqlQueriesStatsRepository.EndpointStats> getSqlQueriesStatsByEndpoint()
+	{
+		return sqlQueriesStatsRepo.getEndpointStats();
+	}
+
+	@GetMapping("/sqlQueries/offendingRequests")
+	public List<SqlQueriesStatsRepository.OffendingRequest> getSqlQueriesOffendingRequests()
+	{
+		return sqlQueriesStatsRepo.getOffendingRequests();
+	}
+
+	@GetMapping("/sqlQueries/budget")
+	public void setSqlQueriesBudget(
+			@RequestParam("maxQueriesPerRequest") final int maxQueriesPerRequest,
+			@RequestParam(name = "nPlusOneThreshold", required = false, defaultValue = "-1") final int nPlusOneThreshold)
+	{
+		sqlQueriesStatsRepo.setQueriesBudget(maxQueriesPerRequest);
+		if (nPlusOneThreshold > 0)
+		{
+			sqlQueriesStatsRepo.setNPlusOneThreshold(nPlusOneThreshold);
+		}
+	}
+
+	@GetMapping("/sqlQueries/reset")
+	public void resetSqlQueriesStats()
+	{
+		sqlQueriesStatsRepo.reset();
+	}
+
 	@RequestMapping(value = "/debugProtocol", method = RequestMethod.GET)
 	public void setDebugProtocol(@RequestParam("enabled") final boolean enabled)
 	{
@@ -0,0 +1,113 @@
+package de.metas.ui.web.debug;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import de.metas.ui.web.debug.SqlQueriesTracker.RequestSqlQueriesStats;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Tracks the SQL queries executed by each REST request and collects them to {@link SqlQueriesStatsRepository}.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@Component
+public class SqlQueriesBudgetFilter implements Filter
+{
+	private final SqlQueriesStatsRepository statsRepo;
+
+	public SqlQueriesBudgetFilter(@NonNull final SqlQueriesStatsRepository statsRepo)
+	{
+		this.statsRepo = statsRepo;
+	}
+
+	@Override
+	public void init(final FilterConfig filterConfig) throws ServletException
+	{
+	}
+
+	@Override
+	public void destroy()
+	{
+	}
+
+	@Override
+	public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain) throws IOException, ServletException
+	{
+		if (!statsRepo.isTrackingEnabled() || !(request instanceof HttpServletRequest))
+		{
+			chain.doFilter(request, response);
+			return;
+		}
+
+		final RequestSqlQueriesStats stats = SqlQueriesTracker.start();
+		try
+		{
+			chain.doFilter(request, response);
+		}
+		finally
+		{
+			SqlQueriesTracker.stop();
+
+			final HttpServletRequest httpRequest = (HttpServletRequest)request;
+			final String endpoint = extractEndpointOrNull(httpRequest);
+			if (endpoint != null)
+			{
+				statsRepo.collect(endpoint, extractRequestInfo(httpRequest), stats);
+			}
+		}
+	}
+
+	/**
+	 * @return request method and the matched request mapping pattern (e.g. "GET /rest/api/window/{windowId}/{documentId}") or null if the request was not handled by a controller
+	 */
+	private static String extractEndpointOrNull(final HttpServletRequest httpRequest)
+	{
+		final Object pattern = httpRequest.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		if (pattern == null)
+		{
+			return null;
+		}
+
+		return httpRequest.getMethod() + " " + pattern;
+	}
+
+	private static String extractRequestInfo(final HttpServletRequest httpRequest)
+	{
+		final String queryString = httpRequest.getQueryString();
+		return httpRequest.getMethod() + " " + httpRequest.getRequestURI() + (queryString != null ? "?" + queryString : "");
+	}
+}
@@ -0,0 +1,83 @@
+package de.metas.ui.web.debug;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import de.metas.ui.web.debug.SqlQueriesTracker.RequestSqlQueriesStats;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Adds the SQL queries executed so far by current request to the response headers.
+ * <p>
+ * NOTE: the queries executed while the response body is serialized are not included.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@ControllerAdvice
+public class SqlQueriesResponseHeadersAdvice implements ResponseBodyAdvice<Object>
+{
+	public static final String HEADER_QueriesCount = "X-SQL-Queries-Count";
+	public static final String HEADER_QueriesDurationMillis = "X-SQL-Queries-Duration-Ms";
+	public static final String HEADER_RepeatedQueries = "X-SQL-Queries-Repeated";
+
+	private final SqlQueriesStatsRepository statsRepo;
+
+	public SqlQueriesResponseHeadersAdvice(@NonNull final SqlQueriesStatsRepository statsRepo)
+	{
+		this.statsRepo = statsRepo;
+	}
+
+	@Override
+	public boolean supports(final MethodParameter returnType, final Class<? extends HttpMessageConverter<?>> converterType)
+	{
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(
+			final Object body,
+			final MethodParameter returnType,
+			final MediaType selectedContentType,
+			final Class<? extends HttpMessageConverter<?>> selectedConverterType,
+			final ServerHttpRequest request,
+			final ServerHttpResponse response)
+	{
+		final RequestSqlQueriesStats stats = SqlQueriesTracker.getCurrentStatsOrNull();
+		if (stats != null)
+		{
+			response.getHeaders().set(HEADER_QueriesCount, String.valueOf(stats.getQueriesCount()));
+			response.getHeaders().set(HEADER_QueriesDurationMillis, String.valueOf(stats.getQueriesDurationMillis()));
+			response.getHeaders().set(HEADER_RepeatedQueries, String.valueOf(stats.getRepeatedSqls(statsRepo.getNPlusOneThreshold()).size()));
+		}
+
+		return body;
+	}
+}
@@ -0,0 +1,219 @@
+package de.metas.ui.web.debug;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.EvictingQueue;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.debug.SqlQueriesTracker.RequestSqlQueriesStats;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Singular;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Collects the per endpoint SQL statistics, checks each request against the configured SQL queries budget and remembers the last offending requests.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@Component
+public class SqlQueriesStatsRepository
+{
+	private static final Logger logger = LogManager.getLogger(SqlQueriesStatsRepository.class);
+
+	@Value("${metasfresh.webui.sqlQueries.tracking.enabled:false}")
+	@Getter
+	private boolean trackingEnabled;
+
+	/** Max SQL queries a request is allowed to run. Zero or negative means no budget. */
+	@Value("${metasfresh.webui.sqlQueries.budget:200}")
+	@Getter
+	private int queriesBudget;
+
+	/** How many times the same statement shape has to be executed in one request in order to be reported as N+1 */
+	@Value("${metasfresh.webui.sqlQueries.nPlusOneThreshold:20}")
+	@Getter
+	private int nPlusOneThreshold;
+
+	@Value("${metasfresh.webui.sqlQueries.offendingRequestsToKeep:100}")
+	private int offendingRequestsToKeep;
+
+	private final ConcurrentHashMap<String, EndpointStatsCollector> statsByEndpoint = new ConcurrentHashMap<>();
+	private EvictingQueue<OffendingRequest> offendingRequests;
+
+	@PostConstruct
+	private void installTracker()
+	{
+		if (trackingEnabled)
+		{
+			SqlQueriesTracker.install();
+		}
+	}
+
+	public void setQueriesBudget(final int queriesBudget)
+	{
+		this.queriesBudget = queriesBudget;
+		logger.info("Set SQL queries budget to {}", queriesBudget);
+	}
+
+	public void setNPlusOneThreshold(final int nPlusOneThreshold)
+	{
+		this.nPlusOneThreshold = nPlusOneThreshold;
+		logger.info("Set N+1 threshold to {}", nPlusOneThreshold);
+	}
+
+	/* package */ void collect(@NonNull final String endpoint, @NonNull final String requestInfo, @NonNull final RequestSqlQueriesStats stats)
+	{
+		statsByEndpoint.computeIfAbsent(endpoint, EndpointStatsCollector::new).collect(stats);
+
+		final boolean budgetExceeded = queriesBudget > 0 && stats.getQueriesCount() > queriesBudget;
+		final List<RepeatedSql> repeatedSqls = stats.getRepeatedSqls(nPlusOneThreshold);
+		if (!budgetExceeded && repeatedSqls.isEmpty())
+		{
+			return;
+		}
+
+		final OffendingRequest offendingRequest = OffendingRequest.builder()
+				.endpoint(endpoint)
+				.requestInfo(requestInfo)
+				.budgetExceeded(budgetExceeded)
+				.queriesCount(stats.getQueriesCount())
+				.queriesDurationMillis(stats.getQueriesDurationMillis())
+				.repeatedSqls(repeatedSqls)
+				.build();
+		logger.warn("Request exceeded the SQL queries budget ({}) or executed N+1 queries: {}", queriesBudget, offendingRequest);
+
+		synchronized (this)
+		{
+			if (offendingRequests == null)
+			{
+				offendingRequests = EvictingQueue.create(Math.max(offendingRequestsToKeep, 1));
+			}
+			offendingRequests.add(offendingRequest);
+		}
+	}
+
+	public List<EndpointStats> getEndpointStats()
+	{
+		return statsByEndpoint.values()
+				.stream()
+				.map(EndpointStatsCollector::toEndpointStats)
+				.sorted(Comparator.comparing(EndpointStats::getMaxQueriesCount).reversed())
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	public synchronized List<OffendingRequest> getOffendingRequests()
+	{
+		return offendingRequests != null ? ImmutableList.copyOf(offendingRequests).reverse() : ImmutableList.of();
+	}
+
+	public synchronized void reset()
+	{
+		statsByEndpoint.clear();
+		offendingRequests = null;
+	}
+
+	private static final class EndpointStatsCollector
+	{
+		private final String endpoint;
+		private final AtomicLong requestsCount = new AtomicLong();
+		private final AtomicLong queriesCount = new AtomicLong();
+		private final AtomicLong queriesDurationMillis = new AtomicLong();
+		private final AtomicLong maxQueriesCount = new AtomicLong();
+
+		private EndpointStatsCollector(final String endpoint)
+		{
+			this.endpoint = endpoint;
+		}
+
+		private void collect(final RequestSqlQueriesStats stats)
+		{
+			requestsCount.incrementAndGet();
+			queriesCount.addAndGet(stats.getQueriesCount());
+			queriesDurationMillis.addAndGet(stats.getQueriesDurationMillis());
+			maxQueriesCount.accumulateAndGet(stats.getQueriesCount(), Math::max);
+		}
+
+		private EndpointStats toEndpointStats()
+		{
+			return EndpointStats.builder()
+					.endpoint(endpoint)
+					.requestsCount(requestsCount.get())
+					.queriesCount(queriesCount.get())
+					.queriesDurationMillis(queriesDurationMillis.get())
+					.maxQueriesCount(maxQueriesCount.get())
+					.build();
+		}
+	}
+
+	@lombok.Value
+	@Builder
+	public static class EndpointStats
+	{
+		private final String endpoint;
+		private final long requestsCount;
+		private final long queriesCount;
+		private final long queriesDurationMillis;
+		private final long maxQueriesCount;
+
+		public long getAvgQueriesCount()
+		{
+			return requestsCount > 0 ? queriesCount / requestsCount : 0;
+		}
+	}
+
+	@lombok.Value
+	@Builder
+	public static class OffendingRequest
+	{
+		private final String endpoint;
+		private final String requestInfo;
+		private final boolean budgetExceeded;
+		private final int queriesCount;
+		private final long queriesDurationMillis;
+		@Singular
+		private final ImmutableList<RepeatedSql> repeatedSqls;
+	}
+
+	@lombok.Value
+	@Builder
+	public static class RepeatedSql
+	{
+		private final String sql;
+		private final int count;
+		private final long durationMillis;
+	}
+}
@@ -0,0 +1,306 @@
+package de.metas.ui.web.debug;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adempiere.ad.dao.IQueryStatisticsCollector;
+import org.adempiere.util.Services;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.debug.SqlQueriesStatsRepository.RepeatedSql;
+import lombok.Getter;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Counts the SQL statements executed on current request's thread.
+ * <p>
+ * Tracking is started/stopped by {@link SqlQueriesBudgetFilter}.
+ * The statements are reported by metasfresh core's statements layer (see {@link #install()}), so all of them are counted: the webui's own SQL, POs, query builders etc.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+public final class SqlQueriesTracker
+{
+	private static final ThreadLocal<RequestSqlQueriesStats> currentStats = new ThreadLocal<>();
+
+	private SqlQueriesTracker()
+	{
+	}
+
+	/**
+	 * Hooks into metasfresh core's {@link IQueryStatisticsCollector}, which is notified about each executed statement.
+	 * The previously registered collector is still notified.
+	 */
+	/* package */ static synchronized void install()
+	{
+		final IQueryStatisticsCollector coreCollector = Services.get(IQueryStatisticsCollector.class);
+		if (coreCollector instanceof TrackingQueryStatisticsCollector)
+		{
+			return;
+		}
+
+		Services.registerService(IQueryStatisticsCollector.class, new TrackingQueryStatisticsCollector(coreCollector));
+	}
+
+	/* package */ static RequestSqlQueriesStats start()
+	{
+		final RequestSqlQueriesStats stats = new RequestSqlQueriesStats();
+		currentStats.set(stats);
+		return stats;
+	}
+
+	/* package */ static void stop()
+	{
+		currentStats.remove();
+	}
+
+	/* package */ static RequestSqlQueriesStats getCurrentStatsOrNull()
+	{
+		return currentStats.get();
+	}
+
+	/* package */ static void collect(@NonNull final String sql, final long durationNanos)
+	{
+		final RequestSqlQueriesStats stats = currentStats.get();
+		if (stats == null)
+		{
+			return;
+		}
+
+		stats.record(sql, durationNanos);
+	}
+
+	/**
+	 * @return the SQL with all literals replaced by "?" and lists of literals replaced by "?...", so the same statement executed with different IDs results in the same shape
+	 */
+	/* package */ static String toSqlShape(final String sql)
+	{
+		//
+		// NOTE: this is called for each executed statement, so we scan the SQL only once instead of using regular expressions
+		final int length = sql.length();
+		final StringBuilder shape = new StringBuilder(length);
+		int i = 0;
+		while (i < length)
+		{
+			final char ch = sql.charAt(i);
+			if (ch == '\'')
+			{
+				i = skipStringLiteral(sql, i);
+				appendLiteral(shape);
+			}
+			else if (ch == '?')
+			{
+				i++;
+				appendLiteral(shape);
+			}
+			else if (isNumberLiteralStart(sql, i))
+			{
+				i = skipNumberLiteral(sql, i + 1);
+				appendLiteral(shape);
+			}
+			else if (Character.isWhitespace(ch))
+			{
+				while (i < length && Character.isWhitespace(sql.charAt(i)))
+				{
+					i++;
+				}
+				if (shape.length() > 0 && i < length)
+				{
+					shape.append(' ');
+				}
+			}
+			else
+			{
+				shape.append(ch);
+				i++;
+			}
+		}
+
+		return shape.toString();
+	}
+
+	private static int skipStringLiteral(final String sql, final int quoteIndex)
+	{
+		int i = quoteIndex + 1;
+		while (i < sql.length())
+		{
+			if (sql.charAt(i) == '\'')
+			{
+				// '' is an escaped quote
+				if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'')
+				{
+					i += 2;
+					continue;
+				}
+				return i + 1;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isNumberLiteralStart(final String sql, final int index)
+	{
+		return Character.isDigit(sql.charAt(index))
+				&& (index == 0 || !Character.isLetterOrDigit(sql.charAt(index - 1)) && sql.charAt(index - 1) != '_');
+	}
+
+	private static int skipNumberLiteral(final String sql, final int fromIndex)
+	{
+		int i = fromIndex;
+		while (i < sql.length() && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.'))
+		{
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Appends "?", or, if the shape ends with a list of literals (e.g. "(?, ?, "), collapses it to "(?...".
+	 */
+	private static void appendLiteral(final StringBuilder shape)
+	{
+		int end = shape.length();
+		while (end > 0 && shape.charAt(end - 1) == ' ')
+		{
+			end--;
+		}
+		if (end > 0 && shape.charAt(end - 1) == ',')
+		{
+			int prevEnd = end - 1;
+			while (prevEnd > 0 && shape.charAt(prevEnd - 1) == ' ')
+			{
+				prevEnd--;
+			}
+
+			if (endsWith(shape, prevEnd, "?..."))
+			{
+				shape.setLength(prevEnd);
+				return;
+			}
+			else if (endsWith(shape, prevEnd, "(?"))
+			{
+				shape.setLength(prevEnd);
+				shape.append("...");
+				return;
+			}
+		}
+
+		shape.append('?');
+	}
+
+	private static boolean endsWith(final StringBuilder shape, final int end, final String suffix)
+	{
+		final int start = end - suffix.length();
+		return start >= 0 && shape.substring(start, end).equals(suffix);
+	}
+
+	/**
+	 * SQL statistics of one request. It's accessed only from the request's thread.
+	 */
+	/* package */ static final class RequestSqlQueriesStats
+	{
+		@Getter
+		private int queriesCount;
+		private long queriesDurationNanos;
+		private final Map<String, SqlShapeStats> statsBySqlShape = new HashMap<>();
+
+		private void record(final String sql, final long durationNanos)
+		{
+			queriesCount++;
+			queriesDurationNanos += durationNanos;
+			statsBySqlShape.computeIfAbsent(toSqlShape(sql), SqlShapeStats::new).record(durationNanos);
+		}
+
+		public long getQueriesDurationMillis()
+		{
+			return queriesDurationNanos / 1_000_000;
+		}
+
+		/**
+		 * @return the SQL shapes which were executed at least <code>minCount</code> times, most executed first
+		 */
+		public List<RepeatedSql> getRepeatedSqls(final int minCount)
+		{
+			return statsBySqlShape.values()
+					.stream()
+					.filter(shapeStats -> shapeStats.count >= minCount)
+					.sorted(Comparator.<SqlShapeStats> comparingInt(shapeStats -> shapeStats.count).reversed())
+					.map(SqlShapeStats::toRepeatedSql)
+					.collect(ImmutableList.toImmutableList());
+		}
+	}
+
+	private static final class SqlShapeStats
+	{
+		private final String sqlShape;
+		private int count;
+		private long durationNanos;
+
+		private SqlShapeStats(final String sqlShape)
+		{
+			this.sqlShape = sqlShape;
+		}
+
+		private void record(final long durationNanos)
+		{
+			this.count++;
+			this.durationNanos += durationNanos;
+		}
+
+		private RepeatedSql toRepeatedSql()
+		{
+			return RepeatedSql.builder()
+					.sql(sqlShape)
+					.count(count)
+					.durationMillis(durationNanos / 1_000_000)
+					.build();
+		}
+	}
+
+	private static final class TrackingQueryStatisticsCollector implements IQueryStatisticsCollector
+	{
+		private final IQueryStatisticsCollector delegate;
+
+		private TrackingQueryStatisticsCollector(final IQueryStatisticsCollector delegate)
+		{
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void collect(final String sql, final long durationNanos)
+		{
+			if (delegate != null)
+			{
+				delegate.collect(sql, durationNanos);
+			}
+			SqlQueriesTracker.collect(sql, durationNanos);
+		}
+	}
+}
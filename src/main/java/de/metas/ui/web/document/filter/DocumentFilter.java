@@ -16,6 +16,7 @@ import com.google.common.collect.ImmutableList;
 import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.ImmutableTranslatableString;
 import de.metas.ui.web.document.filter.DocumentFilterParam.Operator;
+import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 
 /*
@@ -47,6 +48,7 @@ import lombok.NonNull;
  *
  */
 @Immutable
+@EqualsAndHashCode(exclude = "caption") // required for sharing the view selections
 public final class DocumentFilter
 {
 	public static final Builder builder()
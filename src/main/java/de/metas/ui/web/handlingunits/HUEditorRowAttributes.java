@@ -15,6 +15,7 @@ import org.adempiere.util.Services;
 import org.adempiere.util.lang.ExtendedMemorizingSupplier;
 import org.compiere.model.I_M_Attribute;
 import org.compiere.model.X_M_Attribute;
+import org.compiere.util.CCache;
 import org.compiere.util.Env;
 
 import com.google.common.base.MoreObjects;
@@ -77,6 +78,11 @@ import lombok.NonNull;
 		return (HUEditorRowAttributes)attributes;
 	}
 
+	private static final String ATTRIBUTEKEY_SSCC18 = "SSCC18";
+	private static final String ATTRIBUTEKEY_BestBeforeDate = "BestBeforeDate";
+	/** Well known attributes which are looked up for each row */
+	private static final CCache<String, Optional<I_M_Attribute>> wellKnownAttributes = CCache.newCache(I_M_Attribute.Table_Name + "#HUEditorRowAttributes#WellKnown", 5, CCache.EXPIREMINUTES_Never);
+
 	private final DocumentPath documentPath;
 	private final IAttributeStorage attributesStorage;
 
@@ -271,8 +277,9 @@ import lombok.NonNull;
 
 	public Optional<String> getSSCC18()
 	{
-		final I_M_Attribute sscc18Attribute = Services.get(ISSCC18CodeDAO.class).retrieveSSCC18Attribute(Env.getCtx());
-		if (!attributesStorage.hasAttribute(sscc18Attribute))
+		final I_M_Attribute sscc18Attribute = wellKnownAttributes.getOrLoad(ATTRIBUTEKEY_SSCC18, () -> Optional.ofNullable(Services.get(ISSCC18CodeDAO.class).retrieveSSCC18Attribute(Env.getCtx())))
+				.orElse(null);
+		if (sscc18Attribute == null || !attributesStorage.hasAttribute(sscc18Attribute))
 		{
 			return Optional.empty();
 		}
@@ -287,8 +294,9 @@ import lombok.NonNull;
 
 	public Optional<Date> getBestBeforeDate()
 	{
-		final I_M_Attribute bestBeforeDateAttribute = Services.get(IAttributeDAO.class).retrieveAttributeByValue(Constants.ATTR_BestBeforeDate);
-		if (!attributesStorage.hasAttribute(bestBeforeDateAttribute))
+		final I_M_Attribute bestBeforeDateAttribute = wellKnownAttributes.getOrLoad(ATTRIBUTEKEY_BestBeforeDate, () -> Optional.ofNullable(Services.get(IAttributeDAO.class).retrieveAttributeByValue(Constants.ATTR_BestBeforeDate)))
+				.orElse(null);
+		if (bestBeforeDateAttribute == null || !attributesStorage.hasAttribute(bestBeforeDateAttribute))
 		{
 			return Optional.empty();
 		}
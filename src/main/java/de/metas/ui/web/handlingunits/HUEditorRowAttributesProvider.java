@@ -1,13 +1,22 @@
 package de.metas.ui.web.handlingunits;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.model.PlainContextAware;
 import org.adempiere.util.Services;
 import org.adempiere.util.lang.ExtendedMemorizingSupplier;
 import org.compiere.util.Env;
 
+import com.google.common.collect.ImmutableSet;
+
 import de.metas.handlingunits.IHandlingUnitsBL;
 import de.metas.handlingunits.attribute.storage.IAttributeStorage;
 import de.metas.handlingunits.attribute.storage.IAttributeStorageFactory;
@@ -20,6 +29,7 @@ import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.DocumentType;
 import lombok.Builder;
+import lombok.NonNull;
 import lombok.Value;
 
 /*
@@ -51,11 +61,22 @@ public class HUEditorRowAttributesProvider implements IViewRowAttributesProvider
 	private final ExtendedMemorizingSupplier<IAttributeStorageFactory> _attributeStorageFactory = ExtendedMemorizingSupplier.of(() -> createAttributeStorageFactory());
 	private final ConcurrentHashMap<ViewRowAttributesKey, HUEditorRowAttributes> rowAttributesByKey = new ConcurrentHashMap<>();
 
+	/** HUs which were already loaded while creating the rows, so we don't have to load them again, one by one */
+	private final ConcurrentHashMap<Integer, I_M_HU> husById = new ConcurrentHashMap<>();
+
+	/** Rows of the last served page, whose attributes will be loaded together on first access of any of them (see {@link #schedulePreloadAttributes(Collection)}) */
+	private final AtomicReference<ImmutableSet<ViewRowAttributesKey>> pageKeysToPreloadRef = new AtomicReference<>(ImmutableSet.of());
+
 	@Value
 	private static final class ViewRowAttributesKey
 	{
 		private DocumentId huEditorRowId;
 		private DocumentId huId;
+
+		public int getTopLevelHUId()
+		{
+			return HUEditorRowId.ofDocumentId(huEditorRowId).getTopLevelHUId();
+		}
 	}
 
 	@Builder
@@ -74,21 +95,85 @@ public class HUEditorRowAttributesProvider implements IViewRowAttributesProvider
 		return DocumentId.of(huId);
 	}
 
+	/**
+	 * Remembers the given HU (which was loaded out of transaction), to be used when its attributes will be created.
+	 */
+	public void registerHU(@NonNull final I_M_HU hu)
+	{
+		husById.put(hu.getM_HU_ID(), hu);
+	}
+
 	@Override
 	public HUEditorRowAttributes getAttributes(final DocumentId viewRowId, final DocumentId huId)
 	{
 		final ViewRowAttributesKey key = new ViewRowAttributesKey(viewRowId, huId);
+		final HUEditorRowAttributes attributes = rowAttributesByKey.get(key);
+		if (attributes != null)
+		{
+			return attributes;
+		}
+
+		preloadPageAttributesIfScheduled(key);
 		return rowAttributesByKey.computeIfAbsent(key, this::createRowAttributes);
 	}
 
-	private HUEditorRowAttributes createRowAttributes(final ViewRowAttributesKey key)
+	/**
+	 * Remembers the given page rows (and their included rows), without loading anything.
+	 * When the attributes of any of them are accessed first, the attributes of the whole page are loaded in one go, using one query for the HUs which were not already registered.
+	 * So the attributes pane is fast while the user is scanning the rows, but a page whose attributes are never accessed costs nothing.
+	 */
+	public void schedulePreloadAttributes(@NonNull final Collection<HUEditorRow> rows)
 	{
-		final int huId = key.getHuId().toInt();
-		final I_M_HU hu = InterfaceWrapperHelper.create(Env.getCtx(), huId, I_M_HU.class, ITrx.TRXNAME_None);
+		final ImmutableSet<ViewRowAttributesKey> pageKeys = rows.stream()
+				.flatMap(HUEditorRow::streamRecursive)
+				.map(HUEditorRow::cast)
+				.filter(HUEditorRow::hasAttributes)
+				.map(row -> new ViewRowAttributesKey(row.getId(), createAttributeKey(row.getHURowId().getHuId())))
+				.filter(key -> !rowAttributesByKey.containsKey(key))
+				.collect(ImmutableSet.toImmutableSet());
+
+		pageKeysToPreloadRef.set(pageKeys);
+	}
+
+	private void preloadPageAttributesIfScheduled(final ViewRowAttributesKey key)
+	{
+		final ImmutableSet<ViewRowAttributesKey> pageKeys = pageKeysToPreloadRef.get();
+		if (!pageKeys.contains(key) || !pageKeysToPreloadRef.compareAndSet(pageKeys, ImmutableSet.of()))
+		{
+			return;
+		}
+
+		final Set<Integer> huIdsToLoad = pageKeys.stream()
+				.map(pageKey -> pageKey.getHuId().toInt())
+				.filter(huId -> !husById.containsKey(huId))
+				.collect(ImmutableSet.toImmutableSet());
+		if (!huIdsToLoad.isEmpty())
+		{
+			Services.get(IQueryBL.class)
+					.createQueryBuilder(I_M_HU.class, PlainContextAware.newOutOfTrx())
+					.addInArrayFilter(I_M_HU.COLUMN_M_HU_ID, huIdsToLoad)
+					.create()
+					.list(I_M_HU.class)
+					.forEach(this::registerHU);
+		}
+
+		pageKeys.forEach(pageKey -> rowAttributesByKey.computeIfAbsent(pageKey, this::createRowAttributes));
+	}
+
+	private I_M_HU getHU(final int huId)
+	{
+		final I_M_HU hu = husById.computeIfAbsent(huId, id -> InterfaceWrapperHelper.create(Env.getCtx(), id, I_M_HU.class, ITrx.TRXNAME_None));
 		if (hu == null)
 		{
 			throw new IllegalArgumentException("No HU found for M_HU_ID=" + huId);
 		}
+		return hu;
+	}
+
+	private HUEditorRowAttributes createRowAttributes(final ViewRowAttributesKey key)
+	{
+		final int huId = key.getHuId().toInt();
+		final I_M_HU hu = getHU(huId);
 
 		final IAttributeStorage attributesStorage = getAttributeStorageFactory().getAttributeStorage(hu);
 		attributesStorage.setSaveOnChange(true);
@@ -130,5 +215,45 @@ public class HUEditorRowAttributesProvider implements IViewRowAttributesProvider
 		//
 		// Destroy attribute documents
 		rowAttributesByKey.clear();
+		husById.clear();
+		pageKeysToPreloadRef.set(ImmutableSet.of());
+	}
+
+	/**
+	 * Invalidates the attributes of the HU trees which contain any of the given HUs.
+	 * The attributes of the other HUs are kept.
+	 */
+	public void invalidateHUs(@NonNull final Collection<Integer> huIds)
+	{
+		if (huIds.isEmpty())
+		{
+			return;
+		}
+
+		//
+		// NOTE: we invalidate the whole HU tree because the attribute values might be propagated between parent and included HUs
+		final Set<Integer> topLevelHUIds = new HashSet<>(huIds);
+		rowAttributesByKey.keySet()
+				.stream()
+				.filter(key -> huIds.contains(key.getHuId().toInt()))
+				.map(ViewRowAttributesKey::getTopLevelHUId)
+				.forEach(topLevelHUIds::add);
+
+		final Set<Integer> huIdsToForget = new HashSet<>(huIds);
+		for (final Iterator<ViewRowAttributesKey> it = rowAttributesByKey.keySet().iterator(); it.hasNext();)
+		{
+			final ViewRowAttributesKey key = it.next();
+			if (topLevelHUIds.contains(key.getTopLevelHUId()))
+			{
+				huIdsToForget.add(key.getHuId().toInt());
+				it.remove();
+			}
+		}
+		huIdsToForget.forEach(husById::remove);
+
+		//
+		// Use a new AttributeStorageFactory, so the attribute storages of the invalidated HUs are loaded again.
+		// The attributes which are kept are still bound to their current attribute storages.
+		_attributeStorageFactory.forget();
 	}
 }
@@ -193,6 +193,9 @@ public class HUEditorView implements IView
 				.streamPage(firstRow, pageLength, HUEditorRowFilter.ALL, orderBys)
 				.collect(GuavaCollectors.toImmutableList());
 
+		// Load the attributes of the whole page in one go, but only when the user is accessing them first
+		rowsBuffer.schedulePreloadAttributes(page);
+
 		return ViewResult.ofViewAndPage(this, firstRow, pageLength, orderBys, page);
 	}
 
@@ -372,6 +375,12 @@ public class HUEditorView implements IView
 		return hus.stream().filter(hu -> hu != null).map(I_M_HU::getM_HU_ID).collect(Collectors.toSet());
 	}
 
+	@Override
+	public Set<String> getTableNamesToNotifyOrNull()
+	{
+		return ImmutableSet.of(I_M_HU.Table_Name);
+	}
+
 	@Override
 	public void notifyRecordsChanged(final Set<TableRecordReference> recordRefs)
 	{
@@ -395,7 +404,10 @@ public class HUEditorView implements IView
 			return;
 		}
 
-		invalidateAll();
+		rowsBuffer.invalidateHUs(huIdsToCheck);
+
+		ViewChangesCollector.getCurrentOrAutoflush()
+				.collectFullyChanged(this);
 	}
 
 	@Override
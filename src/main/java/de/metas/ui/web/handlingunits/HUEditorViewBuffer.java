@@ -52,6 +52,11 @@ interface HUEditorViewBuffer
 
 	void invalidateAll();
 
+	/** Invalidates the rows of given top level HUs. Cached data of other HUs (e.g. attributes) is kept if possible. */
+	void invalidateHUs(Collection<Integer> huIds);
+
+	void schedulePreloadAttributes(Collection<HUEditorRow> rows);
+
 	boolean addHUIds(Collection<Integer> huIdsToAdd);
 
 	boolean removeHUIds(Collection<Integer> huIdsToRemove);
@@ -201,6 +201,20 @@ class HUEditorViewBuffer_FullyCached implements HUEditorViewBuffer
 		rowsSupplier.forget();
 	}
 
+	@Override
+	public void invalidateHUs(final Collection<Integer> huIds)
+	{
+		huIdsSupplier.forget();
+		huEditorRepo.invalidateCache(huIds);
+		rowsSupplier.forget();
+	}
+
+	@Override
+	public void schedulePreloadAttributes(final Collection<HUEditorRow> rows)
+	{
+		huEditorRepo.schedulePreloadAttributes(rows);
+	}
+
 	@Override
 	public boolean addHUIds(final Collection<Integer> huIdsToAdd)
 	{
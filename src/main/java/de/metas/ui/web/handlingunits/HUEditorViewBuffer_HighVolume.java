@@ -153,6 +153,19 @@ public class HUEditorViewBuffer_HighVolume implements HUEditorViewBuffer
 		cache_huRowsById.clear();
 	}
 
+	@Override
+	public void invalidateHUs(final Collection<Integer> huIds)
+	{
+		huEditorRepo.invalidateCache(huIds);
+		HUEditorRowId.rowIdsFromTopLevelM_HU_IDs(huIds).forEach(rowId -> cache_huRowsById.remove(rowId));
+	}
+
+	@Override
+	public void schedulePreloadAttributes(final Collection<HUEditorRow> rows)
+	{
+		huEditorRepo.schedulePreloadAttributes(rows);
+	}
+
 	@Override
 	public boolean addHUIds(final Collection<Integer> huIdsToAdd)
 	{
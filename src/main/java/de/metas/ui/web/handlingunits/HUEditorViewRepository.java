@@ -1,5 +1,6 @@
 package de.metas.ui.web.handlingunits;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -40,6 +41,12 @@ public interface HUEditorViewRepository
 {
 	void invalidateCache();
 
+	/** Invalidates only the cached data (e.g. attributes) of the given HUs */
+	void invalidateCache(Collection<Integer> huIds);
+
+	/** Schedules the attributes of given rows (and their included rows) to be loaded in one go, when they are accessed first. Does nothing if the attributes are not supported. */
+	void schedulePreloadAttributes(Collection<HUEditorRow> rows);
+
 	ViewRowIdsOrderedSelection createSelection(ViewEvaluationCtx viewEvalCtx, ViewId viewId, List<DocumentFilter> filters, List<DocumentQueryOrderBy> orderBys);
 
 	ViewRowIdsOrderedSelection createSelectionFromSelection(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection fromSelection, List<DocumentQueryOrderBy> orderBys);
@@ -137,6 +137,24 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		}
 	}
 
+	@Override
+	public void invalidateCache(@NonNull final Collection<Integer> huIds)
+	{
+		if (attributesProvider != null)
+		{
+			attributesProvider.invalidateHUs(huIds);
+		}
+	}
+
+	@Override
+	public void schedulePreloadAttributes(@NonNull final Collection<HUEditorRow> rows)
+	{
+		if (attributesProvider != null)
+		{
+			attributesProvider.schedulePreloadAttributes(rows);
+		}
+	}
+
 	@Override
 	public SqlViewRowIdsConverter getRowIdsConverter()
 	{
@@ -216,6 +234,10 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		final boolean processed = rowProcessedPredicate.isProcessed(hu);
 		final int huId = hu.getM_HU_ID();
 		final HUEditorRowId rowId = HUEditorRowId.ofHU(huId, topLevelHUId);
+		if (attributesProvider != null)
+		{
+			attributesProvider.registerHU(hu);
+		}
 
 		final HUEditorRow.Builder huEditorRow = HUEditorRow.builder(windowId)
 				.setRowId(rowId)
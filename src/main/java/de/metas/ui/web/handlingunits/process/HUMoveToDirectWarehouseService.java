@@ -2,17 +2,30 @@ package de.metas.ui.web.handlingunits.process;
 
 import java.sql.Timestamp;
 import java.util.Iterator;
-
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.PlainContextAware;
+import org.adempiere.util.GuavaCollectors;
 import org.adempiere.util.ILoggable;
 import org.adempiere.util.NullLoggable;
 import org.adempiere.util.Services;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.model.I_M_Warehouse;
 import org.compiere.util.Env;
 import org.slf4j.Logger;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
 
 import de.metas.handlingunits.model.I_M_HU;
 import de.metas.handlingunits.movement.api.IHUMovementBL;
@@ -21,7 +34,10 @@ import de.metas.interfaces.I_M_Movement;
 import de.metas.logging.LogManager;
 import de.metas.ui.web.handlingunits.HUEditorView;
 import de.metas.ui.web.window.model.DocumentCollection;
+import lombok.Builder;
 import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
 
 /*
  * #%L
@@ -68,6 +84,8 @@ public class HUMoveToDirectWarehouseService
 	private String _description = null;
 	private boolean _failOnFirstError = false;
 	private boolean _failIfNoHUs = false; // default false for backward compatibility
+	private int _chunkSize = 1; // default: one movement per HU
+	private int _parallelism = 1;
 	private ILoggable loggable = NullLoggable.instance;
 	private HUEditorView huView;
 
@@ -82,15 +100,7 @@ public class HUMoveToDirectWarehouseService
 	{
 		checkPreconditions();
 
-		//
-		// Move the HUs, one by one
-		int countMoved = 0;
-		while (hus.hasNext())
-		{
-			final I_M_HU hu = hus.next();
-			generateMovement(hu);
-			countMoved++;
-		}
+		final int countMoved = getChunkSize() > 1 ? moveInChunks(hus) : moveOneByOne(hus);
 
 		// Stop here if nothing moved
 		if (countMoved <= 0)
@@ -114,6 +124,174 @@ public class HUMoveToDirectWarehouseService
 		getTargetWarehouse(); // will fail if direct warehouse is not configured or found
 	}
 
+	private int moveOneByOne(final Iterator<I_M_HU> hus)
+	{
+		int countMoved = 0;
+		while (hus.hasNext())
+		{
+			final I_M_HU hu = hus.next();
+			generateMovement(hu);
+			countMoved++;
+		}
+		return countMoved;
+	}
+
+	/**
+	 * Moves the HUs chunk by chunk. For each chunk, one movement per source warehouse is created, in it's own transaction.
+	 * The view is updated once per chunk.
+	 *
+	 * @return how many HUs were processed
+	 */
+	private int moveInChunks(final Iterator<I_M_HU> hus)
+	{
+		final ExecutorService executor = createExecutorOrNull();
+		try
+		{
+			final Stopwatch stopwatch = Stopwatch.createStarted();
+			int countProcessed = 0;
+			int countMoved = 0;
+
+			final Iterator<List<I_M_HU>> chunks = Iterators.partition(hus, getChunkSize());
+			while (chunks.hasNext())
+			{
+				final List<I_M_HU> chunk = chunks.next();
+				final Set<Integer> movedHUIds = moveChunk(chunk, executor);
+
+				// Remove the moved HUs from the view; we will invalidate it at the end of all processing.
+				if (huView != null && !movedHUIds.isEmpty())
+				{
+					huView.removeHUIds(movedHUIds);
+				}
+
+				countProcessed += chunk.size();
+				countMoved += movedHUIds.size();
+				loggable.addLog("Moved {} HUs, failed {} HUs (took {})", countMoved, countProcessed - countMoved, stopwatch);
+			}
+
+			return countProcessed;
+		}
+		finally
+		{
+			if (executor != null)
+			{
+				executor.shutdown();
+			}
+		}
+	}
+
+	private ExecutorService createExecutorOrNull()
+	{
+		final int parallelism = getParallelism();
+		if (parallelism <= 1)
+		{
+			return null;
+		}
+
+		return Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory(HUMoveToDirectWarehouseService.class.getSimpleName() + "-"));
+	}
+
+	/** @return IDs of the HUs which were moved */
+	private Set<Integer> moveChunk(final List<I_M_HU> chunk, final ExecutorService executor)
+	{
+		final List<ImmutableList<I_M_HU>> husBySourceWarehouse = chunk.stream()
+				.collect(GuavaCollectors.toImmutableListMultimap(hu -> hu.getM_Locator().getM_Warehouse_ID()))
+				.asMap()
+				.values()
+				.stream()
+				.map(ImmutableList::copyOf)
+				.collect(ImmutableList.toImmutableList());
+
+		final List<ChunkPartitionResult> results;
+		if (executor == null)
+		{
+			results = husBySourceWarehouse.stream()
+					.map(this::moveHUsFromSameWarehouse)
+					.collect(ImmutableList.toImmutableList());
+		}
+		else
+		{
+			final Properties ctx = Env.copyCtx(Env.getCtx());
+			final List<CompletableFuture<ChunkPartitionResult>> futures = husBySourceWarehouse.stream()
+					.map(husFromSameWarehouse -> CompletableFuture.supplyAsync(() -> {
+						try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+						{
+							return moveHUsFromSameWarehouse(husFromSameWarehouse);
+						}
+					}, executor))
+					.collect(ImmutableList.toImmutableList());
+			results = futures.stream()
+					.map(CompletableFuture::join)
+					.collect(ImmutableList.toImmutableList());
+		}
+
+		// NOTE: we log here and not in the worker threads, because the loggable might be not thread safe
+		results.forEach(result -> result.getLogMessages().forEach(loggable::addLog));
+
+		return results.stream()
+				.flatMap(result -> result.getMovedHUIds().stream())
+				.collect(ImmutableSet.toImmutableSet());
+	}
+
+	/**
+	 * Moves all given HUs (which shall be from the same warehouse) using one movement.
+	 * If that fails, the HUs are moved one by one, so one faulty HU does not block the others.
+	 */
+	private ChunkPartitionResult moveHUsFromSameWarehouse(final List<I_M_HU> hus)
+	{
+		final ChunkPartitionResult.ChunkPartitionResultBuilder result = ChunkPartitionResult.builder();
+		try
+		{
+			final I_M_Movement movement = Services.get(ITrxManager.class).call(() -> createMovement(hus));
+			hus.forEach(hu -> result.movedHUId(hu.getM_HU_ID()));
+			result.logMessage("@Created@ @M_Movement_ID@: " + movement.getDocumentNo() + " (" + hus.size() + " HUs)");
+		}
+		catch (final Exception ex)
+		{
+			if (hus.size() == 1 || isFailOnFirstError())
+			{
+				if (isFailOnFirstError())
+				{
+					throw AdempiereException.wrapIfNeeded(ex)
+							.setParameter("HUs", hus);
+				}
+
+				final I_M_HU hu = hus.get(0);
+				final String errmsg = "Error on " + hu.getValue() + ": " + ex.getLocalizedMessage();
+				result.logMessage(errmsg);
+				logger.warn(errmsg, ex);
+			}
+			else
+			{
+				logger.info("Failed moving {} HUs in one movement. Moving them one by one.", hus.size(), ex);
+				hus.stream()
+						.map(hu -> moveHUsFromSameWarehouse(ImmutableList.of(hu)))
+						.forEach(huResult -> result.movedHUIds(huResult.getMovedHUIds()).logMessages(huResult.getLogMessages()));
+			}
+		}
+
+		final ChunkPartitionResult resultBuilt = result.build();
+		resultBuilt.getMovedHUIds().forEach(this::invalidateDocumentsForHU);
+		return resultBuilt;
+	}
+
+	private I_M_Movement createMovement(final List<I_M_HU> hus)
+	{
+		final HUMovementBuilder movementBuilder = new HUMovementBuilder()
+				.setContextInitial(PlainContextAware.newWithThreadInheritedTrx())
+				.setWarehouseFrom(hus.get(0).getM_Locator().getM_Warehouse())
+				.setWarehouseTo(getTargetWarehouse())
+				.setMovementDate(getMovementDate())
+				.setDescription(getDescription());
+		hus.forEach(movementBuilder::addHU);
+
+		final I_M_Movement movement = movementBuilder.createMovement();
+		if (movement == null)
+		{
+			throw new AdempiereException("No Movement created");
+		}
+		return movement;
+	}
+
 	/**
 	 * Generate a movement which will move given HU to {@link #getTargetWarehouse()}.
 	 *
@@ -210,6 +388,34 @@ public class HUMoveToDirectWarehouseService
 		return _failIfNoHUs;
 	}
 
+	/**
+	 * @param chunkSize if greater than one, the HUs are moved chunk by chunk, one movement per chunk and source warehouse, each chunk in it's own transaction.
+	 */
+	public HUMoveToDirectWarehouseService setChunkSize(final int chunkSize)
+	{
+		_chunkSize = chunkSize;
+		return this;
+	}
+
+	private int getChunkSize()
+	{
+		return _chunkSize;
+	}
+
+	/**
+	 * @param parallelism how many source warehouses of a chunk shall be moved in parallel; only relevant if chunk size is greater than one.
+	 */
+	public HUMoveToDirectWarehouseService setParallelism(final int parallelism)
+	{
+		_parallelism = parallelism;
+		return this;
+	}
+
+	private int getParallelism()
+	{
+		return _parallelism;
+	}
+
 	public HUMoveToDirectWarehouseService setDocumentsCollection(final DocumentCollection documentsCollection)
 	{
 		this.documentsCollection = documentsCollection;
@@ -228,17 +434,7 @@ public class HUMoveToDirectWarehouseService
 
 		//
 		// Invalidate all documents which are about this HU.
-		if (documentsCollection != null)
-		{
-			try
-			{
-				documentsCollection.invalidateDocumentByRecordId(I_M_HU.Table_Name, huId);
-			}
-			catch (final Exception ex)
-			{
-				logger.warn("Failed invalidating documents for M_HU_ID={}. Ignored", huId, ex);
-			}
-		}
+		invalidateDocumentsForHU(huId);
 
 		//
 		// Remove this HU from the view
@@ -249,6 +445,23 @@ public class HUMoveToDirectWarehouseService
 		}
 	}
 
+	private void invalidateDocumentsForHU(final int huId)
+	{
+		if (documentsCollection == null)
+		{
+			return;
+		}
+
+		try
+		{
+			documentsCollection.invalidateDocumentByRecordId(I_M_HU.Table_Name, huId);
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed invalidating documents for M_HU_ID={}. Ignored", huId, ex);
+		}
+	}
+
 	/**
 	 * @return target warehouse where the HUs will be moved to.
 	 */
@@ -261,4 +474,14 @@ public class HUMoveToDirectWarehouseService
 		}
 		return _targetWarehouse;
 	}
+
+	@Value
+	@Builder
+	private static class ChunkPartitionResult
+	{
+		@Singular
+		private final ImmutableSet<Integer> movedHUIds;
+		@Singular
+		private final ImmutableList<String> logMessages;
+	}
 }
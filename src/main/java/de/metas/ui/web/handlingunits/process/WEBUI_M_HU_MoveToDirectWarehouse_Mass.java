@@ -5,6 +5,7 @@ import java.util.Iterator;
 
 import org.adempiere.ad.dao.impl.TypedSqlQueryFilter;
 import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.Check;
 import org.adempiere.util.Services;
 import org.adempiere.util.api.IRangeAwareParams;
@@ -49,8 +50,16 @@ import de.metas.ui.web.window.model.DocumentCollection;
  */
 public class WEBUI_M_HU_MoveToDirectWarehouse_Mass extends HUEditorProcessTemplate
 {
+	/** How many HUs are moved in one transaction (one movement per source warehouse) */
+	private static final String SYSCONFIG_ChunkSize = "de.metas.ui.web.handlingunits.process.WEBUI_M_HU_MoveToDirectWarehouse_Mass.ChunkSize";
+	private static final int DEFAULT_ChunkSize = 100;
+	/** How many source warehouses of a chunk are moved in parallel */
+	private static final String SYSCONFIG_Parallelism = "de.metas.ui.web.handlingunits.process.WEBUI_M_HU_MoveToDirectWarehouse_Mass.Parallelism";
+	private static final int DEFAULT_Parallelism = 1;
+
 	// services
 	private final transient IHandlingUnitsDAO handlingUnitsDAO = Services.get(IHandlingUnitsDAO.class);
+	private final transient ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
 	@Autowired
 	private DocumentCollection documentsCollection;
 
@@ -80,6 +89,8 @@ public class WEBUI_M_HU_MoveToDirectWarehouse_Mass extends HUEditorProcessTempla
 				.setMovementDate(p_MovementDate)
 				.setDescription(p_Description)
 				.setFailOnFirstError(false)
+				.setChunkSize(sysConfigBL.getIntValue(SYSCONFIG_ChunkSize, DEFAULT_ChunkSize))
+				.setParallelism(sysConfigBL.getIntValue(SYSCONFIG_Parallelism, DEFAULT_Parallelism))
 				.setLoggable(this)
 				.move(retrieveHUs());
 
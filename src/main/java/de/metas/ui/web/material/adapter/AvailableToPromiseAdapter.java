@@ -1,25 +1,45 @@
 package de.metas.ui.web.material.adapter;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
 
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.Services;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.model.I_C_UOM;
 import org.compiere.model.I_M_AttributeValue;
 import org.compiere.model.I_M_Product;
+import org.compiere.util.CCache;
+import org.compiere.util.Env;
+import org.compiere.util.Util.ArrayKey;
 import org.springframework.stereotype.Service;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Multimaps;
 
 import static org.adempiere.model.InterfaceWrapperHelper.load;
 
 import de.metas.material.dispo.commons.repository.AvailableToPromiseQuery;
 import de.metas.material.dispo.commons.repository.AvailableToPromiseRepository;
 import de.metas.material.dispo.commons.repository.AvailableToPromiseResult.ResultGroup;
+import de.metas.material.dispo.model.I_MD_Candidate;
 import de.metas.material.event.commons.AttributesKey;
 import de.metas.product.IProductBL;
 import de.metas.quantity.Quantity;
@@ -56,11 +76,112 @@ public class AvailableToPromiseAdapter
 {
 	private final AvailableToPromiseRepository stockRepository;
 
+	/**
+	 * Groups by productId, date and storage attributes keys.
+	 * Short lived and named after {@link I_MD_Candidate} table, so it's also reset when the material candidates are changed.
+	 */
+	private final CCache<ArrayKey, ImmutableList<Group>> groupsCache = CCache.newLRUCache(I_MD_Candidate.Table_Name + "#AvailableToPromiseGroups#by#M_Product_ID", 2000, 1);
+
+	/**
+	 * Executor for ATP queries which are run while the caller waits for a limited time only.
+	 * When the queue is full, new queries are discarded, so their callers give up after their max waiting time instead of piling up queries.
+	 */
+	private final ExecutorService asyncExecutor = new ThreadPoolExecutor(
+			4, // corePoolSize
+			4, // maximumPoolSize
+			0, TimeUnit.MILLISECONDS, // keepAliveTime
+			new ArrayBlockingQueue<>(50),
+			CustomizableThreadFactory.builder()
+					.setDaemon(true)
+					.setThreadNamePrefix("webui-atp")
+					.build(),
+			new ThreadPoolExecutor.DiscardPolicy());
+
 	public AvailableToPromiseAdapter(@NonNull final AvailableToPromiseRepository stockRepository)
 	{
 		this.stockRepository = stockRepository;
 	}
 
+	@PreDestroy
+	private void preDestroy()
+	{
+		asyncExecutor.shutdownNow();
+	}
+
+	/**
+	 * Retrieves the available stock for given products, using the cached groups where possible.
+	 * Only the products which were not cached are queried.
+	 *
+	 * @return result which has the groups ordered by given <code>productIds</code>
+	 */
+	public AvailableToPromiseResultForWebui retrieveAvailableStockCached(
+			@NonNull final Set<Integer> productIds,
+			@NonNull final Set<AttributesKey> storageAttributesKeys,
+			@NonNull final LocalDateTime date)
+	{
+		final Map<Integer, ImmutableList<Group>> groupsByProductId = new HashMap<>();
+		final Set<Integer> productIdsToQuery = new LinkedHashSet<>();
+		for (final Integer productId : productIds)
+		{
+			final ImmutableList<Group> groups = groupsCache.get(createGroupsCacheKey(productId, storageAttributesKeys, date));
+			if (groups != null)
+			{
+				groupsByProductId.put(productId, groups);
+			}
+			else
+			{
+				productIdsToQuery.add(productId);
+			}
+		}
+
+		if (!productIdsToQuery.isEmpty())
+		{
+			final AvailableToPromiseResultForWebui result = retrieveAvailableStock(AvailableToPromiseQuery.builder()
+					.productIds(productIdsToQuery)
+					.storageAttributesKeys(storageAttributesKeys)
+					.date(date)
+					.build());
+			final ImmutableListMultimap<Integer, Group> queriedGroupsByProductId = Multimaps.index(result.getGroups(), Group::getProductId);
+
+			for (final Integer productId : productIdsToQuery)
+			{
+				// NOTE: we also cache the products without any stock
+				final ImmutableList<Group> groups = queriedGroupsByProductId.get(productId);
+				groupsCache.put(createGroupsCacheKey(productId, storageAttributesKeys, date), groups);
+				groupsByProductId.put(productId, groups);
+			}
+		}
+
+		final AvailableToPromiseResultForWebuiBuilder resultBuilder = AvailableToPromiseResultForWebui.builder();
+		productIds.forEach(productId -> resultBuilder.groups(groupsByProductId.get(productId)));
+		return resultBuilder.build();
+	}
+
+	/**
+	 * Same as {@link #retrieveAvailableStockCached(Set, Set, LocalDateTime)} but runs asynchronously, using current context.
+	 * <p>
+	 * The caller shall cancel the returned future if it's not waiting for the result anymore.
+	 * If there are too many pending queries, the query is discarded and the returned future never completes.
+	 */
+	public Future<AvailableToPromiseResultForWebui> retrieveAvailableStockCachedAsync(
+			@NonNull final Set<Integer> productIds,
+			@NonNull final Set<AttributesKey> storageAttributesKeys,
+			@NonNull final LocalDateTime date)
+	{
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+		return asyncExecutor.submit(() -> {
+			try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+			{
+				return retrieveAvailableStockCached(productIds, storageAttributesKeys, date);
+			}
+		});
+	}
+
+	private static ArrayKey createGroupsCacheKey(final int productId, final Set<AttributesKey> storageAttributesKeys, final LocalDateTime date)
+	{
+		return ArrayKey.of(productId, storageAttributesKeys, date);
+	}
+
 	@NonNull
 	public AvailableToPromiseResultForWebui retrieveAvailableStock(@NonNull final AvailableToPromiseQuery query)
 	{
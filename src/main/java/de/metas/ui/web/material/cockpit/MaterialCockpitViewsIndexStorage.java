@@ -47,7 +47,7 @@ import de.metas.ui.web.window.datatypes.WindowId;
 public class MaterialCockpitViewsIndexStorage implements IViewsIndexStorage
 {
 
-	private final IViewsIndexStorage defaultViewsRepositoryStorage = new DefaultViewsRepositoryStorage();;
+	private final IViewsIndexStorage defaultViewsRepositoryStorage = new DefaultViewsRepositoryStorage(MaterialCockpitConstants.WINDOWID_MaterialCockpitView.toJson());
 
 	public MaterialCockpitViewsIndexStorage()
 	{
@@ -2,9 +2,11 @@ package de.metas.ui.web.menu;
 
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.adempiere.ad.security.UserRolePermissionsKey;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,9 +14,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.google.common.collect.ImmutableList;
 
+import de.metas.ui.web.cache.ETagResponseEntityBuilder;
 import de.metas.ui.web.config.WebConfig;
 import de.metas.ui.web.menu.MenuNode.MenuNodeType;
 import de.metas.ui.web.menu.datatypes.json.JSONMenuNode;
@@ -25,6 +29,7 @@ import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentChangedEvent;
+import de.metas.ui.web.window.datatypes.json.JSONOptions;
 import de.metas.ui.web.window.descriptor.factory.DocumentDescriptorFactory;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -80,14 +85,32 @@ public class MenuRestController
 		return menuTreeRepository.getMenuTree(userRolePermissionsKey, adLanguage);
 	}
 
+	/**
+	 * Wraps given JSON into a response entity which supports conditional GETs.
+	 * The ETag is computed from the JSON content, because the favorites can change without changing the menu tree itself.
+	 */
+	private <T> ResponseEntity<T> toResponseEntity(final WebRequest request, final Supplier<T> jsonSupplier)
+	{
+		return ETagResponseEntityBuilder.ofContent(request, jsonSupplier)
+				.cacheMaxAge(0) // always revalidate
+				.jsonOptions(() -> JSONOptions.of(userSession))
+				.toJson((json, jsonOptions) -> json);
+	}
+
 	@GetMapping("/root")
-	public JSONMenuNode getRoot(
+	public ResponseEntity<JSONMenuNode> getRoot(
 			@RequestParam(name = PARAM_Depth, required = false, defaultValue = "1") final int depth,
 			@RequestParam(name = PARAM_ChildrenLimit, required = false, defaultValue = "0") final int childrenLimit,
-			@RequestParam(name = "favorites", required = false, defaultValue = "false") final boolean onlyFavorites)
+			@RequestParam(name = "favorites", required = false, defaultValue = "false") final boolean onlyFavorites,
+			final WebRequest request)
 	{
 		userSession.assertLoggedIn();
 
+		return toResponseEntity(request, () -> getRoot(depth, childrenLimit, onlyFavorites));
+	}
+
+	private JSONMenuNode getRoot(final int depth, final int childrenLimit, final boolean onlyFavorites)
+	{
 		final MenuTree menuTree = getMenuTree();
 
 		//
@@ -115,21 +138,24 @@ public class MenuRestController
 	}
 
 	@GetMapping("/node/{nodeId}")
-	public JSONMenuNode getNode(
+	public ResponseEntity<JSONMenuNode> getNode(
 			@PathVariable(PARAM_NodeId) final String nodeId,
 			@RequestParam(name = PARAM_Depth, required = false, defaultValue = "1") final int depth,
-			@RequestParam(name = PARAM_ChildrenLimit, required = false, defaultValue = "0") final int childrenLimit)
+			@RequestParam(name = PARAM_ChildrenLimit, required = false, defaultValue = "0") final int childrenLimit,
+			final WebRequest request)
 	{
 		userSession.assertLoggedIn();
 
-		final MenuNode node = getMenuTree()
-				.getNodeById(nodeId);
+		return toResponseEntity(request, () -> {
+			final MenuNode node = getMenuTree()
+					.getNodeById(nodeId);
 
-		return JSONMenuNode.builder(node)
-				.setMaxDepth(depth)
-				.setMaxChildrenPerNode(childrenLimit)
-				.setIsFavoriteProvider(menuTreeRepository::isFavorite)
-				.build();
+			return JSONMenuNode.builder(node)
+					.setMaxDepth(depth)
+					.setMaxChildrenPerNode(childrenLimit)
+					.setIsFavoriteProvider(menuTreeRepository::isFavorite)
+					.build();
+		});
 	}
 
 	@PatchMapping("/node/{nodeId}")
@@ -156,33 +182,39 @@ public class MenuRestController
 
 	@ApiOperation("Gets node's path (from root node) ")
 	@GetMapping("/node/{nodeId}/path")
-	public JSONMenuNode getPath(
+	public ResponseEntity<JSONMenuNode> getPath(
 			@PathVariable(PARAM_NodeId) final String nodeId,
-			@RequestParam(name = PARAM_IncludeLastNode, required = false, defaultValue = "false") @ApiParam("Shall we include the last node") final boolean includeLastNode //
-	)
+			@RequestParam(name = PARAM_IncludeLastNode, required = false, defaultValue = "false") @ApiParam("Shall we include the last node") final boolean includeLastNode, //
+			final WebRequest request)
 	{
 		userSession.assertLoggedIn();
 
-		final List<MenuNode> path = getMenuTree()
-				.getPath(nodeId);
+		return toResponseEntity(request, () -> {
+			final List<MenuNode> path = getMenuTree()
+					.getPath(nodeId);
 
-		final boolean skipRootNode = true;
-		return JSONMenuNode.ofPath(path, skipRootNode, includeLastNode, menuTreeRepository);
+			final boolean skipRootNode = true;
+			return JSONMenuNode.ofPath(path, skipRootNode, includeLastNode, menuTreeRepository);
+		});
 	}
 
 	@ApiOperation("Gets breadcrumb menu to be displayed when user clicks on that node in the breadcrumb")
 	@GetMapping("/node/{nodeId}/breadcrumbMenu")
-	public List<JSONMenuNode> getNodeBreadcrumbMenu(@PathVariable(PARAM_NodeId) final String nodeId)
+	public ResponseEntity<List<JSONMenuNode>> getNodeBreadcrumbMenu(
+			@PathVariable(PARAM_NodeId) final String nodeId,
+			final WebRequest request)
 	{
 		userSession.assertLoggedIn();
 
-		final List<MenuNode> children = getMenuTree().getNodeById(nodeId)
-				.getChildren()
-				.stream()
-				.filter(child -> child.isEffectiveLeafNode())
-				.collect(ImmutableList.toImmutableList());
+		return toResponseEntity(request, () -> {
+			final List<MenuNode> children = getMenuTree().getNodeById(nodeId)
+					.getChildren()
+					.stream()
+					.filter(child -> child.isEffectiveLeafNode())
+					.collect(ImmutableList.toImmutableList());
 
-		return JSONMenuNode.ofList(children, menuTreeRepository);
+			return JSONMenuNode.ofList(children, menuTreeRepository);
+		});
 	}
 
 	@GetMapping("/elementPath")
@@ -2,9 +2,14 @@ package de.metas.ui.web.menu;
 
 import java.text.Normalizer;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import org.compiere.util.Util;
@@ -13,6 +18,7 @@ import org.slf4j.Logger;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ListMultimap;
@@ -25,6 +31,7 @@ import de.metas.ui.web.menu.exception.NoMenuNodesFoundException;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.WindowId;
 import lombok.NonNull;
+import lombok.Value;
 
 /*
  * #%L
@@ -65,6 +72,9 @@ public final class MenuTree
 	private final ListMultimap<ArrayKey, MenuNode> nodesByTypeAndElementId;
 	private final ListMultimap<String, MenuNode> nodesByMainTableName;
 
+	/** Normalized captions of all non-root nodes, in tree order; built once, used by {@link #filter(String, boolean)} */
+	private final ImmutableList<NormalizedCaption> normalizedCaptions;
+
 	private MenuTree(final long version, final MenuNode rootNode)
 	{
 		super();
@@ -75,6 +85,7 @@ public final class MenuTree
 		final ImmutableMap.Builder<String, MenuNode> nodesByIdBuilder = ImmutableMap.builder();
 		final ImmutableListMultimap.Builder<ArrayKey, MenuNode> nodesByTypeAndElementIdBuilder = ImmutableListMultimap.builder();
 		final ImmutableListMultimap.Builder<String, MenuNode> nodesByMainTableNameBuilder = ImmutableListMultimap.builder();
+		final ImmutableList.Builder<NormalizedCaption> normalizedCaptionsBuilder = ImmutableList.builder();
 		rootNode.iterate(node -> {
 			nodesByIdBuilder.put(node.getId(), node);
 			nodesByTypeAndElementIdBuilder.put(mkTypeAndElementIdKey(node.getType(), node.getElementId()), node);
@@ -84,10 +95,16 @@ public final class MenuTree
 			{
 				nodesByMainTableNameBuilder.put(mainTableName, node);
 			}
+
+			if (!node.isRoot() && node.getCaption() != null)
+			{
+				normalizedCaptionsBuilder.add(new NormalizedCaption(node, normalizeForSearch(node.getCaption())));
+			}
 		});
 		nodesById = nodesByIdBuilder.build();
 		nodesByTypeAndElementId = nodesByTypeAndElementIdBuilder.build();
 		nodesByMainTableName = nodesByMainTableNameBuilder.build();
+		normalizedCaptions = normalizedCaptionsBuilder.build();
 	}
 
 	private static final ArrayKey mkTypeAndElementIdKey(final MenuNodeType type, final DocumentId elementId)
@@ -227,6 +244,9 @@ public final class MenuTree
 
 	/**
 	 * Filters this node and its children recursively.
+	 * <p>
+	 * The matching nodes are ranked (exact match, caption prefix, word prefix, anywhere) and the children of each resulting group are ordered by the best rank found in their subtree.
+	 * Nodes having the same rank keep their menu order.
 	 *
 	 * @param nameQuery
 	 * @param includeLeafsIfGroupAccepted
@@ -243,54 +263,118 @@ public final class MenuTree
 			throw new IllegalArgumentException("Invalid name query '" + nameQuery + "'");
 		}
 
-		final String nameQueryLC = nameQuery.toLowerCase();
-		logger.trace("Filtering using nameQueryLC={}", nameQueryLC);
+		final String queryNorm = normalizeForSearch(nameQuery);
+		logger.trace("Filtering using queryNorm={}", queryNorm);
 
-		return getRootNode()
-				.deepCopy(node -> {
-					if (node.isRoot())
-					{
-						logger.trace("Filter: accept root node: {}", node);
-						return MenuNodeFilterResolution.Accept;
-					}
+		//
+		// Find the matching nodes and propagate their rank to their ancestors
+		final Set<MenuNode> matchedNodes = new HashSet<>();
+		final Map<MenuNode, Integer> bestRankByNode = new HashMap<>();
+		for (final NormalizedCaption normalizedCaption : normalizedCaptions)
+		{
+			final int rank = normalizedCaption.rank(queryNorm);
+			if (rank == RANK_NoMatch)
+			{
+				continue;
+			}
 
-					final boolean matches = matchesNameQuery(node, nameQueryLC);
-					if (matches)
-					{
-						logger.trace("Filter: accept node because matches: {}", node);
-						return MenuNodeFilterResolution.Accept;
-					}
+			final MenuNode node = normalizedCaption.getNode();
+			logger.trace("Filter: node matches with rank={}: {}", rank, node);
+			matchedNodes.add(node);
 
-					if (node.isGroupingNode())
-					{
-						logger.trace("Filter: accept node (if has children!) because does matches and it's a groupping node: {}", node);
-						return MenuNodeFilterResolution.AcceptIfHasChildren;
-					}
-					else if (includeLeafsIfGroupAccepted)
-					{
-						logger.trace("Filter: accept node if parent is accepted because does not match and we were asked to populate matching groups with its leafs: {}", node);
-						return MenuNodeFilterResolution.AcceptIfParentIsAccepted;
-					}
-					else
-					{
-						logger.trace("Filter: reject node because does not match and it's leaf node: {}", node);
-						return MenuNodeFilterResolution.Reject;
-					}
-				});
+			for (MenuNode n = node; n != null; n = n.getParent())
+			{
+				final Integer nodeBestRank = bestRankByNode.get(n);
+				if (nodeBestRank != null && nodeBestRank <= rank)
+				{
+					break; // this node and its ancestors already have a better (or the same) rank
+				}
+				bestRankByNode.put(n, rank);
+			}
+		}
+
+		return copyFiltered(getRootNode(), matchedNodes, bestRankByNode, includeLeafsIfGroupAccepted);
 	}
 
-	private static final boolean matchesNameQuery(final MenuNode node, final String nameQueryLC)
+	/**
+	 * Copies given node, descending only into the nodes which were matched or which have matching descendants.
+	 */
+	private static MenuNode copyFiltered(
+			final MenuNode node,
+			final Set<MenuNode> matchedNodes,
+			final Map<MenuNode, Integer> bestRankByNode,
+			final boolean includeLeafsIfGroupAccepted)
 	{
-		final String captionNorm = stripDiacritics(node.getCaption().toLowerCase());
-		final String queryNorm = stripDiacritics(nameQueryLC);
-		return captionNorm.indexOf(queryNorm) >= 0;
+		final List<MenuNode> childrenCopy = new ArrayList<>();
+		final Map<MenuNode, Integer> childrenRank = new HashMap<>();
+		for (final MenuNode child : node.getChildren())
+		{
+			final Integer childRank = bestRankByNode.get(child);
+			if (childRank != null)
+			{
+				final MenuNode childCopy = copyFiltered(child, matchedNodes, bestRankByNode, includeLeafsIfGroupAccepted);
+				childrenCopy.add(childCopy);
+				childrenRank.put(childCopy, childRank);
+			}
+			else if (includeLeafsIfGroupAccepted && !child.isGroupingNode())
+			{
+				// populate the accepted group with its leafs, even if they are not matching
+				final MenuNode childCopy = child.copy(ImmutableList.of(), false);
+				childrenCopy.add(childCopy);
+				childrenRank.put(childCopy, RANK_NoMatch);
+			}
+		}
+
+		// NOTE: sort is stable, so the nodes having the same rank keep their menu order
+		childrenCopy.sort(Comparator.comparing(childrenRank::get));
+
+		final boolean matchedByFilter = node.isRoot() || matchedNodes.contains(node);
+		return node.copy(childrenCopy, matchedByFilter);
 	}
 
-	private static final String stripDiacritics(final String string)
+	private static final int RANK_ExactMatch = 0;
+	private static final int RANK_CaptionPrefix = 1;
+	private static final int RANK_WordPrefix = 2;
+	private static final int RANK_Anywhere = 3;
+	private static final int RANK_NoMatch = Integer.MAX_VALUE;
+
+	private static final Pattern PATTERN_CombiningDiacriticalMarks = Pattern.compile("[\\p{InCombiningDiacriticalMarks}]");
+
+	private static final String normalizeForSearch(final String string)
 	{
-		String s = Normalizer.normalize(string, Normalizer.Form.NFD);
-		s = s.replaceAll("[\\p{InCombiningDiacriticalMarks}]", "");
-		return s;
+		final String stringNFD = Normalizer.normalize(string.toLowerCase(), Normalizer.Form.NFD);
+		return PATTERN_CombiningDiacriticalMarks.matcher(stringNFD).replaceAll("");
+	}
+
+	@Value
+	private static final class NormalizedCaption
+	{
+		private final MenuNode node;
+		private final String caption;
+
+		public int rank(final String queryNorm)
+		{
+			int idx = caption.indexOf(queryNorm);
+			if (idx < 0)
+			{
+				return RANK_NoMatch;
+			}
+			else if (idx == 0)
+			{
+				return caption.length() == queryNorm.length() ? RANK_ExactMatch : RANK_CaptionPrefix;
+			}
+
+			while (idx > 0)
+			{
+				if (!Character.isLetterOrDigit(caption.charAt(idx - 1)))
+				{
+					return RANK_WordPrefix;
+				}
+				idx = caption.indexOf(queryNorm, idx + 1);
+			}
+
+			return RANK_Anywhere;
+		}
 	}
 
 	public MenuNode getRootNodeWithFavoritesOnly(@NonNull final MenuNodeFavoriteProvider menuNodeFavoriteProvider)
@@ -0,0 +1,108 @@
+package de.metas.ui.web.metrics;
+
+import java.util.List;
+
+import org.compiere.util.CCache.CCacheStats;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.config.WebConfig;
+import de.metas.ui.web.window.model.lookup.LookupDataSourceFactory;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.MultiGauge.Row;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.swagger.annotations.Api;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Exports all webui metrics in prometheus format.
+ * <p>
+ * NOTE: this endpoint does not require a logged in user because it's meant to be scraped by the monitoring infrastructure.
+ */
+@Api
+@RestController
+@RequestMapping(MetricsRestController.ENDPOINT)
+public class MetricsRestController
+{
+	public static final String ENDPOINT = WebConfig.ENDPOINT_ROOT + "/metrics";
+
+	private static final String TAG_Cache = "cache";
+	private static final MediaType CONTENT_TYPE_PrometheusText = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+	private final PrometheusMeterRegistry registry;
+
+	private final MultiGauge lookupCacheSizes;
+	private final MultiGauge lookupCacheHits;
+	private final MultiGauge lookupCacheMisses;
+
+	public MetricsRestController(@NonNull final PrometheusMeterRegistry registry)
+	{
+		this.registry = registry;
+
+		lookupCacheSizes = MultiGauge.builder(WebuiMetrics.PREFIX + "lookup.cache.size").register(registry);
+		lookupCacheHits = MultiGauge.builder(WebuiMetrics.PREFIX + "lookup.cache.hits").register(registry);
+		lookupCacheMisses = MultiGauge.builder(WebuiMetrics.PREFIX + "lookup.cache.misses").register(registry);
+	}
+
+	@GetMapping("/prometheus")
+	public ResponseEntity<String> scrape()
+	{
+		updateLookupCacheMetrics();
+
+		return ResponseEntity.ok()
+				.contentType(CONTENT_TYPE_PrometheusText)
+				.body(registry.scrape());
+	}
+
+	/**
+	 * Lookup caches are created on demand, so we are refreshing the per cache gauges right before each scrape.
+	 */
+	private void updateLookupCacheMetrics()
+	{
+		final List<CCacheStats> cacheStatsList = LookupDataSourceFactory.instance.getCacheStats();
+
+		final ImmutableList.Builder<Row<?>> sizes = ImmutableList.builder();
+		final ImmutableList.Builder<Row<?>> hits = ImmutableList.builder();
+		final ImmutableList.Builder<Row<?>> misses = ImmutableList.builder();
+		for (final CCacheStats cacheStats : cacheStatsList)
+		{
+			final Tags tags = Tags.of(TAG_Cache, cacheStats.getName());
+			sizes.add(Row.of(tags, cacheStats.getSize()));
+			hits.add(Row.of(tags, cacheStats.getHitCount()));
+			misses.add(Row.of(tags, cacheStats.getMissCount()));
+		}
+
+		final boolean overwrite = true;
+		lookupCacheSizes.register(sizes.build(), overwrite);
+		lookupCacheHits.register(hits.build(), overwrite);
+		lookupCacheMisses.register(misses.build(), overwrite);
+	}
+}
@@ -0,0 +1,183 @@
+package de.metas.ui.web.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import de.metas.ui.web.window.datatypes.WindowId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Central place for recording the webui metrics.
+ * <p>
+ * All meters are registered in micrometer's global registry, which is exported by {@link MetricsRestController}.
+ * If no registry was configured (e.g. in unit tests), recording is a no-op.
+ * <p>
+ * Tags are kept to low cardinality values (endpoint family, window ID, lookup table name), so it's cheap enough to keep this always on.
+ */
+public final class WebuiMetrics
+{
+	public static final String PREFIX = "metasfresh.webui.";
+
+	public static final String TAG_WindowId = "windowId";
+	public static final String TAG_LookupTable = "lookupTable";
+	public static final String TAG_Endpoint = "endpoint";
+	public static final String TAG_Topic = "topic";
+	public static final String TAG_Table = "table";
+	public static final String TAG_Reason = "reason";
+	public static final String TAG_Storage = "storage";
+
+	public static final String ENDPOINT_ViewCreate = "view.create";
+	public static final String ENDPOINT_ViewPage = "view.page";
+	public static final String ENDPOINT_DocumentPatch = "document.patch";
+	public static final String ENDPOINT_Typeahead = "typeahead";
+
+	public static final String SESSION_DESTROY_REASON_Expired = "expired";
+	public static final String SESSION_DESTROY_REASON_Deleted = "deleted";
+	public static final String SESSION_DESTROY_REASON_Evicted = "evicted";
+
+	private static final String TAGVALUE_None = "none";
+
+	private WebuiMetrics()
+	{
+	}
+
+	private static MeterRegistry registry()
+	{
+		return Metrics.globalRegistry;
+	}
+
+	public static <T> T timeEndpoint(@NonNull final String endpoint, final WindowId windowId, @NonNull final Supplier<T> callable)
+	{
+		return Timer.builder(PREFIX + "endpoint")
+				.tag(TAG_Endpoint, endpoint)
+				.tag(TAG_WindowId, toTagValue(windowId))
+				.register(registry())
+				.record(callable);
+	}
+
+	public static void recordViewSelectionCreated(final WindowId windowId, final long durationNanos, final long rowsCount)
+	{
+		final String windowIdTag = toTagValue(windowId);
+
+		Timer.builder(PREFIX + "view.selection.create")
+				.tag(TAG_WindowId, windowIdTag)
+				.register(registry())
+				.record(durationNanos, TimeUnit.NANOSECONDS);
+
+		DistributionSummary.builder(PREFIX + "view.selection.rows")
+				.tag(TAG_WindowId, windowIdTag)
+				.register(registry())
+				.record(rowsCount);
+	}
+
+	public static <T> T timeLookup(final String lookupTableName, @NonNull final Supplier<T> callable)
+	{
+		return Timer.builder(PREFIX + "lookup.find")
+				.tag(TAG_LookupTable, lookupTableName != null ? lookupTableName : TAGVALUE_None)
+				.register(registry())
+				.record(callable);
+	}
+
+	public static void incrementWebsocketEventsSent(final String destination)
+	{
+		Counter.builder(PREFIX + "websocket.events.sent")
+				.tag(TAG_Topic, extractTopicFamily(destination))
+				.register(registry())
+				.increment();
+	}
+
+	/**
+	 * @return first part of the websocket destination (e.g. "/view" for "/view/123"), in order to keep the tag's cardinality low
+	 */
+	private static String extractTopicFamily(final String destination)
+	{
+		if (destination == null || destination.isEmpty())
+		{
+			return TAGVALUE_None;
+		}
+
+		final int idx = destination.indexOf('/', 1);
+		return idx > 0 ? destination.substring(0, idx) : destination;
+	}
+
+	public static <T> void registerCacheInvalidationQueueSizeGauge(@NonNull final T obj, @NonNull final ToDoubleFunction<T> queueSizeFunction)
+	{
+		Gauge.builder(PREFIX + "cache.invalidation.queue.size", obj, queueSizeFunction)
+				.register(registry());
+	}
+
+	/**
+	 * Records the time a cache invalidation request spent in queue, until it was picked up for processing.
+	 */
+	public static void recordCacheInvalidationLag(final long lagNanos)
+	{
+		Timer.builder(PREFIX + "cache.invalidation.lag")
+				.register(registry())
+				.record(lagNanos, TimeUnit.NANOSECONDS);
+	}
+
+	public static void incrementCacheInvalidationsCollapsed()
+	{
+		Counter.builder(PREFIX + "cache.invalidation.collapsed")
+				.register(registry())
+				.increment();
+	}
+
+	public static <T> void registerSessionsCountGauge(@NonNull final T obj, @NonNull final ToDoubleFunction<T> sessionsCountFunction)
+	{
+		Gauge.builder(PREFIX + "sessions.count", obj, sessionsCountFunction)
+				.register(registry());
+	}
+
+	public static void incrementSessionsCreated()
+	{
+		Counter.builder(PREFIX + "sessions.created")
+				.register(registry())
+				.increment();
+	}
+
+	/**
+	 * @param reason one of the SESSION_DESTROY_REASON_* constants
+	 */
+	public static void incrementSessionsDestroyed(@NonNull final String reason)
+	{
+		Counter.builder(PREFIX + "sessions.destroyed")
+				.tag(TAG_Reason, reason)
+				.register(registry())
+				.increment();
+	}
+
+	private static String toTagValue(final WindowId windowId)
+	{
+		return windowId != null ? windowId.toJson() : TAGVALUE_None;
+	}
+}
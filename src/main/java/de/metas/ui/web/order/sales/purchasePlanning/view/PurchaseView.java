@@ -216,6 +216,12 @@ public class PurchaseView implements IEditableView
 	{
 	}
 
+	@Override
+	public Set<String> getTableNamesToNotifyOrNull()
+	{
+		return ImmutableSet.of(); // not interested in record changes
+	}
+
 	@Override
 	public void patchViewRow(
 			@NonNull final RowEditingContext ctx,
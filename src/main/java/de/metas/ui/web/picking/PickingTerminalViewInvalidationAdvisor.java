@@ -64,7 +64,13 @@ class PickingTerminalViewInvalidationAdvisor implements IViewInvalidationAdvisor
 		}
 
 		final SqlViewKeyColumnNamesMap keyColumnNamesMap = SqlViewKeyColumnNamesMap.ofIntKeyField(I_M_Packageable_V.COLUMNNAME_M_ShipmentSchedule_ID);
-		return SqlViewRowIdsOrderedSelectionFactory.retrieveRowIdsForLineIds(keyColumnNamesMap, view.getViewId(), shipmentScheduleIds);
+		return SqlViewRowIdsOrderedSelectionFactory.retrieveRowIdsForLineIds(keyColumnNamesMap, view.getSelectionId(), shipmentScheduleIds);
+	}
+
+	@Override
+	public Set<String> getTableNamesToNotifyOrNull(final IView view)
+	{
+		return ImmutableSet.of(I_M_ShipmentSchedule.Table_Name, I_M_Picking_Candidate.Table_Name);
 	}
 
 	private Set<Integer> extractShipmentScheduleIds(final Set<TableRecordReference> recordRefs)
@@ -238,6 +238,12 @@ public class PickingSlotView implements IView
 
 	}
 
+	@Override
+	public Set<String> getTableNamesToNotifyOrNull()
+	{
+		return ImmutableSet.of(); // not interested in record changes
+	}
+
 	@Override
 	public List<RelatedProcessDescriptor> getAdditionalRelatedProcessDescriptors()
 	{
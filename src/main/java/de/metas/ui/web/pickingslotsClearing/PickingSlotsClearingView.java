@@ -262,6 +262,12 @@ public class PickingSlotsClearingView implements IView, IViewRowOverrides
 
 	}
 
+	@Override
+	public Set<String> getTableNamesToNotifyOrNull()
+	{
+		return ImmutableSet.of(); // not interested in record changes
+	}
+
 	@Override
 	public ViewId getIncludedViewId(final IViewRow row)
 	{
@@ -337,6 +337,12 @@ public class PPOrderLinesView implements IView
 		// TODO: notifyRecordsChanged: identify the sub-trees which could be affected and invalidate only those
 	}
 
+	@Override
+	public Set<String> getTableNamesToNotifyOrNull()
+	{
+		return ImmutableSet.of(); // not interested in record changes
+	}
+
 	@Override
 	public List<RelatedProcessDescriptor> getAdditionalRelatedProcessDescriptors()
 	{
@@ -0,0 +1,130 @@
+package de.metas.ui.web.process;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.compiere.util.Env;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.metas.process.ProcessPreconditionsResolution;
+import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
+import de.metas.ui.web.view.IView;
+import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.ViewRowIdsSelection;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Evaluates the preconditions of view related processes.
+ * <p>
+ * The frontend asks for view actions and quick actions on each row selection change, so this evaluator
+ * memorizes the resolutions per view, selection and process until the view is changed (see {@link #invalidateView(ViewId)}).
+ * Views which are not notified about any record changes (i.e. {@link IView#getTableNamesToNotifyOrNull()} is empty) would never
+ * invalidate the memorized resolutions, so their preconditions are always evaluated.
+ * <p>
+ * NOTE: the preconditions are evaluated sequentially, in the request thread,
+ * because they rely on thread inherited transactions and most views (e.g. HU editor, picking) are not thread-safe.
+ */
+@Component
+public class ProcessPreconditionsEvaluator
+{
+	private final Cache<PreconditionsKey, ProcessPreconditionsResolution> resolutionsByKey = CacheBuilder.newBuilder()
+			.maximumSize(20000)
+			.expireAfterWrite(5, TimeUnit.MINUTES)
+			.build();
+
+	/**
+	 * @return given process descriptors, having their preconditions already evaluated
+	 */
+	public Stream<WebuiRelatedProcessDescriptor> evaluate(
+			@NonNull final Stream<WebuiRelatedProcessDescriptor> descriptors,
+			@NonNull final ViewAsPreconditionsContext viewContext)
+	{
+		if (!isMemorizable(viewContext.getView()))
+		{
+			return descriptors;
+		}
+
+		final int adRoleId = Env.getAD_Role_ID(Env.getCtx());
+		return descriptors.map(descriptor -> evaluate(descriptor, PreconditionsKey.of(viewContext, adRoleId, descriptor)));
+	}
+
+	private static boolean isMemorizable(final IView view)
+	{
+		final Set<String> tableNames = view.getTableNamesToNotifyOrNull();
+		return tableNames == null || !tableNames.isEmpty();
+	}
+
+	private WebuiRelatedProcessDescriptor evaluate(final WebuiRelatedProcessDescriptor descriptor, final PreconditionsKey key)
+	{
+		ProcessPreconditionsResolution resolution = resolutionsByKey.getIfPresent(key);
+		if (resolution == null)
+		{
+			resolution = descriptor.getPreconditionsResolution();
+			resolutionsByKey.put(key, resolution);
+		}
+
+		return descriptor.withPreconditionsResolution(resolution);
+	}
+
+	/**
+	 * Forgets the memorized resolutions of given view.
+	 * To be called when the view was changed.
+	 */
+	public void invalidateView(@NonNull final ViewId viewId)
+	{
+		resolutionsByKey.asMap().keySet().removeIf(key -> viewId.equals(key.getViewId()));
+	}
+
+	public void invalidateAll()
+	{
+		resolutionsByKey.invalidateAll();
+	}
+
+	@lombok.Value
+	private static final class PreconditionsKey
+	{
+		public static PreconditionsKey of(final ViewAsPreconditionsContext viewContext, final int adRoleId, final WebuiRelatedProcessDescriptor descriptor)
+		{
+			return new PreconditionsKey(
+					viewContext.getView().getViewId(),
+					viewContext.getViewRowIdsSelection(),
+					viewContext.getParentViewRowIdsSelection(),
+					viewContext.getChildViewRowIdsSelection(),
+					adRoleId,
+					descriptor.getProcessId());
+		}
+
+		private final ViewId viewId;
+		private final ViewRowIdsSelection viewRowIdsSelection;
+		private final ViewRowIdsSelection parentViewRowIdsSelection;
+		private final ViewRowIdsSelection childViewRowIdsSelection;
+		private final int adRoleId;
+		private final ProcessId processId;
+	}
+}
@@ -234,12 +234,24 @@ import de.metas.ui.web.window.model.lookup.LookupValueByIdSupplier;
 		return VERSION_DEFAULT;
 	}
 
+	@Override
+	public String retrieveIncludedDocumentsVersion(final DocumentEntityDescriptor parentEntityDescriptor, final int parentDocumentIdAsInt, final DocumentEntityDescriptor includedEntityDescriptor)
+	{
+		return VERSION_DEFAULT;
+	}
+
 	@Override
 	public int retrieveLastLineNo(final DocumentQuery query)
 	{
 		throw new UnsupportedOperationException();
 	}
 
+	@Override
+	public int retrieveCount(final DocumentQuery query)
+	{
+		throw new UnsupportedOperationException();
+	}
+
 	private static final class ProcessInfoParameterDocumentValuesSupplier implements DocumentValuesSupplier
 	{
 		private final DocumentId adPInstanceId;
@@ -84,6 +84,26 @@ public final class WebuiRelatedProcessDescriptor
 		this.debugProcessClassname = debugProcessClassname;
 	}
 
+	/** copy constructor */
+	private WebuiRelatedProcessDescriptor(@NonNull final WebuiRelatedProcessDescriptor from, @NonNull final ProcessPreconditionsResolution preconditionsResolution)
+	{
+		this.processId = from.processId;
+		this.processCaption = from.processCaption;
+		this.processDescription = from.processDescription;
+		this.quickAction = from.quickAction;
+		this.defaultQuickAction = from.defaultQuickAction;
+		this.preconditionsResolutionSupplier = () -> new ValueAndDuration<>(preconditionsResolution, Duration.ZERO);
+		this.debugProcessClassname = from.debugProcessClassname;
+	}
+
+	/**
+	 * @return a copy of this descriptor which has the given preconditions resolution, instead of evaluating it
+	 */
+	public WebuiRelatedProcessDescriptor withPreconditionsResolution(@NonNull final ProcessPreconditionsResolution preconditionsResolution)
+	{
+		return new WebuiRelatedProcessDescriptor(this, preconditionsResolution);
+	}
+
 	public ProcessId getProcessId()
 	{
 		return processId;
@@ -115,7 +135,7 @@ public final class WebuiRelatedProcessDescriptor
 		return defaultQuickAction;
 	}
 
-	private ProcessPreconditionsResolution getPreconditionsResolution()
+	public ProcessPreconditionsResolution getPreconditionsResolution()
 	{
 		return preconditionsResolutionSupplier.get().getValue();
 	}
@@ -1,5 +1,7 @@
 package de.metas.ui.web.quickinput;
 
+import java.util.List;
+
 import de.metas.ui.web.window.datatypes.DocumentId;
 
 /*
@@ -33,4 +35,38 @@ public interface IQuickInputProcessor
 	 * @return {@link DocumentId} of the included document that was created.
 	 */
 	public DocumentId process(final QuickInput quickInput);
+
+	/**
+	 * Validates the quick input before it's buffered, in order to be processed later, in a batch.
+	 * It shall fail if the quick input could not be processed.
+	 *
+	 * @param quickInput
+	 */
+	public default void validate(final QuickInput quickInput)
+	{
+		// nothing on this level
+	}
+
+	/**
+	 * Called before a batch of quick inputs is processed, so the data needed by all of them can be loaded at once.
+	 *
+	 * @param quickInputs
+	 * @return context which will be passed to {@link #process(QuickInput, IQuickInputBatchContext)} for each quick input of the batch
+	 */
+	public default IQuickInputBatchContext prepareBatch(final List<QuickInput> quickInputs)
+	{
+		return IQuickInputBatchContext.NONE;
+	}
+
+	/**
+	 * Same as {@link #process(QuickInput)}, but the quick input is processed as part of a batch.
+	 *
+	 * @param quickInput
+	 * @param batchContext the context which was returned by {@link #prepareBatch(List)}
+	 * @return {@link DocumentId} of the included document that was created.
+	 */
+	public default DocumentId process(final QuickInput quickInput, final IQuickInputBatchContext batchContext)
+	{
+		return process(quickInput);
+	}
 }
@@ -8,6 +8,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 
 import org.adempiere.ad.callout.api.ICalloutField;
 import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.util.Check;
 import org.adempiere.util.Services;
@@ -25,6 +26,7 @@ import de.metas.ui.web.window.datatypes.json.JSONLookupValuesList;
 import de.metas.ui.web.window.descriptor.DetailId;
 import de.metas.ui.web.window.model.Document;
 import de.metas.ui.web.window.model.Document.CopyMode;
+import de.metas.ui.web.window.model.DocumentValidStatus;
 import de.metas.ui.web.window.model.IDocumentChangesCollector;
 
 /*
@@ -243,11 +245,18 @@ public final class QuickInput
 	 * @return newly created document
 	 */
 	public Document complete()
+	{
+		return complete(createProcessor(), IQuickInputBatchContext.NONE);
+	}
+
+	/**
+	 * @return newly created document
+	 */
+	/* package */ Document complete(final IQuickInputProcessor processor, final IQuickInputBatchContext batchContext)
 	{
 		Services.get(ITrxManager.class).assertThreadInheritedTrxExists();
 
-		final IQuickInputProcessor processor = descriptor.createProcessor();
-		final DocumentId documentLineId = processor.process(this);
+		final DocumentId documentLineId = processor.process(this, batchContext);
 		final Document rootDocument = getRootDocument();
 		final Document includedDocumentJustCreated = rootDocument.getIncludedDocument(targetDetailId, documentLineId);
 
@@ -260,6 +269,28 @@ public final class QuickInput
 		return completed;
 	}
 
+	/* package */ IQuickInputProcessor createProcessor()
+	{
+		return descriptor.createProcessor();
+	}
+
+	/**
+	 * Validates this quick input, so it can be buffered and completed later, in a batch (see {@link QuickInputBatch}).
+	 * After this call, this quick input is considered completed.
+	 */
+	public void validateForBatch()
+	{
+		final DocumentValidStatus validStatus = quickInputDocument.checkAndGetValidStatus();
+		if (!validStatus.isValid())
+		{
+			throw new AdempiereException(validStatus.getReason());
+		}
+
+		createProcessor().validate(this);
+
+		this.completed = true;
+	}
+
 	public JSONLookupValuesList getFieldDropdownValues(final String fieldName)
 	{
 		return getQuickInputDocument()
@@ -0,0 +1,134 @@
+package de.metas.ui.web.quickinput;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.descriptor.DetailId;
+import de.metas.ui.web.window.model.Document;
+import de.metas.ui.web.window.model.Document.CopyMode;
+import de.metas.ui.web.window.model.NullDocumentChangesCollector;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Validated {@link QuickInput}s which are buffered in memory and which will be completed later, in a batch.
+ * <p>
+ * Completing the quick inputs in a batch means one transaction and one set of change events for the whole batch, instead of one for each quick input.
+ */
+public final class QuickInputBatch
+{
+	private final DocumentPath rootDocumentPath;
+	private final DetailId detailId;
+
+	private final LinkedHashMap<DocumentId, QuickInput> quickInputsById = new LinkedHashMap<>();
+
+	public QuickInputBatch(@NonNull final DocumentPath rootDocumentPath, @NonNull final DetailId detailId)
+	{
+		this.rootDocumentPath = rootDocumentPath;
+		this.detailId = detailId;
+	}
+
+	@Override
+	public String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.add("rootDocumentPath", rootDocumentPath)
+				.add("detailId", detailId)
+				.add("size", size())
+				.toString();
+	}
+
+	public DocumentPath getRootDocumentPath()
+	{
+		return rootDocumentPath;
+	}
+
+	public DetailId getDetailId()
+	{
+		return detailId;
+	}
+
+	public synchronized int size()
+	{
+		return quickInputsById.size();
+	}
+
+	public synchronized boolean isEmpty()
+	{
+		return quickInputsById.isEmpty();
+	}
+
+	/**
+	 * Adds a validated quick input (see {@link QuickInput#validateForBatch()}).
+	 */
+	public synchronized void add(@NonNull final QuickInput quickInput)
+	{
+		quickInputsById.put(quickInput.getId(), quickInput.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance));
+	}
+
+	public synchronized void clear()
+	{
+		quickInputsById.clear();
+	}
+
+	/**
+	 * Completes the first <code>maxSize</code> buffered quick inputs and removes them from this batch.
+	 * If the completion fails, the quick inputs are kept.
+	 * <p>
+	 * Shall be called in a transaction, while the root document is locked for writing.
+	 *
+	 * @return the newly created included documents
+	 */
+	public synchronized List<Document> completeNext(@NonNull final Document rootDocument, final int maxSize)
+	{
+		final List<QuickInput> quickInputs = quickInputsById.values()
+				.stream()
+				.limit(maxSize)
+				.map(quickInput -> quickInput.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance).bindRootDocument(rootDocument))
+				.collect(ImmutableList.toImmutableList());
+		if (quickInputs.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		final IQuickInputProcessor processor = quickInputs.get(0).createProcessor();
+		final IQuickInputBatchContext batchContext = processor.prepareBatch(quickInputs);
+
+		final List<Document> documentsCreated = new ArrayList<>(quickInputs.size());
+		for (final QuickInput quickInput : quickInputs)
+		{
+			documentsCreated.add(quickInput.complete(processor, batchContext));
+		}
+
+		quickInputs.forEach(quickInput -> quickInputsById.remove(quickInput.getId()));
+
+		return documentsCreated;
+	}
+}
@@ -1,14 +1,18 @@
 package de.metas.ui.web.quickinput;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.adempiere.util.Check;
 import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.util.CCache;
+import org.compiere.util.Util.ArrayKey;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -19,6 +23,10 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.window.controller.DocumentPermissionsHelper;
@@ -31,6 +39,7 @@ import de.metas.ui.web.window.datatypes.json.JSONDocument;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentChangedEvent;
 import de.metas.ui.web.window.datatypes.json.JSONLookupValuesList;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
+import de.metas.ui.web.window.datatypes.json.JSONQuickInputBatchResult;
 import de.metas.ui.web.window.datatypes.json.JSONQuickInputLayoutDescriptor;
 import de.metas.ui.web.window.descriptor.DetailId;
 import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
@@ -42,6 +51,7 @@ import de.metas.ui.web.window.model.DocumentCollection;
 import de.metas.ui.web.window.model.IDocumentChangesCollector;
 import de.metas.ui.web.window.model.NullDocumentChangesCollector;
 import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
 
 /*
  * #%L
@@ -88,6 +98,18 @@ public class WindowQuickInputRestController
 
 	private final CCache<DocumentId, QuickInput> _quickInputDocuments = CCache.newLRUCache("QuickInputDocuments", 200, 0);
 
+	/**
+	 * Buffered quick inputs, indexed by user session, root document and tab.
+	 * NOTE: not a {@link CCache} because the buffered lines shall not be lost on cache reset or eviction. They only expire if not touched for a long time.
+	 */
+	private final Cache<ArrayKey, QuickInputBatch> _quickInputBatches = CacheBuilder.newBuilder()
+			.expireAfterAccess(8, TimeUnit.HOURS)
+			.build();
+
+	/** How many buffered quick inputs are completed in one transaction */
+	@Value("${metasfresh.webui.quickInput.batchSize:50}")
+	private int batchSize;
+
 	private JSONOptions newJSONOptions()
 	{
 		return JSONOptions.builder(userSession)
@@ -312,6 +334,144 @@ public class WindowQuickInputRestController
 		});
 	}
 
+	@PostMapping("{quickInputId}/buffer")
+	@ApiOperation("Validates the quick input and buffers it, instead of creating the included document right away. "
+			+ "Buffered quick inputs are completed in batches, when the batch size is reached or when the batch is committed.")
+	public JSONQuickInputBatchResult buffer(
+			@PathVariable("windowId") final String windowIdStr //
+			, @PathVariable("documentId") final String documentIdStr //
+			, @PathVariable("tabId") final String tabIdStr //
+			, @PathVariable("quickInputId") final String quickInputIdStr //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final QuickInputPath quickInputPath = QuickInputPath.of(windowIdStr, documentIdStr, tabIdStr, quickInputIdStr);
+		return Execution.callInNewExecution("quickInput-buffer-" + quickInputPath, () -> {
+			final IDocumentChangesCollector changesCollector = Execution.getCurrentDocumentChangesCollectorOrNull();
+
+			final List<Document> documentsCreated = forQuickInputWritable(quickInputPath, changesCollector, quickInput -> {
+				quickInput.validateForBatch();
+
+				final QuickInputBatch batch = getQuickInputBatch(quickInputPath.getRootDocumentPath(), quickInputPath.getDetailId());
+				batch.add(quickInput);
+				if (batch.size() < batchSize)
+				{
+					return ImmutableList.<Document> of();
+				}
+
+				return completeNextFromBatch(batch, quickInput.getRootDocument(), changesCollector);
+			});
+
+			return toJSONQuickInputBatchResult(quickInputPath.getRootDocumentPath(), quickInputPath.getDetailId(), documentsCreated, changesCollector);
+		});
+	}
+
+	@GetMapping("/batch")
+	public JSONQuickInputBatchResult getBatch(
+			@PathVariable("windowId") final String windowIdStr //
+			, @PathVariable("documentId") final String documentIdStr //
+			, @PathVariable("tabId") final String tabIdStr //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final DocumentPath rootDocumentPath = DocumentPath.rootDocumentPath(WindowId.fromJson(windowIdStr), documentIdStr);
+		final DetailId detailId = DetailId.fromJson(tabIdStr);
+		return JSONQuickInputBatchResult.builder()
+				.bufferedCount(getQuickInputBatch(rootDocumentPath, detailId).size())
+				.build();
+	}
+
+	@PostMapping("/batch/commit")
+	@ApiOperation("Completes all buffered quick inputs")
+	public JSONQuickInputBatchResult commitBatch(
+			@PathVariable("windowId") final String windowIdStr //
+			, @PathVariable("documentId") final String documentIdStr //
+			, @PathVariable("tabId") final String tabIdStr //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final DocumentPath rootDocumentPath = DocumentPath.rootDocumentPath(WindowId.fromJson(windowIdStr), documentIdStr);
+		final DetailId detailId = DetailId.fromJson(tabIdStr);
+		final QuickInputBatch batch = getQuickInputBatch(rootDocumentPath, detailId);
+
+		final JSONQuickInputBatchResult.JSONQuickInputBatchResultBuilder result = JSONQuickInputBatchResult.builder();
+		while (!batch.isEmpty())
+		{
+			// Each batch is completed in it's own transaction
+			final JSONQuickInputBatchResult batchResult = Execution.callInNewExecution("quickInput-batch-commit-" + rootDocumentPath, () -> {
+				final IDocumentChangesCollector changesCollector = Execution.getCurrentDocumentChangesCollectorOrNull();
+				final List<Document> documentsCreated = documentsCollection.forRootDocumentWritable(rootDocumentPath, changesCollector, rootDocument -> {
+					return completeNextFromBatch(batch, rootDocument, changesCollector);
+				});
+				return toJSONQuickInputBatchResult(rootDocumentPath, detailId, documentsCreated, changesCollector);
+			});
+
+			result.createdDocuments(batchResult.getCreatedDocuments());
+		}
+
+		return result
+				.bufferedCount(batch.size())
+				.build();
+	}
+
+	@DeleteMapping("/batch")
+	@ApiOperation("Discards all buffered quick inputs")
+	public void discardBatch(
+			@PathVariable("windowId") final String windowIdStr //
+			, @PathVariable("documentId") final String documentIdStr //
+			, @PathVariable("tabId") final String tabIdStr //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final DocumentPath rootDocumentPath = DocumentPath.rootDocumentPath(WindowId.fromJson(windowIdStr), documentIdStr);
+		final DetailId detailId = DetailId.fromJson(tabIdStr);
+		_quickInputBatches.invalidate(createQuickInputBatchKey(rootDocumentPath, detailId));
+	}
+
+	private QuickInputBatch getQuickInputBatch(final DocumentPath rootDocumentPath, final DetailId detailId)
+	{
+		return _quickInputBatches.asMap().computeIfAbsent(createQuickInputBatchKey(rootDocumentPath, detailId), key -> new QuickInputBatch(rootDocumentPath, detailId));
+	}
+
+	private ArrayKey createQuickInputBatchKey(final DocumentPath rootDocumentPath, final DetailId detailId)
+	{
+		// NOTE: the batch belongs to current user session, so other users cannot commit or discard it
+		return ArrayKey.of(userSession.getSessionId(), rootDocumentPath, detailId);
+	}
+
+	private List<Document> completeNextFromBatch(final QuickInputBatch batch, final Document rootDocument, final IDocumentChangesCollector changesCollector)
+	{
+		final List<Document> documentsCreated = batch.completeNext(rootDocument, Math.max(batchSize, 1));
+
+		// Notify the frontend only once for the whole batch
+		changesCollector.collectStaleDetailId(batch.getRootDocumentPath(), batch.getDetailId());
+
+		return documentsCreated;
+	}
+
+	private JSONQuickInputBatchResult toJSONQuickInputBatchResult(
+			final DocumentPath rootDocumentPath,
+			final DetailId detailId,
+			final List<Document> documentsCreated,
+			final IDocumentChangesCollector changesCollector)
+	{
+		final JSONOptions jsonOpts = newJSONOptions();
+
+		if (!documentsCreated.isEmpty())
+		{
+			websocketPublisher.convertAndPublish(JSONDocument.ofEvents(changesCollector, jsonOpts));
+		}
+
+		return JSONQuickInputBatchResult.builder()
+				.bufferedCount(getQuickInputBatch(rootDocumentPath, detailId).size())
+				.createdDocuments(JSONDocument.ofDocumentsList(documentsCreated, jsonOpts))
+				.build();
+	}
+
 	private final QuickInput getQuickInputNoLock(final QuickInputPath quickInputPath)
 	{
 		return _quickInputDocuments
@@ -3,18 +3,26 @@ package de.metas.ui.web.quickinput.orderline;
 import static org.adempiere.model.InterfaceWrapperHelper.load;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 
+import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.mm.attributes.api.IAttributeSetInstanceBL;
 import org.adempiere.mm.attributes.api.ImmutableAttributeSet;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.util.GuavaCollectors;
 import org.adempiere.util.Services;
 import org.compiere.model.I_C_OrderLine;
 import org.compiere.model.I_M_AttributeSetInstance;
 import org.compiere.model.I_M_Product;
 import org.slf4j.Logger;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
 import de.metas.adempiere.callout.OrderFastInput;
 import de.metas.adempiere.gui.search.HUPackingAwareCopy.ASICopyMode;
 import de.metas.adempiere.gui.search.IHUPackingAware;
@@ -24,12 +32,14 @@ import de.metas.adempiere.gui.search.impl.PlainHUPackingAware;
 import de.metas.adempiere.model.I_C_Order;
 import de.metas.handlingunits.model.I_M_HU_PI_Item_Product;
 import de.metas.logging.LogManager;
+import de.metas.ui.web.quickinput.IQuickInputBatchContext;
 import de.metas.ui.web.quickinput.IQuickInputProcessor;
 import de.metas.ui.web.quickinput.QuickInput;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.descriptor.sql.ProductLookupDescriptor;
 import de.metas.ui.web.window.descriptor.sql.ProductLookupDescriptor.ProductAndAttributes;
 import lombok.NonNull;
+import lombok.Value;
 
 /*
  * #%L
@@ -59,6 +69,26 @@ public class OrderLineQuickInputProcessor implements IQuickInputProcessor
 	private static final transient Logger logger = LogManager.getLogger(OrderLineQuickInputProcessor.class);
 	private final transient IHUPackingAwareBL huPackingAwareBL = Services.get(IHUPackingAwareBL.class);
 
+	/** Data prefetched by {@link OrderLineQuickInputProcessor#prepareBatch(List)} */
+	@Value
+	private static final class OrderLineBatchContext implements IQuickInputBatchContext
+	{
+		private static final OrderLineBatchContext EMPTY = new OrderLineBatchContext(ImmutableMap.of());
+
+		private static OrderLineBatchContext cast(final IQuickInputBatchContext batchContext)
+		{
+			return batchContext instanceof OrderLineBatchContext ? (OrderLineBatchContext)batchContext : EMPTY;
+		}
+
+		private final ImmutableMap<Integer, I_M_Product> productsById;
+
+		public I_M_Product getProductById(final int productId)
+		{
+			final I_M_Product product = productsById.get(productId);
+			return product != null ? product : load(productId, I_M_Product.class);
+		}
+	}
+
 	public OrderLineQuickInputProcessor()
 	{
 		super();
@@ -66,20 +96,63 @@ public class OrderLineQuickInputProcessor implements IQuickInputProcessor
 
 	@Override
 	public DocumentId process(final QuickInput quickInput)
+	{
+		return process(quickInput, OrderLineBatchContext.EMPTY);
+	}
+
+	@Override
+	public DocumentId process(final QuickInput quickInput, final IQuickInputBatchContext batchContext)
 	{
 		final I_C_Order order = quickInput.getRootDocumentAs(I_C_Order.class);
 		final Properties ctx = InterfaceWrapperHelper.getCtx(order);
+		final OrderLineBatchContext orderLineBatchContext = OrderLineBatchContext.cast(batchContext);
 
-		final I_C_OrderLine newOrderLine = OrderFastInput.addOrderLine(ctx, order, orderLineObj -> updateOrderLine(orderLineObj, quickInput));
+		final I_C_OrderLine newOrderLine = OrderFastInput.addOrderLine(ctx, order, orderLineObj -> updateOrderLine(orderLineObj, quickInput, orderLineBatchContext));
 		final int newOrderLineId = newOrderLine.getC_OrderLine_ID();
 		return DocumentId.of(newOrderLineId);
 	}
 
-	private final void updateOrderLine(final Object orderLineObj, final QuickInput fromQuickInput)
+	@Override
+	public void validate(final QuickInput quickInput)
+	{
+		final IOrderLineQuickInput orderLineQuickInput = quickInput.getQuickInputDocumentAs(IOrderLineQuickInput.class);
+
+		final BigDecimal quickInputQty = orderLineQuickInput.getQty();
+		if (quickInputQty == null || quickInputQty.signum() <= 0)
+		{
+			logger.warn("Invalid Qty={} for {}", quickInputQty, orderLineQuickInput);
+			throw new AdempiereException("Qty shall be greather than zero"); // TODO trl
+		}
+	}
+
+	@Override
+	public IQuickInputBatchContext prepareBatch(final List<QuickInput> quickInputs)
+	{
+		final Set<Integer> productIds = quickInputs.stream()
+				.map(quickInput -> quickInput.getQuickInputDocumentAs(IOrderLineQuickInput.class).getM_Product_ID())
+				.filter(Objects::nonNull)
+				.map(productLookupValue -> ProductLookupDescriptor.toProductAndAttributes(productLookupValue).getProductId())
+				.collect(ImmutableSet.toImmutableSet());
+		if (productIds.size() <= 1)
+		{
+			return OrderLineBatchContext.EMPTY;
+		}
+
+		final ImmutableMap<Integer, I_M_Product> productsById = Services.get(IQueryBL.class)
+				.createQueryBuilder(I_M_Product.class)
+				.addInArrayFilter(I_M_Product.COLUMNNAME_M_Product_ID, productIds)
+				.create()
+				.list(I_M_Product.class)
+				.stream()
+				.collect(GuavaCollectors.toImmutableMapByKey(I_M_Product::getM_Product_ID));
+		return new OrderLineBatchContext(productsById);
+	}
+
+	private final void updateOrderLine(final Object orderLineObj, final QuickInput fromQuickInput, final OrderLineBatchContext batchContext)
 	{
 		final I_C_Order order = fromQuickInput.getRootDocumentAs(I_C_Order.class);
 		final IOrderLineQuickInput fromOrderLineQuickInput = fromQuickInput.getQuickInputDocumentAs(IOrderLineQuickInput.class);
-		final IHUPackingAware quickInputPackingAware = createQuickInputPackingAware(order, fromOrderLineQuickInput);
+		final IHUPackingAware quickInputPackingAware = createQuickInputPackingAware(order, fromOrderLineQuickInput, batchContext);
 
 		final I_C_OrderLine orderLineToUpdate = InterfaceWrapperHelper.create(orderLineObj, I_C_OrderLine.class);
 		final IHUPackingAware orderLinePackingAware = OrderLineHUPackingAware.of(orderLineToUpdate);
@@ -92,9 +165,10 @@ public class OrderLineQuickInputProcessor implements IQuickInputProcessor
 
 	private IHUPackingAware createQuickInputPackingAware(
 			@NonNull final I_C_Order order,
-			@NonNull final IOrderLineQuickInput quickInput)
+			@NonNull final IOrderLineQuickInput quickInput,
+			@NonNull final OrderLineBatchContext batchContext)
 	{
-		final PlainHUPackingAware huPackingAware = createAndInitHuPackingAware(order, quickInput);
+		final PlainHUPackingAware huPackingAware = createAndInitHuPackingAware(order, quickInput, batchContext);
 
 		// Get quickInput's Qty
 		final BigDecimal quickInputQty = quickInput.getQty();
@@ -111,7 +185,8 @@ public class OrderLineQuickInputProcessor implements IQuickInputProcessor
 
 	private PlainHUPackingAware createAndInitHuPackingAware(
 			@NonNull final I_C_Order order,
-			@NonNull final IOrderLineQuickInput quickInput)
+			@NonNull final IOrderLineQuickInput quickInput,
+			@NonNull final OrderLineBatchContext batchContext)
 	{
 		final PlainHUPackingAware huPackingAware = new PlainHUPackingAware();
 		huPackingAware.setC_BPartner(order.getC_BPartner());
@@ -119,7 +194,7 @@ public class OrderLineQuickInputProcessor implements IQuickInputProcessor
 		huPackingAware.setInDispute(false);
 
 		final ProductAndAttributes productAndAttributes = ProductLookupDescriptor.toProductAndAttributes(quickInput.getM_Product_ID());
-		final I_M_Product product = load(productAndAttributes.getProductId(), I_M_Product.class);
+		final I_M_Product product = batchContext.getProductById(productAndAttributes.getProductId());
 		huPackingAware.setM_Product_ID(product.getM_Product_ID());
 		huPackingAware.setC_UOM(product.getC_UOM());
 		huPackingAware.setM_AttributeSetInstance_ID(createASI(productAndAttributes));
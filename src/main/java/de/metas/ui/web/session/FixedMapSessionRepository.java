@@ -1,12 +1,11 @@
 package de.metas.ui.web.session;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
+import java.util.Collection;
 
 import javax.annotation.Nullable;
 
+import org.adempiere.exceptions.AdempiereException;
 import org.slf4j.Logger;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.session.ExpiringSession;
@@ -20,6 +19,7 @@ import org.springframework.session.events.SessionExpiredEvent;
 import com.google.common.base.Stopwatch;
 
 import de.metas.logging.LogManager;
+import de.metas.ui.web.metrics.WebuiMetrics;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.ToString;
@@ -48,16 +48,20 @@ import lombok.ToString;
 
 /**
  * Similar with {@link MapSessionRepository} but it's also firing session created/destroyed events.
+ * <p>
+ * The sessions are kept in a {@link SessionStore}. If no store is provided, a bounded {@link InMemorySessionStore} is used.
+ * When it's full, the expired and idle sessions are evicted (firing {@link SessionExpiredEvent}s) but the sessions which are still in use are never evicted:
+ * instead, no new sessions are created until there is room again.
  * 
  * @author metas-dev <dev@metasfresh.com>
  *
  */
-@ToString(of = { "defaultMaxInactiveInterval" })
+@ToString(of = { "defaultMaxInactiveInterval", "sessions" })
 /* package */class FixedMapSessionRepository implements SessionRepository<ExpiringSession>
 {
 	private static final Logger logger = LogManager.getLogger(FixedMapSessionRepository.class);
 
-	private final Map<String, ExpiringSession> sessions = new ConcurrentHashMap<>();
+	private final SessionStore sessions;
 
 	private final ApplicationEventPublisher applicationEventPublisher;
 	private final Integer defaultMaxInactiveInterval;
@@ -65,16 +69,39 @@ import lombok.ToString;
 	@Builder
 	private FixedMapSessionRepository(
 			@NonNull final ApplicationEventPublisher applicationEventPublisher,
-			@Nullable final Integer defaultMaxInactiveInterval)
+			@Nullable final Integer defaultMaxInactiveInterval,
+			@Nullable final SessionStore sessionStore,
+			final int maxSessions,
+			@Nullable final Duration maxIdleTimeWhenFull)
 	{
 		this.applicationEventPublisher = applicationEventPublisher;
 		this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+
+		if (sessionStore != null)
+		{
+			sessions = sessionStore;
+		}
+		else
+		{
+			sessions = InMemorySessionStore.builder()
+					.maxSize(maxSessions)
+					.maxIdleTimeWhenFull(maxIdleTimeWhenFull)
+					.evictionListener(this::onSessionEvicted)
+					.build();
+		}
+
+		WebuiMetrics.registerSessionsCountGauge(this, FixedMapSessionRepository::getSessionsCount);
+	}
+
+	public long getSessionsCount()
+	{
+		return sessions.size();
 	}
 
 	@Override
 	public void save(final ExpiringSession session)
 	{
-		sessions.put(session.getId(), new MapSession(session));
+		sessions.put(new MapSession(session));
 	}
 
 	@Override
@@ -112,17 +139,32 @@ import lombok.ToString;
 			if (expired)
 			{
 				applicationEventPublisher.publishEvent(new SessionExpiredEvent(this, id));
+				WebuiMetrics.incrementSessionsDestroyed(WebuiMetrics.SESSION_DESTROY_REASON_Expired);
 			}
 			else
 			{
 				applicationEventPublisher.publishEvent(new SessionDeletedEvent(this, id));
+				WebuiMetrics.incrementSessionsDestroyed(WebuiMetrics.SESSION_DESTROY_REASON_Deleted);
 			}
 		}
 	}
 
+	private void onSessionEvicted(final ExpiringSession session)
+	{
+		logger.debug("Evicted expired/idle session {} because the max number of sessions was reached", session.getId());
+
+		applicationEventPublisher.publishEvent(new SessionExpiredEvent(this, session.getId()));
+		WebuiMetrics.incrementSessionsDestroyed(WebuiMetrics.SESSION_DESTROY_REASON_Evicted);
+	}
+
 	@Override
 	public ExpiringSession createSession()
 	{
+		if (sessions.isFull())
+		{
+			throw new AdempiereException("Cannot create a new session because the max number of sessions was reached. Please try again later.");
+		}
+
 		final ExpiringSession result = new MapSession();
 		if (defaultMaxInactiveInterval != null)
 		{
@@ -131,6 +173,7 @@ import lombok.ToString;
 
 		// Fire event
 		applicationEventPublisher.publishEvent(new SessionCreatedEvent(this, result.getId()));
+		WebuiMetrics.incrementSessionsCreated();
 
 		return result;
 	}
@@ -152,7 +195,7 @@ import lombok.ToString;
 		final Stopwatch stopwatch = Stopwatch.createStarted();
 		int countExpiredSessions = 0;
 
-		final List<ExpiringSession> sessionsToCheck = new ArrayList<>(sessions.values());
+		final Collection<ExpiringSession> sessionsToCheck = sessions.getAll();
 		for (final ExpiringSession session : sessionsToCheck)
 		{
 			if (session.isExpired())
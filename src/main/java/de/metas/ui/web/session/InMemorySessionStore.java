@@ -0,0 +1,137 @@
+package de.metas.ui.web.session;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.springframework.session.ExpiringSession;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.Builder;
+import lombok.ToString;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * In memory {@link SessionStore}.
+ * <p>
+ * If a max size is set and the store is full, the sessions which are expired or which were not accessed for more than <code>maxIdleTimeWhenFull</code>
+ * are evicted (and the eviction listener is notified). Sessions which are still in use are never evicted:
+ * if there is still no room after that, {@link #isFull()} returns <code>true</code> and new sessions are rejected until some sessions are deleted or expire.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@ToString(of = { "maxSize", "maxIdleTimeWhenFull" })
+public final class InMemorySessionStore implements SessionStore
+{
+	private static final Duration DEFAULT_MaxIdleTimeWhenFull = Duration.ofMinutes(30);
+
+	private final long maxSize;
+	private final Duration maxIdleTimeWhenFull;
+	private final Consumer<ExpiringSession> evictionListener;
+	private final ConcurrentHashMap<String, ExpiringSession> sessions = new ConcurrentHashMap<>();
+
+	@Builder
+	private InMemorySessionStore(
+			final long maxSize,
+			@Nullable final Duration maxIdleTimeWhenFull,
+			@Nullable final Consumer<ExpiringSession> evictionListener)
+	{
+		this.maxSize = maxSize;
+		this.maxIdleTimeWhenFull = maxIdleTimeWhenFull != null ? maxIdleTimeWhenFull : DEFAULT_MaxIdleTimeWhenFull;
+		this.evictionListener = evictionListener;
+	}
+
+	@Override
+	public ExpiringSession get(final String sessionId)
+	{
+		return sessions.get(sessionId);
+	}
+
+	@Override
+	public void put(final ExpiringSession session)
+	{
+		final String sessionId = session.getId();
+		if (!sessions.containsKey(sessionId) && isFull())
+		{
+			throw new AdempiereException("Cannot store the session because the max number of sessions was reached")
+					.setParameter("sessionId", sessionId)
+					.setParameter("maxSize", maxSize);
+		}
+
+		sessions.put(sessionId, session);
+	}
+
+	@Override
+	public ExpiringSession remove(final String sessionId)
+	{
+		return sessions.remove(sessionId);
+	}
+
+	@Override
+	public Collection<ExpiringSession> getAll()
+	{
+		return ImmutableList.copyOf(sessions.values());
+	}
+
+	@Override
+	public long size()
+	{
+		return sessions.size();
+	}
+
+	@Override
+	public synchronized boolean isFull()
+	{
+		if (maxSize <= 0 || sessions.size() < maxSize)
+		{
+			return false;
+		}
+
+		evictExpiredOrIdleSessions();
+		return sessions.size() >= maxSize;
+	}
+
+	private void evictExpiredOrIdleSessions()
+	{
+		final long idleSinceMillis = System.currentTimeMillis() - maxIdleTimeWhenFull.toMillis();
+		for (final ExpiringSession session : getAll())
+		{
+			if (!session.isExpired() && session.getLastAccessedTime() >= idleSinceMillis)
+			{
+				continue;
+			}
+
+			if (sessions.remove(session.getId(), session) && evictionListener != null)
+			{
+				evictionListener.accept(session);
+			}
+		}
+	}
+}
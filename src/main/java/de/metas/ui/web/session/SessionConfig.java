@@ -1,11 +1,13 @@
 package de.metas.ui.web.session;
 
+import java.time.Duration;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.adempiere.util.concurrent.CustomizableThreadFactory;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.session.SessionProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -52,14 +54,26 @@ public class SessionConfig
 	@Value("${metasfresh.session.checkExpiredSessionsRateInMinutes:10}")
 	private int checkExpiredSessionsRateInMinutes;
 
+	/** Max number of sessions kept by the default in-memory session store. Zero or negative means unbounded. */
+	@Value("${metasfresh.session.maxSessions:10000}")
+	private int maxSessions;
+
+	/** When the in-memory session store is full, sessions which were not accessed for more than this many minutes are evicted to make room. */
+	@Value("${metasfresh.session.maxIdleMinutesWhenFull:30}")
+	private int maxIdleMinutesWhenFull;
+
 	@Bean
 	public SessionRepository<ExpiringSession> sessionRepository(
 			final SessionProperties properties,
-			final ApplicationEventPublisher applicationEventPublisher)
+			final ApplicationEventPublisher applicationEventPublisher,
+			final ObjectProvider<SessionStore> sessionStoreProvider)
 	{
 		final FixedMapSessionRepository sessionRepository = FixedMapSessionRepository.builder()
 				.applicationEventPublisher(applicationEventPublisher)
 				.defaultMaxInactiveInterval(properties.getTimeout())
+				.sessionStore(sessionStoreProvider.getIfAvailable())
+				.maxSessions(maxSessions)
+				.maxIdleTimeWhenFull(Duration.ofMinutes(maxIdleMinutesWhenFull))
 				.build();
 		logger.info("Using session repository: {}", sessionRepository);
 
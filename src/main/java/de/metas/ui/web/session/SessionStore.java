@@ -0,0 +1,62 @@
+package de.metas.ui.web.session;
+
+import java.util.Collection;
+
+import org.springframework.session.ExpiringSession;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Storage backend of the webui's session repository.
+ * <p>
+ * By default the sessions are kept in memory (see {@link InMemorySessionStore}).
+ * To keep the sessions over restarts or to share them between nodes, register a spring bean of this type backed by a persistent or shared store.
+ * <p>
+ * Implementations are not required to handle expiration. Expired sessions are purged by the session repository.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+public interface SessionStore
+{
+	/** @return session or <code>null</code> */
+	ExpiringSession get(String sessionId);
+
+	void put(ExpiringSession session);
+
+	/** @return removed session or <code>null</code> */
+	ExpiringSession remove(String sessionId);
+
+	/** @return snapshot of all stored sessions */
+	Collection<ExpiringSession> getAll();
+
+	long size();
+
+	/**
+	 * @return <code>true</code> if no new sessions can be stored. Implementations may evict expired or idle sessions in order to make room.
+	 */
+	default boolean isFull()
+	{
+		return false;
+	}
+}
@@ -495,8 +495,8 @@ public final class CreateViewRequest
 				if (parameters == null)
 				{
 					parameters = new LinkedHashMap<>();
-					parameters.put(name, value);
 				}
+				parameters.put(name, value);
 			}
 
 			return this;
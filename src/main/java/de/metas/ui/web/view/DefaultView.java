@@ -5,10 +5,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -18,16 +26,21 @@ import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.NumberUtils;
 import org.adempiere.util.Services;
 import org.adempiere.util.lang.ExtendedMemorizingSupplier;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.util.CCache;
+import org.compiere.util.Env;
 import org.compiere.util.Evaluatee;
 import org.slf4j.Logger;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.ImmutableTranslatableString;
@@ -36,12 +49,14 @@ import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.DocumentFilterDescriptorsProvider;
 import de.metas.ui.web.document.filter.json.JSONDocumentFilter;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
+import de.metas.ui.web.view.SharedViewSelections.SharedViewSelectionKey;
 import de.metas.ui.web.view.event.ViewChangesCollector;
 import de.metas.ui.web.view.json.JSONViewDataType;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentChangedEvent;
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.model.DocumentCollection;
@@ -91,6 +106,9 @@ public final class DefaultView implements IEditableView
 
 	private static final Logger logger = LogManager.getLogger(DefaultView.class);
 
+	/** How many rows the head selection has, see {@link #getHeadSelectionOrNull()} */
+	private static final int ASYNC_SELECTION_HeadSize = 100;
+
 	private final IViewDataRepository viewDataRepository;
 
 	private final ViewId viewId;
@@ -102,8 +120,24 @@ public final class DefaultView implements IEditableView
 	private final ImmutableSet<DocumentPath> referencingDocumentPaths;
 
 	private final ViewEvaluationCtx viewEvaluationCtx;
+	private final boolean applySecurityRestrictions;
 	private final ExtendedMemorizingSupplier<ViewRowIdsOrderedSelections> selectionsRef;
-	private final AtomicBoolean defaultSelectionDeleteBeforeCreate = new AtomicBoolean(false);
+	/** Lock held while forgetting the selections, so the background task can forget its own selection without affecting one which was created meanwhile */
+	private final Object selectionsForgetLock = new Object();
+	/** Set when the default selection was invalidated; from then on, the default selection is created using a new selectionId */
+	private final AtomicBoolean defaultSelectionRecreated = new AtomicBoolean(false);
+	/** Registry of shared default selections or null if this view shall always use its own selection */
+	private final SharedViewSelections sharedSelections;
+	/** Set when the default selection was invalidated; from then on, this view uses a private selection (copy-on-write) */
+	private final AtomicBoolean sharedSelectionDetached = new AtomicBoolean(false);
+
+	/** Background creation of the default selection or null if the default selection is created synchronously, on first access */
+	private volatile CompletableFuture<Void> asyncSelectionFuture;
+	/** Incremented each time the selection is invalidated, so a selection which was created in background from staled data gets discarded (see {@link ViewRowIdsOrderedSelections#getGeneration()}) */
+	private final AtomicInteger selectionGeneration = new AtomicInteger(0);
+	/** Selection containing only the first rows, used to serve the first page while the default selection is created in background */
+	private ViewRowIdsOrderedSelection _headSelection; // guarded by this
+	private boolean _headSelectionDisposed; // guarded by this
 
 	//
 	// Filters
@@ -121,9 +155,15 @@ public final class DefaultView implements IEditableView
 	//
 	// Caching
 	private final transient CCache<DocumentId, IViewRow> cache_rowsById;
+	/** Aggregates of the default selection, by fieldName */
+	private final transient CCache<String, ViewFieldAggregates> cache_aggregatesByFieldName;
 
 	private final IViewInvalidationAdvisor viewInvalidationAdvisor;
 
+	/** Data versions are unique per JVM, so a version is never reused by a view which was recreated with the same viewId */
+	private static final AtomicLong nextDataVersion = new AtomicLong(System.currentTimeMillis());
+	private final AtomicLong dataVersion = new AtomicLong(nextDataVersion.incrementAndGet());
+
 	private DefaultView(final Builder builder)
 	{
 		viewId = builder.getViewId();
@@ -146,19 +186,32 @@ public final class DefaultView implements IEditableView
 		{
 			viewEvaluationCtx = ViewEvaluationCtx.newInstanceFromCurrentContext();
 
-			final boolean applySecurityRestrictions = builder.isApplySecurityRestrictions();
+			applySecurityRestrictions = builder.isApplySecurityRestrictions();
+			sharedSelections = builder.getSharedSelections();
 			selectionsRef = ExtendedMemorizingSupplier.of(() -> {
-				if (defaultSelectionDeleteBeforeCreate.get())
+				final int generation = selectionGeneration.get();
+				final ImmutableList<DocumentFilter> allFilters = ImmutableList.copyOf(Iterables.concat(stickyFilters, filters));
+				if (sharedSelections != null && !sharedSelectionDetached.get())
 				{
-					viewDataRepository.deleteSelection(viewId);
+					final ViewRowIdsOrderedSelection defaultSelection = sharedSelections.acquire(
+							createSharedViewSelectionKey(allFilters, applySecurityRestrictions),
+							() -> viewDataRepository.createOrderedSelection(
+									getViewEvaluationCtx(),
+									ViewId.random(viewId.getWindowId()), // NOTE: the shared selection shall not use our viewId
+									allFilters,
+									applySecurityRestrictions));
+					return new ViewRowIdsOrderedSelections(defaultSelection, generation);
 				}
+
+				// NOTE: when re-creating the selection we use a new selectionId, because the previous one was scheduled to be deleted in background
+				final ViewId selectionViewId = defaultSelectionRecreated.get() ? ViewId.random(viewId.getWindowId()) : viewId;
 				final ViewRowIdsOrderedSelection defaultSelection = viewDataRepository.createOrderedSelection(
 						getViewEvaluationCtx(),
-						viewId,
-						ImmutableList.copyOf(Iterables.concat(stickyFilters, filters)),
+						selectionViewId,
+						allFilters,
 						applySecurityRestrictions);
 
-				return new ViewRowIdsOrderedSelections(defaultSelection);
+				return new ViewRowIdsOrderedSelections(defaultSelection, generation);
 			});
 		}
 
@@ -169,20 +222,188 @@ public final class DefaultView implements IEditableView
 				, 100 // maxSize
 				, 2 // expireAfterMinutes
 		);
+		cache_aggregatesByFieldName = CCache.newLRUCache( //
+				viewDataRepository.getTableName() + "#aggregates#viewId=" + viewId.getViewId() // cache name
+				, 50 // maxSize
+				, 10 // expireAfterMinutes
+		);
+
+		//
+		// Async selection: start creating the default selection in background.
+		// NOTE: shared selections are already created only once, so we don't combine them with async selections
+		final ExecutorService asyncSelectionExecutor = builder.getAsyncSelectionExecutor();
+		if (asyncSelectionExecutor != null && sharedSelections == null)
+		{
+			startAsyncSelection(asyncSelectionExecutor);
+		}
+		else
+		{
+			_headSelectionDisposed = true;
+		}
 
 		logger.debug("View created: {}", this);
 	}
 
+	private void startAsyncSelection(final ExecutorService asyncSelectionExecutor)
+	{
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+
+		try
+		{
+			asyncSelectionFuture = CompletableFuture.runAsync(() -> {
+				try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+				{
+					final ViewRowIdsOrderedSelections selections = selectionsRef.get();
+					onAsyncSelectionCreated(selections);
+				}
+				catch (final Exception ex)
+				{
+					// NOTE: the selection will be created again, synchronously, on next access
+					logger.warn("Failed creating the selection in background for {}", viewId, ex);
+					disposeHeadSelection();
+				}
+			}, asyncSelectionExecutor);
+		}
+		catch (final RejectedExecutionException ex)
+		{
+			// NOTE: the selection will be created synchronously, on first access
+			logger.warn("Cannot create the selection in background for {} because there are too many pending selections", viewId);
+			disposeHeadSelection();
+		}
+	}
+
+	private void onAsyncSelectionCreated(final ViewRowIdsOrderedSelections selections)
+	{
+		disposeHeadSelection();
+
+		if (closed.get())
+		{
+			// the view was closed meanwhile; if it was closed before our selection was memorized, nobody will delete it
+			deleteSelections(forgetSelectionsIfSame(selections));
+			return;
+		}
+		if (selections.getGeneration() != selectionGeneration.get())
+		{
+			// the selection was invalidated while we were creating it, so it might be staled; it will be created again on next access.
+			// NOTE: we forget and delete only our selection. A selection which was created meanwhile is kept.
+			deleteSelections(forgetSelectionsIfSame(selections));
+			return;
+		}
+
+		logger.debug("Selection created in background for {}: {}", viewId, selections.getDefaultSelection());
+
+		// Let the frontend know the final size
+		ViewChangesCollector.getCurrentOrAutoflush()
+				.collectFullyChanged(this, selections.getDefaultSelection().getSize());
+	}
+
+	private ViewRowIdsOrderedSelections forgetSelections()
+	{
+		synchronized (selectionsForgetLock)
+		{
+			return selectionsRef.forget();
+		}
+	}
+
+	/**
+	 * @return the given selections if they were forgotten, or null if they are not the memorized selections anymore (i.e. they were already forgotten)
+	 */
+	private ViewRowIdsOrderedSelections forgetSelectionsIfSame(@NonNull final ViewRowIdsOrderedSelections selections)
+	{
+		synchronized (selectionsForgetLock)
+		{
+			if (selectionsRef.peek() != selections)
+			{
+				return null;
+			}
+			return selectionsRef.forget();
+		}
+	}
+
+	private boolean isAsyncSelectionPending()
+	{
+		final CompletableFuture<Void> asyncSelectionFuture = this.asyncSelectionFuture;
+		return asyncSelectionFuture != null && !asyncSelectionFuture.isDone();
+	}
+
+	/**
+	 * @return a selection which contains only the first rows (but has the estimated size of the full selection), or null if not available
+	 */
+	private synchronized ViewRowIdsOrderedSelection getHeadSelectionOrNull()
+	{
+		if (_headSelectionDisposed)
+		{
+			return null;
+		}
+
+		if (_headSelection == null)
+		{
+			final ImmutableList<DocumentFilter> allFilters = ImmutableList.copyOf(Iterables.concat(stickyFilters, filters));
+			_headSelection = viewDataRepository.createOrderedSelectionHead(
+					getViewEvaluationCtx(),
+					ViewId.random(viewId.getWindowId()), // NOTE: don't use our viewId because that one is used by the selection which is created in background
+					allFilters,
+					applySecurityRestrictions,
+					ASYNC_SELECTION_HeadSize);
+			if (_headSelection == null)
+			{
+				// head selections not supported
+				_headSelectionDisposed = true;
+			}
+		}
+
+		return _headSelection;
+	}
+
+	private synchronized void disposeHeadSelection()
+	{
+		_headSelectionDisposed = true;
+
+		final ViewRowIdsOrderedSelection headSelection = _headSelection;
+		_headSelection = null;
+		if (headSelection != null)
+		{
+			viewDataRepository.scheduleDeleteSelections(ImmutableSet.of(headSelection.getSelectionId()));
+		}
+	}
+
+	/**
+	 * @return the default selection or, while the default selection is created in background, the head selection
+	 */
+	private ViewRowIdsOrderedSelection getDefaultSelectionOrHead()
+	{
+		if (isAsyncSelectionPending())
+		{
+			final ViewRowIdsOrderedSelection headSelection = getHeadSelectionOrNull();
+			if (headSelection != null)
+			{
+				return headSelection;
+			}
+		}
+
+		return selectionsRef.get().getDefaultSelection();
+	}
+
 	@Override
 	public String toString()
 	{
+		if (isAsyncSelectionPending())
+		{
+			// NOTE: don't wait for the selection and don't cache
+			return MoreObjects.toStringHelper(this)
+					.add("viewId", viewId)
+					.add("tableName", viewDataRepository.getTableName())
+					.add("asyncSelectionPending", true)
+					.toString();
+		}
+
 		if (_toString == null)
 		{
 			final ViewRowIdsOrderedSelection defaultSelection = selectionsRef.get().getDefaultSelection();
 			// NOTE: keep it short
 			_toString = MoreObjects.toStringHelper(this)
 					.omitNullValues()
-					.add("viewId", defaultSelection.getViewId())
+					.add("viewId", viewId)
 					.add("tableName", viewDataRepository.getTableName())
 					.add("parentViewId", parentViewId)
 					.add("defaultSelection", defaultSelection)
@@ -245,28 +466,28 @@ public final class DefaultView implements IEditableView
 	@Override
 	public long size()
 	{
-		final ViewRowIdsOrderedSelection defaultSelection = selectionsRef.get().getDefaultSelection();
+		final ViewRowIdsOrderedSelection defaultSelection = getDefaultSelectionOrHead();
 		return defaultSelection.getSize();
 	}
 
 	@Override
 	public List<DocumentQueryOrderBy> getDefaultOrderBys()
 	{
-		final ViewRowIdsOrderedSelection defaultSelection = selectionsRef.get().getDefaultSelection();
+		final ViewRowIdsOrderedSelection defaultSelection = getDefaultSelectionOrHead();
 		return defaultSelection.getOrderBys();
 	}
 
 	@Override
 	public int getQueryLimit()
 	{
-		final ViewRowIdsOrderedSelection defaultSelection = selectionsRef.get().getDefaultSelection();
+		final ViewRowIdsOrderedSelection defaultSelection = getDefaultSelectionOrHead();
 		return defaultSelection.getQueryLimit();
 	}
 
 	@Override
 	public boolean isQueryLimitHit()
 	{
-		final ViewRowIdsOrderedSelection defaultSelection = selectionsRef.get().getDefaultSelection();
+		final ViewRowIdsOrderedSelection defaultSelection = getDefaultSelectionOrHead();
 		return defaultSelection.isQueryLimitHit();
 	}
 
@@ -303,30 +524,52 @@ public final class DefaultView implements IEditableView
 			return; // already closed
 		}
 
-		final ViewRowIdsOrderedSelections selections = selectionsRef.forget();
-		viewDataRepository.scheduleDeleteSelections(selections.getSelectionIds());
+		final ViewRowIdsOrderedSelections selections = forgetSelections();
+		deleteSelections(selections);
+		disposeHeadSelection();
 
 		logger.debug("View closed with reason={}: {}", reason, this);
 	}
 
+	@Override
+	public String getDataVersionOrNull()
+	{
+		if (isAsyncSelectionPending())
+		{
+			return null;
+		}
+		return String.valueOf(dataVersion.get());
+	}
+
+	private void onDataChanged()
+	{
+		dataVersion.set(nextDataVersion.incrementAndGet());
+	}
+
 	@Override
 	public void invalidateAll()
 	{
 		cache_rowsById.clear();
+		cache_aggregatesByFieldName.clear();
+		onDataChanged();
 	}
 
 	@Override
 	public void invalidateRowById(final DocumentId rowId)
 	{
 		cache_rowsById.remove(rowId);
+		onDataChanged();
 	}
 
 	@Override
 	public void invalidateSelection()
 	{
-		defaultSelectionDeleteBeforeCreate.set(true);
-		final ViewRowIdsOrderedSelections selections = selectionsRef.forget();
-		viewDataRepository.scheduleDeleteSelections(selections.getSelectionIds());
+		defaultSelectionRecreated.set(true);
+		sharedSelectionDetached.set(true);
+		selectionGeneration.incrementAndGet();
+		final ViewRowIdsOrderedSelections selections = forgetSelections();
+		deleteSelections(selections);
+		disposeHeadSelection();
 
 		invalidateAll();
 
@@ -334,6 +577,50 @@ public final class DefaultView implements IEditableView
 				.collectFullyChanged(this);
 	}
 
+	private void deleteSelections(@Nullable final ViewRowIdsOrderedSelections selections)
+	{
+		if (selections == null)
+		{
+			return;
+		}
+
+		final Set<String> selectionIds;
+		final String defaultSelectionId = selections.getDefaultSelection().getSelectionId();
+		if (sharedSelections != null && !sharedSelections.release(defaultSelectionId))
+		{
+			// the default selection is still used by other views
+			selectionIds = Sets.difference(selections.getSelectionIds(), ImmutableSet.of(defaultSelectionId));
+		}
+		else
+		{
+			selectionIds = selections.getSelectionIds();
+		}
+
+		viewDataRepository.scheduleDeleteSelections(selectionIds);
+	}
+
+	private SharedViewSelectionKey createSharedViewSelectionKey(final ImmutableList<DocumentFilter> allFilters, final boolean applySecurityRestrictions)
+	{
+		final ViewEvaluationCtx evalCtx = getViewEvaluationCtx();
+		return SharedViewSelectionKey.builder()
+				.windowId(viewId.getWindowId())
+				.viewType(viewType)
+				.profileId(profileId)
+				.filters(allFilters)
+				.applySecurityRestrictions(applySecurityRestrictions)
+				.adLanguage(evalCtx.getAD_Language())
+				.permissionsKey(evalCtx.getPermissionsKey())
+				.build();
+	}
+
+	/**
+	 * @return the viewId of the default selection, which might be different from our viewId if the selection is shared
+	 */
+	private ViewId getDefaultSelectionViewId()
+	{
+		return selectionsRef.get().getDefaultSelection().getViewId();
+	}
+
 	private final void assertNotClosed()
 	{
 		if (closed.get())
@@ -353,7 +640,7 @@ public final class DefaultView implements IEditableView
 		assertNotClosed();
 
 		final ViewEvaluationCtx evalCtx = getViewEvaluationCtx();
-		final ViewRowIdsOrderedSelection orderedSelection = getOrderedSelection(orderBys);
+		final ViewRowIdsOrderedSelection orderedSelection = getOrderedSelectionForPage(firstRow, pageLength, orderBys);
 
 		final List<IViewRow> rows = viewDataRepository.retrievePage(evalCtx, orderedSelection, firstRow, pageLength);
 
@@ -417,7 +704,7 @@ public final class DefaultView implements IEditableView
 		assertNotClosed();
 
 		final ViewEvaluationCtx evalCtx = getViewEvaluationCtx();
-		final ViewRowIdsOrderedSelection orderedSelection = getOrderedSelection(orderBys);
+		final ViewRowIdsOrderedSelection orderedSelection = getOrderedSelectionForPage(firstRow, pageLength, orderBys);
 
 		final List<DocumentId> rowIds = viewDataRepository.retrieveRowIdsByPage(evalCtx, orderedSelection, firstRow, pageLength);
 
@@ -445,7 +732,25 @@ public final class DefaultView implements IEditableView
 	private final IViewRow retrieveRowById(final DocumentId rowId)
 	{
 		final ViewEvaluationCtx evalCtx = getViewEvaluationCtx();
-		return viewDataRepository.retrieveById(evalCtx, getViewId(), rowId);
+		return viewDataRepository.retrieveById(evalCtx, getDefaultSelectionViewId(), rowId);
+	}
+
+	/**
+	 * @return the head selection if the default selection is still created in background and the requested page is covered by the head selection; else the ordered selection.
+	 */
+	private ViewRowIdsOrderedSelection getOrderedSelectionForPage(final int firstRow, final int pageLength, final List<DocumentQueryOrderBy> orderBys)
+	{
+		if (isAsyncSelectionPending() && firstRow >= 0 && pageLength > 0 && firstRow + pageLength <= ASYNC_SELECTION_HeadSize)
+		{
+			final ViewRowIdsOrderedSelection headSelection = getHeadSelectionOrNull();
+			if (headSelection != null
+					&& (orderBys == null || orderBys.isEmpty() || Objects.equals(headSelection.getOrderBys(), orderBys)))
+			{
+				return headSelection;
+			}
+		}
+
+		return getOrderedSelection(orderBys);
 	}
 
 	private ViewRowIdsOrderedSelection getOrderedSelection(final List<DocumentQueryOrderBy> orderBys)
@@ -456,10 +761,112 @@ public final class DefaultView implements IEditableView
 						(defaultSelection, orderBysImmutable) -> viewDataRepository.createOrderedSelectionFromSelection(getViewEvaluationCtx(), defaultSelection, orderBysImmutable));
 	}
 
+	@Override
+	public List<ViewFieldAggregates> getAggregates(@NonNull final List<String> fieldNames)
+	{
+		assertNotClosed();
+
+		final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName = viewDataRepository.getWidgetTypesByFieldName();
+		for (final String fieldName : fieldNames)
+		{
+			final DocumentFieldWidgetType widgetType = widgetTypesByFieldName.get(fieldName);
+			if (widgetType == null || !widgetType.isNumeric())
+			{
+				throw new AdempiereException("Field " + fieldName + " is not a numeric field of " + getViewId());
+			}
+		}
+
+		final Collection<ViewFieldAggregates> aggregates = cache_aggregatesByFieldName.getAllOrLoad(ImmutableSet.copyOf(fieldNames), this::retrieveAggregates);
+		final Map<String, ViewFieldAggregates> aggregatesByFieldName = Maps.uniqueIndex(aggregates, ViewFieldAggregates::getFieldName);
+		return fieldNames.stream()
+				.map(aggregatesByFieldName::get)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private Map<String, ViewFieldAggregates> retrieveAggregates(final Collection<String> fieldNames)
+	{
+		final ViewRowIdsOrderedSelection defaultSelection = selectionsRef.get().getDefaultSelection();
+		return viewDataRepository.retrieveAggregates(defaultSelection, ImmutableList.copyOf(fieldNames))
+				.stream()
+				.collect(ImmutableMap.toImmutableMap(ViewFieldAggregates::getFieldName, Function.identity()));
+	}
+
+	/**
+	 * @return the ID of the default selection; it changes when the selection is re-created
+	 */
+	@Override
+	public String getSelectionId()
+	{
+		assertNotClosed();
+		return selectionsRef.get().getDefaultSelection().getSelectionId();
+	}
+
+	/**
+	 * @return true if the default selection was created, i.e. calling the methods which need it won't block until the selection is created in background
+	 * @see ViewGroupBySummaryView
+	 */
+	boolean isSelectionReady()
+	{
+		return !isAsyncSelectionPending();
+	}
+
+	/**
+	 * @see ViewGroupBySummaryView
+	 */
+	long getGroupsCount(@NonNull final ViewGroupByQuery query)
+	{
+		assertNotClosed();
+		return viewDataRepository.retrieveGroupsCount(selectionsRef.get().getDefaultSelection(), query);
+	}
+
+	/**
+	 * @see ViewGroupBySummaryView
+	 */
+	List<IViewRow> getGroupsPage(@NonNull final WindowId groupRowsWindowId, @NonNull final ViewGroupByQuery query, final int firstRow, final int pageLength)
+	{
+		assertNotClosed();
+		return viewDataRepository.retrieveGroupsPage(getViewEvaluationCtx(), groupRowsWindowId, selectionsRef.get().getDefaultSelection(), query, firstRow, pageLength);
+	}
+
+	/**
+	 * @see ViewGroupBySummaryView
+	 */
+	List<IViewRow> getGroupsByRowIds(@NonNull final WindowId groupRowsWindowId, @NonNull final ViewGroupByQuery query, @NonNull final Set<DocumentId> groupRowIds)
+	{
+		assertNotClosed();
+		return viewDataRepository.retrieveGroupsByRowIds(getViewEvaluationCtx(), groupRowsWindowId, selectionsRef.get().getDefaultSelection(), query, groupRowIds);
+	}
+
+	/**
+	 * @return IDs of the rows of this view which are affected by given record changes
+	 * @see ViewGroupBySummaryView
+	 */
+	Set<DocumentId> getRowIdsAffectedBy(@NonNull final Set<TableRecordReference> recordRefs)
+	{
+		assertNotClosed();
+
+		final Set<DocumentId> rowIds = viewInvalidationAdvisor.findAffectedRowIds(recordRefs, this);
+		if (rowIds.isEmpty())
+		{
+			return ImmutableSet.of();
+		}
+
+		return viewDataRepository.retainRowIdsContainedInSelection(selectionsRef.get().getDefaultSelection(), DocumentIdsSelection.of(rowIds));
+	}
+
+	/**
+	 * @return filter which matches the rows of given group row
+	 * @see ViewGroupBySummaryView
+	 */
+	DocumentFilter createGroupFilter(@NonNull final String groupByFieldName, @NonNull final DocumentId groupRowId)
+	{
+		return viewDataRepository.createGroupFilter(groupByFieldName, groupRowId);
+	}
+
 	@Override
 	public String getSqlWhereClause(final DocumentIdsSelection rowIds, final SqlOptions sqlOpts)
 	{
-		return viewDataRepository.getSqlWhereClause(getViewId(), getAllFilters(), rowIds, sqlOpts);
+		return viewDataRepository.getSqlWhereClause(getDefaultSelectionViewId(), getAllFilters(), rowIds, sqlOpts);
 	}
 
 	@Override
@@ -522,7 +929,7 @@ public final class DefaultView implements IEditableView
 	@Override
 	public <T> List<T> retrieveModelsByIds(final DocumentIdsSelection rowIds, final Class<T> modelClass)
 	{
-		return viewDataRepository.retrieveModelsByIds(getViewId(), rowIds, modelClass);
+		return viewDataRepository.retrieveModelsByIds(getDefaultSelectionViewId(), rowIds, modelClass);
 	}
 
 	@Override
@@ -536,10 +943,32 @@ public final class DefaultView implements IEditableView
 
 		// Invalidate local rowsById cache
 		rowIds.forEach(cache_rowsById::remove);
+		onDataChanged();
 
-		// Collect event
-		// TODO: check which rowIds are contained in this view and fire events only for those
-		ViewChangesCollector.getCurrentOrAutoflush().collectRowsChanged(this, rowIds);
+		// If the selection was not created yet (or it was invalidated), there is no point to fire row events
+		final ViewRowIdsOrderedSelections selections = selectionsRef.peek();
+		if (selections == null)
+		{
+			return;
+		}
+
+		// Collect event, but only for the rows which are contained in this view
+		final Set<DocumentId> rowIdsContained = viewDataRepository.retainRowIdsContainedInSelection(selections.getDefaultSelection(), DocumentIdsSelection.of(rowIds));
+		if (rowIdsContained.isEmpty())
+		{
+			return;
+		}
+
+		// Some of our rows changed => the aggregates might be staled
+		cache_aggregatesByFieldName.clear();
+
+		ViewChangesCollector.getCurrentOrAutoflush().collectRowsChanged(this, rowIdsContained);
+	}
+
+	@Override
+	public Set<String> getTableNamesToNotifyOrNull()
+	{
+		return viewInvalidationAdvisor.getTableNamesToNotifyOrNull(this);
 	}
 
 	@Override
@@ -610,11 +1039,15 @@ public final class DefaultView implements IEditableView
 	{
 		@Getter
 		private final ViewRowIdsOrderedSelection defaultSelection;
+		/** The view's selection generation from when this selection was created */
+		@Getter
+		private final int generation;
 		private final ConcurrentHashMap<ImmutableList<DocumentQueryOrderBy>, ViewRowIdsOrderedSelection> selectionsByOrderBys = new ConcurrentHashMap<>();
 
-		public ViewRowIdsOrderedSelections(@NonNull final ViewRowIdsOrderedSelection defaultSelection)
+		public ViewRowIdsOrderedSelections(@NonNull final ViewRowIdsOrderedSelection defaultSelection, final int generation)
 		{
 			this.defaultSelection = defaultSelection;
+			this.generation = generation;
 		}
 
 		public ViewRowIdsOrderedSelection computeIfAbsent(final List<DocumentQueryOrderBy> orderBys, @NonNull final ViewRowIdsOrderedSelectionFactory factory)
@@ -667,6 +1100,10 @@ public final class DefaultView implements IEditableView
 
 		private boolean applySecurityRestrictions = true;
 
+		private SharedViewSelections sharedSelections;
+
+		private ExecutorService asyncSelectionExecutor;
+
 		private Builder(@NonNull final IViewDataRepository viewDataRepository)
 		{
 			this.viewDataRepository = viewDataRepository;
@@ -837,5 +1274,37 @@ public final class DefaultView implements IEditableView
 		{
 			return applySecurityRestrictions;
 		}
+
+		/**
+		 * Advises the view to share its default selection with other views having the same window, filters and permissions.
+		 */
+		/* package */ Builder sharedSelections(@Nullable final SharedViewSelections sharedSelections)
+		{
+			this.sharedSelections = sharedSelections;
+			return this;
+		}
+
+		private SharedViewSelections getSharedSelections()
+		{
+			return sharedSelections;
+		}
+
+		/**
+		 * Advises the view to create its default selection in background.
+		 * Until the selection is created, the first page is served from a selection which contains only the first rows and the view size is estimated.
+		 * When the selection is created, the final size is sent to frontend.
+		 *
+		 * @param asyncSelectionExecutor executor used to create the selection or null if the selection shall be created synchronously, on first access
+		 */
+		/* package */ Builder asyncSelectionExecutor(@Nullable final ExecutorService asyncSelectionExecutor)
+		{
+			this.asyncSelectionExecutor = asyncSelectionExecutor;
+			return this;
+		}
+
+		private ExecutorService getAsyncSelectionExecutor()
+		{
+			return asyncSelectionExecutor;
+		}
 	}
 }
@@ -1,13 +1,20 @@
 package de.metas.ui.web.view;
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
 import com.google.common.cache.RemovalNotification;
 
+import de.metas.ui.web.metrics.WebuiMetrics;
 import de.metas.ui.web.window.datatypes.WindowId;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import lombok.NonNull;
 
 /*
@@ -38,8 +45,29 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 	private final Cache<ViewId, IView> views = CacheBuilder.newBuilder()
 			.expireAfterAccess(1, TimeUnit.HOURS)
 			.removalListener(notification -> onViewRemoved(notification))
+			.recordStats()
 			.build();
 
+	private final Consumer<ViewId> viewRemovedListener;
+
+	/**
+	 * @param storageName used to tell apart the metrics of the storages, because there can be more than one instance
+	 */
+	public DefaultViewsRepositoryStorage(@NonNull final String storageName)
+	{
+		this(storageName, null);
+	}
+
+	/**
+	 * @param storageName used to tell apart the metrics of the storages, because there can be more than one instance
+	 * @param viewRemovedListener called each time a view is removed from this storage, no matter if it was explicitly removed or it expired (but not when it was replaced)
+	 */
+	public DefaultViewsRepositoryStorage(@NonNull final String storageName, @Nullable final Consumer<ViewId> viewRemovedListener)
+	{
+		this.viewRemovedListener = viewRemovedListener;
+		GuavaCacheMetrics.monitor(Metrics.globalRegistry, views, WebuiMetrics.PREFIX + "views", WebuiMetrics.TAG_Storage, storageName);
+	}
+
 	@Override
 	public WindowId getWindowId()
 	{
@@ -51,6 +79,12 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 		final IView view = (IView)notification.getValue();
 		final ViewCloseReason closeReason = ViewCloseReason.fromCacheEvictedFlag(notification.wasEvicted());
 		view.close(closeReason);
+
+		// NOTE: a replaced view was put again under the same viewId, so it's not gone
+		if (viewRemovedListener != null && notification.getCause() != RemovalCause.REPLACED)
+		{
+			viewRemovedListener.accept(view.getViewId());
+		}
 	}
 
 	@Override
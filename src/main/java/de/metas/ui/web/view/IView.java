@@ -51,6 +51,15 @@ public interface IView
 {
 	ViewId getViewId();
 
+	/**
+	 * @return the ID of the database selection (i.e. T_WEBUI_ViewSelection.UUID) which holds the rows of this view.
+	 *         It might be different from {@link #getViewId()}, e.g. when the selection is shared with other views or when it was re-created.
+	 */
+	default String getSelectionId()
+	{
+		return getViewId().getViewId();
+	}
+
 	JSONViewDataType getViewType();
 
 	default ViewProfileId getProfileId()
@@ -94,6 +103,16 @@ public interface IView
 
 	long size();
 
+	/**
+	 * @return version of this view's data, which changes each time the rows might have changed (including changes of other tables the rows depend on);
+	 *         or null if it's not known (e.g. the selection is still being created), in which case the view's data shall not be served with an ETag
+	 */
+	@Nullable
+	default String getDataVersionOrNull()
+	{
+		return null;
+	}
+
 	default void close(final ViewCloseReason reason)
 	{
 		// nothing
@@ -156,6 +175,16 @@ public interface IView
 
 	List<DocumentQueryOrderBy> getDefaultOrderBys();
 
+	/**
+	 * Computes the aggregated values (count, sum, average, min, max) of given numeric fields, over all rows of this view.
+	 *
+	 * @return aggregates, in the same order as given <code>fieldNames</code>
+	 */
+	default List<ViewFieldAggregates> getAggregates(final List<String> fieldNames)
+	{
+		throw new UnsupportedOperationException();
+	}
+
 	default TableRecordReference getTableRecordReferenceOrNull(@NonNull final DocumentId rowId)
 	{
 		final int recordId = rowId.toIntOr(-1);
@@ -186,6 +215,17 @@ public interface IView
 	 */
 	void notifyRecordsChanged(Set<TableRecordReference> recordRefs);
 
+	/**
+	 * Used to route the changed records only to the views which are interested in them.
+	 *
+	 * @return names of the tables for which this view wants to be notified via {@link #notifyRecordsChanged(Set)}
+	 *         or <code>null</code> if this view shall be notified about changes on any table.
+	 */
+	default Set<String> getTableNamesToNotifyOrNull()
+	{
+		return null;
+	}
+
 	/** @return actions which were registered particularly for this view instance */
 	default ViewActionDescriptorsList getActions()
 	{
@@ -10,6 +10,7 @@ import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.DocumentFilterDescriptorsProvider;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy;
 import de.metas.ui.web.window.model.sql.SqlOptions;
@@ -63,8 +64,50 @@ public interface IViewDataRepository
 
 	ViewRowIdsOrderedSelection createOrderedSelection(ViewEvaluationCtx viewEvalCtx, ViewId viewId, List<DocumentFilter> filters, boolean applySecurityRestrictions);
 
+	/**
+	 * @return selection containing only the first <code>headSize</code> rows, having the estimated full size; or <code>null</code> if not supported
+	 * @see ViewRowIdsOrderedSelectionFactory#createOrderedSelectionHead(ViewEvaluationCtx, ViewId, List, List, boolean, int)
+	 */
+	ViewRowIdsOrderedSelection createOrderedSelectionHead(ViewEvaluationCtx viewEvalCtx, ViewId viewId, List<DocumentFilter> filters, boolean applySecurityRestrictions, int headSize);
+
 	ViewRowIdsOrderedSelection createOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection fromSelection, List<DocumentQueryOrderBy> orderBys);
 
+	/**
+	 * @return those of given <code>rowIds</code> which are contained in given selection
+	 */
+	Set<DocumentId> retainRowIdsContainedInSelection(ViewRowIdsOrderedSelection selection, DocumentIdsSelection rowIds);
+
+	/**
+	 * @see ViewRowIdsOrderedSelectionFactory#retrieveAggregates(ViewRowIdsOrderedSelection, List)
+	 */
+	List<ViewFieldAggregates> retrieveAggregates(ViewRowIdsOrderedSelection selection, List<String> fieldNames);
+
+	/**
+	 * @return how many groups are in given selection, when grouping it by given query
+	 */
+	long retrieveGroupsCount(ViewRowIdsOrderedSelection selection, ViewGroupByQuery query);
+
+	/**
+	 * Groups the rows of given selection by given query and retrieves one page of group rows.
+	 * The detail rows are never loaded.
+	 *
+	 * @param windowId window ID to be set to retrieved group rows
+	 */
+	List<IViewRow> retrieveGroupsPage(ViewEvaluationCtx viewEvalCtx, WindowId windowId, ViewRowIdsOrderedSelection selection, ViewGroupByQuery query, int firstRow, int pageLength);
+
+	/**
+	 * Retrieves only the given group rows. Groups which no longer exist in given selection are not returned.
+	 *
+	 * @param groupRowIds row IDs of group rows, as retrieved by {@link #retrieveGroupsPage(ViewEvaluationCtx, WindowId, ViewRowIdsOrderedSelection, ViewGroupByQuery, int, int)}
+	 */
+	List<IViewRow> retrieveGroupsByRowIds(ViewEvaluationCtx viewEvalCtx, WindowId windowId, ViewRowIdsOrderedSelection selection, ViewGroupByQuery query, Set<DocumentId> groupRowIds);
+
+	/**
+	 * @param groupRowId row ID of a group row, as retrieved by {@link #retrieveGroupsPage(ViewEvaluationCtx, WindowId, ViewRowIdsOrderedSelection, ViewGroupByQuery, int, int)}
+	 * @return filter which matches all rows of given group
+	 */
+	DocumentFilter createGroupFilter(String groupByFieldName, DocumentId groupRowId);
+
 	void deleteSelection(ViewId viewId);
 
 	void scheduleDeleteSelections(Set<String> viewIds);
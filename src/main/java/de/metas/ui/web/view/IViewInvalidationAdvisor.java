@@ -43,4 +43,13 @@ public interface IViewInvalidationAdvisor
 	WindowId getWindowId();
 
 	Set<DocumentId> findAffectedRowIds(final Set<TableRecordReference> recordRefs, IView view);
+
+	/**
+	 * @return names of the tables which could affect given view or <code>null</code> if any table could
+	 * @see IView#getTableNamesToNotifyOrNull()
+	 */
+	default Set<String> getTableNamesToNotifyOrNull(final IView view)
+	{
+		return null;
+	}
 }
@@ -0,0 +1,178 @@
+package de.metas.ui.web.view;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.adempiere.ad.security.UserRolePermissionsKey;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.Services;
+import org.slf4j.Logger;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.document.filter.DocumentFilter;
+import de.metas.ui.web.view.json.JSONViewDataType;
+import de.metas.ui.web.window.datatypes.WindowId;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Registry of default view selections which are shared between views having the same window, filters, profile and permissions.
+ * <p>
+ * The selections are reference counted: a shared selection is deleted only when the last view which uses it is released.
+ * A view which needs to change its selection (e.g. because the selection was invalidated) shall release the shared one and create its own private selection (copy-on-write).
+ * <p>
+ * Sharing is opt-in, per window, see {@link #SYSCONFIG_WindowIds}.
+ */
+final class SharedViewSelections
+{
+	private static final Logger logger = LogManager.getLogger(SharedViewSelections.class);
+
+	/** Comma separated list of window IDs for which the view selections shall be shared */
+	private static final String SYSCONFIG_WindowIds = "de.metas.ui.web.view.SharedViewSelections.WindowIds";
+	/** After how many seconds a shared selection is no longer given to new views (but it's kept for the views which are already using it) */
+	private static final String SYSCONFIG_MaxAgeSeconds = "de.metas.ui.web.view.SharedViewSelections.MaxAgeSeconds";
+	private static final int DEFAULT_MaxAgeSeconds = 60;
+
+	private static final Splitter WINDOW_IDS_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+	@Value
+	@Builder
+	public static final class SharedViewSelectionKey
+	{
+		@NonNull
+		private final WindowId windowId;
+		@NonNull
+		private final JSONViewDataType viewType;
+		private final ViewProfileId profileId;
+		@NonNull
+		private final ImmutableList<DocumentFilter> filters;
+		private final boolean applySecurityRestrictions;
+		@NonNull
+		private final String adLanguage;
+		@NonNull
+		private final UserRolePermissionsKey permissionsKey;
+	}
+
+	private static final class SharedSelection
+	{
+		private final SharedViewSelectionKey key;
+		private final ViewRowIdsOrderedSelection selection;
+		private final long createdTimeMillis = System.currentTimeMillis();
+		private int refCount = 1;
+
+		private SharedSelection(final SharedViewSelectionKey key, final ViewRowIdsOrderedSelection selection)
+		{
+			this.key = key;
+			this.selection = selection;
+		}
+
+		private boolean isExpired(final long maxAgeMillis)
+		{
+			return System.currentTimeMillis() - createdTimeMillis > maxAgeMillis;
+		}
+	}
+
+	// guarded by this
+	private final Map<SharedViewSelectionKey, SharedSelection> selectionsByKey = new HashMap<>();
+	// guarded by this
+	private final Map<String, SharedSelection> selectionsById = new HashMap<>();
+
+	public boolean isEnabledForWindowId(@NonNull final WindowId windowId)
+	{
+		final String windowIdsStr = Services.get(ISysConfigBL.class).getValue(SYSCONFIG_WindowIds, "");
+		final List<String> windowIds = WINDOW_IDS_SPLITTER.splitToList(windowIdsStr);
+		return windowIds.contains(windowId.toJson());
+	}
+
+	/**
+	 * Gets an existing shared selection or creates a new one using the given factory.
+	 * Each call shall be paired with a {@link #release(String)} call.
+	 *
+	 * @param selectionFactory creates the selection; the selection shall be created for a new (random) viewId, not for the view's own viewId
+	 */
+	public ViewRowIdsOrderedSelection acquire(
+			@NonNull final SharedViewSelectionKey key,
+			@NonNull final Supplier<ViewRowIdsOrderedSelection> selectionFactory)
+	{
+		final long maxAgeMillis = TimeUnit.SECONDS.toMillis(Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_MaxAgeSeconds, DEFAULT_MaxAgeSeconds));
+
+		synchronized (this)
+		{
+			final SharedSelection sharedSelection = selectionsByKey.get(key);
+			if (sharedSelection != null && !sharedSelection.isExpired(maxAgeMillis))
+			{
+				sharedSelection.refCount++;
+				logger.debug("Sharing {} (refCount={})", sharedSelection.selection, sharedSelection.refCount);
+				return sharedSelection.selection;
+			}
+		}
+
+		// NOTE: create the selection (i.e. INSERT ... SELECT) without holding the lock
+		final ViewRowIdsOrderedSelection selection = selectionFactory.get();
+
+		synchronized (this)
+		{
+			final SharedSelection sharedSelection = new SharedSelection(key, selection);
+			selectionsByKey.put(key, sharedSelection);
+			selectionsById.put(selection.getSelectionId(), sharedSelection);
+		}
+
+		logger.debug("Created shared {} for {}", selection, key);
+		return selection;
+	}
+
+	/**
+	 * Releases a selection which was acquired using {@link #acquire(SharedViewSelectionKey, Supplier)}.
+	 *
+	 * @return true if the selection is no longer used, so it can be deleted; also true if the selection is not a shared selection.
+	 */
+	public synchronized boolean release(@NonNull final String selectionId)
+	{
+		final SharedSelection sharedSelection = selectionsById.get(selectionId);
+		if (sharedSelection == null)
+		{
+			return true;
+		}
+
+		sharedSelection.refCount--;
+		if (sharedSelection.refCount > 0)
+		{
+			logger.debug("Released {} (refCount={})", sharedSelection.selection, sharedSelection.refCount);
+			return false;
+		}
+
+		selectionsById.remove(selectionId);
+		selectionsByKey.remove(sharedSelection.key, sharedSelection);
+		logger.debug("Released {}. Not used anymore", sharedSelection.selection);
+		return true;
+	}
+}
@@ -1,5 +1,6 @@
 package de.metas.ui.web.view;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -9,6 +10,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.impl.TypedSqlQueryFilter;
@@ -25,10 +27,12 @@ import org.slf4j.Logger;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.BaseEncoding;
 
 import de.metas.logging.LogManager;
 import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.DocumentFilterDescriptorsProvider;
+import de.metas.ui.web.document.filter.DocumentFilterParam;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverters;
 import de.metas.ui.web.document.filter.sql.SqlParamsCollector;
@@ -40,6 +44,7 @@ import de.metas.ui.web.view.descriptor.SqlViewKeyColumnNamesMap;
 import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding;
 import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding.SqlViewRowFieldLoader;
 import de.metas.ui.web.view.descriptor.SqlViewSelectData;
+import de.metas.ui.web.view.descriptor.SqlViewSelectionQueryBuilder;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.WindowId;
@@ -90,10 +95,15 @@ class SqlViewDataRepository implements IViewDataRepository
 	private final ViewRowCustomizer rowCustomizer;
 
 	private final SqlDocumentFilterConverter filterConverters;
+	private final SqlViewBinding sqlBindings;
 
+	private static final String GROUP_ROW_ID_NullKey = "null";
+	private static final String GROUP_ROW_ID_KeyPrefix = "k";
+	private static final BaseEncoding GROUP_KEY_ENCODING = BaseEncoding.base64Url().omitPadding();
 
 	SqlViewDataRepository(@NonNull final SqlViewBinding sqlBindings)
 	{
+		this.sqlBindings = sqlBindings;
 		tableName = sqlBindings.getTableName();
 		tableAlias = sqlBindings.getTableAlias();
 		keyColumnNamesMap = sqlBindings.getSqlViewKeyColumnNamesMap();
@@ -177,12 +187,209 @@ class SqlViewDataRepository implements IViewDataRepository
 		return viewRowIdsOrderedSelectionFactory.createOrderedSelection(viewEvalCtx, viewId, filters, defaultOrderBys, applySecurityRestrictions);
 	}
 
+	@Override
+	public ViewRowIdsOrderedSelection createOrderedSelectionHead(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final List<DocumentFilter> filters, final boolean applySecurityRestrictions, final int headSize)
+	{
+		return viewRowIdsOrderedSelectionFactory.createOrderedSelectionHead(viewEvalCtx, viewId, filters, defaultOrderBys, applySecurityRestrictions, headSize);
+	}
+
 	@Override
 	public ViewRowIdsOrderedSelection createOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection fromSelection, final List<DocumentQueryOrderBy> orderBys)
 	{
 		return viewRowIdsOrderedSelectionFactory.createOrderedSelectionFromSelection(viewEvalCtx, fromSelection, orderBys);
 	}
 
+	@Override
+	public List<ViewFieldAggregates> retrieveAggregates(final ViewRowIdsOrderedSelection selection, final List<String> fieldNames)
+	{
+		if (hasIncludedRows)
+		{
+			throw new AdempiereException("Aggregates are not supported for views with grouped rows");
+		}
+
+		return viewRowIdsOrderedSelectionFactory.retrieveAggregates(selection, fieldNames);
+	}
+
+	@Override
+	public long retrieveGroupsCount(@NonNull final ViewRowIdsOrderedSelection selection, @NonNull final ViewGroupByQuery query)
+	{
+		assertGroupByQueryValid(query);
+
+		final SqlAndParams sqlCount = SqlViewSelectionQueryBuilder.newInstance(sqlBindings)
+				.buildSqlGroupByCount(selection.getSelectionId(), query);
+		return DB.getSQLValueEx(ITrx.TRXNAME_ThreadInherited, sqlCount.getSql(), sqlCount.getSqlParams());
+	}
+
+	@Override
+	public List<IViewRow> retrieveGroupsPage(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final WindowId windowId,
+			@NonNull final ViewRowIdsOrderedSelection selection,
+			@NonNull final ViewGroupByQuery query,
+			final int firstRow,
+			final int pageLength)
+	{
+		assertGroupByQueryValid(query);
+
+		final SqlAndParams sqlAndParams = SqlViewSelectionQueryBuilder.newInstance(sqlBindings)
+				.buildSqlGroupByPage(viewEvalCtx, selection.getSelectionId(), query, firstRow, pageLength);
+		return retrieveGroupRows(sqlAndParams, pageLength, viewEvalCtx.getAD_Language(), windowId, query);
+	}
+
+	@Override
+	public List<IViewRow> retrieveGroupsByRowIds(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final WindowId windowId,
+			@NonNull final ViewRowIdsOrderedSelection selection,
+			@NonNull final ViewGroupByQuery query,
+			@NonNull final Set<DocumentId> groupRowIds)
+	{
+		if (groupRowIds.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		assertGroupByQueryValid(query);
+
+		final List<String> groupKeys = groupRowIds.stream()
+				.map(SqlViewDataRepository::fromGroupRowId)
+				.collect(Collectors.toList()); // NOTE: not an immutable list because it might contain null
+		final SqlAndParams sqlAndParams = SqlViewSelectionQueryBuilder.newInstance(sqlBindings)
+				.buildSqlGroupsByKeys(viewEvalCtx, selection.getSelectionId(), query, groupKeys);
+		return retrieveGroupRows(sqlAndParams, -1, viewEvalCtx.getAD_Language(), windowId, query);
+	}
+
+	private List<IViewRow> retrieveGroupRows(
+			final SqlAndParams sqlAndParams,
+			final int maxRows,
+			final String adLanguage,
+			final WindowId windowId,
+			final ViewGroupByQuery query)
+	{
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+			if (maxRows > 0)
+			{
+				pstmt.setMaxRows(maxRows);
+			}
+			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+			rs = pstmt.executeQuery();
+
+			final ImmutableList.Builder<IViewRow> rows = ImmutableList.builder();
+			while (rs.next())
+			{
+				final ViewRow.Builder groupRow = ViewRow.builder(windowId)
+						.setType(DefaultRowType.Row)
+						.setRowId(toGroupRowId(rs.getString(SqlViewSelectionQueryBuilder.COLUMNNAME_GroupKey)));
+
+				final String groupByFieldName = query.getGroupByFieldName();
+				groupRow.putFieldValue(groupByFieldName, rowFieldLoaders.get(groupByFieldName).retrieveValueAsJson(rs, adLanguage));
+				for (final String sumFieldName : query.getSumFieldNames())
+				{
+					groupRow.putFieldValue(sumFieldName, rowFieldLoaders.get(sumFieldName).retrieveValueAsJson(rs, adLanguage));
+				}
+				groupRow.putFieldValue(ViewGroupByQuery.FIELDNAME_GroupRowsCount, rs.getInt(ViewGroupByQuery.FIELDNAME_GroupRowsCount));
+
+				rows.add(groupRow.build());
+			}
+			return rows.build();
+		}
+		catch (final SQLException | DBException e)
+		{
+			throw DBException.wrapIfNeeded(e)
+					.setSqlIfAbsent(sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	@Override
+	public DocumentFilter createGroupFilter(@NonNull final String groupByFieldName, @NonNull final DocumentId groupRowId)
+	{
+		final String groupKey = fromGroupRowId(groupRowId);
+		final String sqlWhereClause = SqlViewSelectionQueryBuilder.newInstance(sqlBindings)
+				.buildSqlGroupKeyWhereClause(groupByFieldName, groupKey);
+
+		return DocumentFilter.builder()
+				.setFilterId("groupBy-" + groupByFieldName)
+				.addParameter(DocumentFilterParam.ofSqlWhereClause(true, sqlWhereClause))
+				.build();
+	}
+
+	private void assertGroupByQueryValid(final ViewGroupByQuery query)
+	{
+		if (hasIncludedRows)
+		{
+			throw new AdempiereException("Group by is not supported for views with grouped rows");
+		}
+
+		final String groupByFieldName = query.getGroupByFieldName();
+		if (!widgetTypesByFieldName.containsKey(groupByFieldName))
+		{
+			throw new AdempiereException("Invalid group by field: " + groupByFieldName);
+		}
+
+		for (final String sumFieldName : query.getSumFieldNames())
+		{
+			final DocumentFieldWidgetType widgetType = widgetTypesByFieldName.get(sumFieldName);
+			if (widgetType == null || !widgetType.isNumeric())
+			{
+				throw new AdempiereException("Field " + sumFieldName + " cannot be summed up");
+			}
+		}
+	}
+
+	/**
+	 * Encodes the group key, so the row ID can be safely used in URLs (the key might contain "/" or any other character).
+	 */
+	private static DocumentId toGroupRowId(final String groupKey)
+	{
+		if (groupKey == null)
+		{
+			return DocumentId.ofString(GROUP_ROW_ID_NullKey);
+		}
+		else
+		{
+			return DocumentId.ofString(GROUP_ROW_ID_KeyPrefix + GROUP_KEY_ENCODING.encode(groupKey.getBytes(StandardCharsets.UTF_8)));
+		}
+	}
+
+	private static String fromGroupRowId(final DocumentId groupRowId)
+	{
+		final String groupRowIdStr = groupRowId.toJson();
+		if (GROUP_ROW_ID_NullKey.equals(groupRowIdStr))
+		{
+			return null;
+		}
+		else if (groupRowIdStr.startsWith(GROUP_ROW_ID_KeyPrefix))
+		{
+			try
+			{
+				final byte[] groupKeyBytes = GROUP_KEY_ENCODING.decode(groupRowIdStr.substring(GROUP_ROW_ID_KeyPrefix.length()));
+				return new String(groupKeyBytes, StandardCharsets.UTF_8);
+			}
+			catch (final IllegalArgumentException ex)
+			{
+				throw new AdempiereException("Invalid group row ID: " + groupRowIdStr, ex);
+			}
+		}
+		else
+		{
+			throw new AdempiereException("Invalid group row ID: " + groupRowIdStr);
+		}
+	}
+
+	@Override
+	public Set<DocumentId> retainRowIdsContainedInSelection(final ViewRowIdsOrderedSelection selection, final DocumentIdsSelection rowIds)
+	{
+		return viewRowIdsOrderedSelectionFactory.retainRowIdsContainedInSelection(selection, rowIds);
+	}
+
 	@Override
 	public void deleteSelection(final ViewId viewId)
 	{
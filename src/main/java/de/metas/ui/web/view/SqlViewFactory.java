@@ -6,18 +6,27 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
 
 import org.adempiere.ad.expression.api.NullStringExpression;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.Check;
+import org.adempiere.util.Services;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
 import org.adempiere.util.time.SystemTime;
 import org.compiere.util.CCache;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
@@ -112,6 +121,26 @@ public class SqlViewFactory implements IViewFactory
 	private final ImmutableMap<WindowId, ImmutableMap<ViewProfileId, SqlViewCustomizer>> viewCustomizers;
 	private final CompositeDefaultViewProfileIdProvider defaultProfileIdProvider;
 
+	private final SharedViewSelections sharedSelections = new SharedViewSelections();
+
+	/** Comma separated list of window IDs for which the view selections shall be created in background */
+	private static final String SYSCONFIG_AsyncSelectionWindowIds = "de.metas.ui.web.view.AsyncViewSelection.WindowIds";
+	private static final Splitter WINDOW_IDS_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+	/**
+	 * Creates the view selections in background.
+	 * The queue is bounded: if it's full, the view falls back to creating its selection synchronously, on first access.
+	 */
+	private final ExecutorService asyncSelectionExecutor = new ThreadPoolExecutor(
+			4, // corePoolSize
+			4, // maximumPoolSize
+			0, TimeUnit.MILLISECONDS, // keepAliveTime
+			new ArrayBlockingQueue<>(100),
+			CustomizableThreadFactory.builder()
+					.setDaemon(true)
+					.setThreadNamePrefix("webui-view-selection")
+					.build());
+
 	public SqlViewFactory(
 			@NonNull final DocumentDescriptorFactory documentDescriptorFactory,
 			@NonNull final DocumentReferencesService documentReferencesService,
@@ -139,6 +168,12 @@ public class SqlViewFactory implements IViewFactory
 		logger.info("view invalidation advisors: {}", this.viewInvalidationAdvisorsByWindowId);
 	}
 
+	@PreDestroy
+	private void preDestroy()
+	{
+		asyncSelectionExecutor.shutdownNow();
+	}
+
 	private static ImmutableListMultimap<WindowId, ViewProfile> makeViewProfilesMap(Collection<SqlViewCustomizer> viewCustomizers)
 	{
 		return viewCustomizers
@@ -293,7 +328,9 @@ public class SqlViewFactory implements IViewFactory
 				.addStickyFilters(request.getStickyFilters())
 				.addStickyFilter(extractReferencedDocumentFilter(windowId, request.getSingleReferencingDocumentPathOrNull()))
 				.viewInvalidationAdvisor(sqlViewBinding.getViewInvalidationAdvisor())
-				.applySecurityRestrictions(request.isApplySecurityRestrictions());
+				.applySecurityRestrictions(request.isApplySecurityRestrictions())
+				.sharedSelections(sharedSelections.isEnabledForWindowId(windowId) ? sharedSelections : null)
+				.asyncSelectionExecutor(!sqlViewBinding.hasGroupingFields() && isAsyncSelectionEnabledForWindowId(windowId) ? asyncSelectionExecutor : null);
 
 		final DocumentFiltersList filters = request.getFilters();
 		if (filters.isJson())
@@ -320,6 +357,12 @@ public class SqlViewFactory implements IViewFactory
 		return viewBuilder.build();
 	}
 
+	private static boolean isAsyncSelectionEnabledForWindowId(final WindowId windowId)
+	{
+		final String windowIdsStr = Services.get(ISysConfigBL.class).getValue(SYSCONFIG_AsyncSelectionWindowIds, "");
+		return WINDOW_IDS_SPLITTER.splitToList(windowIdsStr).contains(windowId.toJson());
+	}
+
 	private final DocumentFilter extractReferencedDocumentFilter(final WindowId targetWindowId, final DocumentPath referencedDocumentPath)
 	{
 		if (referencedDocumentPath == null)
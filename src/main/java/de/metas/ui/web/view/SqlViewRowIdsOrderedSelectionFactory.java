@@ -1,10 +1,14 @@
 package de.metas.ui.web.view;
 
+import java.math.BigDecimal;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.adempiere.ad.security.IUserRolePermissions;
 import org.adempiere.ad.security.IUserRolePermissionsDAO;
@@ -12,15 +16,19 @@ import org.adempiere.ad.security.UserRolePermissionsKey;
 import org.adempiere.ad.security.permissions.WindowMaxQueryRecordsConstraint;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.DBException;
+import org.adempiere.util.NumberUtils;
 import org.adempiere.util.Services;
 import org.compiere.util.DB;
 import org.slf4j.Logger;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.logging.LogManager;
 import de.metas.ui.web.document.filter.DocumentFilter;
+import de.metas.ui.web.metrics.WebuiMetrics;
 import de.metas.ui.web.view.descriptor.SqlAndParams;
 import de.metas.ui.web.view.descriptor.SqlViewBinding;
 import de.metas.ui.web.view.descriptor.SqlViewKeyColumnNamesMap;
@@ -63,6 +71,8 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 
 	private static final Logger logger = LogManager.getLogger(SqlViewRowIdsOrderedSelectionFactory.class);
 
+	private static final Pattern EXPLAIN_ROWS_PATTERN = Pattern.compile("rows=(\\d+)");
+
 	private final SqlViewBinding viewBinding;
 
 	private SqlViewRowIdsOrderedSelectionFactory(@NonNull final SqlViewBinding viewBinding)
@@ -81,6 +91,15 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 		return newSqlViewSelectionQueryBuilder().buildSqlWhereClause(viewId.getViewId(), rowIds);
 	}
 
+	private static int getQueryLimit(final ViewEvaluationCtx viewEvalCtx)
+	{
+		final UserRolePermissionsKey permissionsKey = viewEvalCtx.getPermissionsKey();
+		final IUserRolePermissions permissions = Services.get(IUserRolePermissionsDAO.class).retrieveUserRolePermissions(permissionsKey);
+		return permissions.getConstraint(WindowMaxQueryRecordsConstraint.class)
+				.or(WindowMaxQueryRecordsConstraint.DEFAULT)
+				.getMaxQueryRecordsPerRole();
+	}
+
 	@Override
 	public ViewRowIdsOrderedSelection createOrderedSelection(
 			final ViewEvaluationCtx viewEvalCtx,
@@ -89,11 +108,7 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 			final List<DocumentQueryOrderBy> orderBys,
 			final boolean applySecurityRestrictions)
 	{
-		final UserRolePermissionsKey permissionsKey = viewEvalCtx.getPermissionsKey();
-		final IUserRolePermissions permissions = Services.get(IUserRolePermissionsDAO.class).retrieveUserRolePermissions(permissionsKey);
-		final int queryLimit = permissions.getConstraint(WindowMaxQueryRecordsConstraint.class)
-				.or(WindowMaxQueryRecordsConstraint.DEFAULT)
-				.getMaxQueryRecordsPerRole();
+		final int queryLimit = getQueryLimit(viewEvalCtx);
 
 		//
 		//
@@ -120,6 +135,7 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 			final Stopwatch stopwatch = Stopwatch.createStarted();
 			rowsCount = DB.executeUpdateEx(sqlCreateSelection.getSql(), sqlCreateSelection.getSqlParamsArray(), ITrx.TRXNAME_ThreadInherited);
 			logger.trace("Created selection {}, rowsCount={}, duration={}", viewId, rowsCount, stopwatch);
+			WebuiMetrics.recordViewSelectionCreated(viewId.getWindowId(), stopwatch.elapsed(TimeUnit.NANOSECONDS), rowsCount);
 		}
 
 		return ViewRowIdsOrderedSelection.builder()
@@ -130,6 +146,76 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 				.build();
 	}
 
+	@Override
+	public ViewRowIdsOrderedSelection createOrderedSelectionHead(
+			final ViewEvaluationCtx viewEvalCtx,
+			final ViewId viewId,
+			final List<DocumentFilter> filters,
+			final List<DocumentQueryOrderBy> orderBys,
+			final boolean applySecurityRestrictions,
+			final int headSize)
+	{
+		final SqlViewSelectionQueryBuilder viewQueryBuilder = newSqlViewSelectionQueryBuilder()
+				.applySecurityRestrictions(applySecurityRestrictions);
+		if (viewQueryBuilder.hasGroupingFields())
+		{
+			return null;
+		}
+
+		final int queryLimit = getQueryLimit(viewEvalCtx);
+
+		//
+		// Create the head rows => insert into T_WEBUI_ViewSelection
+		final long headRowsCount;
+		{
+			final SqlAndParams sqlCreateSelectionHead = viewQueryBuilder.buildSqlCreateSelectionHead(viewEvalCtx, viewId, filters, orderBys, headSize);
+			final Stopwatch stopwatch = Stopwatch.createStarted();
+			headRowsCount = DB.executeUpdateEx(sqlCreateSelectionHead.getSql(), sqlCreateSelectionHead.getSqlParamsArray(), ITrx.TRXNAME_ThreadInherited);
+			logger.trace("Created selection head {}, headRowsCount={}, duration={}", viewId, headRowsCount, stopwatch);
+		}
+
+		//
+		// Estimate the full size.
+		// If the head is not full, we already know the exact size.
+		final long size;
+		if (headRowsCount < headSize)
+		{
+			size = headRowsCount;
+		}
+		else
+		{
+			final long estimatedRowsCount = Math.max(estimateRowsCount(viewQueryBuilder, viewEvalCtx, filters), headRowsCount);
+			size = queryLimit > 0 ? Math.min(estimatedRowsCount, queryLimit) : estimatedRowsCount;
+		}
+
+		return ViewRowIdsOrderedSelection.builder()
+				.setViewId(viewId)
+				.setSize(size)
+				.setOrderBys(orderBys)
+				.setQueryLimit(queryLimit)
+				.build();
+	}
+
+	/**
+	 * @return planner's rows count estimation or <code>-1</code> if it could not be fetched
+	 */
+	private long estimateRowsCount(final SqlViewSelectionQueryBuilder viewQueryBuilder, final ViewEvaluationCtx viewEvalCtx, final List<DocumentFilter> filters)
+	{
+		final SqlAndParams sqlExplain = viewQueryBuilder.buildSqlExplainRowsCount(viewEvalCtx, filters);
+		try
+		{
+			// NOTE: first line of the plan is the top node, which has the estimation for the whole query
+			final String planFirstLine = DB.getSQLValueStringEx(ITrx.TRXNAME_ThreadInherited, sqlExplain.getSql(), sqlExplain.getSqlParamsArray());
+			final Matcher matcher = EXPLAIN_ROWS_PATTERN.matcher(Strings.nullToEmpty(planFirstLine));
+			return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed estimating rows count using {}. Ignored.", sqlExplain, ex);
+			return -1;
+		}
+	}
+
 	@Override
 	public ViewRowIdsOrderedSelection createOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection fromSelection, final List<DocumentQueryOrderBy> orderBys)
 	{
@@ -244,6 +330,58 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 				.build();
 	}
 
+	@Override
+	public List<ViewFieldAggregates> retrieveAggregates(@NonNull final ViewRowIdsOrderedSelection selection, @NonNull final List<String> fieldNames)
+	{
+		if (fieldNames.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		final SqlAndParams sqlAggregates = newSqlViewSelectionQueryBuilder().buildSqlAggregates(selection.getSelectionId(), fieldNames);
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAggregates.getSql(), ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlAggregates.getSqlParams());
+			rs = pstmt.executeQuery();
+			if (!rs.next())
+			{
+				return ImmutableList.of();
+			}
+
+			final ImmutableList.Builder<ViewFieldAggregates> result = ImmutableList.builder();
+			int columnIndex = 1;
+			for (final String fieldName : fieldNames)
+			{
+				result.add(ViewFieldAggregates.builder()
+						.fieldName(fieldName)
+						.count(rs.getLong(columnIndex++))
+						.sum(stripTrailingZeros(rs.getBigDecimal(columnIndex++)))
+						.avg(stripTrailingZeros(rs.getBigDecimal(columnIndex++)))
+						.min(stripTrailingZeros(rs.getBigDecimal(columnIndex++)))
+						.max(stripTrailingZeros(rs.getBigDecimal(columnIndex++)))
+						.build());
+			}
+			return result.build();
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sqlAggregates.getSql(), sqlAggregates.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	private static BigDecimal stripTrailingZeros(final BigDecimal value)
+	{
+		return value != null ? NumberUtils.stripTrailingDecimalZeros(value) : null;
+	}
+
 	private final int retrieveSize(final String selectionId)
 	{
 		final SqlAndParams sqlCount = newSqlViewSelectionQueryBuilder().buildSqlRetrieveSize(selectionId);
@@ -264,6 +402,46 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 		return count > 0;
 	}
 
+	@Override
+	public Set<DocumentId> retainRowIdsContainedInSelection(final ViewRowIdsOrderedSelection selection, final DocumentIdsSelection rowIds)
+	{
+		if (rowIds.isEmpty())
+		{
+			return ImmutableSet.of();
+		}
+
+		final SqlViewSelectionQueryBuilder viewQueryBuilder = newSqlViewSelectionQueryBuilder();
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = viewQueryBuilder.getSqlViewKeyColumnNamesMap();
+		final SqlAndParams sqlAndParams = viewQueryBuilder.buildSqlSelectRowIdsContainedInSelection(selection.getSelectionId(), rowIds);
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+			rs = pstmt.executeQuery();
+
+			final ImmutableSet.Builder<DocumentId> rowIdsContained = ImmutableSet.builder();
+			while (rs.next())
+			{
+				final DocumentId rowId = keyColumnNamesMap.retrieveRowId(rs, "", false);
+				if (rowId != null)
+				{
+					rowIdsContained.add(rowId);
+				}
+			}
+			return rowIdsContained.build();
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
 	@Override
 	public void deleteSelection(@NonNull final ViewId viewId)
 	{
@@ -293,10 +471,10 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 
 	public static Set<DocumentId> retrieveRowIdsForLineIds(
 			@NonNull SqlViewKeyColumnNamesMap keyColumnNamesMap,
-			final ViewId viewId,
+			@NonNull final String selectionId,
 			final Set<Integer> lineIds)
 	{
-		final SqlAndParams sqlAndParams = SqlViewSelectionQueryBuilder.buildSqlSelectRowIdsForLineIds(keyColumnNamesMap, viewId.getViewId(), lineIds);
+		final SqlAndParams sqlAndParams = SqlViewSelectionQueryBuilder.buildSqlSelectRowIdsForLineIds(keyColumnNamesMap, selectionId, lineIds);
 		PreparedStatement pstmt = null;
 		ResultSet rs = null;
 		try
@@ -1,16 +1,33 @@
 package de.metas.ui.web.view;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.DBException;
+import org.adempiere.util.Check;
 import org.compiere.util.DB;
 import org.slf4j.Logger;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+
 import de.metas.logging.LogManager;
 import de.metas.ui.web.base.model.I_T_WEBUI_ViewSelection;
 import de.metas.ui.web.base.model.I_T_WEBUI_ViewSelectionLine;
 import de.metas.ui.web.base.model.I_T_WEBUI_ViewSelection_ToDelete;
+import de.metas.ui.web.metrics.WebuiMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.NonNull;
+import lombok.Value;
 import lombok.experimental.UtilityClass;
 
 /*
@@ -40,6 +57,14 @@ public class SqlViewSelectionToDeleteHelper
 {
 	private static final Logger logger = LogManager.getLogger(SqlViewSelectionToDeleteHelper.class);
 
+	public static final int DEFAULT_BatchSize = 500;
+	public static final int DEFAULT_MaxRunDurationSeconds = 120;
+	private static final Duration DEFAULT_MaxRunDuration = Duration.ofSeconds(DEFAULT_MaxRunDurationSeconds);
+
+	private static final AtomicLong lastDrainedTimestampMillis = new AtomicLong(System.currentTimeMillis());
+	private static final AtomicLong pendingToDeleteCount = new AtomicLong(0);
+	private static final ConcurrentHashMap<String, SelectionTableStats> tableStatsByTableName = new ConcurrentHashMap<>();
+
 	public static void scheduleDeleteSelections(final Set<String> viewIds)
 	{
 		if (viewIds.isEmpty())
@@ -75,37 +100,97 @@ public class SqlViewSelectionToDeleteHelper
 			DB.executeUpdateEx(sql.toString(), ITrx.TRXNAME_None);
 		}
 
-		logger.debug("{} view selections scheduled to be deleted");
+		logger.debug("{} view selections scheduled to be deleted", viewIds.size());
 	}
 
 	public static void deleteScheduledSelectionsNoFail()
+	{
+		deleteScheduledSelectionsNoFail(DEFAULT_BatchSize, DEFAULT_MaxRunDuration);
+	}
+
+	public static void deleteScheduledSelectionsNoFail(final int batchSize, @NonNull final Duration maxRunDuration)
 	{
 		try
 		{
-			deleteScheduledSelections();
+			deleteScheduledSelections(batchSize, maxRunDuration);
 		}
 		catch (Throwable ex)
 		{
 			logger.warn("Failed deleting scheduled view selections. Ignored", ex);
 		}
+
+		try
+		{
+			updateStatistics();
+		}
+		catch (Throwable ex)
+		{
+			logger.warn("Failed updating view selection statistics. Ignored", ex);
+		}
 	}
 
 	public static void deleteScheduledSelections()
+	{
+		deleteScheduledSelections(DEFAULT_BatchSize, DEFAULT_MaxRunDuration);
+	}
+
+	/**
+	 * Deletes the scheduled selections in batches of <code>batchSize</code> selections, until there is nothing left to delete or <code>maxRunDuration</code> was exceeded.
+	 * <p>
+	 * Each batch is deleted in it's own (short) transaction, so we don't block the selection tables for too long.
+	 */
+	public static void deleteScheduledSelections(final int batchSize, @NonNull final Duration maxRunDuration)
+	{
+		Check.assume(batchSize > 0, "batchSize > 0 but it was {}", batchSize);
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		int deletedCount = 0;
+		int batchesCount = 0;
+		while (true)
+		{
+			final int batchDeletedCount = deleteScheduledSelectionsBatch(batchSize);
+			deletedCount += batchDeletedCount;
+			batchesCount++;
+
+			if (batchDeletedCount < batchSize)
+			{
+				lastDrainedTimestampMillis.set(System.currentTimeMillis());
+				break;
+			}
+			if (stopwatch.elapsed(TimeUnit.MILLISECONDS) >= maxRunDuration.toMillis())
+			{
+				logger.info("Stopped deleting view selections after {} because it took longer than {}. The rest will be deleted on next run.", stopwatch, maxRunDuration);
+				break;
+			}
+		}
+
+		logger.debug("Deleted {} scheduled view selections in {} batches (took {})", deletedCount, batchesCount, stopwatch);
+	}
+
+	/** @return how many selections were deleted */
+	private static int deleteScheduledSelectionsBatch(final int batchSize)
 	{
 		//
 		// Tag scheduled IDs
 		final String executorId = UUID.randomUUID().toString();
+		final int selectionsCount;
 		{
 			final String sql = "UPDATE " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name + " SET "
 					+ I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + "=?"
-					+ " WHERE " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + " IS NULL";
-			final int count = DB.executeUpdateEx(sql, new Object[] { executorId }, ITrx.TRXNAME_None);
-			if (count <= 0)
+					+ " WHERE " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + " IS NULL"
+					+ " AND " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_View_UUID + " IN ("
+					+ "SELECT " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_View_UUID
+					+ " FROM " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name
+					+ " WHERE " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + " IS NULL"
+					+ " LIMIT ?"
+					+ ")";
+			selectionsCount = DB.executeUpdateEx(sql, new Object[] { executorId, batchSize }, ITrx.TRXNAME_None);
+			if (selectionsCount <= 0)
 			{
-				return;
+				return 0;
 			}
 
-			logger.trace("Tagged {} selectionIds to be deleted", count);
+			logger.trace("Tagged {} selectionIds to be deleted", selectionsCount);
 		}
 
 		//
@@ -143,5 +228,116 @@ public class SqlViewSelectionToDeleteHelper
 			logger.trace("Deleted {} rows from {}", count, I_T_WEBUI_ViewSelection_ToDelete.Table_Name);
 		}
 
+		return selectionsCount;
+	}
+
+	/**
+	 * Refreshes the selection tables statistics (live and dead rows, pending selections to delete), which are reported by the gauges registered in {@link #registerMetrics()}.
+	 * <p>
+	 * NOTE: the rows count is taken from database's statistics collector, which is cheap but approximative.
+	 */
+	public static void updateStatistics()
+	{
+		pendingToDeleteCount.set(DB.getSQLValueEx(ITrx.TRXNAME_None, "SELECT COUNT(1) FROM " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name));
+
+		final String sql = "SELECT relname, n_live_tup, n_dead_tup FROM pg_stat_user_tables WHERE relname IN (?, ?)";
+		final Object[] sqlParams = new Object[] { I_T_WEBUI_ViewSelection.Table_Name.toLowerCase(), I_T_WEBUI_ViewSelectionLine.Table_Name.toLowerCase() };
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+			while (rs.next())
+			{
+				final SelectionTableStats stats = getTableStats(rs.getString("relname"));
+				stats.getLiveRows().set(rs.getLong("n_live_tup"));
+				stats.getDeadRows().set(rs.getLong("n_dead_tup"));
+			}
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql, sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	/**
+	 * @return for how long we have selections waiting to be deleted; zero if there are none
+	 */
+	public static long getCleanupLagMillis()
+	{
+		if (pendingToDeleteCount.get() <= 0)
+		{
+			return 0;
+		}
+		return Math.max(System.currentTimeMillis() - lastDrainedTimestampMillis.get(), 0);
+	}
+
+	private static SelectionTableStats getTableStats(final String tableName)
+	{
+		return tableStatsByTableName.computeIfAbsent(tableName.toLowerCase(), k -> new SelectionTableStats());
+	}
+
+	public static void registerMetrics()
+	{
+		for (final String tableName : ImmutableList.of(I_T_WEBUI_ViewSelection.Table_Name, I_T_WEBUI_ViewSelectionLine.Table_Name))
+		{
+			final SelectionTableStats stats = getTableStats(tableName);
+			Gauge.builder(WebuiMetrics.PREFIX + "views.selections.rows.live", stats, s -> s.getLiveRows().get())
+					.tag(WebuiMetrics.TAG_Table, tableName)
+					.register(Metrics.globalRegistry);
+			Gauge.builder(WebuiMetrics.PREFIX + "views.selections.rows.dead", stats, s -> s.getDeadRows().get())
+					.tag(WebuiMetrics.TAG_Table, tableName)
+					.register(Metrics.globalRegistry);
+		}
+
+		Gauge.builder(WebuiMetrics.PREFIX + "views.selections.toDelete", pendingToDeleteCount, AtomicLong::get)
+				.description("Number of closed view selections which are waiting to be deleted")
+				.register(Metrics.globalRegistry);
+		Gauge.builder(WebuiMetrics.PREFIX + "views.selections.cleanup.lag", SqlViewSelectionToDeleteHelper.class, clazz -> getCleanupLagMillis() / 1000d)
+				.description("Seconds since the closed view selections were last fully deleted")
+				.baseUnit("seconds")
+				.register(Metrics.globalRegistry);
+	}
+
+	/**
+	 * Converts the selection tables to UNLOGGED tables, if they are not already.
+	 * <p>
+	 * The selections are volatile data anyways (they are truncated on startup), so we don't need to write them to WAL.
+	 * That makes inserting and deleting selections considerably faster, but the tables are not replicated and they are emptied on database crash.
+	 */
+	public static void convertSelectionTablesToUnloggedNoFail()
+	{
+		for (final String tableName : ImmutableList.of(I_T_WEBUI_ViewSelectionLine.Table_Name, I_T_WEBUI_ViewSelection.Table_Name))
+		{
+			try
+			{
+				final String persistence = DB.getSQLValueStringEx(ITrx.TRXNAME_None, "SELECT relpersistence FROM pg_class WHERE relname=? AND relkind='r'", tableName.toLowerCase());
+				if (persistence == null || "u".equals(persistence))
+				{
+					continue;
+				}
+
+				final Stopwatch stopwatch = Stopwatch.createStarted();
+				DB.executeUpdateEx("ALTER TABLE " + tableName + " SET UNLOGGED", ITrx.TRXNAME_None);
+				logger.info("Converted {} to UNLOGGED table (took {})", tableName, stopwatch);
+			}
+			catch (final Exception ex)
+			{
+				logger.warn("Failed converting {} to UNLOGGED table. Ignored", tableName, ex);
+			}
+		}
+	}
+
+	@Value
+	private static final class SelectionTableStats
+	{
+		AtomicLong liveRows = new AtomicLong(0);
+		AtomicLong deadRows = new AtomicLong(0);
 	}
 }
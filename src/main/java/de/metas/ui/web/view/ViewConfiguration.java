@@ -1,5 +1,6 @@
 package de.metas.ui.web.view;
 
+import java.time.Duration;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -45,19 +46,41 @@ public class ViewConfiguration implements InitializingBean
 	@Value("${metasfresh.view.clearViewSelectionsRateInSeconds:1800}")
 	private int clearViewSelectionsRateInSeconds;
 
+	/** How many closed selections to delete in one transaction */
+	@Value("${metasfresh.view.clearViewSelectionsBatchSize:" + SqlViewSelectionToDeleteHelper.DEFAULT_BatchSize + "}")
+	private int clearViewSelectionsBatchSize;
+
+	/** For how long one clearing run is allowed to delete batches; the rest is deleted on next run */
+	@Value("${metasfresh.view.clearViewSelectionsMaxRunSeconds:" + SqlViewSelectionToDeleteHelper.DEFAULT_MaxRunDurationSeconds + "}")
+	private int clearViewSelectionsMaxRunSeconds;
+
+	/** If true, the selection tables are converted to UNLOGGED tables on startup */
+	@Value("${metasfresh.view.selectionTablesUnlogged:false}")
+	private boolean selectionTablesUnlogged;
+
 	@Override
 	public void afterPropertiesSet() throws Exception
 	{
+		if (selectionTablesUnlogged)
+		{
+			SqlViewSelectionToDeleteHelper.convertSelectionTablesToUnloggedNoFail();
+		}
+
+		SqlViewSelectionToDeleteHelper.registerMetrics();
+
 		if (clearViewSelectionsRateInSeconds > 0)
 		{
+			final int batchSize = clearViewSelectionsBatchSize;
+			final Duration maxRunDuration = Duration.ofSeconds(clearViewSelectionsMaxRunSeconds);
+
 			final ScheduledExecutorService scheduledExecutor = viewMaintenanceScheduledExecutorService();
 			scheduledExecutor.scheduleAtFixedRate(
-					SqlViewSelectionToDeleteHelper::deleteScheduledSelectionsNoFail, // command, don't fail because on failure the task won't be re-scheduled so it's game over
+					() -> SqlViewSelectionToDeleteHelper.deleteScheduledSelectionsNoFail(batchSize, maxRunDuration), // command, don't fail because on failure the task won't be re-scheduled so it's game over
 					clearViewSelectionsRateInSeconds, // initialDelay
 					clearViewSelectionsRateInSeconds, // period
 					TimeUnit.SECONDS // timeUnit
 			);
-			logger.info("Clearing view selections each {} seconds", clearViewSelectionsRateInSeconds);
+			logger.info("Clearing view selections each {} seconds, in batches of {} selections", clearViewSelectionsRateInSeconds, batchSize);
 		}
 	}
 
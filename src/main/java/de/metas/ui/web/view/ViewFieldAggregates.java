@@ -0,0 +1,54 @@
+package de.metas.ui.web.view;
+
+import java.math.BigDecimal;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Aggregated values (count, sum, average, min, max) of a numeric view field, computed over all rows of the view.
+ */
+@Builder
+@Value
+public final class ViewFieldAggregates
+{
+	@NonNull
+	String fieldName;
+
+	/** how many rows have a not null value */
+	long count;
+
+	@Nullable
+	BigDecimal sum;
+	@Nullable
+	BigDecimal avg;
+	@Nullable
+	BigDecimal min;
+	@Nullable
+	BigDecimal max;
+}
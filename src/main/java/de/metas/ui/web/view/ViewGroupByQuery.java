@@ -0,0 +1,59 @@
+package de.metas.ui.web.view;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.model.DocumentQueryOrderBy;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Describes how the rows of a view shall be grouped, see {@link ViewGroupBySummaryView}.
+ */
+@Value
+public final class ViewGroupByQuery
+{
+	/** Field which contains the number of rows of each group */
+	public static final String FIELDNAME_GroupRowsCount = "GroupRowsCount";
+
+	/** Field by which we are grouping */
+	private final String groupByFieldName;
+	/** Numeric fields which shall be summed up for each group */
+	private final ImmutableList<String> sumFieldNames;
+	private final ImmutableList<DocumentQueryOrderBy> orderBys;
+
+	@Builder(toBuilder = true)
+	private ViewGroupByQuery(
+			@NonNull final String groupByFieldName,
+			final List<String> sumFieldNames,
+			final List<DocumentQueryOrderBy> orderBys)
+	{
+		this.groupByFieldName = groupByFieldName;
+		this.sumFieldNames = sumFieldNames != null ? ImmutableList.copyOf(sumFieldNames) : ImmutableList.of();
+		this.orderBys = orderBys != null ? ImmutableList.copyOf(orderBys) : ImmutableList.of();
+	}
+}
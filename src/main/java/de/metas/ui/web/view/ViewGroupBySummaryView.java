@@ -0,0 +1,435 @@
+package de.metas.ui.web.view;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.compiere.util.CCache;
+import org.compiere.util.Evaluatee;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+import de.metas.ui.web.document.filter.DocumentFilter;
+import de.metas.ui.web.exceptions.EntityNotFoundException;
+import de.metas.ui.web.view.event.ViewChangesCollector;
+import de.metas.ui.web.view.json.JSONViewDataType;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.model.DocumentQueryOrderBy;
+import de.metas.ui.web.window.model.sql.SqlOptions;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Summary view which groups the rows of a {@link DefaultView} (the base view) by one of its fields.
+ * <p>
+ * Each row represents one group and contains the group by field, the number of rows in that group
+ * and the sums of base view's numeric fields.
+ * The groups are computed in SQL, over base view's selection, one page at a time, so the detail rows are never loaded.
+ * <p>
+ * Use {@link #createDrillDownViewRequest(DocumentId)} to get a view of base view's rows which belong to a given group.
+ */
+public final class ViewGroupBySummaryView implements IView
+{
+	public static ViewGroupBySummaryView cast(final IView view)
+	{
+		return (ViewGroupBySummaryView)view;
+	}
+
+	public static final String WINDOW_ID_String = "viewGroupBy";
+	public static final WindowId WINDOW_ID = WindowId.fromJson(WINDOW_ID_String);
+
+	private final IViewsRepository viewsRepository;
+
+	private final ViewId viewId;
+	private final ViewProfileId profileId;
+	private final ViewId baseViewId;
+	private final String baseTableName;
+	private final ViewGroupByQuery query;
+
+	/** Groups count by base view's selectionId */
+	private final transient Cache<String, Long> cache_groupsCount = CacheBuilder.newBuilder()
+			.maximumSize(10)
+			.build();
+	/** Groups count which was last computed, returned while the base view's selection is created in background */
+	private volatile long lastGroupsCount = 0;
+	/**
+	 * Rows of the pages which were already served, used to resolve the rowIds without querying and to refresh them when the base records are changed.
+	 * The rows which are not cached are loaded by their group key, which is encoded in the rowId.
+	 * NOTE: it's not a {@link CCache} because it shall not be reset on each base table change, see {@link #notifyRecordsChanged(Set)}.
+	 */
+	private final transient Cache<DocumentId, IViewRow> cache_rowsById = CacheBuilder.newBuilder()
+			.maximumSize(1000)
+			.build();
+
+	@Builder
+	private ViewGroupBySummaryView(
+			@NonNull final IViewsRepository viewsRepository,
+			@NonNull final ViewId viewId,
+			@NonNull final ViewProfileId profileId,
+			@NonNull final DefaultView baseView,
+			@NonNull final ViewGroupByQuery query)
+	{
+		this.viewsRepository = viewsRepository;
+		this.viewId = viewId;
+		this.profileId = profileId;
+		baseViewId = baseView.getViewId();
+		baseTableName = baseView.getTableNameOrNull();
+		this.query = query;
+	}
+
+	@Override
+	public String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.add("viewId", viewId)
+				.add("baseViewId", baseViewId)
+				.add("query", query)
+				.toString();
+	}
+
+	private DefaultView getBaseView()
+	{
+		final IView baseView = viewsRepository.getView(baseViewId);
+		if (!(baseView instanceof DefaultView))
+		{
+			throw new EntityNotFoundException("Base view " + baseViewId + " is no longer available");
+		}
+		return (DefaultView)baseView;
+	}
+
+	@Override
+	public ViewId getViewId()
+	{
+		return viewId;
+	}
+
+	public ViewId getBaseViewId()
+	{
+		return baseViewId;
+	}
+
+	public String getGroupByFieldName()
+	{
+		return query.getGroupByFieldName();
+	}
+
+	@Override
+	public JSONViewDataType getViewType()
+	{
+		return JSONViewDataType.grid;
+	}
+
+	@Override
+	public ViewProfileId getProfileId()
+	{
+		return profileId;
+	}
+
+	@Override
+	public Set<DocumentPath> getReferencingDocumentPaths()
+	{
+		return ImmutableSet.of();
+	}
+
+	/**
+	 * @return <code>null</code> because the group rows are not backed by records
+	 */
+	@Override
+	public String getTableNameOrNull(final DocumentId documentId)
+	{
+		return null;
+	}
+
+	@Override
+	public ViewId getParentViewId()
+	{
+		return null;
+	}
+
+	@Override
+	public DocumentId getParentRowId()
+	{
+		return null;
+	}
+
+	/**
+	 * @return groups count; while the base view's selection is created in background, the last known groups count is returned, to not block until the selection is created
+	 */
+	@Override
+	public long size()
+	{
+		final DefaultView baseView = getBaseView();
+		if (!baseView.isSelectionReady())
+		{
+			return lastGroupsCount;
+		}
+
+		final long groupsCount = cache_groupsCount.asMap().computeIfAbsent(baseView.getSelectionId(), selectionId -> baseView.getGroupsCount(query));
+		lastGroupsCount = groupsCount;
+		return groupsCount;
+	}
+
+	@Override
+	public int getQueryLimit()
+	{
+		return -1;
+	}
+
+	@Override
+	public boolean isQueryLimitHit()
+	{
+		return false;
+	}
+
+	@Override
+	public void invalidateAll()
+	{
+		cache_groupsCount.invalidateAll();
+		cache_rowsById.invalidateAll();
+	}
+
+	@Override
+	public ViewResult getPage(final int firstRow, final int pageLength, final List<DocumentQueryOrderBy> orderBys)
+	{
+		final ViewGroupByQuery pageQuery = query.toBuilder()
+				.orderBys(orderBys)
+				.build();
+
+		final List<IViewRow> rows = getBaseView().getGroupsPage(viewId.getWindowId(), pageQuery, firstRow, pageLength);
+		rows.forEach(row -> cache_rowsById.put(row.getId(), row));
+
+		return ViewResult.ofViewAndPage(this, firstRow, pageLength, pageQuery.getOrderBys(), rows);
+	}
+
+	@Override
+	public IViewRow getById(final DocumentId rowId) throws EntityNotFoundException
+	{
+		return getByIds(ImmutableSet.of(rowId)).get(0);
+	}
+
+	@Override
+	public Stream<? extends IViewRow> streamByIds(final DocumentIdsSelection rowIds)
+	{
+		if (rowIds.isEmpty())
+		{
+			return Stream.empty();
+		}
+		else if (rowIds.isAll())
+		{
+			throw new UnsupportedOperationException("Streaming all group rows is not supported");
+		}
+		return getByIds(rowIds.toSet()).stream();
+	}
+
+	/**
+	 * @return rows in the order of given rowIds; the rows which are not cached are loaded from base view's selection, using one query
+	 * @throws EntityNotFoundException if any of the rows does not exist
+	 */
+	private List<IViewRow> getByIds(final Set<DocumentId> rowIds)
+	{
+		final Set<DocumentId> rowIdsToLoad = rowIds.stream()
+				.filter(rowId -> cache_rowsById.getIfPresent(rowId) == null)
+				.collect(ImmutableSet.toImmutableSet());
+		if (!rowIdsToLoad.isEmpty())
+		{
+			getBaseView().getGroupsByRowIds(viewId.getWindowId(), query, rowIdsToLoad)
+					.forEach(row -> cache_rowsById.put(row.getId(), row));
+		}
+
+		final ImmutableList.Builder<IViewRow> rows = ImmutableList.builder();
+		for (final DocumentId rowId : rowIds)
+		{
+			final IViewRow row = cache_rowsById.getIfPresent(rowId);
+			if (row == null)
+			{
+				throw new EntityNotFoundException("Row not found")
+						.appendParametersToMessage()
+						.setParameter("viewId", viewId)
+						.setParameter("rowId", rowId);
+			}
+			rows.add(row);
+		}
+		return rows.build();
+	}
+
+	@Override
+	public LookupValuesList getFilterParameterDropdown(final String filterId, final String filterParameterName, final Evaluatee ctx)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public LookupValuesList getFilterParameterTypeahead(final String filterId, final String filterParameterName, final String query, final Evaluatee ctx)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public List<DocumentFilter> getStickyFilters()
+	{
+		return ImmutableList.of();
+	}
+
+	@Override
+	public List<DocumentFilter> getFilters()
+	{
+		return ImmutableList.of();
+	}
+
+	@Override
+	public List<DocumentQueryOrderBy> getDefaultOrderBys()
+	{
+		return ImmutableList.of(DocumentQueryOrderBy.byFieldName(ViewGroupByQuery.FIELDNAME_GroupRowsCount, false));
+	}
+
+	@Override
+	public String getSqlWhereClause(final DocumentIdsSelection rowIds, final SqlOptions sqlOpts)
+	{
+		return null;
+	}
+
+	@Override
+	public boolean hasAttributesSupport()
+	{
+		return false;
+	}
+
+	@Override
+	public <T> List<T> retrieveModelsByIds(final DocumentIdsSelection rowIds, final Class<T> modelClass)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Set<String> getTableNamesToNotifyOrNull()
+	{
+		return ImmutableSet.of(baseTableName);
+	}
+
+	@Override
+	public void notifyRecordsChanged(final Set<TableRecordReference> recordRefs)
+	{
+		//
+		// The base view's selection is not changed by record changes, so only the records which are contained in it can affect our groups
+		final IView baseViewOrNull = viewsRepository.getViewIfExists(baseViewId);
+		if (!(baseViewOrNull instanceof DefaultView))
+		{
+			return; // base view is no longer available
+		}
+		final DefaultView baseView = (DefaultView)baseViewOrNull;
+
+		//
+		// While the base view's selection is created in background, we cannot tell which groups are affected without waiting for it.
+		// Skip the refresh and let the frontend reload the view, which will get the groups from the new selection.
+		if (!baseView.isSelectionReady())
+		{
+			invalidateAll();
+			ViewChangesCollector.getCurrentOrAutoflush().collectFullyChanged(this);
+			return;
+		}
+
+		if (baseView.getRowIdsAffectedBy(recordRefs).isEmpty())
+		{
+			return;
+		}
+
+		//
+		// If the number of groups changed, the frontend has to reload the whole view
+		final String selectionId = baseView.getSelectionId();
+		final Long groupsCountBefore = cache_groupsCount.getIfPresent(selectionId);
+		cache_groupsCount.invalidateAll();
+		boolean fullyChanged = groupsCountBefore != null && groupsCountBefore.longValue() != size();
+
+		//
+		// Refresh the group rows which were already served.
+		// NOTE: we don't know the groups where the changed records were before, so we cannot pick only those groups;
+		// but the other groups were not served, so the frontend will get them fresh anyways.
+		final Map<DocumentId, IViewRow> servedRowsById = ImmutableMap.copyOf(cache_rowsById.asMap());
+		final Set<DocumentId> changedRowIds = new HashSet<>();
+		if (!servedRowsById.isEmpty())
+		{
+			final Map<DocumentId, IViewRow> reloadedRowsById = Maps.uniqueIndex(
+					baseView.getGroupsByRowIds(viewId.getWindowId(), query, servedRowsById.keySet()),
+					IViewRow::getId);
+			for (final IViewRow servedRow : servedRowsById.values())
+			{
+				final DocumentId rowId = servedRow.getId();
+				final IViewRow reloadedRow = reloadedRowsById.get(rowId);
+				if (reloadedRow == null)
+				{
+					// the group has no rows anymore
+					cache_rowsById.invalidate(rowId);
+					fullyChanged = true;
+				}
+				else if (!Objects.equals(servedRow.getFieldNameAndJsonValues(), reloadedRow.getFieldNameAndJsonValues()))
+				{
+					cache_rowsById.put(rowId, reloadedRow);
+					changedRowIds.add(rowId);
+				}
+			}
+		}
+
+		if (fullyChanged)
+		{
+			ViewChangesCollector.getCurrentOrAutoflush().collectFullyChanged(this);
+		}
+		else if (!changedRowIds.isEmpty())
+		{
+			ViewChangesCollector.getCurrentOrAutoflush().collectRowsChanged(this, changedRowIds);
+		}
+	}
+
+	/**
+	 * @return request to create a view with base view's rows which belong to given group row
+	 */
+	public CreateViewRequest createDrillDownViewRequest(@NonNull final DocumentId groupRowId)
+	{
+		final DefaultView baseView = getBaseView();
+		return CreateViewRequest.builder(baseViewId.getWindowId(), baseView.getViewType())
+				.setProfileId(baseView.getProfileId())
+				.setReferencingDocumentPaths(baseView.getReferencingDocumentPaths())
+				.setStickyFilters(baseView.getStickyFilters())
+				.addStickyFilters(baseView.createGroupFilter(query.getGroupByFieldName(), groupRowId))
+				.setFilters(baseView.getFilters())
+				.setUseAutoFilters(false)
+				.addActions(baseView.getActions())
+				.addAdditionalRelatedProcessDescriptors(baseView.getAdditionalRelatedProcessDescriptors())
+				.build();
+	}
+}
@@ -0,0 +1,190 @@
+package de.metas.ui.web.view;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.descriptor.ViewLayout;
+import de.metas.ui.web.view.json.JSONViewDataType;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementFieldDescriptor;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Creates {@link ViewGroupBySummaryView}s.
+ * <p>
+ * The profileId of a summary view encodes the base window, the group by field and (optionally) the base view's profile,
+ * so the layout can be provided without having the base view.
+ */
+@ViewFactory(windowId = ViewGroupBySummaryView.WINDOW_ID_String, viewTypes = { JSONViewDataType.grid })
+public class ViewGroupBySummaryViewFactory implements IViewFactory
+{
+	private static final String PARAM_BaseViewId = "baseViewId";
+	private static final String PARAM_GroupByFieldName = "groupByFieldName";
+
+	private static final String PROFILE_ID_Separator = ":";
+
+	@Autowired
+	private SqlViewFactory sqlViewFactory;
+	@Autowired
+	@Lazy
+	private IViewsRepository viewsRepository;
+
+	public static CreateViewRequest createViewRequest(@NonNull final IView baseView, @NonNull final String groupByFieldName)
+	{
+		if (!(baseView instanceof DefaultView))
+		{
+			throw new AdempiereException("Grouping is not supported for " + baseView.getViewId());
+		}
+
+		final SummaryProfile profile = new SummaryProfile(baseView.getViewId().getWindowId(), groupByFieldName, baseView.getProfileId());
+		return CreateViewRequest.builder(ViewGroupBySummaryView.WINDOW_ID, JSONViewDataType.grid)
+				.setProfileId(profile.toProfileId())
+				.setParameter(PARAM_BaseViewId, baseView.getViewId().toJson())
+				.setParameter(PARAM_GroupByFieldName, groupByFieldName)
+				.build();
+	}
+
+	@Override
+	public ViewLayout getViewLayout(final WindowId windowId, final JSONViewDataType viewDataType, @Nullable final ViewProfileId profileId)
+	{
+		final SummaryProfile profile = SummaryProfile.ofProfileId(profileId);
+		final ViewLayout baseLayout = sqlViewFactory.getViewLayout(profile.getBaseWindowId(), JSONViewDataType.grid, profile.getBaseProfileId());
+		final String groupByFieldName = profile.getGroupByFieldName();
+
+		final List<String> fieldNames = ImmutableList.<String> builder()
+				.add(groupByFieldName)
+				.addAll(extractSumFieldNames(baseLayout, groupByFieldName))
+				.add(ViewGroupByQuery.FIELDNAME_GroupRowsCount)
+				.build();
+
+		return baseLayout.toBuilder()
+				.windowId(ViewGroupBySummaryView.WINDOW_ID)
+				.profileId(profileId)
+				.filters(ImmutableList.of())
+				.element(DocumentLayoutElementDescriptor.builder()
+						.setGridElement()
+						.setCaption("#")
+						.setWidgetType(DocumentFieldWidgetType.Integer)
+						.addField(DocumentLayoutElementFieldDescriptor.builder(ViewGroupByQuery.FIELDNAME_GroupRowsCount))
+						.build())
+				.elementsOrder(fieldNames.toArray(new String[fieldNames.size()]))
+				.clearDefaultOrderBys()
+				.build();
+	}
+
+	/**
+	 * @return numeric (non-ID) fields of the layout, which will be summed up
+	 */
+	private static List<String> extractSumFieldNames(final ViewLayout baseLayout, final String groupByFieldName)
+	{
+		return baseLayout.getElements()
+				.stream()
+				.filter(element -> element.getWidgetType().isNumeric() && element.getWidgetType() != DocumentFieldWidgetType.Integer)
+				.map(DocumentLayoutElementDescriptor::getFirstFieldName)
+				.filter(fieldName -> !groupByFieldName.equals(fieldName))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	@Override
+	public ViewGroupBySummaryView createView(@NonNull final CreateViewRequest request)
+	{
+		final String baseViewIdStr = (String)request.getParameters().get(PARAM_BaseViewId);
+		final String groupByFieldName = (String)request.getParameters().get(PARAM_GroupByFieldName);
+		if (baseViewIdStr == null || groupByFieldName == null)
+		{
+			throw new AdempiereException("Base view and group by field are mandatory")
+					.setParameter("request", request);
+		}
+
+		final IView baseView = viewsRepository.getView(baseViewIdStr);
+		if (!(baseView instanceof DefaultView))
+		{
+			throw new AdempiereException("Grouping is not supported for " + baseView.getViewId());
+		}
+
+		final SummaryProfile profile = new SummaryProfile(baseView.getViewId().getWindowId(), groupByFieldName, baseView.getProfileId());
+		final ViewLayout baseLayout = sqlViewFactory.getViewLayout(profile.getBaseWindowId(), JSONViewDataType.grid, profile.getBaseProfileId());
+
+		final ViewGroupByQuery query = ViewGroupByQuery.builder()
+				.groupByFieldName(groupByFieldName)
+				.sumFieldNames(extractSumFieldNames(baseLayout, groupByFieldName))
+				.build();
+
+		return ViewGroupBySummaryView.builder()
+				.viewsRepository(viewsRepository)
+				.viewId(request.getViewId())
+				.profileId(profile.toProfileId())
+				.baseView((DefaultView)baseView)
+				.query(query)
+				.build();
+	}
+
+	@Value
+	private static final class SummaryProfile
+	{
+		public static SummaryProfile ofProfileId(final ViewProfileId profileId)
+		{
+			if (ViewProfileId.isNull(profileId))
+			{
+				throw new AdempiereException("profileId is mandatory for group by views");
+			}
+
+			final List<String> parts = Splitter.on(PROFILE_ID_Separator).limit(3).splitToList(profileId.toJson());
+			if (parts.size() < 2)
+			{
+				throw new AdempiereException("Invalid profileId: " + profileId);
+			}
+
+			return new SummaryProfile(
+					WindowId.fromJson(parts.get(0)),
+					parts.get(1),
+					parts.size() > 2 ? ViewProfileId.fromJson(parts.get(2)) : ViewProfileId.NULL);
+		}
+
+		@NonNull
+		WindowId baseWindowId;
+		@NonNull
+		String groupByFieldName;
+		ViewProfileId baseProfileId;
+
+		public ViewProfileId toProfileId()
+		{
+			final String profileIdStr = baseWindowId.toJson() + PROFILE_ID_Separator + groupByFieldName
+					+ (!ViewProfileId.isNull(baseProfileId) ? PROFILE_ID_Separator + baseProfileId.toJson() : "");
+			return ViewProfileId.fromJson(profileIdStr);
+		}
+	}
+}
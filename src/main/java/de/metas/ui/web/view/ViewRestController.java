@@ -5,6 +5,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,31 +25,40 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.WebRequest;
 
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
+import de.metas.ui.web.cache.ETag;
 import de.metas.ui.web.cache.ETagResponseEntityBuilder;
 import de.metas.ui.web.config.WebConfig;
+import de.metas.ui.web.metrics.WebuiMetrics;
+import de.metas.ui.web.process.ProcessPreconditionsEvaluator;
 import de.metas.ui.web.process.ProcessRestController;
 import de.metas.ui.web.process.ViewAsPreconditionsContext;
-import de.metas.ui.web.process.WebuiPreconditionsContext;
 import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
 import de.metas.ui.web.process.json.JSONDocumentActionsList;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.view.descriptor.ViewLayout;
+import de.metas.ui.web.view.event.ViewChangesVersions;
 import de.metas.ui.web.view.json.JSONCreateViewRequest;
 import de.metas.ui.web.view.json.JSONFilterViewRequest;
+import de.metas.ui.web.view.json.JSONStreamingViewRow;
 import de.metas.ui.web.view.json.JSONViewDataType;
+import de.metas.ui.web.view.json.JSONViewFieldAggregates;
 import de.metas.ui.web.view.json.JSONViewLayout;
 import de.metas.ui.web.view.json.JSONViewProfilesList;
 import de.metas.ui.web.view.json.JSONViewResult;
-import de.metas.ui.web.view.json.JSONViewRow;
+import de.metas.ui.web.view.json.JSONViewRowBase;
 import de.metas.ui.web.window.controller.WindowRestController;
+import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.datatypes.json.JSONLookupValuesList;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
 import de.metas.ui.web.window.datatypes.json.JSONZoomInto;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy;
+import de.metas.ui.web.window.model.lookup.TypeaheadExecutor;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiParam;
 import lombok.Builder;
@@ -93,6 +103,8 @@ public class ViewRestController
 	private static final String PARAM_FirstRow = "firstRow";
 	private static final String PARAM_FirstRow_Description = "first row to fetch (starting from 0)";
 	private static final String PARAM_PageLength = "pageLength";
+	private static final String PARAM_Columnar = "columnar";
+	private static final String PARAM_Columnar_Description = "if true, the page rows are sent in columnar format, i.e. the field names are sent once and each row contains only the field values";
 
 	@Autowired
 	private UserSession userSession;
@@ -103,9 +115,15 @@ public class ViewRestController
 	@Autowired
 	private ProcessRestController processRestController;
 
+	@Autowired
+	private ProcessPreconditionsEvaluator preconditionsEvaluator;
+
 	@Autowired
 	private WindowRestController windowRestController;
 
+	@Autowired
+	private ViewChangesVersions viewChangesVersions;
+
 	public ViewRestController()
 	{
 	}
@@ -133,7 +151,7 @@ public class ViewRestController
 				.setUseAutoFilters(true)
 				.build();
 
-		final IView view = viewsRepo.createView(request);
+		final IView view = WebuiMetrics.timeEndpoint(WebuiMetrics.ENDPOINT_ViewCreate, windowId, () -> viewsRepo.createView(request));
 
 		//
 		// Fetch result if requested
@@ -141,7 +159,7 @@ public class ViewRestController
 		if (jsonRequest.getQueryPageLength() > 0)
 		{
 			final List<DocumentQueryOrderBy> orderBys = ImmutableList.of();
-			result = view.getPage(jsonRequest.getQueryFirstRow(), jsonRequest.getQueryPageLength(), orderBys);
+			result = WebuiMetrics.timeEndpoint(WebuiMetrics.ENDPOINT_ViewPage, windowId, () -> view.getPage(jsonRequest.getQueryFirstRow(), jsonRequest.getQueryPageLength(), orderBys));
 		}
 		else
 		{
@@ -203,21 +221,50 @@ public class ViewRestController
 	}
 
 	@GetMapping("/{viewId}")
-	public JSONViewResult getViewData(
+	public ResponseEntity<JSONViewResult> getViewData(
 			@PathVariable(PARAM_WindowId) final String windowId //
 			, @PathVariable("viewId") final String viewIdStr//
 			, @RequestParam(name = PARAM_FirstRow, required = true) @ApiParam(PARAM_FirstRow_Description) final int firstRow //
 			, @RequestParam(name = PARAM_PageLength, required = true) final int pageLength //
 			, @RequestParam(name = PARAM_OrderBy, required = false) @ApiParam(PARAM_OrderBy_Description) final String orderBysListStr //
+			, @RequestParam(name = PARAM_Columnar, required = false, defaultValue = "false") @ApiParam(PARAM_Columnar_Description) final boolean columnar //
+			, final WebRequest request //
 	)
 	{
 		userSession.assertLoggedIn();
 
 		final ViewId viewId = ViewId.of(windowId, viewIdStr);
 		final IView view = viewsRepo.getView(viewId);
-		final ViewResult result = view.getPage(firstRow, pageLength, DocumentQueryOrderBy.parseOrderBysList(orderBysListStr));
 		final IViewRowOverrides rowOverrides = ViewRowOverridesHelper.getViewRowOverrides(view);
-		return JSONViewResult.of(result, rowOverrides, userSession.getAD_Language());
+
+		return ETagResponseEntityBuilder.ofETag(request, getViewETag(view), () -> WebuiMetrics.timeEndpoint(WebuiMetrics.ENDPOINT_ViewPage, viewId.getWindowId(), () -> view.getPage(firstRow, pageLength, DocumentQueryOrderBy.parseOrderBysList(orderBysListStr))))
+				.cacheMaxAge(0) // always revalidate
+				.jsonOptions(() -> newJSONOptions())
+				.includeLanguageInETag()
+				.includePermissionsInETag()
+				.toJson((result, jsonOptions) -> columnar
+						? JSONViewResult.ofColumnar(result, rowOverrides, jsonOptions.getAD_Language())
+						: JSONViewResult.of(result, rowOverrides, jsonOptions.getAD_Language()));
+	}
+
+	/**
+	 * @return ETag of view's data, built from view's data version (see {@link IView#getDataVersionOrNull()}), view's selection and the version of the view changes which were sent to frontend;
+	 *         or null if the view does not know its data version (e.g. its selection is still being created)
+	 */
+	private ETag getViewETag(final IView view)
+	{
+		// NOTE: check the data version first, because getSelectionId() and size() would block until the selection is created
+		final String dataVersion = view.getDataVersionOrNull();
+		if (dataVersion == null)
+		{
+			return null;
+		}
+
+		final ViewId viewId = view.getViewId();
+		return ETag.of(dataVersion, ImmutableMap.of(
+				"changes", String.valueOf(viewChangesVersions.getVersion(viewId)),
+				"selection", view.getSelectionId(),
+				"size", String.valueOf(view.size())));
 	}
 
 	@GetMapping("/layout")
@@ -250,7 +297,7 @@ public class ViewRestController
 	}
 
 	@GetMapping("/{viewId}/byIds")
-	public List<JSONViewRow> getByIds(
+	public List<? extends JSONViewRowBase> getByIds(
 			@PathVariable(PARAM_WindowId) final String windowId //
 			, @PathVariable("viewId") final String viewIdStr //
 			, @RequestParam("ids") @ApiParam("comma separated IDs") final String idsListStr //
@@ -268,7 +315,75 @@ public class ViewRestController
 		final IView view = viewsRepo.getView(viewId);
 		final List<? extends IViewRow> result = view.streamByIds(rowIds).collect(ImmutableList.toImmutableList());
 		final IViewRowOverrides rowOverrides = ViewRowOverridesHelper.getViewRowOverrides(view);
-		return JSONViewRow.ofViewRows(result, rowOverrides, userSession.getAD_Language());
+		return JSONStreamingViewRow.convertViewRows(result, rowOverrides, userSession.getAD_Language());
+	}
+
+	@GetMapping("/{viewId}/aggregates")
+	public List<JSONViewFieldAggregates> getAggregates(
+			@PathVariable(PARAM_WindowId) final String windowId //
+			, @PathVariable("viewId") final String viewIdStr //
+			, @RequestParam("fieldNames") @ApiParam("comma separated numeric field names") final String fieldNamesListStr //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final List<String> fieldNames = Splitter.on(',').trimResults().omitEmptyStrings().splitToList(fieldNamesListStr);
+		if (fieldNames.isEmpty())
+		{
+			throw new AdempiereException("No fieldNames provided");
+		}
+
+		final ViewId viewId = ViewId.of(windowId, viewIdStr);
+		final IView view = viewsRepo.getView(viewId);
+		return JSONViewFieldAggregates.ofList(view.getAggregates(fieldNames));
+	}
+
+	/**
+	 * Creates a summary view which groups the rows of given view by given field.
+	 *
+	 * @see ViewGroupBySummaryView
+	 */
+	@PostMapping("/{viewId}/groupBy/{fieldName}")
+	public JSONViewResult groupBy(
+			@PathVariable(PARAM_WindowId) final String windowId //
+			, @PathVariable("viewId") final String viewIdStr //
+			, @PathVariable("fieldName") final String fieldName //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final ViewId viewId = ViewId.of(windowId, viewIdStr);
+		final IView view = viewsRepo.getView(viewId);
+
+		final IView summaryView = viewsRepo.createView(ViewGroupBySummaryViewFactory.createViewRequest(view, fieldName));
+		return JSONViewResult.of(ViewResult.ofView(summaryView), ViewRowOverridesHelper.getViewRowOverrides(summaryView), userSession.getAD_Language());
+	}
+
+	/**
+	 * Creates a view with the rows of given group.
+	 *
+	 * @param viewIdStr group by summary view
+	 * @param rowIdStr group row
+	 */
+	@PostMapping("/{viewId}/{rowId}/drillDown")
+	public JSONViewResult drillDown(
+			@PathVariable(PARAM_WindowId) final String windowId //
+			, @PathVariable("viewId") final String viewIdStr //
+			, @PathVariable("rowId") final String rowIdStr //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final ViewId viewId = ViewId.of(windowId, viewIdStr);
+		final IView view = viewsRepo.getView(viewId);
+		if (!(view instanceof ViewGroupBySummaryView))
+		{
+			throw new AdempiereException("Drill down is supported only for group by views");
+		}
+
+		final CreateViewRequest request = ViewGroupBySummaryView.cast(view).createDrillDownViewRequest(DocumentId.of(rowIdStr));
+		final IView detailsView = viewsRepo.createView(request);
+		return JSONViewResult.of(ViewResult.ofView(detailsView), ViewRowOverridesHelper.getViewRowOverrides(detailsView), userSession.getAD_Language());
 	}
 
 	@GetMapping("/{viewId}/filter/{filterId}/field/{parameterName}/typeahead")
@@ -283,8 +398,10 @@ public class ViewRestController
 		userSession.assertLoggedIn();
 
 		final ViewId viewId = ViewId.of(windowId, viewIdStr);
-		return viewsRepo.getView(viewId)
-				.getFilterParameterTypeahead(filterId, parameterName, query, userSession.toEvaluatee())
+		final IView view = viewsRepo.getView(viewId);
+		return WebuiMetrics.timeEndpoint(WebuiMetrics.ENDPOINT_Typeahead, viewId.getWindowId(),
+				() -> TypeaheadExecutor.instance.executeInSlot(userSession.getSessionId() + "/" + viewId.toJson() + "/" + filterId + "/" + parameterName,
+						() -> view.getFilterParameterTypeahead(filterId, parameterName, query, userSession.toEvaluatee())))
 				.transform(JSONLookupValuesList::ofLookupValuesList);
 	}
 
@@ -342,7 +459,7 @@ public class ViewRestController
 	{
 		userSession.assertLoggedIn();
 
-		final WebuiPreconditionsContext preconditionsContext = newPreconditionsContextBuilder()
+		final ViewAsPreconditionsContext preconditionsContext = newPreconditionsContextBuilder()
 				.windowId(windowId)
 				.viewIdString(viewIdStr)
 				.selectedIdsList(selectedIdsListStr)
@@ -352,7 +469,7 @@ public class ViewRestController
 				.childViewSelectedIdsList(childViewSelectedIdsListStr)
 				.build();
 
-		return processRestController.streamDocumentRelatedProcesses(preconditionsContext)
+		return preconditionsEvaluator.evaluate(processRestController.streamDocumentRelatedProcesses(preconditionsContext), preconditionsContext)
 				.filter(descriptor -> all || descriptor.isEnabled()) // only those which are enabled and not internally rejected
 				.collect(JSONDocumentActionsList.collect(newJSONOptions()));
 	}
@@ -370,7 +487,7 @@ public class ViewRestController
 	{
 		userSession.assertLoggedIn();
 
-		final WebuiPreconditionsContext preconditionsContext = newPreconditionsContextBuilder()
+		final ViewAsPreconditionsContext preconditionsContext = newPreconditionsContextBuilder()
 				.windowId(windowId)
 				.viewIdString(viewIdStr)
 				.selectedIdsList(selectedIdsListStr)
@@ -380,8 +497,9 @@ public class ViewRestController
 				.childViewSelectedIdsList(childViewSelectedIdsListStr)
 				.build();
 
-		return processRestController.streamDocumentRelatedProcesses(preconditionsContext)
-				.filter(WebuiRelatedProcessDescriptor::isQuickAction)
+		final Stream<WebuiRelatedProcessDescriptor> quickActions = processRestController.streamDocumentRelatedProcesses(preconditionsContext)
+				.filter(WebuiRelatedProcessDescriptor::isQuickAction);
+		return preconditionsEvaluator.evaluate(quickActions, preconditionsContext)
 				.filter(descriptor -> all || descriptor.isEnabledOrNotSilent()) // only those which are enabled or not silent
 				.collect(JSONDocumentActionsList.collect(newJSONOptions()));
 	}
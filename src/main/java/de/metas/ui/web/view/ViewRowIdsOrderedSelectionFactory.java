@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Set;
 
 import de.metas.ui.web.document.filter.DocumentFilter;
+import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy;
 
@@ -33,6 +34,14 @@ public interface ViewRowIdsOrderedSelectionFactory
 {
 	ViewRowIdsOrderedSelection createOrderedSelection(ViewEvaluationCtx viewEvalCtx, ViewId viewId, List<DocumentFilter> filters, final List<DocumentQueryOrderBy> orderBys, final boolean applySecurityRestrictions);
 
+	/**
+	 * Creates a selection which contains only the first <code>headSize</code> rows.
+	 * The returned selection's size is the (estimated) size of the full selection.
+	 *
+	 * @return head selection or <code>null</code> if head selections are not supported for this view
+	 */
+	ViewRowIdsOrderedSelection createOrderedSelectionHead(ViewEvaluationCtx viewEvalCtx, ViewId viewId, List<DocumentFilter> filters, List<DocumentQueryOrderBy> orderBys, boolean applySecurityRestrictions, int headSize);
+
 	/**
 	 * @return a new {@link ViewRowIdsOrderedSelection} from a given <code>fromSelection</code> ordered by <code>orderBys</code>
 	 */
@@ -45,7 +54,17 @@ public interface ViewRowIdsOrderedSelectionFactory
 	ViewRowIdsOrderedSelection removeRowIdsFromSelection(ViewRowIdsOrderedSelection selection, DocumentIdsSelection rowIds);
 
 	boolean containsAnyOfRowIds(ViewRowIdsOrderedSelection selection, DocumentIdsSelection rowIds);
+
+	/**
+	 * @return those of given <code>rowIds</code> which are contained in given selection
+	 */
+	Set<DocumentId> retainRowIdsContainedInSelection(ViewRowIdsOrderedSelection selection, DocumentIdsSelection rowIds);
 	
+	/**
+	 * @return aggregated values of given numeric fields, computed over all rows of given selection
+	 */
+	List<ViewFieldAggregates> retrieveAggregates(ViewRowIdsOrderedSelection selection, List<String> fieldNames);
+
 	void deleteSelection(ViewId viewId);
 
 	void scheduleDeleteSelections(Set<String> viewIds);
@@ -0,0 +1,116 @@
+package de.metas.ui.web.view;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableSet;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Index of views by the table names they want to be notified about (see {@link IView#getTableNamesToNotifyOrNull()}).
+ * <p>
+ * Used to route the changed records only to the interested views instead of broadcasting them to all views.
+ * <p>
+ * NOTE: the views are referenced directly, because looking them up in the views storage would count as an access and would prevent them from expiring.
+ * Views which were closed without being explicitly removed (e.g. expired) shall be purged using {@link #retainAll(Set)}.
+ */
+final class ViewsByTableNameIndex
+{
+	private final ConcurrentHashMap<String, Map<ViewId, IView>> viewsByTableName = new ConcurrentHashMap<>();
+	/** Views which shall be notified about changes on any table */
+	private final ConcurrentHashMap<ViewId, IView> viewsForAnyTable = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<ViewId, ImmutableSet<String>> tableNamesByViewId = new ConcurrentHashMap<>();
+
+	public void add(@NonNull final IView view)
+	{
+		final ViewId viewId = view.getViewId();
+		final Set<String> tableNames = view.getTableNamesToNotifyOrNull();
+		if (tableNames == null)
+		{
+			viewsForAnyTable.put(viewId, view);
+		}
+		else if (!tableNames.isEmpty())
+		{
+			tableNamesByViewId.put(viewId, ImmutableSet.copyOf(tableNames));
+			tableNames.forEach(tableName -> viewsByTableName.computeIfAbsent(tableName, k -> new ConcurrentHashMap<>()).put(viewId, view));
+		}
+	}
+
+	public void remove(@NonNull final ViewId viewId)
+	{
+		viewsForAnyTable.remove(viewId);
+
+		final ImmutableSet<String> tableNames = tableNamesByViewId.remove(viewId);
+		if (tableNames != null)
+		{
+			tableNames.forEach(tableName -> viewsByTableName.computeIfPresent(tableName, (k, views) -> {
+				views.remove(viewId);
+				return views.isEmpty() ? null : views;
+			}));
+		}
+	}
+
+	/**
+	 * @return the views interested in at least one of given tables
+	 */
+	public Collection<IView> getViewsByTableNames(@NonNull final Collection<String> tableNames)
+	{
+		final Map<ViewId, IView> views = new HashMap<>(viewsForAnyTable);
+		for (final String tableName : tableNames)
+		{
+			final Map<ViewId, IView> tableViews = viewsByTableName.get(tableName);
+			if (tableViews != null)
+			{
+				views.putAll(tableViews);
+			}
+		}
+		return views.values();
+	}
+
+	/**
+	 * @return the tables on which given view is interested or <code>null</code> if it's interested in any table
+	 */
+	public Set<String> getTableNamesOrNull(@NonNull final ViewId viewId)
+	{
+		return tableNamesByViewId.get(viewId);
+	}
+
+	/**
+	 * Removes all views which are not in given set.
+	 */
+	public void retainAll(@NonNull final Set<ViewId> viewIdsToRetain)
+	{
+		final Set<ViewId> viewIdsToRemove = new HashSet<>();
+		viewsForAnyTable.keySet().stream().filter(viewId -> !viewIdsToRetain.contains(viewId)).forEach(viewIdsToRemove::add);
+		tableNamesByViewId.keySet().stream().filter(viewId -> !viewIdsToRetain.contains(viewId)).forEach(viewIdsToRemove::add);
+
+		viewIdsToRemove.forEach(this::remove);
+	}
+}
@@ -6,6 +6,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
@@ -26,7 +28,10 @@ import org.springframework.stereotype.Repository;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.Streams;
 
 import de.metas.logging.LogManager;
@@ -35,12 +40,15 @@ import de.metas.ui.web.base.model.I_T_WEBUI_ViewSelectionLine;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.menu.MenuNode;
 import de.metas.ui.web.menu.MenuTreeRepository;
+import de.metas.ui.web.metrics.WebuiMetrics;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.view.descriptor.ViewLayout;
 import de.metas.ui.web.view.json.JSONFilterViewRequest;
 import de.metas.ui.web.view.json.JSONViewDataType;
 import de.metas.ui.web.window.controller.DocumentPermissionsHelper;
 import de.metas.ui.web.window.datatypes.WindowId;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 import lombok.NonNull;
 
 /*
@@ -81,7 +89,12 @@ public class ViewsRepository implements IViewsRepository
 	private boolean truncateSelectionOnStartUp;
 
 	private final ConcurrentHashMap<WindowId, IViewsIndexStorage> viewsIndexStorages = new ConcurrentHashMap<>();
-	private final IViewsIndexStorage defaultViewsIndexStorage = new DefaultViewsRepositoryStorage();
+	private final ViewsByTableNameIndex viewsByTableName = new ViewsByTableNameIndex();
+	private final IViewsIndexStorage defaultViewsIndexStorage = new DefaultViewsRepositoryStorage("default", viewsByTableName::remove);
+
+	/** Views removed from the default storage are dropped from {@link #viewsByTableName} right away; this periodic purge covers the other storages */
+	private static final long PURGE_CLOSED_VIEWS_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+	private final AtomicLong nextPurgeClosedViewsMillis = new AtomicLong(0);
 
 	/**
 	 * 
@@ -94,6 +107,10 @@ public class ViewsRepository implements IViewsRepository
 	{
 		factories = createFactoriesMap(viewFactories);
 		logger.info("Registered following view factories: ", factories);
+
+		Gauge.builder(WebuiMetrics.PREFIX + "views.live", this, viewsRepository -> viewsRepository.streamAllViews().count())
+				.description("Number of views which are currently open")
+				.register(Metrics.globalRegistry);
 	}
 
 	@PostConstruct
@@ -265,7 +282,7 @@ public class ViewsRepository implements IViewsRepository
 					.setParameter("factory", factory.toString());
 		}
 
-		getViewsStorageFor(view.getViewId()).put(view);
+		putView(view);
 		logger.trace("Created view {}", view);
 
 		return view;
@@ -296,7 +313,7 @@ public class ViewsRepository implements IViewsRepository
 		// NOTE: avoid adding if the factory returned the same view.
 		if (view != newView)
 		{
-			getViewsStorageFor(newView.getViewId()).put(newView);
+			putView(newView);
 			logger.trace("Created filtered view {}", newView);
 		}
 		else
@@ -333,7 +350,7 @@ public class ViewsRepository implements IViewsRepository
 		// NOTE: avoid adding if the factory returned the same view.
 		if (view != newView)
 		{
-			getViewsStorageFor(newView.getViewId()).put(newView);
+			putView(newView);
 			logger.trace("Sticky filter deleted. Returning new view {}", newView);
 		}
 		else
@@ -345,6 +362,12 @@ public class ViewsRepository implements IViewsRepository
 		return newView;
 	}
 
+	private void putView(@NonNull final IView view)
+	{
+		getViewsStorageFor(view.getViewId()).put(view);
+		viewsByTableName.add(view);
+	}
+
 	@Override
 	public IView getView(@NonNull final String viewIdStr)
 	{
@@ -375,6 +398,7 @@ public class ViewsRepository implements IViewsRepository
 	public void deleteView(final ViewId viewId)
 	{
 		getViewsStorageFor(viewId).removeById(viewId);
+		viewsByTableName.remove(viewId);
 		logger.trace("Removed view {}", viewId);
 	}
 
@@ -395,13 +419,44 @@ public class ViewsRepository implements IViewsRepository
 			return;
 		}
 
+		purgeClosedViewsFromIndexIfNeeded();
+
+		final ImmutableListMultimap<String, TableRecordReference> recordRefsByTableName = Multimaps.index(recordRefs, TableRecordReference::getTableName);
+
 		final MutableInt notifiedCount = MutableInt.zero();
-		streamAllViews()
-				.forEach(view -> {
-					view.notifyRecordsChanged(recordRefs);
-					notifiedCount.incrementAndGet();
-				});
+		for (final IView view : viewsByTableName.getViewsByTableNames(recordRefsByTableName.keySet()))
+		{
+			// Notify the view only about the records it's interested in
+			final Set<String> viewTableNames = viewsByTableName.getTableNamesOrNull(view.getViewId());
+			final Set<TableRecordReference> viewRecordRefs = viewTableNames == null
+					? recordRefs
+					: viewTableNames.stream()
+							.flatMap(tableName -> recordRefsByTableName.get(tableName).stream())
+							.collect(ImmutableSet.toImmutableSet());
+			if (viewRecordRefs.isEmpty())
+			{
+				continue;
+			}
+
+			view.notifyRecordsChanged(viewRecordRefs);
+			notifiedCount.incrementAndGet();
+		}
 
 		logger.debug("Notified {} views about changed records: {}", notifiedCount, recordRefs);
 	}
+
+	private void purgeClosedViewsFromIndexIfNeeded()
+	{
+		final long now = System.currentTimeMillis();
+		final long nextPurgeMillis = nextPurgeClosedViewsMillis.get();
+		if (now < nextPurgeMillis || !nextPurgeClosedViewsMillis.compareAndSet(nextPurgeMillis, now + PURGE_CLOSED_VIEWS_INTERVAL_MILLIS))
+		{
+			return;
+		}
+
+		final Set<ViewId> liveViewIds = streamAllViews()
+				.map(IView::getViewId)
+				.collect(ImmutableSet.toImmutableSet());
+		viewsByTableName.retainAll(liveViewIds);
+	}
 }
@@ -75,12 +75,14 @@ public class SqlViewSelectData
 			final SqlViewGroupingBinding groupingBinding)
 	{
 		this.keyColumnNamesMap = keyColumnNamesMap;
-		final IStringExpression sqlSelect = buildSqlSelect(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields, groupingBinding);
 
-		_sqlSelectByPage = sqlSelect.toComposer()
-				.append("\n WHERE ")
-				// NOTE: already filtered by UUID
-				.append("\n " + COLUMNNAME_Paging_SeqNo_OneBased + " BETWEEN ? AND ?")
+		// NOTE: the page filter is applied directly on the selection table (together with the UUID filter),
+		// so the database is doing a range scan on (UUID, Line) and is joining/evaluating only the rows of the requested page,
+		// no matter how deep the page is.
+		final String sqlSelectionFilterByPage = "sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_Line + " BETWEEN ? AND ?";
+
+		_sqlSelectByPage = buildSqlSelect(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields, groupingBinding, sqlSelectionFilterByPage)
+				.toComposer()
 				.append("\n ORDER BY " + COLUMNNAME_Paging_SeqNo_OneBased)
 				.build();
 
@@ -90,24 +92,18 @@ public class SqlViewSelectData
 				keyColumnNamesMap,
 				ImmutableList.of(), // displayFieldNames
 				extractKeyFields(allFields, keyColumnNamesMap), // allFields
-				groupingBinding)
+				groupingBinding,
+				sqlSelectionFilterByPage)
 						//
 						.toComposer()
-						.append("\n WHERE ")
-						// NOTE: already filtered by UUID
-						.append("\n " + COLUMNNAME_Paging_SeqNo_OneBased + " BETWEEN ? AND ?")
 						.append("\n ORDER BY " + COLUMNNAME_Paging_SeqNo_OneBased)
 						.build();
 
-		_sqlSelectById = sqlSelect.toComposer()
-				.append("\n WHERE ")
-				// NOTE: already filtered by UUID
-				.append("\n")
-				.append(keyColumnNamesMap.getWebuiSelectionColumnNames()
-						.stream()
-						.map(keyColumnName -> COLUMNNAME_Paging_Prefix + keyColumnName + "=?")
-						.collect(Collectors.joining("\nAND ")))
-				.build();
+		final String sqlSelectionFilterById = keyColumnNamesMap.getWebuiSelectionColumnNames()
+				.stream()
+				.map(keyColumnName -> "sel." + keyColumnName + "=?")
+				.collect(Collectors.joining(" AND "));
+		_sqlSelectById = buildSqlSelect(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields, groupingBinding, sqlSelectionFilterById);
 
 		if (groupingBinding != null)
 		{
@@ -149,7 +145,9 @@ public class SqlViewSelectData
 	}
 
 	/**
-	 * SQL Parameters required: 1=UUID
+	 * SQL Parameters required: 1=UUID, followed by the parameters of <code>sqlSelectionFilter</code>
+	 *
+	 * @param sqlSelectionFilter additional filter on selection table (alias <code>sel</code>)
 	 */
 	private static IStringExpression buildSqlSelect(
 			final String sqlTableName,
@@ -157,15 +155,16 @@ public class SqlViewSelectData
 			final SqlViewKeyColumnNamesMap keyColumnNamesMap,
 			final Collection<String> displayFieldNames,
 			final Collection<SqlViewRowFieldBinding> allFields,
-			final SqlViewGroupingBinding groupingBinding)
+			final SqlViewGroupingBinding groupingBinding,
+			@NonNull final String sqlSelectionFilter)
 	{
 		if (groupingBinding == null)
 		{
-			return buildSqlSelect_WithoutGrouping(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields);
+			return buildSqlSelect_WithoutGrouping(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields, sqlSelectionFilter);
 		}
 		else
 		{
-			return buildSqlSelect_WithGrouping(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields, groupingBinding);
+			return buildSqlSelect_WithGrouping(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields, groupingBinding, sqlSelectionFilter);
 		}
 	}
 
@@ -174,7 +173,8 @@ public class SqlViewSelectData
 			final String sqlTableAlias,
 			final SqlViewKeyColumnNamesMap keyColumnNamesMap,
 			final Collection<String> displayFieldNames,
-			final Collection<SqlViewRowFieldBinding> allFields)
+			final Collection<SqlViewRowFieldBinding> allFields,
+			final String sqlSelectionFilter)
 	{
 		final List<String> sqlSelectValuesList = new ArrayList<>();
 		final List<IStringExpression> sqlSelectDisplayNamesList = new ArrayList<>();
@@ -217,6 +217,7 @@ public class SqlViewSelectData
 				.append("\n   LEFT OUTER JOIN " + sqlTableName + " ON (" + keyColumnNamesMap.getSqlJoinCondition(sqlTableName, "sel") + ")")
 				// Filter by UUID. Keep this closer to the source table, see https://github.com/metasfresh/metasfresh-webui-api/issues/437
 				.append("\n   WHERE sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?")
+				.append("\n   AND " + sqlSelectionFilter)
 				.append("\n ) " + sqlTableAlias); // FROM
 
 		return sql.build().caching();
@@ -228,7 +229,8 @@ public class SqlViewSelectData
 			final SqlViewKeyColumnNamesMap keyColumnNamesMap,
 			final Collection<String> displayFieldNames,
 			final Collection<SqlViewRowFieldBinding> allFields,
-			final SqlViewGroupingBinding groupingBinding)
+			final SqlViewGroupingBinding groupingBinding,
+			final String sqlSelectionFilter)
 	{
 		final String sqlKeyColumnName = keyColumnNamesMap.getSingleKeyColumnName();
 
@@ -313,6 +315,7 @@ public class SqlViewSelectData
 				//
 				// Filter by UUID. Keep this closer to the source table, see https://github.com/metasfresh/metasfresh-webui-api/issues/437
 				.append("\n   WHERE sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?")
+				.append("\n   AND " + sqlSelectionFilter)
 				//
 				.append("\n   GROUP BY ")
 				.append("\n   sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_Line)
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -22,6 +23,7 @@ import org.adempiere.util.Check;
 import org.compiere.util.DB;
 import org.slf4j.Logger;
 
+import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 
 import de.metas.logging.LogManager;
@@ -32,6 +34,7 @@ import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverters;
 import de.metas.ui.web.document.filter.sql.SqlParamsCollector;
 import de.metas.ui.web.view.ViewEvaluationCtx;
+import de.metas.ui.web.view.ViewGroupByQuery;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
@@ -74,6 +77,9 @@ import lombok.Value;
  */
 public final class SqlViewSelectionQueryBuilder
 {
+	/** Group key (as text), see {@link #buildSqlGroupByPage(ViewEvaluationCtx, String, ViewGroupByQuery, int, int)} */
+	public static final String COLUMNNAME_GroupKey = "_grp_Key";
+
 	private static final transient Logger logger = LogManager.getLogger(SqlViewSelectionQueryBuilder.class);
 
 	private final SqlViewBinding _viewBinding;
@@ -111,7 +117,7 @@ public final class SqlViewSelectionQueryBuilder
 		return _viewBinding.getSqlWhereClause();
 	}
 
-	private SqlViewKeyColumnNamesMap getSqlViewKeyColumnNamesMap()
+	public SqlViewKeyColumnNamesMap getSqlViewKeyColumnNamesMap()
 	{
 		return _viewBinding.getSqlViewKeyColumnNamesMap();
 	}
@@ -219,6 +225,69 @@ public final class SqlViewSelectionQueryBuilder
 			final List<DocumentFilter> filters,
 			final List<DocumentQueryOrderBy> orderBys,
 			final int queryLimit)
+	{
+		final boolean onlyFirstRowsInOrder = false;
+		return buildSqlCreateSelection_WithoutGrouping(viewEvalCtx, newViewId, filters, orderBys, queryLimit, onlyFirstRowsInOrder);
+	}
+
+	/**
+	 * Builds the SQL which creates a selection containing only the first <code>headSize</code> rows, in the requested order.
+	 * Because the rows are ordered before the LIMIT is applied, the database can stop as soon as the head rows were found.
+	 * <p>
+	 * Not supported for views with grouping fields.
+	 */
+	public SqlAndParams buildSqlCreateSelectionHead(
+			final ViewEvaluationCtx viewEvalCtx,
+			final ViewId newViewId,
+			final List<DocumentFilter> filters,
+			final List<DocumentQueryOrderBy> orderBys,
+			final int headSize)
+	{
+		Check.assume(!hasGroupingFields(), "view shall not have grouping fields: {}", _viewBinding);
+		Check.assume(headSize > 0, "headSize > 0");
+		final boolean onlyFirstRowsInOrder = true;
+		return buildSqlCreateSelection_WithoutGrouping(viewEvalCtx, newViewId, filters, orderBys, headSize, onlyFirstRowsInOrder);
+	}
+
+	/**
+	 * Builds an <code>EXPLAIN</code> of the SQL which would select the view's rows, so we can get the planner's rows count estimation without actually running the query.
+	 */
+	public SqlAndParams buildSqlExplainRowsCount(
+			final ViewEvaluationCtx viewEvalCtx,
+			final List<DocumentFilter> filters)
+	{
+		final String sqlTableName = getTableName();
+		final String sqlTableAlias = getTableAlias();
+
+		final CompositeStringExpression.Builder sqlBuilder = IStringExpression.composer();
+		sqlBuilder.append(
+				IStringExpression.composer()
+						.append("EXPLAIN SELECT 1")
+						.append("\n FROM ").append(sqlTableName).append(" ").append(sqlTableAlias)
+						.append("\n WHERE 1=1 ")
+						.wrap(securityRestrictionsWrapper(sqlTableAlias)) // security
+		);
+
+		final List<Object> sqlParams = new ArrayList<>();
+		final SqlParamsCollector sqlWhereClauseParams = SqlParamsCollector.newInstance();
+		final IStringExpression sqlWhereClause = buildSqlWhereClause(sqlWhereClauseParams, filters, SqlOptions.usingTableAlias(sqlTableAlias));
+		if (sqlWhereClause != null && !sqlWhereClause.isNullExpression())
+		{
+			sqlBuilder.append("\n AND (\n").append(sqlWhereClause).append("\n)");
+			sqlParams.addAll(sqlWhereClauseParams.toList());
+		}
+
+		final String sql = sqlBuilder.build().evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
+		return SqlAndParams.of(sql, sqlParams);
+	}
+
+	private SqlAndParams buildSqlCreateSelection_WithoutGrouping(
+			final ViewEvaluationCtx viewEvalCtx,
+			final ViewId newViewId,
+			final List<DocumentFilter> filters,
+			final List<DocumentQueryOrderBy> orderBys,
+			final int queryLimit,
+			final boolean onlyFirstRowsInOrder)
 	{
 		final String sqlTableName = getTableName();
 		final String sqlTableAlias = getTableAlias();
@@ -236,16 +305,23 @@ public final class SqlViewSelectionQueryBuilder
 		//
 		// SELECT ... FROM ... WHERE 1=1
 		final List<Object> sqlParams = new ArrayList<>();
+		final IStringExpression sqlOrderByEffective;
 		{
 			IStringExpression sqlOrderBy = SqlDocumentOrderByBuilder.newInstance(this::getFieldOrderBy).buildSqlOrderBy(orderBys);
 			if (sqlOrderBy == null || sqlOrderBy.isNullExpression())
 			{
 				sqlOrderBy = ConstantStringExpression.of(keyColumnNamesMap.getKeyColumnNamesCommaSeparated());
 			}
+			else
+			{
+				// Order by keys too, to have a deterministic Line for rows having the same values
+				sqlOrderBy = sqlOrderBy.toComposer().append(", ").append(keyColumnNamesMap.getKeyColumnNamesCommaSeparated()).build();
+			}
 
 			final IStringExpression sqlSeqNo = IStringExpression.composer()
 					.append("row_number() OVER (ORDER BY ").append(sqlOrderBy).append(")")
 					.build();
+			sqlOrderByEffective = sqlOrderBy;
 			// final IStringExpression sqlRecordId = ConstantStringExpression.of(keyColumnName);
 
 			sqlBuilder.append(
@@ -275,6 +351,13 @@ public final class SqlViewSelectionQueryBuilder
 			}
 		}
 
+		//
+		// ORDER BY, when we want only the first rows (same order as the row_number() window, so the database can stop early)
+		if (onlyFirstRowsInOrder)
+		{
+			sqlBuilder.append("\n ORDER BY ").append(sqlOrderByEffective);
+		}
+
 		//
 		// Enforce a LIMIT, to not affect server performances on huge tables
 		if (queryLimit > 0)
@@ -565,7 +648,8 @@ public final class SqlViewSelectionQueryBuilder
 			sqlBuilder
 					.append("\n SELECT ")
 					.append("\n  ?") // newUUID
-					.append("\n, ").append("row_number() OVER (ORDER BY ").append(sqlOrderBys).append(")") // Line
+					.append("\n, ").append("row_number() OVER (ORDER BY ").append(sqlOrderBys)
+					.append(", ").append(keyColumnNamesMap.getWebuiSelectionColumnNamesCommaSeparated("sel")).append(")") // Line (ordered by keys too, to be deterministic)
 					.append("\n, ").append(keyColumnNamesMap.getKeyColumnNamesCommaSeparated()) // keys
 					.append("\n FROM ").append(I_T_WEBUI_ViewSelection.Table_Name).append(" sel")
 					.append("\n LEFT OUTER JOIN ").append(sqlSourceTable).append(" ").append(sqlTableAlias).append(" ON (").append(sqlJoinCondition).append(")")
@@ -752,6 +836,258 @@ public final class SqlViewSelectionQueryBuilder
 		}
 	}
 
+	/**
+	 * Builds the SQL which computes the COUNT, SUM, AVG, MIN and MAX of given fields, over all rows of given selection.
+	 * For each field, the resulting columns are in this order.
+	 */
+	public SqlAndParams buildSqlAggregates(@NonNull final String selectionId, @NonNull final List<String> fieldNames)
+	{
+		Check.assumeNotEmpty(selectionId, "selectionId is not empty");
+		Check.assumeNotEmpty(fieldNames, "fieldNames is not empty");
+		Check.assume(!hasGroupingFields(), "view shall not have grouping fields: {}", _viewBinding);
+
+		final String sqlTableName = getTableName();
+		final String sqlTableAlias = getTableAlias();
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+
+		final StringBuilder sqlSelect = new StringBuilder();
+		for (final String fieldName : fieldNames)
+		{
+			final SqlViewRowFieldBinding field = _viewBinding.getFieldByFieldName(fieldName);
+			final String columnSql = field.isVirtualColumn()
+					? replaceTableNameWithTableAlias(field.getColumnSql())
+					: sqlTableAlias + "." + field.getColumnName();
+
+			if (sqlSelect.length() > 0)
+			{
+				sqlSelect.append("\n, ");
+			}
+			sqlSelect.append("COUNT(").append(columnSql).append(")")
+					.append(", SUM(").append(columnSql).append(")")
+					.append(", AVG(").append(columnSql).append(")")
+					.append(", MIN(").append(columnSql).append(")")
+					.append(", MAX(").append(columnSql).append(")");
+		}
+
+		final String sql = "SELECT " + sqlSelect
+				+ "\n FROM " + I_T_WEBUI_ViewSelection.Table_Name + " sel"
+				+ "\n INNER JOIN " + sqlTableName + " " + sqlTableAlias + " ON (" + keyColumnNamesMap.getSqlJoinCondition(sqlTableAlias, "sel") + ")"
+				+ "\n WHERE sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?";
+
+		return SqlAndParams.of(sql, selectionId);
+	}
+
+	/**
+	 * Builds the SQL which groups the rows of given selection by {@link ViewGroupByQuery#getGroupByFieldName()} and fetches one page of groups.
+	 * <p>
+	 * Besides the group by field (value and display value), each group row contains:
+	 * <ul>
+	 * <li>the group key as text, see {@link #COLUMNNAME_GroupKey}
+	 * <li>the number of rows, see {@link ViewGroupByQuery#FIELDNAME_GroupRowsCount}
+	 * <li>the sum of each {@link ViewGroupByQuery#getSumFieldNames()}, using the field's column name
+	 * </ul>
+	 */
+	public SqlAndParams buildSqlGroupByPage(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final String selectionId,
+			@NonNull final ViewGroupByQuery query,
+			final int firstRow,
+			final int pageLength)
+	{
+		final String sqlTableAlias = getTableAlias();
+		final String sql = buildSqlSelectGroups(viewEvalCtx, query)
+				+ "\n ORDER BY " + buildSqlGroupByOrderBy(query, sqlTableAlias)
+				+ "\n LIMIT ? OFFSET ?";
+		return SqlAndParams.of(sql, selectionId, pageLength, firstRow);
+	}
+
+	/**
+	 * @param groupKeys group keys (see {@link #COLUMNNAME_GroupKey}); a <code>null</code> element stands for the group of null values
+	 * @return SQL which selects the group rows having the given group keys, with the same columns as {@link #buildSqlGroupByPage(ViewEvaluationCtx, String, ViewGroupByQuery, int, int)}
+	 */
+	public SqlAndParams buildSqlGroupsByKeys(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final String selectionId,
+			@NonNull final ViewGroupByQuery query,
+			@NonNull final Collection<String> groupKeys)
+	{
+		Check.assumeNotEmpty(groupKeys, "groupKeys is not empty");
+
+		final String sqlGroupKey = getTableAlias() + "." + COLUMNNAME_GroupKey;
+		final List<Object> sqlParams = new ArrayList<>();
+		sqlParams.add(selectionId);
+
+		final List<String> sqlWhereClauses = new ArrayList<>();
+		final List<String> notNullGroupKeys = groupKeys.stream().filter(Objects::nonNull).collect(ImmutableList.toImmutableList());
+		if (!notNullGroupKeys.isEmpty())
+		{
+			sqlWhereClauses.add(DB.buildSqlList(sqlGroupKey, notNullGroupKeys, sqlParams));
+		}
+		if (notNullGroupKeys.size() < groupKeys.size())
+		{
+			sqlWhereClauses.add(sqlGroupKey + " IS NULL");
+		}
+
+		final String sql = buildSqlSelectGroups(viewEvalCtx, query)
+				+ "\n WHERE " + Joiner.on(" OR ").join(sqlWhereClauses);
+		return SqlAndParams.of(sql, sqlParams);
+	}
+
+	/** SQL Parameters required: 1=UUID */
+	private String buildSqlSelectGroups(final ViewEvaluationCtx viewEvalCtx, final ViewGroupByQuery query)
+	{
+		Check.assume(!hasGroupingFields(), "view shall not have grouping fields: {}", _viewBinding);
+
+		final String sqlTableName = getTableName();
+		final String sqlTableAlias = getTableAlias();
+
+		final SqlViewRowFieldBinding groupByField = _viewBinding.getFieldByFieldName(query.getGroupByFieldName());
+		final String sqlGroupBy = getColumnSqlQualified(groupByField, sqlTableName);
+
+		final List<String> sqlSelectValues = new ArrayList<>();
+		sqlSelectValues.add(groupByField.getSqlSelectValue());
+		sqlSelectValues.add("(" + sqlGroupBy + ")::text AS " + COLUMNNAME_GroupKey);
+		sqlSelectValues.add("COUNT(1) AS " + ViewGroupByQuery.FIELDNAME_GroupRowsCount);
+		for (final String sumFieldName : query.getSumFieldNames())
+		{
+			final SqlViewRowFieldBinding sumField = _viewBinding.getFieldByFieldName(sumFieldName);
+			sqlSelectValues.add("SUM(" + getColumnSqlQualified(sumField, sqlTableName) + ") AS " + sumField.getColumnName());
+		}
+
+		final CompositeStringExpression.Builder sql = IStringExpression.composer();
+		sql.append("SELECT ")
+				.append("\n").append(sqlTableAlias).append(".*");
+		if (groupByField.isUsingDisplayColumn())
+		{
+			sql.append("\n, ").append(groupByField.getSqlSelectDisplayValue());
+		}
+		sql.append("\n FROM (")
+				.append("\n   SELECT ")
+				.append("\n   ").append(Joiner.on("\n   , ").join(sqlSelectValues))
+				.append(buildSqlGroupByFrom(sqlGroupBy))
+				.append("\n ) " + sqlTableAlias);
+
+		return sql.build().evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
+	}
+
+	/**
+	 * @return SQL which counts the groups of given selection
+	 * @see #buildSqlGroupByPage(ViewEvaluationCtx, String, ViewGroupByQuery, int, int)
+	 */
+	public SqlAndParams buildSqlGroupByCount(@NonNull final String selectionId, @NonNull final ViewGroupByQuery query)
+	{
+		Check.assume(!hasGroupingFields(), "view shall not have grouping fields: {}", _viewBinding);
+
+		final SqlViewRowFieldBinding groupByField = _viewBinding.getFieldByFieldName(query.getGroupByFieldName());
+		final String sqlGroupBy = getColumnSqlQualified(groupByField, getTableName());
+
+		final String sql = "SELECT COUNT(1) FROM ("
+				+ "\n   SELECT 1"
+				+ buildSqlGroupByFrom(sqlGroupBy)
+				+ "\n ) t";
+
+		return SqlAndParams.of(sql, selectionId);
+	}
+
+	/** SQL Parameters required: 1=UUID */
+	private String buildSqlGroupByFrom(final String sqlGroupBy)
+	{
+		final String sqlTableName = getTableName();
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+
+		return "\n   FROM " + I_T_WEBUI_ViewSelection.Table_Name + " sel"
+				+ "\n   INNER JOIN " + sqlTableName + " ON (" + keyColumnNamesMap.getSqlJoinCondition(sqlTableName, "sel") + ")"
+				+ "\n   WHERE sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?"
+				+ "\n   GROUP BY " + sqlGroupBy;
+	}
+
+	private String buildSqlGroupByOrderBy(final ViewGroupByQuery query, final String sqlTableAlias)
+	{
+		final List<DocumentQueryOrderBy> orderBys = !query.getOrderBys().isEmpty()
+				? query.getOrderBys()
+				: ImmutableList.of(DocumentQueryOrderBy.byFieldName(ViewGroupByQuery.FIELDNAME_GroupRowsCount, false));
+
+		final List<String> sqlOrderBys = new ArrayList<>();
+		for (final DocumentQueryOrderBy orderBy : orderBys)
+		{
+			final String fieldName = orderBy.getFieldName();
+			final String columnName;
+			if (ViewGroupByQuery.FIELDNAME_GroupRowsCount.equals(fieldName))
+			{
+				columnName = ViewGroupByQuery.FIELDNAME_GroupRowsCount;
+			}
+			else if (fieldName.equals(query.getGroupByFieldName()) || query.getSumFieldNames().contains(fieldName))
+			{
+				columnName = _viewBinding.getFieldByFieldName(fieldName).getColumnName();
+			}
+			else
+			{
+				continue; // not a column of the group rows
+			}
+
+			sqlOrderBys.add(sqlTableAlias + "." + columnName + (orderBy.isAscending() ? " ASC" : " DESC"));
+		}
+
+		// Also order by group key, to have deterministic pages
+		sqlOrderBys.add(sqlTableAlias + "." + COLUMNNAME_GroupKey);
+
+		return Joiner.on(", ").join(sqlOrderBys);
+	}
+
+	/**
+	 * @param groupKey group key as text (see {@link #COLUMNNAME_GroupKey}) or <code>null</code>
+	 * @return SQL where clause which matches all rows of given group
+	 */
+	public String buildSqlGroupKeyWhereClause(@NonNull final String groupByFieldName, @Nullable final String groupKey)
+	{
+		final SqlViewRowFieldBinding groupByField = _viewBinding.getFieldByFieldName(groupByFieldName);
+		final String columnSql = getColumnSqlQualified(groupByField, getTableName());
+		if (groupKey == null)
+		{
+			return columnSql + " IS NULL";
+		}
+
+		// Compare numbers as numbers, so the database can use the indexes
+		if (Integer.class.equals(groupByField.getSqlValueClass()) && groupKey.matches("-?\\d+"))
+		{
+			return columnSql + "=" + groupKey;
+		}
+
+		return "(" + columnSql + ")::text=" + DB.TO_STRING(groupKey);
+	}
+
+	private static String getColumnSqlQualified(final SqlViewRowFieldBinding field, final String sqlTableName)
+	{
+		if (field.isVirtualColumn())
+		{
+			return field.getColumnSql();
+		}
+		else
+		{
+			return sqlTableName + "." + field.getColumnName();
+		}
+	}
+
+	/**
+	 * @return SQL which selects the key columns of those given <code>rowIds</code> which are contained in given selection
+	 */
+	public SqlAndParams buildSqlSelectRowIdsContainedInSelection(@NonNull final String selectionId, @NonNull final DocumentIdsSelection rowIds)
+	{
+		Check.assume(!rowIds.isEmpty() && !rowIds.isAll(), "rowIds shall not be empty or ALL: {}", rowIds);
+
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+		return SqlAndParams.of(
+				"SELECT " + keyColumnNamesMap.getWebuiSelectionColumnNamesCommaSeparated()
+						+ " FROM " + I_T_WEBUI_ViewSelection.Table_Name
+						+ " WHERE " + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?",
+				selectionId)
+				.append(" AND (")
+				.append(keyColumnNamesMap.prepareSqlFilterByRowIds()
+						.rowIds(rowIds)
+						.build())
+				.append(")");
+	}
+
 	public String buildSqlDeleteSelection(@NonNull final String selectionId)
 	{
 		return "DELETE FROM " + I_T_WEBUI_ViewSelection.Table_Name
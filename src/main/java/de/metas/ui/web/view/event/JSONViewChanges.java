@@ -56,12 +56,17 @@ public final class JSONViewChanges implements Serializable
 	@JsonInclude(JsonInclude.Include.NON_EMPTY)
 	private final Set<String> changedIds;
 
+	@JsonProperty("size")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final Long size;
+
 	private JSONViewChanges(final ViewChanges changes)
 	{
 		super();
 
 		viewId = changes.getViewId().getViewId();
 		windowId = changes.getViewId().getWindowId();
+		size = changes.getSize();
 
 		final DocumentIdsSelection changedRowIds = changes.getChangedRowIds();
 		if (changedRowIds.isAll())
@@ -91,6 +96,7 @@ public final class JSONViewChanges implements Serializable
 				.add("windowId", windowId)
 				.add("fullyChanged", fullyChanged)
 				.add("changedIds", changedIds)
+				.add("size", size)
 				.toString();
 	}
 
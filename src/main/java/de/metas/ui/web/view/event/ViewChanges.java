@@ -39,6 +39,8 @@ public class ViewChanges
 
 	private boolean fullyChanged;
 	private Set<DocumentId> changedRowIds = null;
+	/** New view size, if known */
+	private Long size = null;
 
 	/* package */ ViewChanges(final ViewId viewId)
 	{
@@ -53,6 +55,11 @@ public class ViewChanges
 			fullyChanged = true;
 		}
 
+		if (changes.size != null)
+		{
+			size = changes.size;
+		}
+
 		if (changes.changedRowIds != null && !changes.changedRowIds.isEmpty())
 		{
 			if (changedRowIds == null)
@@ -71,6 +78,7 @@ public class ViewChanges
 				.add("viewId", viewId)
 				.add("fullyChanged", fullyChanged ? Boolean.TRUE : null)
 				.add("changedRowIds", changedRowIds)
+				.add("size", size)
 				.toString();
 	}
 
@@ -89,6 +97,16 @@ public class ViewChanges
 		return fullyChanged;
 	}
 
+	public void setSize(final long size)
+	{
+		this.size = size;
+	}
+
+	public Long getSize()
+	{
+		return size;
+	}
+
 	public boolean hasChanges()
 	{
 		if (fullyChanged)
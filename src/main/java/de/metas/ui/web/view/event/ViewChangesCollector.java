@@ -19,6 +19,7 @@ import org.springframework.context.annotation.Lazy;
 import com.google.common.collect.ImmutableList;
 
 import de.metas.logging.LogManager;
+import de.metas.ui.web.process.ProcessPreconditionsEvaluator;
 import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.websocket.WebSocketConfig;
@@ -116,6 +117,14 @@ public class ViewChangesCollector implements AutoCloseable
 	@Lazy
 	private WebsocketSender websocketSender;
 
+	@Autowired
+	@Lazy
+	private ProcessPreconditionsEvaluator processPreconditionsEvaluator;
+
+	@Autowired
+	@Lazy
+	private ViewChangesVersions viewChangesVersions;
+
 	private final boolean autoflush;
 
 	private final AtomicBoolean closed = new AtomicBoolean(false);
@@ -178,6 +187,18 @@ public class ViewChangesCollector implements AutoCloseable
 		autoflushIfEnabled();
 	}
 
+	/**
+	 * Collects that the view was fully changed and it has now given size.
+	 */
+	public void collectFullyChanged(@NonNull final IView view, final long size)
+	{
+		final ViewChanges changes = viewChanges(view);
+		changes.setFullyChanged();
+		changes.setSize(size);
+
+		autoflushIfEnabled();
+	}
+
 	public void collectRowsChanged(@NonNull final IView view, final DocumentIdsSelection rowIds)
 	{
 		viewChanges(view).addChangedRowIds(rowIds);
@@ -241,6 +262,8 @@ public class ViewChangesCollector implements AutoCloseable
 			logger.trace("Flushing {} to websocket", this);
 			changesList.stream()
 					.filter(ViewChanges::hasChanges)
+					.peek(this::invalidateProcessPreconditions)
+					.peek(this::increaseViewVersion)
 					.map(JSONViewChanges::of)
 					.forEach(this::sendToWebsocket);
 		}
@@ -268,6 +291,24 @@ public class ViewChangesCollector implements AutoCloseable
 		return changesList;
 	}
 
+	private void invalidateProcessPreconditions(final ViewChanges changes)
+	{
+		// NOTE: the evaluator is not available when running without spring context (e.g. in tests)
+		if (processPreconditionsEvaluator != null)
+		{
+			processPreconditionsEvaluator.invalidateView(changes.getViewId());
+		}
+	}
+
+	private void increaseViewVersion(final ViewChanges changes)
+	{
+		// NOTE: not available when running without spring context (e.g. in tests)
+		if (viewChangesVersions != null)
+		{
+			viewChangesVersions.onViewChanged(changes.getViewId());
+		}
+	}
+
 	private void sendToWebsocket(final JSONViewChanges jsonChangeEvent)
 	{
 		final String endpoint = WebSocketConfig.buildViewNotificationsTopicName(jsonChangeEvent.getViewId());
@@ -0,0 +1,75 @@
+package de.metas.ui.web.view.event;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.metas.ui.web.view.ViewId;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Keeps a version for each view, which is increased each time the view changes are sent to frontend (see {@link ViewChangesCollector}).
+ * <p>
+ * Because the frontend is reloading the view rows only when notified, this version together with the view's selection
+ * is enough to tell if a view page was changed (e.g. for computing ETags).
+ */
+@Component
+public class ViewChangesVersions
+{
+	/** Versions are unique per JVM, so a view version which expired is never reused */
+	private static final AtomicLong nextVersion = new AtomicLong(System.currentTimeMillis());
+
+	private final Cache<ViewId, AtomicLong> versionsByViewId = CacheBuilder.newBuilder()
+			.expireAfterAccess(1, TimeUnit.HOURS)
+			.build();
+
+	public long getVersion(@NonNull final ViewId viewId)
+	{
+		return getVersionHolder(viewId).get();
+	}
+
+	/* package */ void onViewChanged(@NonNull final ViewId viewId)
+	{
+		getVersionHolder(viewId).set(nextVersion.incrementAndGet());
+	}
+
+	private AtomicLong getVersionHolder(final ViewId viewId)
+	{
+		try
+		{
+			return versionsByViewId.get(viewId, () -> new AtomicLong(nextVersion.incrementAndGet()));
+		}
+		catch (final ExecutionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+	}
+}
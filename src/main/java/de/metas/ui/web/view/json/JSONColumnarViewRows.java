@@ -0,0 +1,62 @@
+package de.metas.ui.web.view.json;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.IViewRowOverrides;
+import lombok.Getter;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Compact variant of a {@link JSONViewRow}s list: the field names are sent once, as "columns", and each row carries only the list of field values, in columns order.
+ * <p>
+ * The field's widget types and render modes are taken from view layout, except the ones which are set per row: those are sent as sparse per row maps
+ * (i.e. "widgetTypes" and "viewEditorRenderModes", indexed by field name).
+ * <p>
+ * Serialized by {@link JSONColumnarViewRowsSerializer}.
+ */
+@JsonSerialize(using = JSONColumnarViewRowsSerializer.class)
+@Getter
+public final class JSONColumnarViewRows
+{
+	public static JSONColumnarViewRows of(final List<? extends IViewRow> rows, final IViewRowOverrides rowOverrides, final String adLanguage)
+	{
+		return new JSONColumnarViewRows(rows, rowOverrides, adLanguage);
+	}
+
+	private final ImmutableList<IViewRow> rows;
+	private final IViewRowOverrides rowOverrides;
+	private final String adLanguage;
+
+	private JSONColumnarViewRows(@NonNull final List<? extends IViewRow> rows, @NonNull final IViewRowOverrides rowOverrides, final String adLanguage)
+	{
+		this.rows = ImmutableList.copyOf(rows);
+		this.rowOverrides = rowOverrides;
+		this.adLanguage = adLanguage;
+	}
+}
@@ -0,0 +1,210 @@
+package de.metas.ui.web.view.json;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.IViewRowOverrides;
+import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.ViewRowOverridesHelper;
+import de.metas.ui.web.window.datatypes.json.JSONLayoutWidgetType;
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.ViewEditorRenderMode;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class JSONColumnarViewRowsSerializer extends JsonSerializer<JSONColumnarViewRows>
+{
+	@Override
+	public void serialize(final JSONColumnarViewRows value, final JsonGenerator gen, final SerializerProvider serializers) throws IOException, JsonProcessingException
+	{
+		final List<IViewRow> rows = value.getRows();
+		final List<String> columns = extractColumns(rows);
+
+		gen.writeStartObject();
+
+		gen.writeArrayFieldStart("columns");
+		for (final String column : columns)
+		{
+			gen.writeString(column);
+		}
+		gen.writeEndArray();
+
+		gen.writeArrayFieldStart("rows");
+		for (final IViewRow row : rows)
+		{
+			writeRow(row, columns, value.getRowOverrides(), value.getAdLanguage(), gen, serializers);
+		}
+		gen.writeEndArray();
+
+		gen.writeEndObject();
+	}
+
+	/**
+	 * @return the field names of given rows and of their included rows, in the order they were first encountered
+	 */
+	private static List<String> extractColumns(final List<? extends IViewRow> rows)
+	{
+		final Set<String> columns = new LinkedHashSet<>();
+		collectColumns(rows, columns);
+		return ImmutableList.copyOf(columns);
+	}
+
+	private static void collectColumns(final List<? extends IViewRow> rows, final Set<String> columns)
+	{
+		for (final IViewRow row : rows)
+		{
+			columns.addAll(row.getFieldNames());
+			collectColumns(row.getIncludedRows(), columns);
+		}
+	}
+
+	private static void writeRow(
+			final IViewRow row,
+			final List<String> columns,
+			final IViewRowOverrides rowOverrides,
+			final String adLanguage,
+			final JsonGenerator gen,
+			final SerializerProvider serializers) throws IOException
+	{
+		gen.writeStartObject();
+		gen.writeStringField("id", row.getId().toJson());
+
+		final Map<String, Object> valuesByFieldName = row.getFieldNameAndJsonValues();
+		gen.writeArrayFieldStart("values");
+		for (final String column : columns)
+		{
+			final Object value = JSONNullValue.toNullIfInstance(valuesByFieldName.get(column));
+			if (value == null)
+			{
+				gen.writeNull();
+			}
+			else
+			{
+				serializers.defaultSerializeValue(value, gen);
+			}
+		}
+		gen.writeEndArray();
+
+		writeWidgetTypes(row.getWidgetTypesByFieldName(), gen, serializers);
+		writeViewEditorRenderModes(row.getViewEditorRenderModeByFieldName(), gen);
+
+		if (row.getType() != null)
+		{
+			gen.writeStringField("type", row.getType().getIconName());
+		}
+		if (row.isProcessed())
+		{
+			gen.writeBooleanField("processed", true);
+		}
+
+		gen.writeBooleanField(JSONViewLayout.PROPERTY_supportAttributes, row.hasAttributes());
+
+		if (ViewRowOverridesHelper.extractSupportIncludedViews(row, rowOverrides))
+		{
+			gen.writeBooleanField("supportIncludedViews", true);
+
+			final ViewId includedViewId = ViewRowOverridesHelper.extractIncludedViewId(row, rowOverrides);
+			if (includedViewId != null)
+			{
+				gen.writeObjectFieldStart("includedView");
+				serializers.defaultSerializeField("windowId", includedViewId.getWindowId(), gen);
+				gen.writeStringField("viewId", includedViewId.getViewId());
+				gen.writeEndObject();
+			}
+		}
+
+		final List<? extends IViewRow> includedRows = row.getIncludedRows();
+		if (!includedRows.isEmpty())
+		{
+			gen.writeArrayFieldStart("includedDocuments");
+			for (final IViewRow includedRow : includedRows)
+			{
+				writeRow(includedRow, columns, rowOverrides, adLanguage, gen, serializers);
+			}
+			gen.writeEndArray();
+		}
+
+		if (row.isSingleColumn())
+		{
+			gen.writeBooleanField("colspan", true);
+			final String caption = row.getSingleColumnCaption().translate(adLanguage);
+			if (caption != null)
+			{
+				gen.writeStringField("caption", caption);
+			}
+		}
+
+		gen.writeEndObject();
+	}
+
+	/**
+	 * Writes the widget types which are set per row, i.e. which might differ from the view layout.
+	 */
+	private static void writeWidgetTypes(final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName, final JsonGenerator gen, final SerializerProvider serializers) throws IOException
+	{
+		if (widgetTypesByFieldName.isEmpty())
+		{
+			return;
+		}
+
+		gen.writeObjectFieldStart("widgetTypes");
+		for (final Map.Entry<String, DocumentFieldWidgetType> e : widgetTypesByFieldName.entrySet())
+		{
+			final JSONLayoutWidgetType widgetType = JSONLayoutWidgetType.fromNullable(e.getValue());
+			if (widgetType != null)
+			{
+				serializers.defaultSerializeField(e.getKey(), widgetType, gen);
+			}
+		}
+		gen.writeEndObject();
+	}
+
+	private static void writeViewEditorRenderModes(final Map<String, ViewEditorRenderMode> viewEditorRenderModeByFieldName, final JsonGenerator gen) throws IOException
+	{
+		if (viewEditorRenderModeByFieldName.isEmpty())
+		{
+			return;
+		}
+
+		gen.writeObjectFieldStart("viewEditorRenderModes");
+		for (final Map.Entry<String, ViewEditorRenderMode> e : viewEditorRenderModeByFieldName.entrySet())
+		{
+			if (e.getValue() != null)
+			{
+				gen.writeStringField(e.getKey(), e.getValue().toJson());
+			}
+		}
+		gen.writeEndObject();
+	}
+}
@@ -0,0 +1,86 @@
+package de.metas.ui.web.view.json;
+
+import java.util.List;
+
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.Services;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.IViewRowOverrides;
+import lombok.Getter;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * View row which is written to JSON directly from it's {@link IViewRow}, without building the intermediate {@link JSONViewRow}.
+ * <p>
+ * The produced JSON is the same as {@link JSONViewRow}'s, see {@link JSONStreamingViewRowSerializer}.
+ */
+@JsonSerialize(using = JSONStreamingViewRowSerializer.class)
+@Getter
+public final class JSONStreamingViewRow implements JSONViewRowBase
+{
+	private static final String SYSCONFIG_Enabled = "de.metas.ui.web.view.json.StreamingViewRows.Enabled";
+
+	public static boolean isEnabled()
+	{
+		return Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_Enabled, true);
+	}
+
+	/**
+	 * @return streaming rows if enabled, else the classic {@link JSONViewRow}s
+	 */
+	public static List<? extends JSONViewRowBase> convertViewRows(final List<? extends IViewRow> rows, final IViewRowOverrides rowOverrides, final String adLanguage)
+	{
+		if (isEnabled())
+		{
+			return ofViewRows(rows, rowOverrides, adLanguage);
+		}
+		else
+		{
+			return JSONViewRow.ofViewRows(rows, rowOverrides, adLanguage);
+		}
+	}
+
+	public static List<JSONStreamingViewRow> ofViewRows(final List<? extends IViewRow> rows, final IViewRowOverrides rowOverrides, final String adLanguage)
+	{
+		return rows.stream()
+				.map(row -> new JSONStreamingViewRow(row, rowOverrides, adLanguage))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private final IViewRow row;
+	private final IViewRowOverrides rowOverrides;
+	private final String adLanguage;
+
+	private JSONStreamingViewRow(@NonNull final IViewRow row, @NonNull final IViewRowOverrides rowOverrides, final String adLanguage)
+	{
+		this.row = row;
+		this.rowOverrides = rowOverrides;
+		this.adLanguage = adLanguage;
+	}
+}
@@ -0,0 +1,196 @@
+package de.metas.ui.web.view.json;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.IViewRowOverrides;
+import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.ViewRowOverridesHelper;
+import de.metas.ui.web.window.datatypes.json.JSONDocumentField;
+import de.metas.ui.web.window.datatypes.json.JSONLayoutWidgetType;
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.ViewEditorRenderMode;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Writes {@link JSONStreamingViewRow}s straight to the {@link JsonGenerator}.
+ * <p>
+ * IMPORTANT: the output shall be exactly the same as when serializing the {@link JSONViewRow} of the same row,
+ * i.e. same properties, in the same order, with the same inclusion rules.
+ * If you change {@link JSONViewRow}, {@link de.metas.ui.web.window.datatypes.json.JSONDocumentBase} or {@link JSONDocumentField}, please also change this serializer.
+ */
+public class JSONStreamingViewRowSerializer extends JsonSerializer<JSONStreamingViewRow>
+{
+	@Override
+	public void serialize(final JSONStreamingViewRow value, final JsonGenerator gen, final SerializerProvider serializers) throws IOException, JsonProcessingException
+	{
+		writeRow(value.getRow(), value.getRowOverrides(), value.getAdLanguage(), gen, serializers);
+	}
+
+	private static void writeRow(
+			final IViewRow row,
+			final IViewRowOverrides rowOverrides,
+			final String adLanguage,
+			final JsonGenerator gen,
+			final SerializerProvider serializers) throws IOException
+	{
+		gen.writeStartObject();
+
+		//
+		// JSONDocumentBase properties
+		gen.writeStringField("id", row.getId().toJson());
+		writeFieldsByName(row, gen, serializers);
+
+		//
+		// JSONViewRow properties
+		if (row.getType() != null)
+		{
+			gen.writeStringField("type", row.getType().getIconName());
+		}
+		if (row.isProcessed())
+		{
+			gen.writeBooleanField("processed", true);
+		}
+
+		gen.writeBooleanField(JSONViewLayout.PROPERTY_supportAttributes, row.hasAttributes());
+
+		if (ViewRowOverridesHelper.extractSupportIncludedViews(row, rowOverrides))
+		{
+			gen.writeBooleanField("supportIncludedViews", true);
+
+			final ViewId includedViewId = ViewRowOverridesHelper.extractIncludedViewId(row, rowOverrides);
+			if (includedViewId != null)
+			{
+				gen.writeObjectFieldStart("includedView");
+				serializers.defaultSerializeField("windowId", includedViewId.getWindowId(), gen);
+				gen.writeStringField("viewId", includedViewId.getViewId());
+				gen.writeEndObject();
+			}
+		}
+
+		final List<? extends IViewRow> includedRows = row.getIncludedRows();
+		if (!includedRows.isEmpty())
+		{
+			gen.writeArrayFieldStart("includedDocuments");
+			for (final IViewRow includedRow : includedRows)
+			{
+				writeRow(includedRow, rowOverrides, adLanguage, gen, serializers);
+			}
+			gen.writeEndArray();
+		}
+
+		if (row.isSingleColumn())
+		{
+			gen.writeBooleanField("colspan", true);
+			final String caption = row.getSingleColumnCaption().translate(adLanguage);
+			if (caption != null)
+			{
+				gen.writeStringField("caption", caption);
+			}
+		}
+
+		gen.writeEndObject();
+	}
+
+	private static void writeFieldsByName(final IViewRow row, final JsonGenerator gen, final SerializerProvider serializers) throws IOException
+	{
+		final Map<String, Object> valuesByFieldName = row.getFieldNameAndJsonValues();
+		final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName = row.getWidgetTypesByFieldName();
+		final Map<String, ViewEditorRenderMode> viewEditorRenderModeByFieldName = row.getViewEditorRenderModeByFieldName();
+		final Set<String> fieldNames = row.getFieldNames();
+
+		gen.writeObjectFieldStart("fieldsByName");
+
+		// The pseudo "ID" field comes first, unless the row has a real "ID" field, which takes it's place
+		if (fieldNames.contains(JSONDocumentField.FIELD_VALUE_ID))
+		{
+			writeField(JSONDocumentField.FIELD_VALUE_ID, valuesByFieldName, widgetTypesByFieldName, viewEditorRenderModeByFieldName, gen, serializers);
+		}
+		else
+		{
+			gen.writeObjectFieldStart(JSONDocumentField.FIELD_VALUE_ID);
+			gen.writeStringField("field", JSONDocumentField.FIELD_VALUE_ID);
+			gen.writeStringField("value", row.getId().toJson());
+			serializers.defaultSerializeField("widgetType", JSONLayoutWidgetType.Integer, gen);
+			gen.writeEndObject();
+		}
+
+		for (final String fieldName : fieldNames)
+		{
+			if (JSONDocumentField.FIELD_VALUE_ID.equals(fieldName))
+			{
+				continue; // already written
+			}
+
+			writeField(fieldName, valuesByFieldName, widgetTypesByFieldName, viewEditorRenderModeByFieldName, gen, serializers);
+		}
+
+		gen.writeEndObject();
+	}
+
+	private static void writeField(
+			final String fieldName,
+			final Map<String, Object> valuesByFieldName,
+			final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName,
+			final Map<String, ViewEditorRenderMode> viewEditorRenderModeByFieldName,
+			final JsonGenerator gen,
+			final SerializerProvider serializers) throws IOException
+	{
+		gen.writeObjectFieldStart(fieldName);
+		gen.writeStringField("field", fieldName);
+
+		final Object value = JSONNullValue.toNullIfInstance(valuesByFieldName.get(fieldName));
+		if (value == null)
+		{
+			gen.writeNullField("value");
+		}
+		else
+		{
+			serializers.defaultSerializeField("value", value, gen);
+		}
+
+		final JSONLayoutWidgetType widgetType = JSONLayoutWidgetType.fromNullable(widgetTypesByFieldName.get(fieldName));
+		if (widgetType != null)
+		{
+			serializers.defaultSerializeField("widgetType", widgetType, gen);
+		}
+
+		final ViewEditorRenderMode viewEditorRenderMode = viewEditorRenderModeByFieldName.get(fieldName);
+		if (viewEditorRenderMode != null)
+		{
+			gen.writeStringField("viewEditorRenderMode", viewEditorRenderMode.toJson());
+		}
+
+		gen.writeEndObject();
+	}
+}
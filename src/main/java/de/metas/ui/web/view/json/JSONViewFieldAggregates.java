@@ -0,0 +1,76 @@
+package de.metas.ui.web.view.json;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.ViewFieldAggregates;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@Value
+public class JSONViewFieldAggregates
+{
+	public static List<JSONViewFieldAggregates> ofList(final Collection<ViewFieldAggregates> aggregatesList)
+	{
+		return aggregatesList.stream()
+				.map(JSONViewFieldAggregates::new)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	@JsonProperty("fieldName")
+	private final String fieldName;
+	@JsonProperty("count")
+	private final long count;
+	@JsonProperty("sum")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final BigDecimal sum;
+	@JsonProperty("avg")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final BigDecimal avg;
+	@JsonProperty("min")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final BigDecimal min;
+	@JsonProperty("max")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final BigDecimal max;
+
+	private JSONViewFieldAggregates(@NonNull final ViewFieldAggregates aggregates)
+	{
+		fieldName = aggregates.getFieldName();
+		count = aggregates.getCount();
+		sum = aggregates.getSum();
+		avg = aggregates.getAvg();
+		min = aggregates.getMin();
+		max = aggregates.getMax();
+	}
+}
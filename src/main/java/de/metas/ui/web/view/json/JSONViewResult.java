@@ -53,18 +53,29 @@ public final class JSONViewResult
 		if (viewResult.isPageLoaded())
 		{
 			final List<IViewRow> rows = viewResult.getPage();
-			jsonRows = JSONViewRow.ofViewRows(rows, rowOverrides, adLanguage);
+			jsonRows = JSONStreamingViewRow.convertViewRows(rows, rowOverrides, adLanguage);
 		}
 		else
 		{
 			jsonRows = null;
 		}
-		return new JSONViewResult(viewResult, jsonRows, adLanguage);
+		return new JSONViewResult(viewResult, jsonRows, null, adLanguage);
 	}
 
 	public static final JSONViewResult of(final ViewResult viewResult, final List<? extends JSONViewRowBase> rows, final String adLanguage)
 	{
-		return new JSONViewResult(viewResult, rows, adLanguage);
+		return new JSONViewResult(viewResult, rows, null, adLanguage);
+	}
+
+	/**
+	 * Same as {@link #of(ViewResult, IViewRowOverrides, String)} but the page is sent in columnar format (see {@link JSONColumnarViewRows}), as "columnarResult" instead of "result".
+	 */
+	public static final JSONViewResult ofColumnar(final ViewResult viewResult, IViewRowOverrides rowOverrides, final String adLanguage)
+	{
+		final JSONColumnarViewRows columnarRows = viewResult.isPageLoaded()
+				? JSONColumnarViewRows.of(viewResult.getPage(), rowOverrides, adLanguage)
+				: null;
+		return new JSONViewResult(viewResult, null, columnarRows, adLanguage);
 	}
 
 	//
@@ -122,6 +133,10 @@ public final class JSONViewResult
 	@JsonInclude(JsonInclude.Include.NON_NULL)
 	private final List<? extends JSONViewRowBase> result;
 
+	@JsonProperty("columnarResult")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final JSONColumnarViewRows columnarResult;
+
 	@JsonProperty("columnsByFieldName")
 	@JsonInclude(JsonInclude.Include.NON_EMPTY)
 	private final Map<String, JSONViewResultColumn> columnsByFieldName;
@@ -143,7 +158,7 @@ public final class JSONViewResult
 	@JsonInclude(JsonInclude.Include.NON_NULL)
 	private final Integer queryLimit;
 
-	private JSONViewResult(final ViewResult viewResult, final List<? extends JSONViewRowBase> rows, final String adLanguage)
+	private JSONViewResult(final ViewResult viewResult, final List<? extends JSONViewRowBase> rows, final JSONColumnarViewRows columnarRows, final String adLanguage)
 	{
 		//
 		// View informations
@@ -169,15 +184,17 @@ public final class JSONViewResult
 
 		//
 		// Page informations
-		if (rows != null)
+		if (rows != null || columnarRows != null)
 		{
 			result = rows;
+			columnarResult = columnarRows;
 			firstRow = viewResult.getFirstRow();
 			pageLength = viewResult.getPageLength();
 		}
 		else
 		{
 			result = null;
+			columnarResult = null;
 			firstRow = null;
 			pageLength = null;
 		}
@@ -240,6 +257,7 @@ public final class JSONViewResult
 		//
 		// Page informations
 		this.result = result;
+		this.columnarResult = null;
 		this.columnsByFieldName = columnsByFieldName;
 		this.firstRow = firstRow;
 		this.pageLength = pageLength;
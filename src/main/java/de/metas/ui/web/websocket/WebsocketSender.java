@@ -17,6 +17,7 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 import de.metas.logging.LogManager;
+import de.metas.ui.web.metrics.WebuiMetrics;
 import lombok.NonNull;
 
 /*
@@ -243,6 +244,8 @@ public class WebsocketSender implements InitializingBean
 				websocketMessagingTemplate.convertAndSend(destination, payload);
 				eventsLog.logEvent(destination, payload);
 			}
+
+			WebuiMetrics.incrementWebsocketEventsSent(destination);
 		}
 	}
 }
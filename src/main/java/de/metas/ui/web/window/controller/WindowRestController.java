@@ -6,6 +6,7 @@ import java.util.function.Predicate;
 
 import org.adempiere.ad.table.api.IADTableDAO;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.util.Check;
 import org.adempiere.util.Services;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +34,7 @@ import de.metas.ui.web.config.WebConfig;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.menu.MenuTree;
 import de.metas.ui.web.menu.MenuTreeRepository;
+import de.metas.ui.web.metrics.WebuiMetrics;
 import de.metas.ui.web.process.DocumentPreconditionsAsContext;
 import de.metas.ui.web.process.ProcessRestController;
 import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
@@ -44,11 +46,13 @@ import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.datatypes.json.JSONDocument;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentChangedEvent;
+import de.metas.ui.web.window.datatypes.json.JSONDocumentDelta;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentLayout;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentPath;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentReference;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentReferencesGroup;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentReferencesGroupList;
+import de.metas.ui.web.window.datatypes.json.JSONIncludedDocumentsPage;
 import de.metas.ui.web.window.datatypes.json.JSONLookupValuesList;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
 import de.metas.ui.web.window.datatypes.json.JSONZoomInto;
@@ -58,8 +62,10 @@ import de.metas.ui.web.window.descriptor.DocumentDescriptor;
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.descriptor.factory.NewRecordDescriptorsProvider;
 import de.metas.ui.web.window.events.DocumentWebsocketPublisher;
+import de.metas.ui.web.window.exceptions.DocumentNotFoundException;
 import de.metas.ui.web.window.exceptions.InvalidDocumentPathException;
 import de.metas.ui.web.window.model.Document;
+import de.metas.ui.web.window.model.DocumentChangesSince;
 import de.metas.ui.web.window.model.DocumentCollection;
 import de.metas.ui.web.window.model.DocumentCollection.DocumentPrint;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy;
@@ -70,6 +76,7 @@ import de.metas.ui.web.window.model.IDocumentChangesCollector.ReasonSupplier;
 import de.metas.ui.web.window.model.IDocumentFieldView;
 import de.metas.ui.web.window.model.NullDocumentChangesCollector;
 import de.metas.ui.web.window.model.lookup.DocumentZoomIntoInfo;
+import de.metas.ui.web.window.model.lookup.TypeaheadExecutor;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -180,52 +187,200 @@ public class WindowRestController
 	}
 
 	@GetMapping("/{windowId}/{documentId}")
-	public List<JSONDocument> getData(
+	public ResponseEntity<List<JSONDocument>> getData(
 			@PathVariable("windowId") final String windowIdStr,
 			@PathVariable("documentId") final String documentIdStr,
 			@RequestParam(name = PARAM_FieldsList, required = false) @ApiParam("comma separated field names") final String fieldsListStr,
-			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced)
+			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced,
+			final WebRequest request)
 	{
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentPath documentPath = DocumentPath.rootDocumentPath(windowId, documentIdStr);
 		final List<DocumentQueryOrderBy> orderBys = ImmutableList.of();
-		return getData(documentPath, fieldsListStr, advanced, orderBys);
+		return getData(documentPath, fieldsListStr, advanced, orderBys, request);
 	}
 
 	@GetMapping("/{windowId}/{documentId}/{tabId}")
-	public List<JSONDocument> getData(
+	public ResponseEntity<List<JSONDocument>> getData(
 			@PathVariable("windowId") final String windowIdStr,
 			@PathVariable("documentId") final String documentIdStr,
 			@PathVariable("tabId") final String tabIdStr,
 			@RequestParam(name = PARAM_FieldsList, required = false) @ApiParam("comma separated field names") final String fieldsListStr,
 			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced,
-			@RequestParam(name = "orderBy", required = false) final String orderBysListStr)
+			@RequestParam(name = "orderBy", required = false) final String orderBysListStr,
+			final WebRequest request)
 	{
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentId documentId = DocumentId.of(documentIdStr);
 		final DetailId tabId = DetailId.fromJson(tabIdStr);
 		final DocumentPath documentPath = DocumentPath.includedDocumentPath(windowId, documentId, tabId);
 		final List<DocumentQueryOrderBy> orderBys = DocumentQueryOrderBy.parseOrderBysList(orderBysListStr);
-		return getData(documentPath, fieldsListStr, advanced, orderBys);
+		return getData(documentPath, fieldsListStr, advanced, orderBys, request);
+	}
+
+	@GetMapping("/{windowId}/{documentId}/{tabId}/page")
+	@ApiOperation("Gets a page of tab rows, so big tabs don't have to be fully loaded")
+	public ResponseEntity<JSONIncludedDocumentsPage> getDataPage(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable("documentId") final String documentIdStr,
+			@PathVariable("tabId") final String tabIdStr,
+			@RequestParam(name = "firstRow", required = false, defaultValue = "0") @ApiParam("first row to fetch (zero based)") final int firstRow,
+			@RequestParam(name = "pageLength", required = true) @ApiParam("how many rows to fetch") final int pageLength,
+			@RequestParam(name = PARAM_FieldsList, required = false) @ApiParam("comma separated field names") final String fieldsListStr,
+			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced,
+			@RequestParam(name = "orderBy", required = false) final String orderBysListStr,
+			final WebRequest request)
+	{
+		userSession.assertLoggedIn();
+
+		if (firstRow < 0)
+		{
+			throw new AdempiereException("firstRow shall be positive: " + firstRow);
+		}
+		if (pageLength <= 0)
+		{
+			throw new AdempiereException("pageLength shall be greater than zero: " + pageLength);
+		}
+
+		final WindowId windowId = WindowId.fromJson(windowIdStr);
+		final DocumentId documentId = DocumentId.of(documentIdStr);
+		final DetailId tabId = DetailId.fromJson(tabIdStr);
+		final DocumentPath documentPath = DocumentPath.includedDocumentPath(windowId, documentId, tabId);
+		final List<DocumentQueryOrderBy> orderBys = DocumentQueryOrderBy.parseOrderBysList(orderBysListStr);
+
+		final JSONOptions jsonOpts = newJSONOptions()
+				.setShowAdvancedFields(advanced)
+				.setDataFieldsList(fieldsListStr)
+				.build();
+
+		return ETagResponseEntityBuilder.ofETag(request, documentCollection.getETagOrNull(documentPath), () -> getDocumentsPage(documentPath, orderBys, firstRow, pageLength, jsonOpts))
+				.cacheMaxAge(0) // always revalidate
+				.jsonOptions(() -> jsonOpts)
+				.includeLanguageInETag()
+				.includePermissionsInETag()
+				.toJson((jsonPage, jsonOptions) -> jsonPage);
+	}
+
+	@GetMapping("/{windowId}/{documentId}/{tabId}/count")
+	@ApiOperation("Counts the tab rows without loading them")
+	public int getDataCount(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable("documentId") final String documentIdStr,
+			@PathVariable("tabId") final String tabIdStr)
+	{
+		userSession.assertLoggedIn();
+
+		final WindowId windowId = WindowId.fromJson(windowIdStr);
+		final DocumentPath documentPath = DocumentPath.rootDocumentPath(windowId, documentIdStr);
+		final DetailId tabId = DetailId.fromJson(tabIdStr);
+		return documentCollection.forRootDocumentReadonly(documentPath, rootDocument -> rootDocument.getIncludedDocumentsCount(tabId));
+	}
+
+	@GetMapping("/{windowId}/{documentId}/delta")
+	@ApiOperation("Gets only the fields, tabs and rows which changed since the given version. If those changes are no longer known, the whole root document is returned.")
+	public JSONDocumentDelta getDataDelta(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable("documentId") final String documentIdStr,
+			@RequestParam(name = "sinceVersion", required = false) @ApiParam("version returned by previous delta call; if missing the whole document is returned") final String sinceVersion,
+			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced)
+	{
+		userSession.assertLoggedIn();
+
+		final DocumentPath rootDocumentPath = DocumentPath.rootDocumentPath(WindowId.fromJson(windowIdStr), documentIdStr);
+
+		// NOTE: get the version and the changes before copying the document, so the document is at least as new as the version we are sending.
+		// Else, changes done in meantime would never be sent.
+		final String version = documentCollection.getVersion(rootDocumentPath);
+		final DocumentChangesSince changes = !Check.isEmpty(sinceVersion, true) ? documentCollection.getChangesSince(rootDocumentPath, sinceVersion.trim()) : null;
+
+		return documentCollection.forRootDocumentReadonly(rootDocumentPath, rootDocument -> {
+			if (changes == null)
+			{
+				return JSONDocumentDelta.builder()
+						.version(version)
+						.full(true)
+						.document(JSONDocument.ofDocument(rootDocument, newJSONOptions().setShowAdvancedFields(advanced).build()))
+						.build();
+			}
+
+			return toJSONDocumentDelta(rootDocument, changes, advanced);
+		});
+	}
+
+	private JSONDocumentDelta toJSONDocumentDelta(final Document rootDocument, final DocumentChangesSince changes, final boolean advanced)
+	{
+		final JSONDocumentDelta.JSONDocumentDeltaBuilder delta = JSONDocumentDelta.builder()
+				.version(changes.getVersion())
+				.full(false);
+
+		if (!changes.getRootFieldNames().isEmpty())
+		{
+			delta.document(JSONDocument.ofDocument(rootDocument, newJSONOptionsForFields(changes.getRootFieldNames(), advanced)));
+		}
+
+		final JSONOptions allFieldsJsonOpts = newJSONOptions().setShowAdvancedFields(advanced).build();
+		for (final DetailId tabId : changes.getStaleTabIds())
+		{
+			final List<Document> rows = rootDocument.getIncludedDocuments(tabId, ImmutableList.of()).toList();
+			delta.staleTabId(tabId.toJson());
+			delta.includedDocuments(JSONDocument.ofDocumentsList(rows, allFieldsJsonOpts));
+		}
+
+		changes.getFieldNamesByIncludedDocumentPath().forEach((documentPath, fieldNames) -> {
+			final Document row;
+			try
+			{
+				row = rootDocument.getIncludedDocument(documentPath.getDetailId(), documentPath.getSingleRowId());
+			}
+			catch (final DocumentNotFoundException ex)
+			{
+				delta.deletedIncludedDocument(JSONDocumentPath.ofWindowDocumentPath(documentPath));
+				return;
+			}
+
+			final JSONOptions jsonOpts = fieldNames.contains(DocumentChangesSince.ALL_FIELDS) ? allFieldsJsonOpts : newJSONOptionsForFields(fieldNames, advanced);
+			delta.includedDocument(JSONDocument.ofDocument(row, jsonOpts));
+		});
+
+		changes.getDeletedIncludedDocumentPaths()
+				.stream()
+				.map(JSONDocumentPath::ofWindowDocumentPath)
+				.forEach(delta::deletedIncludedDocument);
+
+		return delta.build();
+	}
+
+	private JSONOptions newJSONOptionsForFields(final Set<String> fieldNames, final boolean advanced)
+	{
+		return newJSONOptions()
+				.setShowAdvancedFields(advanced)
+				.setDataFieldsList(String.join(",", fieldNames))
+				.build();
 	}
 
 	@GetMapping("/{windowId}/{documentId}/{tabId}/{rowId}")
-	public List<JSONDocument> getData(
+	public ResponseEntity<List<JSONDocument>> getData(
 			@PathVariable("windowId") final String windowIdStr //
 			, @PathVariable("documentId") final String documentIdStr //
 			, @PathVariable("tabId") final String tabIdStr //
 			, @PathVariable("rowId") final String rowIdStr //
 			, @RequestParam(name = PARAM_FieldsList, required = false) @ApiParam("comma separated field names") final String fieldsListStr //
 			, @RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced //
+			, final WebRequest request //
 	)
 	{
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentPath documentPath = DocumentPath.includedDocumentPath(windowId, documentIdStr, tabIdStr, rowIdStr);
 		final List<DocumentQueryOrderBy> orderBys = ImmutableList.of();
-		return getData(documentPath, fieldsListStr, advanced, orderBys);
+		return getData(documentPath, fieldsListStr, advanced, orderBys, request);
 	}
 
-	private List<JSONDocument> getData(final DocumentPath documentPath, final String fieldsListStr, final boolean advanced, final List<DocumentQueryOrderBy> orderBys)
+	private ResponseEntity<List<JSONDocument>> getData(
+			final DocumentPath documentPath,
+			final String fieldsListStr,
+			final boolean advanced,
+			final List<DocumentQueryOrderBy> orderBys,
+			final WebRequest request)
 	{
 		userSession.assertLoggedIn();
 
@@ -234,6 +389,17 @@ public class WindowRestController
 				.setDataFieldsList(fieldsListStr)
 				.build();
 
+		// NOTE: the ETag also covers the in-memory changes which are not yet saved (so not only the version from database)
+		return ETagResponseEntityBuilder.ofETag(request, documentCollection.getETagOrNull(documentPath), () -> getDocuments(documentPath, orderBys, jsonOpts))
+				.cacheMaxAge(0) // always revalidate
+				.jsonOptions(() -> jsonOpts)
+				.includeLanguageInETag()
+				.includePermissionsInETag()
+				.toJson((jsonDocuments, jsonOptions) -> jsonDocuments);
+	}
+
+	private List<JSONDocument> getDocuments(final DocumentPath documentPath, final List<DocumentQueryOrderBy> orderBys, final JSONOptions jsonOpts)
+	{
 		return documentCollection.forRootDocumentReadonly(documentPath, rootDocument -> {
 			List<Document> documents;
 			if (documentPath.isRootDocument())
@@ -257,6 +423,22 @@ public class WindowRestController
 		});
 	}
 
+	private JSONIncludedDocumentsPage getDocumentsPage(
+			final DocumentPath documentPath,
+			final List<DocumentQueryOrderBy> orderBys,
+			final int firstRow,
+			final int pageLength,
+			final JSONOptions jsonOpts)
+	{
+		final DocumentPath rootDocumentPath = documentPath.getRootDocumentPath();
+		final DetailId tabId = documentPath.getDetailId();
+		return documentCollection.forRootDocumentReadonly(rootDocumentPath, rootDocument -> {
+			final List<Document> documents = rootDocument.getIncludedDocumentsPage(tabId, orderBys, firstRow, pageLength).toList();
+			final int size = rootDocument.getIncludedDocumentsCount(tabId);
+			return JSONIncludedDocumentsPage.of(JSONDocument.ofDocumentsList(documents, jsonOpts), firstRow, pageLength, size);
+		});
+	}
+
 	/**
 	 * 
 	 * @param windowIdStr
@@ -309,7 +491,8 @@ public class WindowRestController
 				.setShowAdvancedFields(advanced)
 				.build();
 
-		return Execution.callInNewExecution("window.commit", () -> patchDocument0(documentPath, events, jsonOpts));
+		return WebuiMetrics.timeEndpoint(WebuiMetrics.ENDPOINT_DocumentPatch, documentPath.getWindowIdOrNull(),
+				() -> Execution.callInNewExecution("window.commit", () -> patchDocument0(documentPath, events, jsonOpts)));
 	}
 
 	private List<JSONDocument> patchDocument0(final DocumentPath documentPath, final List<JSONDocumentChangedEvent> events, final JSONOptions jsonOpts)
@@ -460,7 +643,9 @@ public class WindowRestController
 	{
 		userSession.assertLoggedIn();
 
-		return documentCollection.forDocumentReadonly(documentPath, document -> document.getFieldLookupValuesForQuery(fieldName, query))
+		return WebuiMetrics.timeEndpoint(WebuiMetrics.ENDPOINT_Typeahead, documentPath.getWindowIdOrNull(),
+				() -> TypeaheadExecutor.instance.executeInSlot(userSession.getSessionId() + "/" + documentPath + "/" + fieldName,
+						() -> documentCollection.forDocumentReadonly(documentPath, document -> document.getFieldLookupValuesForQuery(fieldName, query))))
 				.transform(JSONLookupValuesList::ofLookupValuesList);
 	}
 
@@ -0,0 +1,66 @@
+package de.metas.ui.web.window.datatypes.json;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.google.common.collect.ImmutableList;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Changes of a root document and its included documents since a given version.
+ * <p>
+ * If <code>full</code> is true, the changes were no longer known and <code>document</code> is the whole root document, so the frontend shall reload the included tabs too.
+ */
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@Value
+@Builder
+public class JSONDocumentDelta
+{
+	/** Document version to be sent back on next delta request */
+	private final String version;
+
+	private final boolean full;
+
+	/** Root document, having only the changed fields (or all fields if full). Null if the root document did not change */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final JSONDocument document;
+
+	/** Tabs which were fully reloaded. Their rows are in {@link #includedDocuments} */
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	@Singular
+	private final ImmutableList<String> staleTabIds;
+
+	/** Changed included documents, having only the changed fields, and all rows of {@link #staleTabIds} */
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	@Singular
+	private final ImmutableList<JSONDocument> includedDocuments;
+
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	@Singular
+	private final ImmutableList<JSONDocumentPath> deletedIncludedDocuments;
+}
@@ -0,0 +1,60 @@
+package de.metas.ui.web.window.datatypes.json;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.google.common.collect.ImmutableList;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * One page of included documents (tab rows).
+ */
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@Value
+@Builder
+public class JSONIncludedDocumentsPage
+{
+	private final int firstRow;
+	private final int pageLength;
+	/** total number of included documents, not only the ones from this page */
+	private final int size;
+
+	@NonNull
+	private final ImmutableList<JSONDocument> result;
+
+	public static JSONIncludedDocumentsPage of(final List<JSONDocument> result, final int firstRow, final int pageLength, final int size)
+	{
+		return builder()
+				.firstRow(firstRow)
+				.pageLength(pageLength)
+				.size(size)
+				.result(ImmutableList.copyOf(result))
+				.build();
+	}
+}
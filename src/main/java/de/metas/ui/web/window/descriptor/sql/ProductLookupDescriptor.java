@@ -9,10 +9,14 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.exceptions.DBException;
 import org.adempiere.mm.attributes.api.ImmutableAttributeSet;
 import org.adempiere.model.I_M_FreightCost;
@@ -20,8 +24,10 @@ import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.Check;
 import org.adempiere.util.Services;
 import org.adempiere.util.time.SystemTime;
+import org.compiere.model.I_AD_SysConfig;
 import org.compiere.model.I_M_PriceList_Version;
 import org.compiere.model.I_M_ProductPrice;
+import org.compiere.util.CCache;
 import org.compiere.util.CtxName;
 import org.compiere.util.CtxNames;
 import org.compiere.util.DB;
@@ -29,6 +35,8 @@ import org.compiere.util.DisplayType;
 import org.compiere.util.Env;
 import org.compiere.util.TimeUtil;
 import org.compiere.util.Util;
+import org.compiere.util.Util.ArrayKey;
+import org.slf4j.Logger;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
@@ -37,7 +45,7 @@ import com.google.common.collect.ImmutableSet;
 import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.Language;
 import de.metas.i18n.NumberTranslatableString;
-import de.metas.material.dispo.commons.repository.AvailableToPromiseQuery;
+import de.metas.logging.LogManager;
 import de.metas.pricing.service.IPriceListDAO;
 import de.metas.product.model.I_M_Product;
 import de.metas.quantity.Quantity;
@@ -54,6 +62,7 @@ import de.metas.ui.web.window.descriptor.DocumentLayoutElementFieldDescriptor.Lo
 import de.metas.ui.web.window.descriptor.LookupDescriptor;
 import de.metas.ui.web.window.model.lookup.LookupDataSourceContext;
 import de.metas.ui.web.window.model.lookup.LookupDataSourceFetcher;
+import de.metas.ui.web.window.model.lookup.TypeaheadExecutor;
 import lombok.Builder;
 import lombok.Builder.Default;
 import lombok.NonNull;
@@ -97,6 +106,18 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 	private static final String SYSCONFIG_ATP_DISPLAY_ONLY_POSITIVE = //
 			"de.metas.ui.web.window.descriptor.sql.ProductLookupDescriptor.ATP.DisplayOnlyPositive";
 
+	/** How long to wait for the ATP quantities. If they are not available in time, the product list is returned without them. */
+	private static final String SYSCONFIG_ATP_MAX_WAIT_MILLIS = //
+			"de.metas.ui.web.window.descriptor.sql.ProductLookupDescriptor.ATP.MaxWaitMillis";
+	private static final int DEFAULT_ATP_MAX_WAIT_MILLIS = 500;
+
+	/** Debug property set when the ATP quantities were not available in time and the client shall ask again */
+	public static final String DEBUGPROPERTY_ATP_PENDING = "atp-pending";
+
+	private static final CCache<ArrayKey, ATPConfig> atpConfigs = CCache.newCache(I_AD_SysConfig.Table_Name + "#ProductLookupDescriptor#ATPConfig", 10, CCache.EXPIREMINUTES_Never);
+
+	private static final Logger logger = LogManager.getLogger(ProductLookupDescriptor.class);
+
 	private static final Optional<String> LookupTableName = Optional.of(I_M_Product.Table_Name);
 	private static final String CONTEXT_LookupTableName = LookupTableName.get();
 
@@ -185,6 +206,7 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 		{
 			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
 			DB.setParameters(pstmt, sqlParams.toList());
+			TypeaheadExecutor.registerCancelableStatement(pstmt);
 			rs = pstmt.executeQuery();
 
 			final Map<Integer, LookupValue> valuesById = new LinkedHashMap<>();
@@ -491,39 +513,74 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 			@NonNull final LookupValuesList productLookupValues,
 			@NonNull final Date dateOrNull)
 	{
-		if (productLookupValues.isEmpty() || !isAvailableStockQueryActivatedInSysConfig())
+		if (productLookupValues.isEmpty())
+		{
+			return productLookupValues;
+		}
+
+		final ATPConfig atpConfig = getATPConfig();
+		if (!atpConfig.isQueryEnabled())
+		{
+			return productLookupValues;
+		}
+
+		final Future<AvailableToPromiseResultForWebui> availableStockFuture = availableToPromiseAdapter.retrieveAvailableStockCachedAsync(
+				productLookupValues.getKeysAsInt(),
+				availableToPromiseAdapter.getPredefinedStorageAttributeKeys(),
+				TimeUtil.asLocalDateTime(dateOrNull));
+
+		final AvailableToPromiseResultForWebui availableStock;
+		try
+		{
+			availableStock = availableStockFuture.get(atpConfig.getMaxWaitMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (final TimeoutException ex)
+		{
+			// Return the products right away and don't let the ATP query occupy the executor any longer.
+			availableStockFuture.cancel(true);
+			logger.debug("ATP quantities were not available in {}ms. Returning products without them.", atpConfig.getMaxWaitMillis());
+			return productLookupValues.stream()
+					.collect(LookupValuesList.collect(ImmutableMap.of(DEBUGPROPERTY_ATP_PENDING, "true")));
+		}
+		catch (final InterruptedException ex)
 		{
+			availableStockFuture.cancel(true);
+			Thread.currentThread().interrupt();
 			return productLookupValues;
 		}
+		catch (final ExecutionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex.getCause() != null ? ex.getCause() : ex);
+		}
 
-		final AvailableToPromiseResultForWebui availableStock = availableToPromiseAdapter.retrieveAvailableStock(AvailableToPromiseQuery.builder()
-				.productIds(productLookupValues.getKeysAsInt())
-				.storageAttributesKeys(availableToPromiseAdapter.getPredefinedStorageAttributeKeys())
-				.date(TimeUtil.asLocalDateTime(dateOrNull))
-				.build());
 		final List<Group> availableStockGroups = availableStock.getGroups();
 
 		// process the query's result into those explodedProductValues
-		return createLookupValuesFromAvailableStockGroups(productLookupValues, availableStockGroups);
+		return createLookupValuesFromAvailableStockGroups(productLookupValues, availableStockGroups, atpConfig.isDisplayOnlyPositive());
 	}
 
-	private boolean isAvailableStockQueryActivatedInSysConfig()
+	private static ATPConfig getATPConfig()
 	{
-		final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
 		final int clientId = Env.getAD_Client_ID(Env.getCtx());
 		final int orgId = Env.getAD_Org_ID(Env.getCtx());
+		return atpConfigs.getOrLoad(ArrayKey.of(clientId, orgId), () -> retrieveATPConfig(clientId, orgId));
+	}
 
-		final boolean stockQueryActivated = sysConfigBL.getBooleanValue(
-				SYSCONFIG_ATP_QUERY_ENABLED,
-				false, clientId, orgId);
-		return stockQueryActivated;
+	private static ATPConfig retrieveATPConfig(final int clientId, final int orgId)
+	{
+		final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+		return ATPConfig.builder()
+				.queryEnabled(sysConfigBL.getBooleanValue(SYSCONFIG_ATP_QUERY_ENABLED, false, clientId, orgId))
+				.displayOnlyPositive(sysConfigBL.getBooleanValue(SYSCONFIG_ATP_DISPLAY_ONLY_POSITIVE, true, clientId, orgId))
+				.maxWaitMillis(sysConfigBL.getIntValue(SYSCONFIG_ATP_MAX_WAIT_MILLIS, DEFAULT_ATP_MAX_WAIT_MILLIS, clientId, orgId))
+				.build();
 	}
 
 	private LookupValuesList createLookupValuesFromAvailableStockGroups(
 			@NonNull final LookupValuesList initialLookupValues,
-			@NonNull final List<Group> availableStockGroups)
+			@NonNull final List<Group> availableStockGroups,
+			final boolean addOnlyPositiveATP)
 	{
-		final boolean addOnlyPositiveATP = addOnlyPositiveATP();
 
 		final List<LookupValue> explodedProductValues = new ArrayList<>();
 		for (final Group availableStockGroup : availableStockGroups)
@@ -555,16 +612,6 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 		return LookupValuesList.fromCollection(explodedProductValues);
 	}
 
-	private boolean addOnlyPositiveATP()
-	{
-		final Properties ctx = Env.getCtx();
-
-		return Services.get(ISysConfigBL.class).getBooleanValue(
-				SYSCONFIG_ATP_DISPLAY_ONLY_POSITIVE,
-				true,
-				Env.getAD_Client_ID(ctx), Env.getAD_Org_ID(ctx));
-	}
-
 	private ITranslatableString createDisplayName(
 			@NonNull final ITranslatableString productDisplayName,
 			@NonNull final Group availableStockGroup)
@@ -593,6 +640,15 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 				.build();
 	}
 
+	@Value
+	@Builder
+	private static class ATPConfig
+	{
+		boolean queryEnabled;
+		boolean displayOnlyPositive;
+		int maxWaitMillis;
+	}
+
 	@Value
 	@Builder
 	public static class ProductAndAttributes
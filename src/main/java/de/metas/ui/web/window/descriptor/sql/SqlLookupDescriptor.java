@@ -120,6 +120,8 @@ public final class SqlLookupDescriptor implements LookupDescriptor
 	private final ICachedStringExpression sqlForFetchingDisplayNameByIdExpression;
 	private final int entityTypeIndex;
 	private final INamePairPredicate postQueryPredicate;
+	/** true if the filter is matched only against the display name, case and accent insensitive */
+	private final boolean filteringOnDisplayNameOnly;
 
 	private final boolean highVolume;
 	private final boolean numericKey;
@@ -139,6 +141,7 @@ public final class SqlLookupDescriptor implements LookupDescriptor
 		entityTypeIndex = builder.entityTypeIndex;
 
 		postQueryPredicate = builder.getPostQueryPredicate();
+		filteringOnDisplayNameOnly = builder.filteringOnDisplayNameOnly;
 
 		numericKey = builder.numericKey;
 		highVolume = builder.isHighVolume();
@@ -275,6 +278,11 @@ public final class SqlLookupDescriptor implements LookupDescriptor
 		return postQueryPredicate;
 	}
 
+	public boolean isFilteringOnDisplayNameOnly()
+	{
+		return filteringOnDisplayNameOnly;
+	}
+
 	@Override
 	public boolean hasParameters()
 	{
@@ -318,6 +326,7 @@ public final class SqlLookupDescriptor implements LookupDescriptor
 		private ICachedStringExpression sqlForFetchingExpression;
 		private ICachedStringExpression sqlForFetchingDisplayNameByIdExpression;
 		private int entityTypeIndex = -1;
+		private boolean filteringOnDisplayNameOnly;
 
 		private int zoomIntoWindowId = -1;
 
@@ -443,6 +452,7 @@ public final class SqlLookupDescriptor implements LookupDescriptor
 						.caching();
 				sqlForFetchingDisplayNameByIdExpression = buildSqlForFetchingDisplayNameById(lookupInfo)
 						.caching();
+				filteringOnDisplayNameOnly = true; // see buildSqlWhere
 
 				if (lookupInfo.isQueryHasEntityType())
 				{
@@ -511,6 +521,7 @@ public final class SqlLookupDescriptor implements LookupDescriptor
 				sqlTableName = tableName;
 				sqlForFetchingExpression = sqlForFetching.caching();
 				sqlForFetchingDisplayNameByIdExpression = sqlForFetchingDisplayNameById.caching();
+				filteringOnDisplayNameOnly = false; // the filter is not accent insensitive
 			}
 		}
 
@@ -129,7 +129,7 @@ public final class Document
 	//
 	// Callouts
 	private ITabCallout documentCallout = ITabCallout.NULL; // will be set from builder, after document it's initialized
-	private final ICalloutExecutor fieldCalloutExecutor;
+	private ICalloutExecutor _fieldCalloutExecutor; // lazy
 	private DocumentAsCalloutRecord _calloutRecord; // lazy
 
 	//
@@ -233,8 +233,7 @@ public final class Document
 		}
 
 		//
-		// Initialize field callout executor
-		fieldCalloutExecutor = entityDescriptor.createFieldsCalloutExecutor();
+		// NOTE: field callout executor is created on demand, see getFieldCalloutExecutor()
 
 		//
 		// Evaluatee
@@ -354,7 +353,7 @@ public final class Document
 		//
 		// Initialize callout executor
 		documentCallout = from.documentCallout;
-		fieldCalloutExecutor = entityDescriptor.createFieldsCalloutExecutor();
+		_fieldCalloutExecutor = null; // lazy
 
 		_evaluatee = null; // lazy
 		_shadowParentEvaluatee = null; // never copy it!
@@ -1206,7 +1205,7 @@ public final class Document
 		updateFieldsWhichDependsOn(documentField.getFieldName());
 
 		// Callouts
-		fieldCalloutExecutor.execute(documentField.asCalloutField());
+		getFieldCalloutExecutor().execute(documentField.asCalloutField());
 
 		// Notify parent that one of it's children was changed
 		if (!isRootDocument() && hasChanges())
@@ -1217,7 +1216,7 @@ public final class Document
 
 	private void executeAllFieldCallouts()
 	{
-		fieldCalloutExecutor.executeAll((fieldName) -> {
+		getFieldCalloutExecutor().executeAll((fieldName) -> {
 			final IDocumentField documentField = getFieldOrNull(fieldName);
 			if (documentField == null)
 			{
@@ -1499,6 +1498,18 @@ public final class Document
 		return includedDocuments.getDocuments(orderBys);
 	}
 
+	public OrderedDocumentsList getIncludedDocumentsPage(final DetailId detailId, final List<DocumentQueryOrderBy> orderBys, final int firstRow, final int pageLength)
+	{
+		final IIncludedDocumentsCollection includedDocuments = getIncludedDocumentsCollection(detailId);
+		return includedDocuments.getDocumentsPage(orderBys, firstRow, pageLength);
+	}
+
+	public int getIncludedDocumentsCount(final DetailId detailId)
+	{
+		final IIncludedDocumentsCollection includedDocuments = getIncludedDocumentsCollection(detailId);
+		return includedDocuments.getDocumentsCount();
+	}
+
 	public void assertNewDocumentAllowed(final DetailId detailId)
 	{
 		getIncludedDocumentsCollection(detailId).assertNewDocumentAllowed();
@@ -1535,7 +1546,11 @@ public final class Document
 
 	/* package */ICalloutExecutor getFieldCalloutExecutor()
 	{
-		return fieldCalloutExecutor;
+		if (_fieldCalloutExecutor == null)
+		{
+			_fieldCalloutExecutor = entityDescriptor.createFieldsCalloutExecutor();
+		}
+		return _fieldCalloutExecutor;
 	}
 
 	/* package */ boolean isProcessed()
@@ -2063,6 +2078,8 @@ public final class Document
 
 		private IDocumentChangesCollector changesCollector = NullDocumentChangesCollector.instance;
 
+		private boolean readonlySnapshot = false;
+
 		private Builder(@NonNull final DocumentEntityDescriptor entityDescriptor)
 		{
 			_entityDescriptor = entityDescriptor;
@@ -2077,9 +2094,13 @@ public final class Document
 				document.setShadowParentDocumentEvaluatee(shadowParentDocumentEvaluatee);
 			}
 
-			final DocumentEntityDescriptor entityDescriptor = getEntityDescriptor();
-			final ITabCallout documentCallout = entityDescriptor.createAndInitializeDocumentCallout(document.asCalloutRecord());
-			document.documentCallout = ExceptionHandledTabCallout.wrapIfNeeded(documentCallout);
+			// NOTE: read-only snapshots are never changed, so they don't need a document callout
+			if (!readonlySnapshot)
+			{
+				final DocumentEntityDescriptor entityDescriptor = getEntityDescriptor();
+				final ITabCallout documentCallout = entityDescriptor.createAndInitializeDocumentCallout(document.asCalloutRecord());
+				document.documentCallout = ExceptionHandledTabCallout.wrapIfNeeded(documentCallout);
+			}
 
 			//
 			// Initialize document fields
@@ -2129,6 +2150,16 @@ public final class Document
 			return this;
 		}
 
+		/**
+		 * Advises the builder to create a read-only snapshot, i.e. a document which is only rendered (e.g. a page of included rows) and never changed.
+		 * Such documents are cheaper to create because no document callout is created and initialized for them.
+		 */
+		public Builder setReadonlySnapshot(final boolean readonlySnapshot)
+		{
+			this.readonlySnapshot = readonlySnapshot;
+			return this;
+		}
+
 		public Builder setShadowParentDocumentEvaluatee(@Nullable final IDocumentEvaluatee shadowParentDocumentEvaluatee)
 		{
 			this.shadowParentDocumentEvaluatee = shadowParentDocumentEvaluatee;
@@ -1,12 +1,12 @@
 package de.metas.ui.web.window.model;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.adempiere.ad.dao.cache.CacheInvalidateMultiRequest;
 import org.adempiere.ad.dao.cache.CacheInvalidateRequest;
@@ -16,16 +16,18 @@ import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
 import org.adempiere.util.Services;
 import org.adempiere.util.lang.IAutoCloseable;
+import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.util.CacheMgt;
 import org.compiere.util.ICacheResetListener;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.logging.LogManager;
+import de.metas.ui.web.metrics.WebuiMetrics;
 import de.metas.ui.web.view.IViewsRepository;
 import de.metas.ui.web.window.events.DocumentWebsocketPublisher;
 import lombok.NonNull;
@@ -71,22 +73,37 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 	@Autowired
 	private IViewsRepository viewsRepository;
 
-	private final Executor async;
+	/** How many records are invalidated in parallel. If not set, the number of available processors is used. */
+	@Value("${metasfresh.webui.cacheInvalidation.partitions:0}")
+	private int partitionsCount;
 
-	public DocumentCacheInvalidationDispatcher()
-	{
-		final CustomizableThreadFactory asyncThreadFactory = new CustomizableThreadFactory(DocumentCacheInvalidationDispatcher.class.getSimpleName());
-		asyncThreadFactory.setDaemon(true);
+	/** How many requests can wait in one partition's queue, before the callers are blocked */
+	@Value("${metasfresh.webui.cacheInvalidation.partitionCapacity:10000}")
+	private int partitionCapacity;
 
-		async = Executors.newSingleThreadExecutor(asyncThreadFactory);
-	}
+	private PartitionedCacheInvalidationExecutor async;
 
 	@PostConstruct
 	private void postConstruct()
 	{
+		async = PartitionedCacheInvalidationExecutor.builder()
+				.name(DocumentCacheInvalidationDispatcher.class.getSimpleName())
+				.partitionsCount(partitionsCount > 0 ? partitionsCount : Math.max(Runtime.getRuntime().availableProcessors(), 2))
+				.partitionCapacity(partitionCapacity)
+				.batchSize(500)
+				.batchProcessor(this::resetNow)
+				.build();
+		WebuiMetrics.registerCacheInvalidationQueueSizeGauge(async, PartitionedCacheInvalidationExecutor::getQueueSize);
+
 		CacheMgt.get().addCacheResetListener(this);
 	}
 
+	@PreDestroy
+	private void preDestroy()
+	{
+		async.shutdown();
+	}
+
 	@Override
 	public int reset(@NonNull final CacheInvalidateMultiRequest request)
 	{
@@ -95,7 +112,7 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 		final ITrx currentTrx = trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.ReturnTrxNone);
 		if (trxManager.isNull(currentTrx))
 		{
-			async.execute(() -> resetNow(request));
+			submit(request);
 		}
 		else
 		{
@@ -109,7 +126,7 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 							{
 								return;
 							}
-							async.execute(() -> resetNow(aggregatedRequest));
+							submit(aggregatedRequest);
 						});
 				return c;
 			});
@@ -120,16 +137,64 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 		return 1; // not relevant
 	}
 
-	private void resetNow(final CacheInvalidateMultiRequest request)
+	private void submit(final CacheInvalidateMultiRequest multiRequest)
 	{
+		for (final CacheInvalidateRequest request : multiRequest.getRequests())
+		{
+			if (request.getRootTableName() == null || request.getRootRecordId() < 0)
+			{
+				logger.debug("Nothing to do, no root record: {}", request);
+				continue;
+			}
+
+			async.submit(request);
+		}
+	}
+
+	private void resetNow(final List<CacheInvalidateRequest> requests)
+	{
+		final Set<TableRecordReference> rootRecordRefs = new LinkedHashSet<>();
+
 		final DocumentWebsocketPublisher websocketPublisher = documents.getWebsocketPublisher();
 		try (final IAutoCloseable c = websocketPublisher.temporaryCollectOnThisThread())
 		{
-			request.getRequests().forEach(this::resetNow);
+			for (final CacheInvalidateRequest request : requests)
+			{
+				try
+				{
+					final TableRecordReference rootRecordRef = resetNow(request);
+					if (rootRecordRef != null)
+					{
+						rootRecordRefs.add(rootRecordRef);
+					}
+				}
+				catch (final Exception ex)
+				{
+					logger.warn("Failed invalidating documents for {}. Ignored.", request, ex);
+
+					// the record was changed anyways, so the views shall be notified
+					rootRecordRefs.add(TableRecordReference.of(request.getRootTableName(), request.getRootRecordId()));
+				}
+			}
+		}
+
+		if (!rootRecordRefs.isEmpty())
+		{
+			try
+			{
+				viewsRepository.notifyRecordsChanged(rootRecordRefs);
+			}
+			catch (final Exception ex)
+			{
+				logger.warn("Failed notifying views about {} changed records. Ignored.", rootRecordRefs.size(), ex);
+			}
 		}
 	}
 
-	private void resetNow(final CacheInvalidateRequest request)
+	/**
+	 * @return the root record which was invalidated or <code>null</code>
+	 */
+	private TableRecordReference resetNow(final CacheInvalidateRequest request)
 	{
 		logger.debug("Got {}", request);
 
@@ -137,14 +202,14 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 		if (rootTableName == null)
 		{
 			logger.debug("Nothing to do, no rootTableName: {}", request);
-			return;
+			return null;
 		}
 
 		final int rootRecordId = request.getRootRecordId();
 		if (rootRecordId < 0)
 		{
 			logger.debug("Nothing to do, rootRecordId < 0: {}", request);
-			return;
+			return null;
 		}
 
 		final String childTableName = request.getChildTableName();
@@ -165,7 +230,7 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 			documents.invalidateDocumentByRecordId(rootTableName, rootRecordId);
 		}
 
-		viewsRepository.notifyRecordChanged(rootTableName, rootRecordId);
+		return TableRecordReference.of(rootTableName, rootRecordId);
 	}
 
 	private static final class CacheInvalidateMultiRequestsCollector
@@ -0,0 +1,232 @@
+package de.metas.ui.web.window.model;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.descriptor.DetailId;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Bounded journal of the changes of one root document and its included documents.
+ * <p>
+ * Each change gets a new sequence number. The oldest changes are dropped when the journal is full, so the journal can tell the changes since a given version
+ * only if that version is not older than the oldest retained one. Else the caller shall fallback to the full document.
+ * <p>
+ * Versions are strings made of a random journal ID and the sequence number. So a version which was issued by another journal
+ * (e.g. before a restart, on another node or before the journal was dropped) is never covered.
+ */
+/* package */ final class DocumentChangesJournal
+{
+	private static final char VERSION_SEPARATOR = '-';
+
+	private final String journalId = UUID.randomUUID().toString();
+	private final int capacity;
+	private final ArrayDeque<Entry> entries;
+
+	/** All changes after this sequence number are in {@link #entries} */
+	private long baseSeqNo = 0;
+	private long lastSeqNo = 0;
+
+	public DocumentChangesJournal(final int capacity)
+	{
+		this.capacity = capacity > 0 ? capacity : 1;
+		entries = new ArrayDeque<>(this.capacity);
+	}
+
+	@Override
+	public synchronized String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.add("journalId", journalId)
+				.add("baseSeqNo", baseSeqNo)
+				.add("lastSeqNo", lastSeqNo)
+				.add("entries", entries.size())
+				.add("capacity", capacity)
+				.toString();
+	}
+
+	public synchronized String getLastVersion()
+	{
+		return toVersion(lastSeqNo);
+	}
+
+	private String toVersion(final long seqNo)
+	{
+		return journalId + VERSION_SEPARATOR + seqNo;
+	}
+
+	/**
+	 * @return sequence number of given version or -1 if the version was not issued by this journal
+	 */
+	private long extractSeqNo(final String version)
+	{
+		final int idx = version.lastIndexOf(VERSION_SEPARATOR);
+		if (idx <= 0 || !journalId.equals(version.substring(0, idx)))
+		{
+			return -1;
+		}
+
+		try
+		{
+			return Long.parseLong(version.substring(idx + 1));
+		}
+		catch (final NumberFormatException ex)
+		{
+			return -1;
+		}
+	}
+
+	public void recordFieldsChanged(@NonNull final DocumentPath documentPath, @NonNull final Set<String> fieldNames)
+	{
+		if (fieldNames.isEmpty())
+		{
+			return;
+		}
+		record(documentPath, ChangeType.FIELDS_CHANGED, ImmutableSet.copyOf(fieldNames));
+	}
+
+	public void recordDeleted(@NonNull final DocumentPath includedDocumentPath)
+	{
+		record(includedDocumentPath, ChangeType.DELETED, ImmutableSet.of());
+	}
+
+	/**
+	 * Records that given included document (or all included documents of a tab) changed in an unknown way, so they have to be fully reloaded.
+	 */
+	public void recordStale(@NonNull final DocumentPath includedDocumentPath)
+	{
+		record(includedDocumentPath, ChangeType.STALE, ImmutableSet.of());
+	}
+
+	private synchronized void record(final DocumentPath documentPath, final ChangeType type, final ImmutableSet<String> fieldNames)
+	{
+		final Entry entry = new Entry(lastSeqNo + 1, documentPath, type, fieldNames);
+
+		if (entries.size() >= capacity)
+		{
+			final Entry oldestEntry = entries.removeFirst();
+			baseSeqNo = oldestEntry.getSeqNo();
+		}
+
+		entries.addLast(entry);
+		lastSeqNo = entry.getSeqNo();
+	}
+
+	/**
+	 * Forgets all changes, i.e. the journal will not be able to provide the changes since any of the previous versions.
+	 */
+	public synchronized void reset()
+	{
+		entries.clear();
+		baseSeqNo = lastSeqNo = lastSeqNo + 1;
+	}
+
+	/**
+	 * @return changes since given version or null if the journal does not cover that version
+	 */
+	public synchronized DocumentChangesSince getChangesSince(@NonNull final String sinceVersion)
+	{
+		final long sinceSeqNo = extractSeqNo(sinceVersion);
+		if (sinceSeqNo < baseSeqNo || sinceSeqNo > lastSeqNo)
+		{
+			return null;
+		}
+
+		final Set<String> rootFieldNames = new HashSet<>();
+		final Set<DetailId> staleTabIds = new HashSet<>();
+		final Map<DocumentPath, Set<String>> fieldNamesByIncludedDocumentPath = new HashMap<>();
+		final Set<DocumentPath> deletedIncludedDocumentPaths = new HashSet<>();
+		for (final Entry entry : entries)
+		{
+			if (entry.getSeqNo() <= sinceSeqNo)
+			{
+				continue;
+			}
+
+			final DocumentPath documentPath = entry.getDocumentPath();
+			if (documentPath.isRootDocument())
+			{
+				rootFieldNames.addAll(entry.getFieldNames());
+			}
+			else if (entry.getType() == ChangeType.STALE && documentPath.isAnyIncludedDocument())
+			{
+				staleTabIds.add(documentPath.getDetailId());
+			}
+			else if (entry.getType() == ChangeType.DELETED)
+			{
+				fieldNamesByIncludedDocumentPath.remove(documentPath);
+				deletedIncludedDocumentPaths.add(documentPath);
+			}
+			else
+			{
+				final Set<String> fieldNames = fieldNamesByIncludedDocumentPath.computeIfAbsent(documentPath, k -> new HashSet<>());
+				if (entry.getType() == ChangeType.STALE)
+				{
+					fieldNames.clear();
+					fieldNames.add(DocumentChangesSince.ALL_FIELDS);
+				}
+				else if (!fieldNames.contains(DocumentChangesSince.ALL_FIELDS))
+				{
+					fieldNames.addAll(entry.getFieldNames());
+				}
+			}
+		}
+
+		return DocumentChangesSince.builder()
+				.version(toVersion(lastSeqNo))
+				.rootFieldNames(ImmutableSet.copyOf(rootFieldNames))
+				.staleTabIds(ImmutableSet.copyOf(staleTabIds))
+				.fieldNamesByIncludedDocumentPath(fieldNamesByIncludedDocumentPath.entrySet()
+						.stream()
+						.filter(e -> !staleTabIds.contains(e.getKey().getDetailId())) // stale tabs are anyways fully reloaded
+						.collect(ImmutableMap.toImmutableMap(e -> e.getKey(), e -> ImmutableSet.copyOf(e.getValue()))))
+				.deletedIncludedDocumentPaths(ImmutableSet.copyOf(deletedIncludedDocumentPaths))
+				.build();
+	}
+
+	private static enum ChangeType
+	{
+		FIELDS_CHANGED, DELETED, STALE
+	}
+
+	@Value
+	private static final class Entry
+	{
+		private final long seqNo;
+		private final DocumentPath documentPath;
+		private final ChangeType type;
+		private final ImmutableSet<String> fieldNames;
+	}
+}
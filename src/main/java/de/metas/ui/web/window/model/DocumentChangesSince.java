@@ -0,0 +1,63 @@
+package de.metas.ui.web.window.model;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.descriptor.DetailId;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Changes of a root document and its included documents since a given version.
+ *
+ * @see DocumentCollection#getChangesSince(DocumentPath, String)
+ */
+@Value
+@Builder
+public class DocumentChangesSince
+{
+	/** Field names placeholder which means that all fields of the included document changed */
+	public static final String ALL_FIELDS = "*";
+
+	/** version of the document, after the changes */
+	@NonNull
+	private final String version;
+
+	@NonNull
+	private final ImmutableSet<String> rootFieldNames;
+
+	/** Tabs which shall be fully reloaded */
+	@NonNull
+	private final ImmutableSet<DetailId> staleTabIds;
+
+	/** Changed included documents (other than those from stale tabs). If the field names contain {@link #ALL_FIELDS} then the whole included document shall be reloaded. */
+	@NonNull
+	private final ImmutableMap<DocumentPath, ImmutableSet<String>> fieldNamesByIncludedDocumentPath;
+
+	@NonNull
+	private final ImmutableSet<DocumentPath> deletedIncludedDocumentPaths;
+}
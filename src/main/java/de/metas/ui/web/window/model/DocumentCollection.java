@@ -6,6 +6,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import javax.annotation.Nullable;
@@ -40,6 +41,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.adempiere.report.jasper.OutputType;
@@ -49,7 +51,9 @@ import de.metas.letters.model.MADBoilerPlate.SourceDocument;
 import de.metas.logging.LogManager;
 import de.metas.process.ProcessExecutionResult;
 import de.metas.process.ProcessInfo;
+import de.metas.ui.web.cache.ETag;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
+import de.metas.ui.web.metrics.WebuiMetrics;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.window.WindowConstants;
 import de.metas.ui.web.window.controller.DocumentPermissionsHelper;
@@ -57,14 +61,19 @@ import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.DocumentType;
 import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.descriptor.DetailId;
 import de.metas.ui.web.window.descriptor.DocumentDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentEntityDataBindingDescriptor;
 import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
 import de.metas.ui.web.window.descriptor.factory.DocumentDescriptorFactory;
 import de.metas.ui.web.window.events.DocumentWebsocketPublisher;
 import de.metas.ui.web.window.exceptions.DocumentNotFoundException;
 import de.metas.ui.web.window.exceptions.InvalidDocumentPathException;
 import de.metas.ui.web.window.model.Document.CopyMode;
+import de.metas.ui.web.window.model.DocumentChanges.IncludedDetailInfo;
 import de.metas.ui.web.window.model.lookup.DocumentZoomIntoInfo;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NonNull;
@@ -106,12 +115,20 @@ public class DocumentCollection
 	@Autowired
 	private DocumentWebsocketPublisher websocketPublisher;
 
-	private final Cache<DocumentKey, Document> rootDocuments = CacheBuilder.newBuilder().build();
+	private final Cache<DocumentKey, Document> rootDocuments = CacheBuilder.newBuilder().recordStats().build();
+
+	/** Changes journals of root documents, used to send only the changes to frontend. See {@link #getChangesSince(DocumentPath, String)}. */
+	private final Cache<DocumentKey, DocumentChangesJournal> changesJournals = CacheBuilder.newBuilder()
+			.maximumSize(10000)
+			.expireAfterAccess(2, TimeUnit.HOURS)
+			.build();
+	private static final int CHANGES_JOURNAL_CAPACITY = 100;
 
 	private final ConcurrentHashMap<String, Set<WindowId>> tableName2windowIds = new ConcurrentHashMap<>();
 
 	/* package */ DocumentCollection()
 	{
+		GuavaCacheMetrics.monitor(Metrics.globalRegistry, rootDocuments, WebuiMetrics.PREFIX + "documents");
 	}
 
 	public DocumentDescriptorFactory getDocumentDescriptorFactory()
@@ -292,11 +309,13 @@ public class DocumentCollection
 			if (rootDocument.isDeleted())
 			{
 				rootDocuments.invalidate(rootDocumentKey);
+				changesJournals.invalidate(rootDocumentKey);
 				changesCollector.collectDeleted(rootDocument.getDocumentPath());
 			}
 			else
 			{
 				commitRootDocument(rootDocument);
+				recordChanges(rootDocument.getDocumentPath(), changesCollector);
 			}
 
 			// Return the result
@@ -304,6 +323,130 @@ public class DocumentCollection
 		}
 	}
 
+	private DocumentChangesJournal getChangesJournal(final DocumentKey rootDocumentKey)
+	{
+		try
+		{
+			return changesJournals.get(rootDocumentKey, () -> new DocumentChangesJournal(CHANGES_JOURNAL_CAPACITY));
+		}
+		catch (final ExecutionException e)
+		{
+			throw AdempiereException.wrapIfNeeded(e);
+		}
+	}
+
+	private void recordChanges(final DocumentPath rootDocumentPath, final IDocumentChangesCollector changesCollector)
+	{
+		final DocumentChangesJournal journal = getChangesJournal(DocumentKey.ofRootDocumentPath(rootDocumentPath));
+
+		// We don't know what changed, so we cannot provide the changes
+		if (changesCollector instanceof NullDocumentChangesCollector)
+		{
+			journal.reset();
+			return;
+		}
+
+		changesCollector.streamOrderedDocumentChanges()
+				.filter(documentChanges -> rootDocumentPath.equals(documentChanges.getDocumentPath().getRootDocumentPath()))
+				.forEach(documentChanges -> {
+					final DocumentPath documentPath = documentChanges.getDocumentPath();
+					if (documentChanges.isDeleted() && !documentPath.isRootDocument())
+					{
+						journal.recordDeleted(documentPath);
+					}
+					else
+					{
+						journal.recordFieldsChanged(documentPath, documentChanges.getFieldNames());
+					}
+
+					documentChanges.getIncludedDetailInfos()
+							.stream()
+							.filter(IncludedDetailInfo::isStale)
+							.forEach(detailInfo -> journal.recordStale(DocumentPath.includedDocumentPath(rootDocumentPath.getWindowId(), rootDocumentPath.getDocumentId(), detailInfo.getDetailId())));
+				});
+	}
+
+	/**
+	 * @return the version of root document, to be used for {@link #getChangesSince(DocumentPath, String)}
+	 */
+	public String getVersion(@NonNull final DocumentPath rootDocumentPath)
+	{
+		return getChangesJournal(DocumentKey.ofRootDocumentPath(rootDocumentPath)).getLastVersion();
+	}
+
+	/**
+	 * Builds the ETag of given document (or included documents) from database state only, so it's the same on all nodes and survives restarts and journal invalidation:
+	 * <ul>
+	 * <li>the database version of the root document
+	 * <li>if the path points to an included tab: the version of that tab's rows (see {@link DocumentsRepository#retrieveIncludedDocumentsVersion(DocumentEntityDescriptor, int, DocumentEntityDescriptor)})
+	 * <li>only if the root document has unsaved changes in memory: the version of its in-memory changes (see {@link #getVersion(DocumentPath)})
+	 * </ul>
+	 *
+	 * @return ETag or null if the root document (or the included tab) does not support versioning
+	 */
+	public ETag getETagOrNull(@NonNull final DocumentPath documentPath)
+	{
+		final DocumentPath rootDocumentPath = documentPath.getRootDocumentPath();
+		final DocumentId rootDocumentId = rootDocumentPath.getDocumentId();
+		if (!rootDocumentId.isInt())
+		{
+			return null;
+		}
+
+		final DocumentEntityDescriptor entityDescriptor = getDocumentEntityDescriptor(rootDocumentPath.getWindowId());
+		final DocumentEntityDataBindingDescriptor dataBinding = entityDescriptor.getDataBinding();
+		if (!dataBinding.isVersioningSupported())
+		{
+			return null;
+		}
+
+		final ImmutableMap.Builder<String, String> attributes = ImmutableMap.builder();
+
+		final DetailId detailId = documentPath.getDetailId();
+		if (detailId != null)
+		{
+			final DocumentEntityDescriptor includedEntityDescriptor = entityDescriptor.getIncludedEntityByDetailId(detailId);
+			final DocumentEntityDataBindingDescriptor includedDataBinding = includedEntityDescriptor.getDataBinding();
+			if (!includedDataBinding.isVersioningSupported())
+			{
+				return null;
+			}
+
+			final String includedDocumentsVersion = includedDataBinding.getDocumentsRepository().retrieveIncludedDocumentsVersion(entityDescriptor, rootDocumentId.toInt(), includedEntityDescriptor);
+			attributes.put("tab", includedDocumentsVersion);
+		}
+
+		if (hasInMemoryChanges(rootDocumentPath))
+		{
+			attributes.put("changes", getVersion(rootDocumentPath));
+		}
+
+		final String databaseVersion = dataBinding.getDocumentsRepository().retrieveVersion(entityDescriptor, rootDocumentId.toInt());
+		return ETag.of(databaseVersion, attributes.build());
+	}
+
+	private boolean hasInMemoryChanges(final DocumentPath rootDocumentPath)
+	{
+		final Document rootDocument = rootDocuments.getIfPresent(DocumentKey.ofRootDocumentPath(rootDocumentPath));
+		if (rootDocument == null)
+		{
+			return false;
+		}
+
+		try (final IAutoCloseable readLock = rootDocument.lockForReading())
+		{
+			return rootDocument.hasChangesRecursivelly();
+		}
+	}
+
+	/**
+	 * @return changes of given root document and its included documents since given version or null if they are no longer known (in which case the whole document shall be reloaded)
+	 */
+	public DocumentChangesSince getChangesSince(@NonNull final DocumentPath rootDocumentPath, @NonNull final String sinceVersion)
+	{
+		return getChangesJournal(DocumentKey.ofRootDocumentPath(rootDocumentPath)).getChangesSince(sinceVersion);
+	}
+
 	/**
 	 * Creates a new root document.
 	 *
@@ -364,6 +507,7 @@ public class DocumentCollection
 		// TODO: invalidate only those which are: 1. NOT new; 2. NOT currently editing
 		rootDocuments.invalidateAll();
 		rootDocuments.cleanUp();
+		changesJournals.invalidateAll();
 	}
 
 	private void commitRootDocument(@NonNull final Document rootDocument)
@@ -623,6 +767,7 @@ public class DocumentCollection
 		//
 		// Invalidate the root documents
 		rootDocuments.invalidateAll(documentKeys);
+		changesJournals.invalidateAll(documentKeys);
 
 		//
 		// Notify frontend
@@ -676,6 +821,12 @@ public class DocumentCollection
 			}
 		}
 
+		final DocumentChangesJournal journal = changesJournals.getIfPresent(documentKey);
+		if (journal != null)
+		{
+			journal.recordStale(documentPath);
+		}
+
 		//
 		// Notify frontend, even if the root document does not exist (or it was not cached).
 		websocketPublisher.staleByDocumentPath(documentPath);
@@ -694,6 +845,7 @@ public class DocumentCollection
 		//
 		// Invalidate the root documents
 		rootDocuments.invalidate(documentKey);
+		changesJournals.invalidate(documentKey);
 
 		//
 		// Notify frontend
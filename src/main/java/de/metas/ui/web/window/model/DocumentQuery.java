@@ -73,6 +73,7 @@ public final class DocumentQuery
 	private final int pageLength;
 
 	private final Function<DocumentId, Document> existingDocumentsSupplier;
+	private final boolean readonlySnapshots;
 
 	private DocumentQuery(final Builder builder)
 	{
@@ -90,6 +91,7 @@ public final class DocumentQuery
 		pageLength = builder.pageLength;
 
 		existingDocumentsSupplier = builder.existingDocumentsSupplier;
+		readonlySnapshots = builder.readonlySnapshots;
 	}
 
 	@Override
@@ -104,6 +106,7 @@ public final class DocumentQuery
 				.add("firstRow", firstRow > 0 ? firstRow : null)
 				.add("pageLength", pageLength > 0 ? pageLength : null)
 				.add("noSorting", noSorting ? Boolean.TRUE : null)
+				.add("readonlySnapshots", readonlySnapshots ? Boolean.TRUE : null)
 				.toString();
 	}
 
@@ -162,6 +165,12 @@ public final class DocumentQuery
 		return existingDocumentsSupplier;
 	}
 
+	/** @return true if the retrieved documents will be only read-only snapshots, see {@link Document.Builder#setReadonlySnapshot(boolean)} */
+	public boolean isReadonlySnapshots()
+	{
+		return readonlySnapshots;
+	}
+
 	public static final class Builder
 	{
 		private final DocumentEntityDescriptor entityDescriptor;
@@ -176,6 +185,7 @@ public final class DocumentQuery
 		private int pageLength = -1;
 
 		private Function<DocumentId, Document> existingDocumentsSupplier = null;
+		private boolean readonlySnapshots = false;
 		private IDocumentChangesCollector changesCollector = Execution.getCurrentDocumentChangesCollectorOrNull(); // TODO: for legacy reason we are calling Execution.getCurrent.. ... but this shall be removed!
 
 		private Builder(final DocumentEntityDescriptor entityDescriptor)
@@ -222,6 +232,16 @@ public final class DocumentQuery
 			return documentsRepository.retrieveLastLineNo(query);
 		}
 
+		/**
+		 * @return how many records are matching this query; paging and ordering are ignored.
+		 */
+		public int retrieveCount()
+		{
+			final DocumentQuery query = build();
+			final DocumentsRepository documentsRepository = getDocumentsRepository();
+			return documentsRepository.retrieveCount(query);
+		}
+
 
 		private DocumentsRepository getDocumentsRepository()
 		{
@@ -336,6 +356,12 @@ public final class DocumentQuery
 			return this;
 		}
 
+		public Builder setReadonlySnapshots(final boolean readonlySnapshots)
+		{
+			this.readonlySnapshots = readonlySnapshots;
+			return this;
+		}
+
 		public Builder setChangesCollector(IDocumentChangesCollector changesCollector)
 		{
 			this.changesCollector = changesCollector;
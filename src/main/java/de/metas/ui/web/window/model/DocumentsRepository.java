@@ -63,5 +63,11 @@ public interface DocumentsRepository
 
 	String retrieveVersion(DocumentEntityDescriptor entityDescriptor, int documentIdAsInt);
 
+	/** @return version of all included documents of given parent, changing whenever one of them is created, changed or deleted */
+	String retrieveIncludedDocumentsVersion(DocumentEntityDescriptor parentEntityDescriptor, int parentDocumentIdAsInt, DocumentEntityDescriptor includedEntityDescriptor);
+
 	int retrieveLastLineNo(DocumentQuery query);
+
+	/** @return how many records are matching given query, without loading them */
+	int retrieveCount(DocumentQuery query);
 }
@@ -13,6 +13,7 @@ import org.compiere.util.Evaluatee;
 import org.slf4j.Logger;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 
 import de.metas.logging.LogManager;
@@ -181,6 +182,67 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		return documents;
 	}
 
+	/**
+	 * Loads the given page from database.
+	 * <p>
+	 * The loaded documents are not kept in this collection; they are only read-only snapshots, created without document callouts.
+	 * When a row is edited, it's loaded again (see {@link #getDocumentById(DocumentId)}) and only that one is kept until saved.
+	 * <p>
+	 * New documents which were never saved are considered to be after the saved ones.
+	 */
+	@Override
+	public OrderedDocumentsList getDocumentsPage(final List<DocumentQueryOrderBy> orderBys, final int firstRow, final int pageLength)
+	{
+		final Map<DocumentId, Document> documentsWithChanges = new LinkedHashMap<>(getInnerDocumentsWithChanges());
+		final OrderedDocumentsList documents = DocumentQuery.builder(entityDescriptor)
+				.setParentDocument(parentDocument)
+				.setExistingDocumentsSupplier(documentsWithChanges::remove)
+				.setChangesCollector(NullDocumentChangesCollector.instance)
+				.setOrderBys(orderBys)
+				.setFirstRow(firstRow)
+				.setPageLength(pageLength)
+				.setReadonlySnapshots(true)
+				.retriveDocuments();
+
+		// Fill up the page with the new documents if we reached the end of saved documents.
+		final int remaining = pageLength - documents.size();
+		if (remaining > 0)
+		{
+			final List<Document> newDocuments = documentsWithChanges.values()
+					.stream()
+					.filter(Document::isNew)
+					.collect(ImmutableList.toImmutableList());
+			if (!newDocuments.isEmpty())
+			{
+				final int newDocumentsOffset = documents.isEmpty() ? Math.max(firstRow - retrieveSavedDocumentsCount(), 0) : 0;
+				documents.addDocuments(newDocuments.stream()
+						.skip(newDocumentsOffset)
+						.limit(remaining)
+						.collect(ImmutableList.toImmutableList()));
+			}
+		}
+
+		return documents;
+	}
+
+	@Override
+	public int getDocumentsCount()
+	{
+		final long newDocumentsCount = getChangedDocuments()
+				.stream()
+				.filter(Document::isNew)
+				.count();
+
+		return retrieveSavedDocumentsCount() + (int)newDocumentsCount;
+	}
+
+	private int retrieveSavedDocumentsCount()
+	{
+		return DocumentQuery.builder(entityDescriptor)
+				.setParentDocument(parentDocument)
+				.retrieveCount();
+	}
+
 	@Override
 	public Document getDocumentById(final DocumentId documentId)
 	{
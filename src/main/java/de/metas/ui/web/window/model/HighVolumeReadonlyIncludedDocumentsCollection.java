@@ -81,6 +81,27 @@ public final class HighVolumeReadonlyIncludedDocumentsCollection implements IInc
 				.retriveDocuments();
 	}
 
+	@Override
+	public OrderedDocumentsList getDocumentsPage(final List<DocumentQueryOrderBy> orderBys, final int firstRow, final int pageLength)
+	{
+		return DocumentQuery.builder(entityDescriptor)
+				.setParentDocument(parentDocument)
+				.setChangesCollector(NullDocumentChangesCollector.instance)
+				.setOrderBys(orderBys)
+				.setFirstRow(firstRow)
+				.setPageLength(pageLength)
+				.setReadonlySnapshots(true)
+				.retriveDocuments();
+	}
+
+	@Override
+	public int getDocumentsCount()
+	{
+		return DocumentQuery.builder(entityDescriptor)
+				.setParentDocument(parentDocument)
+				.retrieveCount();
+	}
+
 	@Override
 	public Document getDocumentById(final DocumentId documentId)
 	{
@@ -40,6 +40,17 @@ public interface IIncludedDocumentsCollection
 
 	OrderedDocumentsList getDocuments(List<DocumentQueryOrderBy> orderBys);
 
+	/**
+	 * Loads only the given range of documents, so big tabs do not have to be fully loaded.
+	 * 
+	 * @param firstRow first row (zero based)
+	 * @param pageLength maximum number of documents to load
+	 */
+	OrderedDocumentsList getDocumentsPage(List<DocumentQueryOrderBy> orderBys, int firstRow, int pageLength);
+
+	/** @return how many documents are in this collection, without loading them */
+	int getDocumentsCount();
+
 	Document getDocumentById(DocumentId documentId);
 
 	void updateStatusFromParent();
@@ -0,0 +1,244 @@
+package de.metas.ui.web.window.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.adempiere.ad.dao.cache.CacheInvalidateRequest;
+import org.slf4j.Logger;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.metrics.WebuiMetrics;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Processes {@link CacheInvalidateRequest}s asynchronously, on more partitions in parallel.
+ * <p>
+ * The requests are partitioned by their root record, so the requests for the same record are processed in order, by the same thread,
+ * while the requests for different records are processed in parallel.
+ * <p>
+ * Each partition has a bounded queue:
+ * <ul>
+ * <li>a request which is equal to a request which is already waiting in the queue is collapsed into that one
+ * <li>if the queue is full, the caller is blocked until there is room (back-pressure), unless the caller is a worker thread
+ * </ul>
+ */
+final class PartitionedCacheInvalidationExecutor
+{
+	private static final Logger logger = LogManager.getLogger(PartitionedCacheInvalidationExecutor.class);
+
+	/** Set on worker threads; they are never blocked by a full queue, else they could end up waiting for themselves */
+	private static final ThreadLocal<Boolean> workerThread = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+	private final ImmutableList<Partition> partitions;
+	private final ImmutableList<ExecutorService> executors;
+
+	@Builder
+	private PartitionedCacheInvalidationExecutor(
+			@NonNull final String name,
+			final int partitionsCount,
+			final int partitionCapacity,
+			final int batchSize,
+			@NonNull final Consumer<List<CacheInvalidateRequest>> batchProcessor)
+	{
+		final int partitionsCountEffective = Math.max(partitionsCount, 1);
+		final int partitionCapacityEffective = partitionCapacity > 0 ? partitionCapacity : 10000;
+		final int batchSizeEffective = batchSize > 0 ? batchSize : 500;
+
+		final ImmutableList.Builder<Partition> partitions = ImmutableList.builder();
+		final ImmutableList.Builder<ExecutorService> executors = ImmutableList.builder();
+		for (int i = 0; i < partitionsCountEffective; i++)
+		{
+			final Partition partition = new Partition(partitionCapacityEffective, batchSizeEffective, batchProcessor);
+
+			final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(name + "-" + i + "-");
+			threadFactory.setDaemon(true);
+			final ExecutorService executor = Executors.newSingleThreadExecutor(threadFactory);
+			executor.execute(partition::processLoop);
+
+			partitions.add(partition);
+			executors.add(executor);
+		}
+		this.partitions = partitions.build();
+		this.executors = executors.build();
+	}
+
+	/**
+	 * Stops the worker threads. The requests which are still pending are discarded.
+	 */
+	public void shutdown()
+	{
+		executors.forEach(ExecutorService::shutdownNow);
+		logger.info("Shutdown. Discarded {} pending cache invalidation requests.", getQueueSize());
+	}
+
+	/**
+	 * Enqueues the given request. If the partition's queue is full, this method blocks until there is room.
+	 */
+	public void submit(@NonNull final CacheInvalidateRequest request)
+	{
+		getPartition(request).enqueue(request);
+	}
+
+	private Partition getPartition(final CacheInvalidateRequest request)
+	{
+		final int hash = 31 * String.valueOf(request.getRootTableName()).hashCode() + request.getRootRecordId();
+		return partitions.get(Math.floorMod(hash, partitions.size()));
+	}
+
+	/**
+	 * @return how many requests are waiting to be processed
+	 */
+	public int getQueueSize()
+	{
+		return partitions.stream().mapToInt(Partition::size).sum();
+	}
+
+	private static final class Partition
+	{
+		private final int capacity;
+		private final int batchSize;
+		private final Consumer<List<CacheInvalidateRequest>> batchProcessor;
+
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition notEmpty = lock.newCondition();
+		private final Condition notFull = lock.newCondition();
+		/** Pending requests (in arrival order) to the time (nanos) they were enqueued */
+		private final LinkedHashMap<CacheInvalidateRequest, Long> pendingRequests = new LinkedHashMap<>();
+
+		private Partition(final int capacity, final int batchSize, final Consumer<List<CacheInvalidateRequest>> batchProcessor)
+		{
+			this.capacity = capacity;
+			this.batchSize = batchSize;
+			this.batchProcessor = batchProcessor;
+		}
+
+		public int size()
+		{
+			lock.lock();
+			try
+			{
+				return pendingRequests.size();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		public void enqueue(final CacheInvalidateRequest request)
+		{
+			lock.lock();
+			try
+			{
+				if (pendingRequests.containsKey(request))
+				{
+					WebuiMetrics.incrementCacheInvalidationsCollapsed();
+					return;
+				}
+
+				while (pendingRequests.size() >= capacity && !workerThread.get())
+				{
+					notFull.awaitUninterruptibly();
+				}
+
+				pendingRequests.put(request, System.nanoTime());
+				notEmpty.signal();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		private List<CacheInvalidateRequest> takeBatch() throws InterruptedException
+		{
+			lock.lock();
+			try
+			{
+				while (pendingRequests.isEmpty())
+				{
+					notEmpty.await();
+				}
+
+				final long now = System.nanoTime();
+				final List<CacheInvalidateRequest> batch = new ArrayList<>(Math.min(batchSize, pendingRequests.size()));
+				for (final Iterator<Map.Entry<CacheInvalidateRequest, Long>> it = pendingRequests.entrySet().iterator(); it.hasNext() && batch.size() < batchSize;)
+				{
+					final Map.Entry<CacheInvalidateRequest, Long> entry = it.next();
+					batch.add(entry.getKey());
+					WebuiMetrics.recordCacheInvalidationLag(now - entry.getValue());
+					it.remove();
+				}
+
+				notFull.signalAll();
+				return batch;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		private void processLoop()
+		{
+			workerThread.set(Boolean.TRUE);
+			while (!Thread.currentThread().isInterrupted())
+			{
+				final List<CacheInvalidateRequest> batch;
+				try
+				{
+					batch = takeBatch();
+				}
+				catch (final InterruptedException ex)
+				{
+					Thread.currentThread().interrupt();
+					return;
+				}
+
+				try
+				{
+					batchProcessor.accept(batch);
+				}
+				catch (final Exception ex)
+				{
+					// NOTE: the batch processor is expected to handle the failures of individual requests, so this shall not happen
+					logger.warn("Failed processing {} cache invalidation requests. Ignored.", batch.size(), ex);
+				}
+			}
+		}
+	}
+}
@@ -126,6 +126,12 @@ public final class CachedLookupDataSourceFetcherAdapter implements LookupDataSou
 		return delegate.isNumericKey();
 	}
 
+	@Override
+	public boolean isFilteringOnDisplayNameOnly()
+	{
+		return delegate.isFilteringOnDisplayNameOnly();
+	}
+
 	@Override
 	public LookupDataSourceContext.Builder newContextForFetchingById(final Object id)
 	{
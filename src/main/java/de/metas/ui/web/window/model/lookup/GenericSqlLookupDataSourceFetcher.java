@@ -1,5 +1,9 @@
 package de.metas.ui.web.window.model.lookup;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -7,11 +11,20 @@ import java.util.Optional;
 
 import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
 import org.adempiere.ad.expression.api.IStringExpression;
+import org.adempiere.ad.persistence.EntityTypesCache;
 import org.adempiere.ad.service.impl.LookupDAO.SQLNamePairIterator;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.validationRule.INamePairPredicate;
+import org.adempiere.exceptions.DBException;
+import org.adempiere.util.Check;
+import org.compiere.model.MLookup;
+import org.compiere.model.MLookupFactory;
 import org.compiere.util.CCache.CCacheStats;
 import org.compiere.util.DB;
+import org.compiere.util.DisplayType;
+import org.compiere.util.KeyNamePair;
+import org.compiere.util.NamePair;
+import org.compiere.util.ValueNamePair;
 import org.slf4j.Logger;
 
 import com.google.common.base.MoreObjects;
@@ -72,6 +85,7 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 	private final INamePairPredicate postQueryPredicate;
 
 	private final boolean isTranslatable;
+	private final boolean filteringOnDisplayNameOnly;
 
 	private final Optional<WindowId> zoomIntoWindowId;
 
@@ -91,6 +105,7 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 		postQueryPredicate = sqlLookupDescriptor.getPostQueryPredicate();
 
 		isTranslatable = sqlForFetchingDisplayNameByIdExpression.requiresParameter(LookupDataSourceContext.PARAM_AD_Language.getName());
+		filteringOnDisplayNameOnly = sqlLookupDescriptor.isFilteringOnDisplayNameOnly();
 
 		zoomIntoWindowId = lookupDescriptor.getZoomIntoWindowId();
 	}
@@ -130,6 +145,12 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 	{
 		return false;
 	}
+
+	@Override
+	public boolean isFilteringOnDisplayNameOnly()
+	{
+		return filteringOnDisplayNameOnly;
+	}
 	
 	@Override
 	public void cacheInvalidate()
@@ -177,24 +198,89 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 		final String sqlForFetching = sqlForFetchingExpression.evaluate(evalCtx, OnVariableNotFound.Fail);
 		final String adLanguage = isTranslatable ? evalCtx.getAD_Language() : null;
 
-		try (final SQLNamePairIterator data = new SQLNamePairIterator(sqlForFetching, numericKey, entityTypeIndex))
+		Map<String, String> debugProperties = null;
+		if (WindowConstants.isProtocolDebugging())
+		{
+			debugProperties = new LinkedHashMap<>();
+			debugProperties.put("debug-sql", sqlForFetching);
+			debugProperties.put("debug-params", evalCtx.toString());
+		}
+
+		final LookupValuesList values = retrieveNamePairs(sqlForFetching)
+				.stream()
+				.filter(evalCtx::acceptItem)
+				.map(namePair -> LookupValue.fromNamePair(namePair, adLanguage))
+				.collect(LookupValuesList.collect(debugProperties));
+
+		logger.trace("Returning values={} (executed sql: {})", values, sqlForFetching);
+		return values;
+	}
+
+	/**
+	 * Loads the name pairs the same way as {@link SQLNamePairIterator} does,
+	 * but registers the statement to {@link TypeaheadExecutor}, so it can be cancelled when a newer typeahead query arrives.
+	 */
+	private List<NamePair> retrieveNamePairs(final String sql)
+	{
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_ThreadInherited);
+			TypeaheadExecutor.registerCancelableStatement(pstmt);
+			rs = pstmt.executeQuery();
+
+			final List<NamePair> namePairs = new ArrayList<>();
+			while (rs.next())
+			{
+				final NamePair namePair = loadNamePair(rs);
+				if (namePair != null)
+				{
+					namePairs.add(namePair);
+				}
+			}
+			return namePairs;
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	/**
+	 * @return name pair or <code>null</code> if the record shall not be displayed
+	 */
+	private NamePair loadNamePair(final ResultSet rs) throws SQLException
+	{
+		if (entityTypeIndex > 0)
 		{
-			Map<String, String> debugProperties = null;
-			if (WindowConstants.isProtocolDebugging())
+			final String entityType = rs.getString(entityTypeIndex);
+			if (!Check.isEmpty(entityType, true) && !EntityTypesCache.instance.isDisplayedInUI(entityType))
 			{
-				debugProperties = new LinkedHashMap<>();
-				debugProperties.put("debug-sql", sqlForFetching);
-				debugProperties.put("debug-params", evalCtx.toString());
+				return null;
 			}
+		}
 
-			final LookupValuesList values = data.fetchAll()
-					.stream()
-					.filter(evalCtx::acceptItem)
-					.map(namePair -> LookupValue.fromNamePair(namePair, adLanguage))
-					.collect(LookupValuesList.collect(debugProperties));
+		String name = rs.getString(MLookupFactory.COLUMNINDEX_DisplayName);
+		final boolean active = DisplayType.toBoolean(rs.getString(MLookupFactory.COLUMNINDEX_IsActive));
+		if (!active)
+		{
+			name = MLookup.INACTIVE_S + name + MLookup.INACTIVE_E;
+		}
 
-			logger.trace("Returning values={} (executed sql: {})", values, sqlForFetching);
-			return values;
+		if (numericKey)
+		{
+			final int key = rs.getInt(MLookupFactory.COLUMNINDEX_Key);
+			return new KeyNamePair(key, name);
+		}
+		else
+		{
+			final String value = rs.getString(MLookupFactory.COLUMNINDEX_Value);
+			return new ValueNamePair(value, name);
 		}
 	}
 
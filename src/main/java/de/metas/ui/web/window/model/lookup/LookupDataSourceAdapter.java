@@ -9,6 +9,7 @@ import org.compiere.util.Evaluatee;
 
 import com.google.common.base.MoreObjects;
 
+import de.metas.ui.web.metrics.WebuiMetrics;
 import de.metas.ui.web.window.datatypes.LookupValue;
 import de.metas.ui.web.window.datatypes.LookupValuesList;
 import de.metas.ui.web.window.datatypes.WindowId;
@@ -97,7 +98,9 @@ final class LookupDataSourceAdapter implements LookupDataSource
 				.requiresFilterAndLimit() // make sure the filter, limit and offset will be kept on build
 				.build();
 
-		final LookupValuesList lookupValuesList = fetcher.retrieveEntities(evalCtx);
+		final String lookupTableName = fetcher.getLookupTableName().orElse(null);
+		final LookupValuesList lookupValuesList = TypeaheadExecutor.instance.fetch(evalCtx, pageLength, fetcher.isFilteringOnDisplayNameOnly(),
+				evalCtxToUse -> WebuiMetrics.timeLookup(lookupTableName, () -> fetcher.retrieveEntities(evalCtxToUse)));
 		return lookupValuesList;
 	}
 
@@ -25,9 +25,12 @@ import org.compiere.util.Env;
 import org.compiere.util.Evaluatee;
 import org.compiere.util.Evaluatee2;
 import org.compiere.util.NamePair;
+import org.compiere.util.Util.ArrayKey;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 
 import de.metas.ui.web.window.descriptor.sql.SqlLookupDescriptor;
 import de.metas.ui.web.window.model.lookup.LookupValueFilterPredicates.LookupValueFilterPredicate;
@@ -85,6 +88,7 @@ public final class LookupDataSourceContext implements Evaluatee2, IValidationCon
 	public static final CtxName PARAM_FilterSql = CtxNames.parse("FilterSql");
 	public static final CtxName PARAM_Offset = CtxNames.ofNameAndDefaultValue("Offset", "0");
 	public static final CtxName PARAM_Limit = CtxNames.ofNameAndDefaultValue("Limit", "1000");
+	private static final ImmutableSet<String> FILTER_PARAMETER_NAMES = ImmutableSet.of(PARAM_Filter.getName(), PARAM_FilterSql.getName(), PARAM_Offset.getName(), PARAM_Limit.getName());
 
 	private final String lookupTableName;
 	private final ImmutableMap<String, Object> parameterValues;
@@ -144,6 +148,15 @@ public final class LookupDataSourceContext implements Evaluatee2, IValidationCon
 				&& Objects.equals(postQueryPredicate, other.postQueryPredicate);
 	}
 
+	/**
+	 * @return key which identifies this context, excluding the filter, offset and limit parameters
+	 */
+	public ArrayKey toKeyExcludingFilter()
+	{
+		final ImmutableMap<String, Object> parameterValuesExcludingFilter = ImmutableMap.copyOf(Maps.filterKeys(parameterValues, parameterName -> !FILTER_PARAMETER_NAMES.contains(parameterName)));
+		return ArrayKey.of(lookupTableName, parameterValuesExcludingFilter, idToFilter, postQueryPredicate);
+	}
+
 	public String getFilter()
 	{
 		return get_ValueAsString(PARAM_Filter.getName());
@@ -48,6 +48,15 @@ public interface LookupDataSourceFetcher
 
 	LookupValuesList retrieveEntities(LookupDataSourceContext evalCtx);
 
+	/**
+	 * @return true if {@link #retrieveEntities(LookupDataSourceContext)} matches the filter only against the display name (case and accent insensitive "contains"),
+	 *         so a previous result can be refined in memory for a longer filter (see {@link TypeaheadExecutor})
+	 */
+	default boolean isFilteringOnDisplayNameOnly()
+	{
+		return false;
+	}
+
 	//
 	// Caching
 	//@formatter:off
@@ -0,0 +1,411 @@
+package de.metas.ui.web.window.model.lookup;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.compiere.util.Util.ArrayKey;
+import org.slf4j.Logger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Executes typeahead lookups.
+ * <p>
+ * Typeahead requests are issued on each keystroke. So, for each "slot" (i.e. a given user session and lookup field), this executor:
+ * <ul>
+ * <li>cancels the currently running query when a new query arrives (the superseded request will get an empty result)
+ * <li>joins identical requests which are currently in flight, instead of running the same query twice
+ * <li>refines in memory the last result of a shorter prefix, if that result was complete (i.e. was below the page length)
+ * and the data source matches the filter only against the display name (see {@link LookupDataSourceFetcher#isFilteringOnDisplayNameOnly()})
+ * </ul>
+ * To enable it, the REST endpoints shall call {@link #executeInSlot(String, Supplier)}. Outside of a slot, lookups are fetched as usual.
+ * <p>
+ * JDBC statements can be registered via {@link #registerCancelableStatement(Statement)} in order to be cancelled on database side too.
+ */
+public final class TypeaheadExecutor
+{
+	public static final transient TypeaheadExecutor instance = new TypeaheadExecutor();
+
+	private static final Logger logger = LogManager.getLogger(TypeaheadExecutor.class);
+
+	/** How long the last result of a slot can be used for in memory refining */
+	private static final long LAST_RESULT_MAX_AGE_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+	private static final Pattern PATTERN_DiacriticalMarks = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+	private final ThreadLocal<String> currentSlotKey = new ThreadLocal<>();
+	private final ThreadLocal<RunningQuery> currentRunningQuery = new ThreadLocal<>();
+
+	private final Cache<String, Slot> slotsByKey = CacheBuilder.newBuilder()
+			.expireAfterAccess(10, TimeUnit.MINUTES)
+			.maximumSize(10000)
+			.build();
+	private final ConcurrentHashMap<ArrayKey, CompletableFuture<LookupValuesList>> inFlightQueries = new ConcurrentHashMap<>();
+
+	private TypeaheadExecutor()
+	{
+	}
+
+	/**
+	 * Calls given callable. All typeahead lookups which are done by the callable will be executed in the given slot.
+	 *
+	 * @param slotKey identifies the user session and the lookup field (e.g. session ID + document path + field name)
+	 */
+	public <T> T executeInSlot(@NonNull final String slotKey, @NonNull final Supplier<T> callable)
+	{
+		final String previousSlotKey = currentSlotKey.get();
+		currentSlotKey.set(slotKey);
+		try
+		{
+			return callable.get();
+		}
+		finally
+		{
+			if (previousSlotKey == null)
+			{
+				currentSlotKey.remove();
+			}
+			else
+			{
+				currentSlotKey.set(previousSlotKey);
+			}
+		}
+	}
+
+	/**
+	 * Registers the JDBC statement which is currently executed for the running typeahead query, so it can be cancelled when a newer query arrives.
+	 * If we are not running a typeahead query, this method does nothing.
+	 */
+	public static void registerCancelableStatement(final Statement statement)
+	{
+		final RunningQuery runningQuery = instance.currentRunningQuery.get();
+		if (runningQuery == null)
+		{
+			return;
+		}
+
+		runningQuery.setStatement(statement);
+	}
+
+	/* package */ LookupValuesList fetch(
+			@NonNull final LookupDataSourceContext evalCtx,
+			final int pageLength,
+			final boolean refinableInMemory,
+			@NonNull final Function<LookupDataSourceContext, LookupValuesList> fetcher)
+	{
+		final String slotKey = currentSlotKey.get();
+		if (slotKey == null || evalCtx.getOffset(0) > 0)
+		{
+			return fetcher.apply(evalCtx);
+		}
+
+		final Slot slot = getSlot(slotKey);
+
+		//
+		// Try refining the last complete result
+		final LookupValuesList refinedResult = refinableInMemory ? slot.refineLastResult(evalCtx, pageLength) : null;
+		if (refinedResult != null)
+		{
+			logger.trace("Refined last result in memory for {}: {}", slotKey, evalCtx);
+			return refinedResult;
+		}
+
+		//
+		// Join the identical query which is currently in flight, if any
+		final ArrayKey queryKey = ArrayKey.of(slotKey, evalCtx);
+		final CompletableFuture<LookupValuesList> future = new CompletableFuture<>();
+		final CompletableFuture<LookupValuesList> inFlightFuture = inFlightQueries.putIfAbsent(queryKey, future);
+		if (inFlightFuture != null)
+		{
+			logger.trace("Joining in flight query for {}: {}", slotKey, evalCtx);
+			return waitForResult(inFlightFuture);
+		}
+
+		//
+		// Cancel the previous query of this slot and run ours
+		final RunningQuery runningQuery = new RunningQuery(evalCtx);
+		slot.setRunningQuery(runningQuery);
+		currentRunningQuery.set(runningQuery);
+		try
+		{
+			LookupValuesList result = fetcher.apply(evalCtx);
+			if (runningQuery.isCancelled())
+			{
+				result = LookupValuesList.EMPTY;
+			}
+			else
+			{
+				slot.setLastResult(evalCtx, result, pageLength);
+			}
+
+			future.complete(result);
+			return result;
+		}
+		catch (final RuntimeException ex)
+		{
+			if (runningQuery.isCancelled())
+			{
+				logger.debug("Query was cancelled because a newer query arrived for {}: {}", slotKey, evalCtx, ex);
+				future.complete(LookupValuesList.EMPTY);
+				return LookupValuesList.EMPTY;
+			}
+
+			future.completeExceptionally(ex);
+			throw ex;
+		}
+		finally
+		{
+			currentRunningQuery.remove();
+			inFlightQueries.remove(queryKey, future);
+			slot.clearRunningQuery(runningQuery);
+		}
+	}
+
+	private Slot getSlot(final String slotKey)
+	{
+		try
+		{
+			return slotsByKey.get(slotKey, Slot::new);
+		}
+		catch (final Exception ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+	}
+
+	private static LookupValuesList waitForResult(final CompletableFuture<LookupValuesList> future)
+	{
+		try
+		{
+			return future.join();
+		}
+		catch (final CompletionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex.getCause() != null ? ex.getCause() : ex);
+		}
+	}
+
+	@ToString
+	private static final class Slot
+	{
+		private RunningQuery runningQuery;
+
+		private LookupDataSourceContext lastEvalCtx;
+		private LookupValuesList lastResult;
+		private long lastResultTimestamp;
+
+		public synchronized void setRunningQuery(@NonNull final RunningQuery runningQuery)
+		{
+			final RunningQuery previousRunningQuery = this.runningQuery;
+			this.runningQuery = runningQuery;
+
+			if (previousRunningQuery != null)
+			{
+				previousRunningQuery.cancel();
+			}
+		}
+
+		public synchronized void clearRunningQuery(@NonNull final RunningQuery runningQuery)
+		{
+			if (this.runningQuery == runningQuery)
+			{
+				this.runningQuery = null;
+			}
+		}
+
+		public synchronized void setLastResult(final LookupDataSourceContext evalCtx, final LookupValuesList result, final int pageLength)
+		{
+			if (isCompleteResult(result, pageLength))
+			{
+				lastEvalCtx = evalCtx;
+				lastResult = result;
+				lastResultTimestamp = System.currentTimeMillis();
+			}
+			else
+			{
+				lastEvalCtx = null;
+				lastResult = null;
+				lastResultTimestamp = 0;
+			}
+		}
+
+		/**
+		 * @return true if there are no more values in database than we have in the given result.
+		 */
+		private static boolean isCompleteResult(final LookupValuesList result, final int pageLength)
+		{
+			if (result.getValues().size() >= pageLength)
+			{
+				return false;
+			}
+
+			// Results flagged by the fetcher (e.g. ATP quantities still pending) shall be fetched again
+			if (!result.getDebugProperties().isEmpty())
+			{
+				return false;
+			}
+
+			// Values with attributes were exploded by the fetcher (e.g. product + ATP), so the page is not a simple filtered list.
+			return result.stream().allMatch(value -> value.getAttributes().isEmpty());
+		}
+
+		/**
+		 * @return refined last result or <code>null</code> if the last result cannot be used
+		 */
+		public synchronized LookupValuesList refineLastResult(final LookupDataSourceContext evalCtx, final int pageLength)
+		{
+			if (lastResult == null)
+			{
+				return null;
+			}
+			if (System.currentTimeMillis() - lastResultTimestamp > LAST_RESULT_MAX_AGE_MILLIS)
+			{
+				return null;
+			}
+			if (!lastEvalCtx.toKeyExcludingFilter().equals(evalCtx.toKeyExcludingFilter()))
+			{
+				return null;
+			}
+
+			final String lastFilter = normalizeFilter(lastEvalCtx.getFilter());
+			final String filter = normalizeFilter(evalCtx.getFilter());
+			if (lastFilter == null || filter == null || !filter.startsWith(lastFilter))
+			{
+				return null;
+			}
+
+			final String adLanguage = evalCtx.getAD_Language();
+			return lastResult.filter(value -> matchesDisplayName(value, filter, adLanguage), 0, pageLength);
+		}
+
+		/**
+		 * Matches like the SQL lookups do: case and accent insensitive "contains" on display name.
+		 */
+		private static boolean matchesDisplayName(final LookupValue value, final String filterNorm, final String adLanguage)
+		{
+			if (filterNorm.isEmpty())
+			{
+				return true;
+			}
+
+			final String displayName = adLanguage != null ? value.getDisplayName(adLanguage) : value.getDisplayName();
+			return displayName != null && normalizeString(displayName).contains(filterNorm);
+		}
+
+		/**
+		 * @return normalized filter or <code>null</code> if the filter cannot be refined in memory
+		 */
+		private static String normalizeFilter(final String filter)
+		{
+			if (filter == null || Objects.equals(filter, LookupDataSourceContext.FILTER_Any))
+			{
+				return "";
+			}
+
+			// SQL wildcards in the middle of the filter cannot be evaluated in memory
+			final String filterNorm = normalizeString(filter.trim());
+			if (filterNorm.indexOf('%') >= 0 || filterNorm.indexOf('_') >= 0)
+			{
+				return null;
+			}
+
+			return filterNorm;
+		}
+
+		private static String normalizeString(final String str)
+		{
+			final String strNoAccents = PATTERN_DiacriticalMarks.matcher(Normalizer.normalize(str, Normalizer.Form.NFD)).replaceAll("");
+			return strNoAccents.toLowerCase();
+		}
+	}
+
+	@ToString(of = { "evalCtx", "cancelled" })
+	private static final class RunningQuery
+	{
+		private final LookupDataSourceContext evalCtx;
+		private volatile boolean cancelled = false;
+		private volatile Statement statement;
+
+		public RunningQuery(@NonNull final LookupDataSourceContext evalCtx)
+		{
+			this.evalCtx = evalCtx;
+		}
+
+		public boolean isCancelled()
+		{
+			return cancelled;
+		}
+
+		public void setStatement(final Statement statement)
+		{
+			this.statement = statement;
+			if (cancelled)
+			{
+				cancelStatement(statement);
+			}
+		}
+
+		public void cancel()
+		{
+			cancelled = true;
+			cancelStatement(statement);
+		}
+
+		private void cancelStatement(final Statement statement)
+		{
+			if (statement == null)
+			{
+				return;
+			}
+
+			try
+			{
+				statement.cancel();
+				logger.trace("Cancelled statement of {}", this);
+			}
+			catch (final SQLException ex)
+			{
+				logger.debug("Failed cancelling statement of {}. Ignored.", this, ex);
+			}
+		}
+	}
+}
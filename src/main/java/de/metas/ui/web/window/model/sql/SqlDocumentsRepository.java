@@ -219,6 +219,7 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 					document = Document.builder(entityDescriptor)
 							.setParentDocument(parentDocument)
 							.setChangesCollector(changesCollector)
+							.setReadonlySnapshot(query.isReadonlySnapshots())
 							.initializeAsExistingRecord(documentValuesSupplier);
 				}
 				documentsCollector.addDocument(document);
@@ -950,6 +951,30 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		return version == null ? VERSION_DEFAULT : String.valueOf(version.getTime());
 	}
 
+	@Override
+	public String retrieveIncludedDocumentsVersion(final DocumentEntityDescriptor parentEntityDescriptor, final int parentDocumentIdAsInt, final DocumentEntityDescriptor includedEntityDescriptor)
+	{
+		final SqlDocumentEntityDataBindingDescriptor parentBinding = SqlDocumentEntityDataBindingDescriptor.cast(parentEntityDescriptor.getDataBinding());
+		final SqlDocumentEntityDataBindingDescriptor includedBinding = SqlDocumentEntityDataBindingDescriptor.cast(includedEntityDescriptor.getDataBinding());
+
+		final String linkColumnName = includedBinding.getLinkColumnName();
+		final String parentLinkColumnName = includedBinding.getParentLinkColumnName();
+		if (!includedBinding.isVersioningSupported() || linkColumnName == null || parentLinkColumnName == null)
+		{
+			throw new AdempiereException("Versioning is not supported for " + includedEntityDescriptor);
+		}
+
+		// NOTE: the count is there to also catch deleted rows, the max(Updated) catches created and changed ones
+		final String sql = "SELECT COUNT(1) || '-' || COALESCE(MAX(" + SqlDocumentEntityDataBindingDescriptor.FIELDNAME_Version + ")::text, '')"
+				+ " FROM " + includedBinding.getTableName()
+				+ " WHERE " + linkColumnName + " IN ("
+				+ " SELECT " + parentLinkColumnName + " FROM " + parentBinding.getTableName() + " WHERE " + parentBinding.getSqlWhereClauseById(parentDocumentIdAsInt)
+				+ ")";
+
+		final String version = DB.getSQLValueStringEx(ITrx.TRXNAME_ThreadInherited, sql);
+		return version == null ? VERSION_DEFAULT : version;
+	}
+
 	@Override
 	public int retrieveLastLineNo(final DocumentQuery query)
 	{
@@ -965,6 +990,21 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		return DB.getSQLValueEx(ITrx.TRXNAME_ThreadInherited, sql, sqlParams);
 	}
 
+	@Override
+	public int retrieveCount(final DocumentQuery query)
+	{
+		logger.debug("Retrieving records count: query={}", query);
+
+		final DocumentEntityDescriptor entityDescriptor = query.getEntityDescriptor();
+		assertThisRepository(entityDescriptor);
+
+		final List<Object> sqlParams = new ArrayList<>();
+		final SqlDocumentQueryBuilder sqlBuilder = SqlDocumentQueryBuilder.of(query);
+		final String sql = sqlBuilder.getSqlCount(sqlParams);
+
+		return DB.getSQLValueEx(ITrx.TRXNAME_ThreadInherited, sql, sqlParams);
+	}
+
 	private static final void saveLabels(final Document document, final IDocumentFieldView documentField)
 	{
 		final LabelsLookup lookup = LabelsLookup.cast(documentField.getDescriptor().getLookupDescriptor(LookupScope.DocumentField));
@@ -0,0 +1,66 @@
+package de.metas.ui.web.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ETagContentHasherTest
+{
+	@Test
+	public void sameContent_sameETag()
+	{
+		final Map<String, Object> json1 = new LinkedHashMap<>();
+		json1.put("id", 1);
+		json1.put("values", ImmutableList.of("a", "b"));
+
+		final Map<String, Object> json2 = new LinkedHashMap<>();
+		json2.put("id", 1);
+		json2.put("values", ImmutableList.of("a", "b"));
+
+		assertThat(ETagContentHasher.computeETag(json1)).isEqualTo(ETagContentHasher.computeETag(json2));
+	}
+
+	@Test
+	public void differentContent_differentETag()
+	{
+		final ETag etag1 = ETagContentHasher.computeETag(ImmutableMap.of("id", 1));
+		final ETag etag2 = ETagContentHasher.computeETag(ImmutableMap.of("id", 2));
+		assertThat(etag1).isNotEqualTo(etag2);
+	}
+
+	@Test
+	public void etagStringIsStable()
+	{
+		final ETag etag = ETagContentHasher.computeETag(ImmutableMap.of("id", 1));
+		assertThat(etag.toETagString()).startsWith("v=h");
+		assertThat(etag.toETagString()).isEqualTo(ETagContentHasher.computeETag(ImmutableMap.of("id", 1)).toETagString());
+	}
+}
@@ -0,0 +1,74 @@
+package de.metas.ui.web.debug;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.metas.ui.web.debug.SqlQueriesStatsRepository.RepeatedSql;
+import de.metas.ui.web.debug.SqlQueriesTracker.RequestSqlQueriesStats;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlQueriesTrackerTest
+{
+	@After
+	public void cleanup()
+	{
+		SqlQueriesTracker.stop();
+	}
+
+	@Test
+	public void test_toSqlShape()
+	{
+		Assert.assertEquals(
+				"SELECT Name FROM C_BPartner WHERE C_BPartner_ID=? AND Value=? AND M_Product_ID IN (?...)",
+				SqlQueriesTracker.toSqlShape("SELECT Name FROM C_BPartner\n WHERE C_BPartner_ID=123 AND Value='it''s' AND M_Product_ID IN (1, 2,3)"));
+	}
+
+	@Test
+	public void test_notTrackedOutsideOfRequest()
+	{
+		SqlQueriesTracker.collect("SELECT 1", 1000);
+		Assert.assertNull(SqlQueriesTracker.getCurrentStatsOrNull());
+	}
+
+	@Test
+	public void test_repeatedSqls()
+	{
+		final RequestSqlQueriesStats stats = SqlQueriesTracker.start();
+		for (int id = 1; id <= 5; id++)
+		{
+			SqlQueriesTracker.collect("SELECT Name FROM M_Product WHERE M_Product_ID=" + id, 1000);
+		}
+		SqlQueriesTracker.collect("SELECT COUNT(1) FROM M_Product", 1000);
+
+		Assert.assertEquals(6, stats.getQueriesCount());
+
+		final List<RepeatedSql> repeatedSqls = stats.getRepeatedSqls(5);
+		Assert.assertEquals(1, repeatedSqls.size());
+		Assert.assertEquals("SELECT Name FROM M_Product WHERE M_Product_ID=?", repeatedSqls.get(0).getSql());
+		Assert.assertEquals(5, repeatedSqls.get(0).getCount());
+	}
+}
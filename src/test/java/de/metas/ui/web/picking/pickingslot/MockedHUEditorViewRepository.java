@@ -1,5 +1,6 @@
 package de.metas.ui.web.picking.pickingslot;
 
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
@@ -60,6 +61,18 @@ public class MockedHUEditorViewRepository implements HUEditorViewRepository
 		// nothing
 	}
 
+	@Override
+	public void invalidateCache(final Collection<Integer> huIds)
+	{
+		// nothing
+	}
+
+	@Override
+	public void schedulePreloadAttributes(final Collection<HUEditorRow> rows)
+	{
+		// nothing
+	}
+
 	@Override
 	public List<HUEditorRow> retrieveHUEditorRows(final Set<Integer> huIds, final HUEditorRowFilter filter)
 	{
@@ -0,0 +1,155 @@
+package de.metas.ui.web.session;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.session.ExpiringSession;
+import org.springframework.session.events.SessionExpiredEvent;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class FixedMapSessionRepositoryTest
+{
+	private RecordingEventPublisher eventPublisher;
+
+	@Before
+	public void init()
+	{
+		eventPublisher = new RecordingEventPublisher();
+	}
+
+	private ExpiringSession createAndSaveSession(final FixedMapSessionRepository sessionRepository)
+	{
+		final ExpiringSession session = sessionRepository.createSession();
+		sessionRepository.save(session);
+		return session;
+	}
+
+	@Test
+	public void test_idleSessionIsEvictedWhenFull()
+	{
+		final FixedMapSessionRepository sessionRepository = FixedMapSessionRepository.builder()
+				.applicationEventPublisher(eventPublisher)
+				.maxSessions(2)
+				.maxIdleTimeWhenFull(Duration.ofMinutes(30))
+				.build();
+
+		final ExpiringSession activeSession = createAndSaveSession(sessionRepository);
+		final ExpiringSession idleSession = sessionRepository.createSession();
+		idleSession.setLastAccessedTime(System.currentTimeMillis() - Duration.ofMinutes(31).toMillis());
+		sessionRepository.save(idleSession);
+
+		createAndSaveSession(sessionRepository);
+
+		Assert.assertEquals(2, sessionRepository.getSessionsCount());
+		Assert.assertNotNull(sessionRepository.getSession(activeSession.getId()));
+		Assert.assertNull(sessionRepository.getSession(idleSession.getId()));
+		Assert.assertEquals(1, eventPublisher.countEvents(SessionExpiredEvent.class));
+	}
+
+	@Test(expected = AdempiereException.class)
+	public void test_activeSessionsAreNotEvictedWhenFull()
+	{
+		final FixedMapSessionRepository sessionRepository = FixedMapSessionRepository.builder()
+				.applicationEventPublisher(eventPublisher)
+				.maxSessions(2)
+				.build();
+
+		createAndSaveSession(sessionRepository);
+		createAndSaveSession(sessionRepository);
+
+		sessionRepository.createSession();
+	}
+
+	@Test
+	public void test_purgeExpiredSessions()
+	{
+		final FixedMapSessionRepository sessionRepository = FixedMapSessionRepository.builder()
+				.applicationEventPublisher(eventPublisher)
+				.build();
+
+		final ExpiringSession expiredSession = sessionRepository.createSession();
+		expiredSession.setMaxInactiveIntervalInSeconds(1);
+		expiredSession.setLastAccessedTime(System.currentTimeMillis() - 10_000);
+		sessionRepository.save(expiredSession);
+
+		final ExpiringSession activeSession = createAndSaveSession(sessionRepository);
+
+		sessionRepository.purgeExpiredSessions();
+
+		Assert.assertEquals(1, sessionRepository.getSessionsCount());
+		Assert.assertNotNull(sessionRepository.getSession(activeSession.getId()));
+		Assert.assertEquals(1, eventPublisher.countEvents(SessionExpiredEvent.class));
+	}
+
+	@Test
+	public void test_sessionStoreIsSharedBetweenRepositories()
+	{
+		final SessionStore sharedStore = InMemorySessionStore.builder().build();
+
+		final FixedMapSessionRepository sessionRepository1 = FixedMapSessionRepository.builder()
+				.applicationEventPublisher(eventPublisher)
+				.sessionStore(sharedStore)
+				.build();
+		final ExpiringSession session = sessionRepository1.createSession();
+		session.setAttribute("attr", "value");
+		sessionRepository1.save(session);
+
+		final FixedMapSessionRepository sessionRepository2 = FixedMapSessionRepository.builder()
+				.applicationEventPublisher(eventPublisher)
+				.sessionStore(sharedStore)
+				.build();
+		final ExpiringSession sessionFromRepository2 = sessionRepository2.getSession(session.getId());
+		Assert.assertNotNull(sessionFromRepository2);
+		Assert.assertEquals("value", sessionFromRepository2.getAttribute("attr"));
+	}
+
+	private static class RecordingEventPublisher implements ApplicationEventPublisher
+	{
+		private final List<Object> events = new ArrayList<>();
+
+		@Override
+		public void publishEvent(final ApplicationEvent event)
+		{
+			events.add(event);
+		}
+
+		@Override
+		public void publishEvent(final Object event)
+		{
+			events.add(event);
+		}
+
+		public long countEvents(final Class<?> eventType)
+		{
+			return events.stream().filter(eventType::isInstance).count();
+		}
+	}
+}
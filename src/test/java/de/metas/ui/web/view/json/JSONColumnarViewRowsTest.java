@@ -0,0 +1,126 @@
+package de.metas.ui.web.view.json;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.ViewRow;
+import de.metas.ui.web.view.ViewRow.DefaultRowType;
+import de.metas.ui.web.view.ViewRowOverridesHelper;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class JSONColumnarViewRowsTest
+{
+	private static final WindowId WINDOW_ID = WindowId.of(123);
+	private static final String AD_LANGUAGE = "en_US";
+
+	private final ObjectMapper jsonObjectMapper = new ObjectMapper();
+
+	private static List<IViewRow> createRows(final int count)
+	{
+		return IntStream.rangeClosed(1, count)
+				.mapToObj(id -> ViewRow.builder(WINDOW_ID)
+						.setRowId(DocumentId.of(id))
+						.setType(DefaultRowType.Row)
+						.putFieldValue("Value", "value" + id)
+						.putFieldValue("Name", "some product name " + id)
+						.putFieldValue("QtyOnHand", new BigDecimal("12.30").add(BigDecimal.valueOf(id)))
+						.putFieldValue("C_BPartner_ID", JSONLookupValue.of(5, "partner"))
+						.build())
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	@Test
+	public void test_valuesAreInColumnsOrder() throws Exception
+	{
+		final List<IViewRow> rows = createRows(2);
+
+		final JsonNode json = jsonObjectMapper.valueToTree(JSONColumnarViewRows.of(rows, ViewRowOverridesHelper.NULL, AD_LANGUAGE));
+
+		final JsonNode columns = json.get("columns");
+		Assert.assertEquals(4, columns.size());
+		Assert.assertEquals("Name", columns.get(1).asText());
+
+		final JsonNode row2 = json.get("rows").get(1);
+		Assert.assertEquals("2", row2.get("id").asText());
+		Assert.assertEquals("some product name 2", row2.get("values").get(1).asText());
+	}
+
+	@Test
+	public void test_payloadSizes() throws Exception
+	{
+		final List<IViewRow> rows = createRows(100);
+		final Object jsonRows = JSONStreamingViewRow.ofViewRows(rows, ViewRowOverridesHelper.NULL, AD_LANGUAGE);
+		final Object columnarRows = JSONColumnarViewRows.of(rows, ViewRowOverridesHelper.NULL, AD_LANGUAGE);
+
+		final ObjectMapper smileObjectMapper = new ObjectMapper(new SmileFactory());
+
+		final int rowsJsonSize = jsonObjectMapper.writeValueAsBytes(jsonRows).length;
+		final int columnarJsonSize = jsonObjectMapper.writeValueAsBytes(columnarRows).length;
+		final int rowsSmileSize = smileObjectMapper.writeValueAsBytes(jsonRows).length;
+
+		Assert.assertTrue("columnar shall be smaller than rows", columnarJsonSize < rowsJsonSize);
+		Assert.assertTrue("Smile shall be smaller than JSON", rowsSmileSize < rowsJsonSize);
+	}
+
+	@Test
+	public void test_smileAndCborRoundTrip() throws Exception
+	{
+		final Object columnarRows = JSONColumnarViewRows.of(createRows(10), ViewRowOverridesHelper.NULL, AD_LANGUAGE);
+		final JsonNode expected = jsonObjectMapper.valueToTree(columnarRows);
+
+		final ObjectMapper smileObjectMapper = new ObjectMapper(new SmileFactory());
+		assertSameColumnsAndRows(expected, smileObjectMapper.readTree(smileObjectMapper.writeValueAsBytes(columnarRows)));
+
+		final ObjectMapper cborObjectMapper = new ObjectMapper(new CBORFactory());
+		assertSameColumnsAndRows(expected, cborObjectMapper.readTree(cborObjectMapper.writeValueAsBytes(columnarRows)));
+	}
+
+	private static void assertSameColumnsAndRows(final JsonNode expected, final JsonNode actual)
+	{
+		Assert.assertEquals(expected.get("columns"), actual.get("columns"));
+
+		final JsonNode expectedRows = expected.get("rows");
+		final JsonNode actualRows = actual.get("rows");
+		Assert.assertEquals(expectedRows.size(), actualRows.size());
+		for (int i = 0; i < expectedRows.size(); i++)
+		{
+			Assert.assertEquals(expectedRows.get(i).get("id"), actualRows.get(i).get("id"));
+			Assert.assertEquals(expectedRows.get(i).get("values").get(1), actualRows.get(i).get("values").get(1)); // Name
+		}
+	}
+}
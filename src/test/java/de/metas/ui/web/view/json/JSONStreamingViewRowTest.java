@@ -0,0 +1,106 @@
+package de.metas.ui.web.view.json;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.ViewRow;
+import de.metas.ui.web.view.ViewRow.DefaultRowType;
+import de.metas.ui.web.view.ViewRowOverridesHelper;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class JSONStreamingViewRowTest
+{
+	private static final WindowId WINDOW_ID = WindowId.of(123);
+	private static final String AD_LANGUAGE = "en_US";
+
+	private ObjectMapper jsonObjectMapper;
+
+	@Before
+	public void init()
+	{
+		jsonObjectMapper = new ObjectMapper();
+	}
+
+	private void assertSameJSONAsClassicRows(final List<IViewRow> rows) throws Exception
+	{
+		final String jsonExpected = jsonObjectMapper.writeValueAsString(JSONViewRow.ofViewRows(rows, ViewRowOverridesHelper.NULL, AD_LANGUAGE));
+		final String jsonActual = jsonObjectMapper.writeValueAsString(JSONStreamingViewRow.ofViewRows(rows, ViewRowOverridesHelper.NULL, AD_LANGUAGE));
+		Assert.assertEquals(jsonExpected, jsonActual);
+	}
+
+	@Test
+	public void test_simpleRow() throws Exception
+	{
+		final IViewRow row = ViewRow.builder(WINDOW_ID)
+				.setRowId(DocumentId.of(1))
+				.setType(DefaultRowType.Row)
+				.putFieldValue("Name", "some name")
+				.putFieldValue("Qty", new BigDecimal("12.30"))
+				.putFieldValue("C_BPartner_ID", JSONLookupValue.of(5, "partner"))
+				.build();
+
+		assertSameJSONAsClassicRows(ImmutableList.of(row));
+	}
+
+	@Test
+	public void test_processedRowWithIncludedRows() throws Exception
+	{
+		final IViewRow row = ViewRow.builder(WINDOW_ID)
+				.setRowId(DocumentId.of(1))
+				.setType(DefaultRowType.Line)
+				.setProcessed(true)
+				.putFieldValue("Name", "parent")
+				.addIncludedRow(ViewRow.builder(WINDOW_ID)
+						.setRowId(DocumentId.of(2))
+						.setType(DefaultRowType.Line)
+						.putFieldValue("Name", "child")
+						.build())
+				.build();
+
+		assertSameJSONAsClassicRows(ImmutableList.of(row));
+	}
+
+	@Test
+	public void test_rowWithOwnIDField() throws Exception
+	{
+		final IViewRow row = ViewRow.builder(WINDOW_ID)
+				.setRowId(DocumentId.of(1))
+				.putFieldValue("Name", "some name")
+				.putFieldValue("ID", 1)
+				.build();
+
+		assertSameJSONAsClassicRows(ImmutableList.of(row));
+	}
+}